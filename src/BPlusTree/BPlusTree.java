@@ -2,48 +2,64 @@ package BPlusTree;
 
 import Predicate.Predicate;
 
-import java.io.Serial;
-import java.io.Serializable;
 import java.util.ArrayDeque;
 import java.util.Queue;
 import java.util.Vector;
 
-public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
-    @Serial
-    private static final long serialVersionUID = 1L;
-
-    private InnerNode<K> root;
-    private LeafNode<K, V> firstLeaf;
+/**
+ * A B+Tree whose nodes refer to each other by id and are got from a
+ * {@link NodeStore}, which may keep them in memory or in pages of a file.
+ * Changes are made between {@link NodeStore#beginUpdate()} and
+ * {@link NodeStore#endUpdate()} so that the changed nodes stay in memory
+ * while the tree holds them.
+ */
+public class BPlusTree<K extends Comparable<K>, V> {
+    private final NodeStore<K, V> store;
     private final int order;
 
     private static final int DEFAULT_ORDER = 16;
 
-    private BPlusTree(int order) {
+    public BPlusTree(NodeStore<K, V> store, int order) {
         if (order < 3) {
             throw new IllegalArgumentException("B+ tree order must be at least 3.");
         }
 
+        this.store = store;
         this.order = order;
-        this.root = null;
     }
 
     public BPlusTree() {
-        this(DEFAULT_ORDER);
+        this(new MemoryNodeStore<>(), DEFAULT_ORDER);
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Writes the nodes changed since the last flush through the store.
+     */
+    public void flush() {
+        store.flush();
+    }
+
+    public void close() {
+        store.close();
     }
 
     public boolean isEmpty() {
-        return this.firstLeaf == null;
+        return store.getFirstLeafId() == NodeStore.NO_NODE;
     }
 
     public Vector<ValueList<K, V>> getAllValueLists() {
         Vector<ValueList<K, V>> valueLists = new Vector<>();
-        LeafNode<K, V> leaf = this.firstLeaf;
+        LeafNode<K, V> leaf = leafOf(store.getFirstLeafId());
 
         while (leaf != null) {
             for (int i = 0; i < leaf.getNumberOfLists(); i++) {
                 valueLists.add(leaf.getLists()[i]);
             }
-            leaf = (LeafNode<K, V>) leaf.getRightSibling();
+            leaf = leafOf(leaf.getRightSiblingId());
         }
 
         return valueLists;
@@ -53,21 +69,28 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
     public void insert(Object obj, V val) {
         K key = (K) obj;
 
-        if (isEmpty()) {
-            this.firstLeaf = new LeafNode<>(this.order);
-            this.firstLeaf.insert(key, val);
-            return;
-        }
+        store.beginUpdate();
+        try {
+            if (isEmpty()) {
+                LeafNode<K, V> firstLeaf = new LeafNode<>(this.order);
+                store.addNode(firstLeaf);
+                firstLeaf.insert(key, val);
+                store.setFirstLeafId(firstLeaf.getId());
+                return;
+            }
+
+            LeafNode<K, V> leaf = findLeafForKey(key);
+            if (!leaf.isFull() || leaf.exists(key) != null) {
+                leaf.insert(key, val);
+                refreshAncestorSeparators(leaf);
+                return;
+            }
 
-        LeafNode<K, V> leaf = findLeafForKey(key);
-        if (!leaf.isFull() || leaf.exists(key) != null) {
             leaf.insert(key, val);
-            refreshAncestorSeparators(leaf);
-            return;
+            splitLeaf(leaf);
+        } finally {
+            store.endUpdate();
         }
-
-        leaf.insert(key, val);
-        splitLeaf(leaf);
     }
 
     private void splitLeaf(LeafNode<K, V> leaf) {
@@ -75,7 +98,8 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
         int rightListCount = leaf.getNumberOfLists() - splitIndex;
         ValueList<K, V>[] rightLists = leaf.splitLists(splitIndex);
 
-        LeafNode<K, V> rightLeaf = new LeafNode<>(this.order, leaf.getParent());
+        LeafNode<K, V> rightLeaf = new LeafNode<>(this.order, leaf.getParentId());
+        store.addNode(rightLeaf);
         rightLeaf.setLists(rightLists, rightListCount);
         linkSiblings(leaf, rightLeaf);
 
@@ -87,11 +111,13 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
         K promotedKey = node.getKeys()[promotedKeyIndex];
 
         K[] rightKeys = node.splitKeys(promotedKeyIndex);
-        Node<K>[] rightPointers = node.splitPointers(promotedKeyIndex);
+        int[] rightPointers = node.splitPointers(promotedKeyIndex);
         InnerNode<K> rightNode = new InnerNode<>(this.order, rightKeys, rightPointers);
+        rightNode.setParentId(node.getParentId());
+        store.addNode(rightNode);
 
         for (int i = 0; i < rightNode.getDegree(); i++) {
-            rightNode.getChildren()[i].setParent(rightNode);
+            store.getNode(rightNode.getChildren()[i]).setParentId(rightNode.getId());
         }
 
         linkSiblings(node, rightNode);
@@ -100,9 +126,10 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
 
     @SuppressWarnings("unchecked")
     private void insertIntoParent(Node<K> leftChild, K separatorKey, Node<K> rightChild) {
-        InnerNode<K> parent = leftChild.getParent();
-        if (parent != null) {
-            parent.insertChildAfter(leftChild, separatorKey, rightChild);
+        if (leftChild.getParentId() != NodeStore.NO_NODE) {
+            InnerNode<K> parent = innerNodeOf(leftChild.getParentId());
+            parent.insertChildAfter(leftChild.getId(), separatorKey, rightChild.getId());
+            rightChild.setParentId(parent.getId());
             if (parent.isOverFull()) {
                 splitInternalNode(parent);
             }
@@ -111,27 +138,30 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
 
         K[] rootKeys = (K[]) new Comparable[this.order];
         InnerNode<K> newRoot = new InnerNode<>(this.order, rootKeys);
+        store.addNode(newRoot);
         newRoot.insertKeyAt(0, separatorKey);
-        newRoot.appendPointer(leftChild);
-        newRoot.appendPointer(rightChild);
-        this.root = newRoot;
+        newRoot.appendPointer(leftChild.getId());
+        newRoot.appendPointer(rightChild.getId());
+        leftChild.setParentId(newRoot.getId());
+        rightChild.setParentId(newRoot.getId());
+        store.setRootId(newRoot.getId());
     }
 
     private void linkSiblings(Node<K> leftNode, Node<K> rightNode) {
-        rightNode.setRightSibling(leftNode.getRightSibling());
-        if (leftNode.getRightSibling() != null) {
-            leftNode.getRightSibling().setLeftSibling(rightNode);
+        rightNode.setRightSiblingId(leftNode.getRightSiblingId());
+        if (leftNode.getRightSiblingId() != NodeStore.NO_NODE) {
+            store.getNode(leftNode.getRightSiblingId()).setLeftSiblingId(rightNode.getId());
         }
 
-        leftNode.setRightSibling(rightNode);
-        rightNode.setLeftSibling(leftNode);
+        leftNode.setRightSiblingId(rightNode.getId());
+        rightNode.setLeftSiblingId(leftNode.getId());
     }
 
     private void refreshAncestorSeparators(Node<K> node) {
         Node<K> current = node;
-        while (current != null && current.getParent() != null) {
-            InnerNode<K> parent = current.getParent();
-            int childIdx = parent.indexOfPointer(current);
+        while (current != null && current.getParentId() != NodeStore.NO_NODE) {
+            InnerNode<K> parent = innerNodeOf(current.getParentId());
+            int childIdx = parent.indexOfPointer(current.getId());
             if (childIdx < 0) {
                 return;
             }
@@ -150,7 +180,7 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
     private K firstKey(Node<K> node) {
         Node<K> current = node;
         while (current instanceof InnerNode) {
-            current = ((InnerNode<K>) current).getChildren()[0];
+            current = store.getNode(((InnerNode<K>) current).getChildren()[0]);
         }
 
         LeafNode<K, V> leaf = (LeafNode<K, V>) current;
@@ -166,7 +196,7 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
         Node<K> current = node;
         while (current instanceof InnerNode) {
             InnerNode<K> innerNode = (InnerNode<K>) current;
-            current = innerNode.getChildren()[childIndex(innerNode, key)];
+            current = store.getNode(innerNode.getChildren()[childIndex(innerNode, key)]);
         }
 
         return (LeafNode<K, V>) current;
@@ -189,14 +219,14 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
     }
 
     private LeafNode<K, V> findLeafForKey(K key) {
-        if (this.firstLeaf == null) {
+        if (isEmpty()) {
             return null;
         }
-        if (this.root == null) {
-            return this.firstLeaf;
+        if (store.getRootId() == NodeStore.NO_NODE) {
+            return leafOf(store.getFirstLeafId());
         }
 
-        return findLeafNode(this.root, key);
+        return findLeafNode(store.getNode(store.getRootId()), key);
     }
 
     public ValueList<K, V> find(K key) {
@@ -217,6 +247,88 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
         };
     }
 
+    /**
+     * Collects the value lists whose key satisfies a predicate, in key order,
+     * stopping early once enough values are collected. Callers needing more
+     * continue from the last collected key.
+     *
+     * @param afterKey  Only keys greater than this one are collected, or null
+     *                  to start from the smallest key.
+     * @param maxValues The number of values after which no further list is collected.
+     */
+    @SuppressWarnings("unchecked")
+    public Vector<ValueList<K, V>> findWithPredicate(Predicate predicate, K afterKey, int maxValues) {
+        K key = (K) predicate.getValue();
+        boolean isPastKey = afterKey != null && afterKey.compareTo(key) >= 0;
+        return switch (predicate.getOperation()) {
+            case EQUALS -> isPastKey ? new Vector<>() : collectRange(key, true, key, true, null, maxValues);
+            case LESS_THAN -> collectRange(afterKey, false, key, false, null, maxValues);
+            case LESS_THAN_EQUAL -> collectRange(afterKey, false, key, true, null, maxValues);
+            case GREATER_THAN -> collectRange(isPastKey ? afterKey : key, false, null, false, null, maxValues);
+            case GREATER_THAN_EQUAL -> isPastKey ? collectRange(afterKey, false, null, false, null, maxValues) :
+                    collectRange(key, true, null, false, null, maxValues);
+            case NOT_EQUALS -> collectRange(afterKey, false, null, false, key, maxValues);
+        };
+    }
+
+    /**
+     * Collects the value lists in key order, or in reverse key order by
+     * walking the leaves through their left siblings, stopping early once
+     * enough values are collected.
+     *
+     * @param fromKey   Only keys after this one in the walk's order are
+     *                  collected, or null to start from the first key.
+     * @param maxValues The number of values after which no further list is collected.
+     */
+    @SuppressWarnings("unchecked")
+    public Vector<ValueList<K, V>> findInOrder(K fromKey, boolean isDescending, int maxValues) {
+        if (!isDescending) {
+            return collectRange(fromKey, false, null, false, null, maxValues);
+        }
+
+        Vector<ValueList<K, V>> result = new Vector<>();
+        LeafNode<K, V> lf;
+        int startIdx;
+        if (fromKey == null) {
+            lf = lastLeaf();
+            startIdx = lf == null ? -1 : lf.getNumberOfLists() - 1;
+        } else {
+            lf = findLeafForKey(fromKey);
+            startIdx = lf == null ? -1 : lf.firstGreaterOrEqualIndex(fromKey) - 1;
+        }
+
+        int numberOfValues = 0;
+        while (lf != null) {
+            for (int i = startIdx; i >= 0; i--) {
+                if (numberOfValues >= maxValues) {
+                    return result;
+                }
+
+                ValueList<K, V> valueList = lf.getLists()[i];
+                result.add(valueList);
+                numberOfValues += valueList.size();
+            }
+            lf = leafOf(lf.getLeftSiblingId());
+            startIdx = lf == null ? -1 : lf.getNumberOfLists() - 1;
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private LeafNode<K, V> lastLeaf() {
+        if (store.getRootId() == NodeStore.NO_NODE) {
+            return leafOf(store.getFirstLeafId());
+        }
+
+        Node<K> current = store.getNode(store.getRootId());
+        while (current instanceof InnerNode) {
+            InnerNode<K> innerNode = (InnerNode<K>) current;
+            current = store.getNode(innerNode.getChildren()[innerNode.getDegree() - 1]);
+        }
+        return (LeafNode<K, V>) current;
+    }
+
     private Vector<V> findEquals(K key) {
         Vector<V> result = new Vector<>();
         ValueList<K, V> valueList = find(key);
@@ -227,70 +339,79 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
     }
 
     private Vector<V> findNotEquals(K key) {
-        LeafNode<K, V> lf = this.firstLeaf;
-        Vector<V> result = new Vector<>();
-
-        while (lf != null) {
-            for (int i = 0; i < lf.getNumberOfLists(); i++) {
-                ValueList<K, V> valueList = lf.getLists()[i];
-                if (valueList.getKey().compareTo(key) == 0)
-                    continue;
-                result.addAll(valueList);
-            }
-            lf = (LeafNode<K, V>) lf.getRightSibling();
-        }
-
-        return result;
+        return valuesOf(collectRange(null, false, null, false, key, Integer.MAX_VALUE));
     }
 
     public Vector<V> findLessThan(K key) {
-        return collectLessThan(key, false);
+        return valuesOf(collectRange(null, false, key, false, null, Integer.MAX_VALUE));
     }
 
     public Vector<V> findGreaterThan(K key) {
-        return collectGreaterThan(key, false);
+        return valuesOf(collectRange(key, false, null, false, null, Integer.MAX_VALUE));
     }
 
     public Vector<V> findGreaterEquals(K key) {
-        return collectGreaterThan(key, true);
+        return valuesOf(collectRange(key, true, null, false, null, Integer.MAX_VALUE));
     }
 
     public Vector<V> findLessEquals(K key) {
-        return collectLessThan(key, true);
+        return valuesOf(collectRange(null, false, key, true, null, Integer.MAX_VALUE));
     }
 
-    private Vector<V> collectLessThan(K key, boolean includeEquals) {
-        LeafNode<K, V> lf = firstLeaf;
+    private Vector<V> valuesOf(Vector<ValueList<K, V>> valueLists) {
         Vector<V> result = new Vector<>();
-
-        while (lf != null) {
-            for (int i = 0; i < lf.getNumberOfLists(); i++) {
-                ValueList<K, V> valueList = lf.getLists()[i];
-                int comparison = valueList.getKey().compareTo(key);
-                if (comparison > 0 || (!includeEquals && comparison == 0)) {
-                    return result;
-                }
-                result.addAll(valueList);
-            }
-            lf = (LeafNode<K, V>) lf.getRightSibling();
+        for (ValueList<K, V> valueList : valueLists) {
+            result.addAll(valueList);
         }
-
         return result;
     }
 
-    private Vector<V> collectGreaterThan(K key, boolean includeEquals) {
-        Vector<V> result = new Vector<>();
-        LeafNode<K, V> lf = findLeafForKey(key);
-        if (lf == null) {
-            return result;
+    /**
+     * Walks the leaves from the lower bound, collecting whole value lists in
+     * key order until a key passes the upper bound or at least maxValues
+     * values are collected.
+     *
+     * @param lowerKey    The lower bound, or null to start from the first leaf.
+     * @param upperKey    The upper bound, or null to walk to the last leaf.
+     * @param excludedKey A key whose list is skipped, or null.
+     */
+    private Vector<ValueList<K, V>> collectRange(K lowerKey, boolean includeLower, K upperKey, boolean includeUpper,
+                                                 K excludedKey, int maxValues) {
+        Vector<ValueList<K, V>> result = new Vector<>();
+        LeafNode<K, V> lf;
+        int startIdx;
+        if (lowerKey == null) {
+            lf = leafOf(store.getFirstLeafId());
+            startIdx = 0;
+        } else {
+            lf = findLeafForKey(lowerKey);
+            if (lf == null) {
+                return result;
+            }
+            startIdx = includeLower ? lf.firstGreaterOrEqualIndex(lowerKey) : lf.firstGreaterThanIndex(lowerKey);
         }
 
-        int startIdx = includeEquals ? lf.firstGreaterOrEqualIndex(key) : lf.firstGreaterThanIndex(key);
+        int numberOfValues = 0;
         while (lf != null) {
             for (int i = startIdx; i < lf.getNumberOfLists(); i++) {
-                result.addAll(lf.getLists()[i]);
+                ValueList<K, V> valueList = lf.getLists()[i];
+                if (upperKey != null) {
+                    int comparison = valueList.getKey().compareTo(upperKey);
+                    if (comparison > 0 || (!includeUpper && comparison == 0)) {
+                        return result;
+                    }
+                }
+                if (excludedKey != null && valueList.getKey().compareTo(excludedKey) == 0) {
+                    continue;
+                }
+                if (numberOfValues >= maxValues) {
+                    return result;
+                }
+
+                result.add(valueList);
+                numberOfValues += valueList.size();
             }
-            lf = (LeafNode<K, V>) lf.getRightSibling();
+            lf = leafOf(lf.getRightSiblingId());
             startIdx = 0;
         }
         return result;
@@ -298,13 +419,13 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
 
     @SuppressWarnings("unused")
     public void printDataInOrder() {
-        printLeafInOrder(this.firstLeaf);
+        printLeafInOrder(leafOf(store.getFirstLeafId()));
     }
 
     @SuppressWarnings("unused")
     private void printBFS() {
         Queue<Node<K>> q = new ArrayDeque<>();
-        q.add(this.root);
+        q.add(store.getNode(store.getRootId()));
 
         while (!q.isEmpty()) {
             var curr = q.peek();
@@ -314,7 +435,7 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
                     System.out.print(curr.getKeys()[i] + ", ");
                 System.out.print("]\n");
                 for (int i = 0; i < ((InnerNode<K>) curr).getDegree(); i++) {
-                    q.add(curr.getChildren()[i]);
+                    q.add(store.getNode(((InnerNode<K>) curr).getChildren()[i]));
                 }
             } else {
                 System.out.print("{");
@@ -329,11 +450,11 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
 
     @SuppressWarnings("unused")
     public void printTreeInOrder() {
-        if (this.root == null) {
+        if (store.getRootId() == NodeStore.NO_NODE) {
             printDataInOrder();
             return;
         }
-        var curr = (Node<K>) this.root;
+        var curr = store.getNode(store.getRootId());
         while (true) {
             if (curr instanceof InnerNode) {
                 var nxt = curr;
@@ -342,10 +463,11 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
                     for (int i = 0; i < nxt.getNumberOfKeys(); i++)
                         System.out.print(nxt.getKeys()[i] + ", ");
                     System.out.print("]");
-                    nxt = nxt.getRightSibling();
+                    nxt = nxt.getRightSiblingId() == NodeStore.NO_NODE ? null :
+                            store.getNode(nxt.getRightSiblingId());
                 }
                 System.out.println();
-                curr = curr.getChildren()[0];
+                curr = store.getNode(((InnerNode<K>) curr).getChildren()[0]);
             } else if (curr instanceof LeafNode) {
                 printDataInOrder();
                 break;
@@ -366,11 +488,20 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
                     System.out.print(", ");
             }
             System.out.print("} ");
-            lf = (LeafNode<K, V>) lf.getRightSibling();
+            lf = leafOf(lf.getRightSiblingId());
         }
     }
 
     public boolean delete(K key) {
+        store.beginUpdate();
+        try {
+            return deleteKey(key);
+        } finally {
+            store.endUpdate();
+        }
+    }
+
+    private boolean deleteKey(K key) {
         if (this.isEmpty()) {
             return false;
         }
@@ -380,9 +511,10 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
             return false;
         }
 
-        if (this.root == null) {
+        if (store.getRootId() == NodeStore.NO_NODE) {
             if (leaf.getNumberOfLists() == 0) {
-                this.firstLeaf = null;
+                store.setFirstLeafId(NodeStore.NO_NODE);
+                store.removeNode(leaf.getId());
             }
             return true;
         }
@@ -396,11 +528,38 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
         return true;
     }
 
+    /**
+     * Removes a single value from the list stored under a key. The key itself
+     * is only removed from the tree once its last value is gone.
+     *
+     * @param obj The key the value is stored under.
+     * @param val The value to remove.
+     * @return Whether the value was found and removed.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean delete(Object obj, V val) {
+        K key = (K) obj;
+        store.beginUpdate();
+        try {
+            ValueList<K, V> valueList = find(key);
+            if (valueList == null || !valueList.remove(val)) {
+                return false;
+            }
+
+            if (valueList.isEmpty()) {
+                deleteKey(key);
+            }
+            return true;
+        } finally {
+            store.endUpdate();
+        }
+    }
+
     private void rebalanceLeaf(LeafNode<K, V> leaf) {
-        InnerNode<K> parent = leaf.getParent();
-        int leafIdx = parent.indexOfPointer(leaf);
-        LeafNode<K, V> leftSibling = leafIdx > 0 ? leftLeafOf(parent.getChildren()[leafIdx - 1]) : null;
-        LeafNode<K, V> rightSibling = leafIdx < parent.getDegree() - 1 ? leftLeafOf(parent.getChildren()[leafIdx + 1]) : null;
+        InnerNode<K> parent = innerNodeOf(leaf.getParentId());
+        int leafIdx = parent.indexOfPointer(leaf.getId());
+        LeafNode<K, V> leftSibling = leafIdx > 0 ? leafOf(parent.getChildren()[leafIdx - 1]) : null;
+        LeafNode<K, V> rightSibling = leafIdx < parent.getDegree() - 1 ? leafOf(parent.getChildren()[leafIdx + 1]) : null;
 
         if (leftSibling != null && leftSibling.canGiveToSibling()) {
             ValueList<K, V> borrowedList = leftSibling.getLists()[leftSibling.getNumberOfLists() - 1];
@@ -423,6 +582,7 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
         if (leftSibling != null) {
             leftSibling.merge(leaf);
             unlinkNode(leaf);
+            store.removeNode(leaf.getId());
             parent.removeKey(leafIdx - 1);
             parent.removePointer(leafIdx);
             refreshAncestorSeparators(leftSibling);
@@ -433,6 +593,7 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
         if (rightSibling != null) {
             leaf.merge(rightSibling);
             unlinkNode(rightSibling);
+            store.removeNode(rightSibling.getId());
             parent.removeKey(leafIdx);
             parent.removePointer(leafIdx + 1);
             refreshAncestorSeparators(leaf);
@@ -445,7 +606,7 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
             return;
         }
 
-        if (node == this.root) {
+        if (node.getId() == store.getRootId()) {
             collapseRootIfNeeded();
             return;
         }
@@ -455,8 +616,8 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
             return;
         }
 
-        InnerNode<K> parent = node.getParent();
-        int nodeIdx = parent.indexOfPointer(node);
+        InnerNode<K> parent = innerNodeOf(node.getParentId());
+        int nodeIdx = parent.indexOfPointer(node.getId());
         InnerNode<K> leftSibling = nodeIdx > 0 ? innerNodeOf(parent.getChildren()[nodeIdx - 1]) : null;
         InnerNode<K> rightSibling = nodeIdx < parent.getDegree() - 1 ? innerNodeOf(parent.getChildren()[nodeIdx + 1]) : null;
 
@@ -486,7 +647,7 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
             InnerNode<K> parent,
             int nodeIdx
     ) {
-        Node<K> borrowedPointer = leftSibling.getChildren()[leftSibling.getDegree() - 1];
+        int borrowedPointer = leftSibling.getChildren()[leftSibling.getDegree() - 1];
         K replacementSeparator = leftSibling.getKeys()[leftSibling.getNumberOfKeys() - 1];
         K parentSeparator = parent.getKeys()[nodeIdx - 1];
 
@@ -494,6 +655,7 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
         leftSibling.removeKey(leftSibling.getNumberOfKeys() - 1);
         node.insertKeyAt(0, parentSeparator);
         node.insertAt(borrowedPointer, 0);
+        store.getNode(borrowedPointer).setParentId(node.getId());
         parent.setKey(nodeIdx - 1, replacementSeparator);
         refreshAncestorSeparators(node);
     }
@@ -504,7 +666,7 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
             InnerNode<K> parent,
             int nodeIdx
     ) {
-        Node<K> borrowedPointer = rightSibling.getChildren()[0];
+        int borrowedPointer = rightSibling.getChildren()[0];
         K replacementSeparator = rightSibling.getKeys()[0];
         K parentSeparator = parent.getKeys()[nodeIdx];
 
@@ -512,6 +674,7 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
         rightSibling.removeKey(0);
         node.insertKeyAt(node.getNumberOfKeys(), parentSeparator);
         node.appendPointer(borrowedPointer);
+        store.getNode(borrowedPointer).setParentId(node.getId());
         parent.setKey(nodeIdx, replacementSeparator);
         refreshAncestorSeparators(rightSibling);
     }
@@ -524,7 +687,9 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
     ) {
         leftSibling.insertKeyAt(leftSibling.getNumberOfKeys(), parent.getKeys()[nodeIdx - 1]);
         leftSibling.merge(node);
+        adoptChildren(leftSibling, node);
         unlinkNode(node);
+        store.removeNode(node.getId());
         parent.removeKey(nodeIdx - 1);
         parent.removePointer(nodeIdx);
         refreshAncestorSeparators(leftSibling);
@@ -539,7 +704,9 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
     ) {
         node.insertKeyAt(node.getNumberOfKeys(), parent.getKeys()[nodeIdx]);
         node.merge(rightSibling);
+        adoptChildren(node, rightSibling);
         unlinkNode(rightSibling);
+        store.removeNode(rightSibling.getId());
         parent.removeKey(nodeIdx);
         parent.removePointer(nodeIdx + 1);
         refreshAncestorSeparators(node);
@@ -547,63 +714,70 @@ public class BPlusTree<K extends Comparable<K>, V> implements Serializable {
     }
 
     private void collapseRootIfNeeded() {
-        if (this.root == null || this.root.getNumberOfKeys() > 0) {
+        if (store.getRootId() == NodeStore.NO_NODE) {
+            return;
+        }
+
+        InnerNode<K> root = innerNodeOf(store.getRootId());
+        if (root.getNumberOfKeys() > 0) {
             return;
         }
 
-        Node<K> onlyChild = this.root.getDegree() > 0 ? this.root.getChildren()[0] : null;
+        store.removeNode(root.getId());
+        Node<K> onlyChild = root.getDegree() > 0 ? store.getNode(root.getChildren()[0]) : null;
         if (onlyChild instanceof InnerNode) {
-            this.root = innerNodeOf(onlyChild);
-            this.root.setParent(null);
-            this.root.setLeftSibling(null);
-            this.root.setRightSibling(null);
+            onlyChild.setParentId(NodeStore.NO_NODE);
+            onlyChild.setLeftSiblingId(NodeStore.NO_NODE);
+            onlyChild.setRightSiblingId(NodeStore.NO_NODE);
+            store.setRootId(onlyChild.getId());
             return;
         }
 
         if (onlyChild instanceof LeafNode) {
-            LeafNode<K, V> leaf = leftLeafOf(onlyChild);
-            leaf.setParent(null);
-            leaf.setLeftSibling(null);
-            leaf.setRightSibling(null);
-            this.firstLeaf = leaf;
-            this.root = null;
+            onlyChild.setParentId(NodeStore.NO_NODE);
+            onlyChild.setLeftSiblingId(NodeStore.NO_NODE);
+            onlyChild.setRightSiblingId(NodeStore.NO_NODE);
+            store.setFirstLeafId(onlyChild.getId());
+            store.setRootId(NodeStore.NO_NODE);
             return;
         }
 
-        this.firstLeaf = null;
-        this.root = null;
+        store.setFirstLeafId(NodeStore.NO_NODE);
+        store.setRootId(NodeStore.NO_NODE);
+    }
+
+    /* Points the children an inner node took over from a merged sibling at it. */
+    private void adoptChildren(InnerNode<K> node, InnerNode<K> mergedSibling) {
+        for (int i = 0; i < mergedSibling.getDegree(); i++) {
+            store.getNode(mergedSibling.getChildren()[i]).setParentId(node.getId());
+        }
     }
 
     private void unlinkNode(Node<K> node) {
-        Node<K> leftSibling = node.getLeftSibling();
-        Node<K> rightSibling = node.getRightSibling();
+        int leftSiblingId = node.getLeftSiblingId();
+        int rightSiblingId = node.getRightSiblingId();
 
-        if (leftSibling != null) {
-            leftSibling.setRightSibling(rightSibling);
-        } else if (node == this.firstLeaf) {
-            this.firstLeaf = rightLeafOf(rightSibling);
+        if (leftSiblingId != NodeStore.NO_NODE) {
+            store.getNode(leftSiblingId).setRightSiblingId(rightSiblingId);
+        } else if (node.getId() == store.getFirstLeafId()) {
+            store.setFirstLeafId(rightSiblingId);
         }
 
-        if (rightSibling != null) {
-            rightSibling.setLeftSibling(leftSibling);
+        if (rightSiblingId != NodeStore.NO_NODE) {
+            store.getNode(rightSiblingId).setLeftSiblingId(leftSiblingId);
         }
 
-        node.setLeftSibling(null);
-        node.setRightSibling(null);
-    }
-
-    @SuppressWarnings("unchecked")
-    private InnerNode<K> innerNodeOf(Node<K> node) {
-        return (InnerNode<K>) node;
+        node.setLeftSiblingId(NodeStore.NO_NODE);
+        node.setRightSiblingId(NodeStore.NO_NODE);
     }
 
     @SuppressWarnings("unchecked")
-    private LeafNode<K, V> leftLeafOf(Node<K> node) {
-        return (LeafNode<K, V>) node;
+    private InnerNode<K> innerNodeOf(int id) {
+        return (InnerNode<K>) store.getNode(id);
     }
 
     @SuppressWarnings("unchecked")
-    private LeafNode<K, V> rightLeafOf(Node<K> node) {
-        return (LeafNode<K, V>) node;
+    private LeafNode<K, V> leafOf(int id) {
+        return id == NodeStore.NO_NODE ? null : (LeafNode<K, V>) store.getNode(id);
     }
 }
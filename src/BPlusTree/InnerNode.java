@@ -6,18 +6,18 @@ public class InnerNode<K extends Comparable<K>> extends Node<K> {
     private final int minDegree;
     private int degree;
 
-    private Node<K>[] children;
+    private int[] children;
 
     @SuppressWarnings("unchecked")
     public InnerNode(int order, K[] keys) {
         super(order, keys != null ? keys : (K[]) new Comparable[order]);
         this.minDegree = (int) Math.ceil(this.order / 2.0);
-        this.children = new Node[this.order + 1];
+        this.children = new int[this.order + 1];
         this.degree = 0;
         this.validateNumOfKeys();
     }
 
-    public InnerNode(int order, K[] keys, Node<K>[] ptrs) {
+    public InnerNode(int order, K[] keys, int[] ptrs) {
         this(order, keys);
         this.children = ptrs;
         this.validateDegree();
@@ -33,23 +33,25 @@ public class InnerNode<K extends Comparable<K>> extends Node<K> {
         return this.keys;
     }
 
-    @Override
-    public Node<K>[] getChildren() {
+    /**
+     * @return The ids of the children, of which the first {@link #getDegree()} are used.
+     */
+    public int[] getChildren() {
         return children;
     }
 
-    public void appendPointer(Node<K> node) {
-        insertAt(node, this.degree);
+    public void appendPointer(int childId) {
+        insertAt(childId, this.degree);
     }
 
-    public void insertChildAfter(Node<K> leftChild, K separatorKey, Node<K> rightChild) {
-        int childIdx = indexOfPointer(leftChild);
+    public void insertChildAfter(int leftChildId, K separatorKey, int rightChildId) {
+        int childIdx = indexOfPointer(leftChildId);
         if (childIdx < 0) {
             throw new IllegalArgumentException("Left child is not attached to this parent.");
         }
 
         insertKeyAt(childIdx, separatorKey);
-        insertAt(rightChild, childIdx + 1);
+        insertAt(rightChildId, childIdx + 1);
     }
 
     public void removePointer(int idx) {
@@ -62,7 +64,7 @@ public class InnerNode<K extends Comparable<K>> extends Node<K> {
             System.arraycopy(this.children, idx + 1, this.children, idx, movedPointers);
         }
 
-        this.children[this.degree - 1] = null;
+        this.children[this.degree - 1] = NodeStore.NO_NODE;
         this.degree--;
     }
 
@@ -74,9 +76,9 @@ public class InnerNode<K extends Comparable<K>> extends Node<K> {
         return degree;
     }
 
-    public int indexOfPointer(Node<K> nd) {
+    public int indexOfPointer(int childId) {
         for (int i = 0; i < degree; i++) {
-            if (nd == children[i]) {
+            if (childId == children[i]) {
                 return i;
             }
         }
@@ -84,7 +86,10 @@ public class InnerNode<K extends Comparable<K>> extends Node<K> {
         return -1;
     }
 
-    public void insertAt(Node<K> newNode, int idx) {
+    /**
+     * Inserts the id of a child. The child's parent id is left to the caller.
+     */
+    public void insertAt(int childId, int idx) {
         if (idx < 0 || idx > this.degree) {
             throw new IndexOutOfBoundsException("Invalid pointer index: " + idx);
         }
@@ -97,26 +102,22 @@ public class InnerNode<K extends Comparable<K>> extends Node<K> {
             System.arraycopy(children, idx, children, idx + 1, movedPointers);
         }
 
-        this.children[idx] = newNode;
+        this.children[idx] = childId;
         this.degree++;
-        if (newNode != null) {
-            newNode.setParent(this);
-        }
     }
 
     public boolean isOverFull() {
         return this.degree > this.order;
     }
 
-    @SuppressWarnings("unchecked")
-    public Node<K>[] splitPointers(int midPoint) {
-        Node<K>[] retArr = new Node[this.order + 1];
+    public int[] splitPointers(int midPoint) {
+        int[] retArr = new int[this.order + 1];
         int rightPointerStart = midPoint + 1;
         int rightPointerCount = this.degree - rightPointerStart;
 
         if (rightPointerCount > 0) {
             System.arraycopy(this.children, rightPointerStart, retArr, 0, rightPointerCount);
-            Arrays.fill(this.children, rightPointerStart, this.degree, null);
+            Arrays.fill(this.children, rightPointerStart, this.degree, NodeStore.NO_NODE);
         }
 
         this.degree = rightPointerStart;
@@ -125,7 +126,7 @@ public class InnerNode<K extends Comparable<K>> extends Node<K> {
 
     public void validateDegree() {
         this.degree = 0;
-        while (this.degree < this.children.length && this.children[this.degree] != null) {
+        while (this.degree < this.children.length && this.children[this.degree] != NodeStore.NO_NODE) {
             this.degree++;
         }
     }
@@ -16,9 +16,9 @@ public class LeafNode<K extends Comparable<K>, V> extends Node<K> {
         this.valueLists = new ValueList[this.order];
     }
 
-    public LeafNode(int order, InnerNode<K> parent) {
+    public LeafNode(int order, int parentId) {
         this(order);
-        this.parent = parent;
+        this.parentId = parentId;
     }
 
     public boolean isFull() {
@@ -113,11 +113,6 @@ public class LeafNode<K extends Comparable<K>, V> extends Node<K> {
         return null;
     }
 
-    @Override
-    public Node<K>[] getChildren() {
-        return null;
-    }
-
     @Override
     public boolean canBeMerged() {
         return this.numberOfLists == this.minLists;
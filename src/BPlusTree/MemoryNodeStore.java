@@ -0,0 +1,69 @@
+package BPlusTree;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps every node of a tree in memory, indexed by id.
+ */
+public class MemoryNodeStore<K extends Comparable<K>, V> implements NodeStore<K, V> {
+    private final ArrayList<Node<K>> nodes = new ArrayList<>();
+    private int rootId = NO_NODE;
+    private int firstLeafId = NO_NODE;
+
+    public MemoryNodeStore() {
+        nodes.add(null);
+    }
+
+    @Override
+    public Node<K> getNode(int id) {
+        return nodes.get(id);
+    }
+
+    @Override
+    public int addNode(Node<K> node) {
+        node.setId(nodes.size());
+        nodes.add(node);
+        return node.getId();
+    }
+
+    @Override
+    public void removeNode(int id) {
+        nodes.set(id, null);
+    }
+
+    @Override
+    public int getRootId() {
+        return rootId;
+    }
+
+    @Override
+    public void setRootId(int rootId) {
+        this.rootId = rootId;
+    }
+
+    @Override
+    public int getFirstLeafId() {
+        return firstLeafId;
+    }
+
+    @Override
+    public void setFirstLeafId(int firstLeafId) {
+        this.firstLeafId = firstLeafId;
+    }
+
+    @Override
+    public void beginUpdate() {
+    }
+
+    @Override
+    public void endUpdate() {
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -4,11 +4,12 @@ import java.io.Serializable;
 import java.util.Arrays;
 
 public abstract class Node<K extends Comparable<K>> implements Serializable {
-    protected InnerNode<K> parent;
+    protected int id = NodeStore.NO_NODE;
+    protected int parentId = NodeStore.NO_NODE;
     protected int order;
     protected K[] keys;
     protected int numberOfKeys;
-    protected Node<K> leftSibling, rightSibling;
+    protected int leftSiblingId = NodeStore.NO_NODE, rightSiblingId = NodeStore.NO_NODE;
 
     public Node(int order, K[] keys) {
         this.order = order;
@@ -22,22 +23,28 @@ public abstract class Node<K extends Comparable<K>> implements Serializable {
         return this.numberOfKeys;
     }
 
-    public abstract Node<K>[] getChildren();
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
 
-    public Node<K> getLeftSibling() {
-        return leftSibling;
+    public int getLeftSiblingId() {
+        return leftSiblingId;
     }
 
-    public void setLeftSibling(Node<K> leftSibling) {
-        this.leftSibling = leftSibling;
+    public void setLeftSiblingId(int leftSiblingId) {
+        this.leftSiblingId = leftSiblingId;
     }
 
-    public Node<K> getRightSibling() {
-        return rightSibling;
+    public int getRightSiblingId() {
+        return rightSiblingId;
     }
 
-    public void setRightSibling(Node<K> rightSibling) {
-        this.rightSibling = rightSibling;
+    public void setRightSiblingId(int rightSiblingId) {
+        this.rightSiblingId = rightSiblingId;
     }
 
 
@@ -49,12 +56,12 @@ public abstract class Node<K extends Comparable<K>> implements Serializable {
 
     public abstract boolean isUnderFull();
 
-    public InnerNode<K> getParent() {
-        return parent;
+    public int getParentId() {
+        return parentId;
     }
 
-    public void setParent(InnerNode<K> par) {
-        this.parent = par;
+    public void setParentId(int parentId) {
+        this.parentId = parentId;
     }
 
     protected int findKeyIndex(K key) {
@@ -0,0 +1,45 @@
+package BPlusTree;
+
+/**
+ * Holds the nodes of a {@link BPlusTree}, which refer to each other by id
+ * rather than by reference, so that a store may keep only some of them in
+ * memory and read the others back when they are needed.
+ * <p>
+ * Nodes changed by an update are handed out between {@link #beginUpdate()}
+ * and {@link #endUpdate()}, and must stay in memory until it ends, which
+ * marks them as changed.
+ */
+public interface NodeStore<K extends Comparable<K>, V> {
+    /* The id referring to no node, which no node is given. */
+    int NO_NODE = 0;
+
+    Node<K> getNode(int id);
+
+    /**
+     * Gives a new node its id.
+     *
+     * @return The id of the node.
+     */
+    int addNode(Node<K> node);
+
+    void removeNode(int id);
+
+    int getRootId();
+
+    void setRootId(int rootId);
+
+    int getFirstLeafId();
+
+    void setFirstLeafId(int firstLeafId);
+
+    void beginUpdate();
+
+    void endUpdate();
+
+    /**
+     * Writes the changed nodes back to wherever the store keeps them.
+     */
+    void flush();
+
+    void close();
+}
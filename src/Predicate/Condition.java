@@ -0,0 +1,28 @@
+package Predicate;
+
+import RheaDB.RowRecord;
+import RheaDB.ZoneMap;
+
+import java.util.Vector;
+
+/**
+ * A boolean condition over the rows of a table, compiled from a WHERE
+ * clause. Conditions are evaluated directly against rows once their
+ * predicates are bound to the attributes of the table.
+ */
+public interface Condition {
+
+    boolean isSatisfiedBy(RowRecord rowRecord);
+
+    /**
+     * @return Whether a page with the given summary may hold a row
+     * satisfying the condition. False only when none of its rows can.
+     */
+    boolean mayBeSatisfiedIn(ZoneMap.PageZone zone);
+
+    /**
+     * Adds the comparisons of this condition to a vector, in the order in
+     * which they appear in the statement.
+     */
+    void collectPredicates(Vector<Predicate> predicates);
+}
@@ -0,0 +1,57 @@
+package Predicate;
+
+import RheaDB.RowRecord;
+import RheaDB.ZoneMap;
+
+import java.util.Vector;
+
+public class LogicalCondition implements Condition {
+    public enum Operator {
+        AND,
+        OR,
+    }
+
+    private final Operator operator;
+    private final Condition lhs;
+    private final Condition rhs;
+
+    public LogicalCondition(Operator operator, Condition lhs, Condition rhs) {
+        this.operator = operator;
+        this.lhs = lhs;
+        this.rhs = rhs;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public Condition getLhs() {
+        return lhs;
+    }
+
+    public Condition getRhs() {
+        return rhs;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(RowRecord rowRecord) {
+        return switch (operator) {
+            case AND -> lhs.isSatisfiedBy(rowRecord) && rhs.isSatisfiedBy(rowRecord);
+            case OR -> lhs.isSatisfiedBy(rowRecord) || rhs.isSatisfiedBy(rowRecord);
+        };
+    }
+
+    @Override
+    public boolean mayBeSatisfiedIn(ZoneMap.PageZone zone) {
+        return switch (operator) {
+            case AND -> lhs.mayBeSatisfiedIn(zone) && rhs.mayBeSatisfiedIn(zone);
+            case OR -> lhs.mayBeSatisfiedIn(zone) || rhs.mayBeSatisfiedIn(zone);
+        };
+    }
+
+    @Override
+    public void collectPredicates(Vector<Predicate> predicates) {
+        lhs.collectPredicates(predicates);
+        rhs.collectPredicates(predicates);
+    }
+}
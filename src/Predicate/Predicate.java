@@ -1,13 +1,19 @@
 package Predicate;
 
+import QueryParser.Parameter;
 import QueryParser.PredicateParser.ASTNode;
 import QueryParser.TokenKind;
 import RheaDB.Attribute;
 import RheaDB.AttributeType;
 import RheaDB.PredicateEvaluator;
+import RheaDB.RowRecord;
+import RheaDB.ZoneMap;
 
-public class Predicate extends ASTNode {
+import java.util.Vector;
+
+public class Predicate extends ASTNode implements Condition {
     protected Attribute attribute;
+    protected int ordinal = -1;
     protected final String attributeName;
     protected final Object value;
     protected final Operation operation;
@@ -18,35 +24,45 @@ public class Predicate extends ASTNode {
             boolean test(Object value, Object comp) {
                 return value.equals(comp);
             }
+
+            @Override
+            boolean matches(int comparison) {
+                return comparison == 0;
+            }
         },
         NOT_EQUALS {
             @Override
             boolean test(Object value, Object comp) {
                 return !value.equals(comp);
             }
+
+            @Override
+            boolean matches(int comparison) {
+                return comparison != 0;
+            }
         },
         LESS_THAN {
             @Override
-            boolean test(AttributeType type, Object value, Object comp) {
-                return compare(type, value, comp) > 0;
+            boolean matches(int comparison) {
+                return comparison > 0;
             }
         },
         GREATER_THAN {
             @Override
-            boolean test(AttributeType type, Object value, Object comp) {
-                return compare(type, value, comp) < 0;
+            boolean matches(int comparison) {
+                return comparison < 0;
             }
         },
         GREATER_THAN_EQUAL {
             @Override
-            boolean test(AttributeType type, Object value, Object comp) {
-                return compare(type, value, comp) <= 0;
+            boolean matches(int comparison) {
+                return comparison <= 0;
             }
         },
         LESS_THAN_EQUAL {
             @Override
-            boolean test(AttributeType type, Object value, Object comp) {
-                return compare(type, value, comp) >= 0;
+            boolean matches(int comparison) {
+                return comparison >= 0;
             }
         };
 
@@ -55,9 +71,14 @@ public class Predicate extends ASTNode {
         }
 
         boolean test(AttributeType type, Object value, Object comp) {
-            return test(value, comp);
+            return matches(compare(type, value, comp));
         }
 
+        /**
+         * @param comparison The compared value compared to the value of the row.
+         */
+        abstract boolean matches(int comparison);
+
         static Operation fromTokenKind(TokenKind operatorKind) {
             return switch (operatorKind) {
                 case EqualsToken -> EQUALS;
@@ -94,24 +115,105 @@ public class Predicate extends ASTNode {
         this.attribute = attribute;
     }
 
+    /**
+     * Binds the predicate to an attribute and to the position of that
+     * attribute in the rows it is evaluated against.
+     */
+    public void setAttribute(Attribute attribute, int ordinal) {
+        this.attribute = attribute;
+        this.ordinal = ordinal;
+    }
+
+    public int getOrdinal() {
+        return ordinal;
+    }
+
     public String getAttributeName() {
         return this.attributeName;
     }
 
+    /**
+     * @return The compared value, or the value currently bound to it if it
+     * is a parameter.
+     */
     public Object getValue() {
-        return value;
+        return Parameter.resolve(value);
     }
 
     public boolean doesSatisfy(PredicateEvaluator.IdentifierValue identifierValue) {
-        return operation.test(identifierValue.type, this.value, identifierValue.value);
+        return operation.test(identifierValue.type, getValue(), identifierValue.value);
     }
 
     public boolean doesSatisfy(Object comp) {
-        return operation.test(this.attribute.getType(), this.value, comp);
+        return operation.test(this.attribute.getType(), getValue(), comp);
     }
 
     public Operation getOperation() {
         return operation;
     }
+
+    /**
+     * Numeric values are compared straight from the slots of the row,
+     * without boxing them. A null value satisfies no comparison.
+     */
+    @Override
+    public boolean isSatisfiedBy(RowRecord rowRecord) {
+        if (ordinal < 0) {
+            Object rowValue = rowRecord.getValueOf(attribute);
+            return rowValue != null && doesSatisfy(rowValue);
+        }
+        if (rowRecord.isNull(ordinal)) {
+            return false;
+        }
+
+        Object value = getValue();
+        return switch (attribute.getType()) {
+            case INT -> value instanceof Integer intValue ?
+                    operation.matches(Integer.compare(intValue, rowRecord.getInt(ordinal))) :
+                    doesSatisfy(rowRecord.getValue(ordinal));
+            case FLOAT -> value instanceof Float floatValue ?
+                    operation.matches(Float.compare(floatValue, rowRecord.getFloat(ordinal))) :
+                    doesSatisfy(rowRecord.getValue(ordinal));
+            case STRING -> doesSatisfy(rowRecord.getString(ordinal));
+        };
+    }
+
+    /**
+     * Compares the value against the smallest and largest value of the
+     * attribute in the page. A page holding only nulls never matches.
+     */
+    @Override
+    public boolean mayBeSatisfiedIn(ZoneMap.PageZone zone) {
+        if (ordinal < 0) {
+            return true;
+        }
+
+        Object min = zone.getMin(ordinal);
+        Object max = zone.getMax(ordinal);
+        if (min == null) {
+            return false;
+        }
+
+        Object value = getValue();
+        if (value == null || value.getClass() != min.getClass()) {
+            return true;
+        }
+
+        int comparedToMin = Operation.compare(attribute.getType(), value, min);
+        int comparedToMax = Operation.compare(attribute.getType(), value, max);
+        return switch (operation) {
+            case EQUALS -> comparedToMin >= 0 && comparedToMax <= 0;
+            case NOT_EQUALS -> comparedToMin != 0 || comparedToMax != 0;
+            case LESS_THAN -> comparedToMin > 0;
+            case LESS_THAN_EQUAL -> comparedToMin >= 0;
+            case GREATER_THAN -> comparedToMax < 0;
+            case GREATER_THAN_EQUAL -> comparedToMax <= 0;
+        };
+    }
+
+    @Override
+    public void collectPredicates(Vector<Predicate> predicates) {
+        predicates.add(this);
+    }
 }
 
@@ -0,0 +1,78 @@
+package Predicate;
+
+import QueryParser.PredicateParser.*;
+import QueryParser.TokenKind;
+import RheaDB.DBError;
+
+/**
+ * Compiles the syntax tree of a WHERE clause into a {@link Condition}.
+ * Comparisons become predicates, with the operator mirrored when the
+ * literal is written first, and logical operators become
+ * {@link LogicalCondition}s.
+ */
+public class PredicateCompiler {
+
+    private PredicateCompiler() {
+    }
+
+    public static Condition compile(PredicateAST predicateAST) throws DBError {
+        return compile(predicateAST.root());
+    }
+
+    private static Condition compile(ASTNode node) throws DBError {
+        if (node instanceof ParenthesizedExpression parenthesizedExpression) {
+            return compile(parenthesizedExpression.getExpression());
+        }
+
+        if (!(node instanceof BinaryLogicalExpression binaryExpression)) {
+            throw new DBError("Expected a comparison between an attribute and a literal.");
+        }
+
+        TokenKind operatorKind = binaryExpression.getOperatorToken().getKind();
+        switch (operatorKind) {
+            case AmpersandAmpersandToken:
+                return new LogicalCondition(LogicalCondition.Operator.AND,
+                        compile(binaryExpression.getLhs()), compile(binaryExpression.getRhs()));
+            case BarBarToken:
+            case CommaToken:
+                return new LogicalCondition(LogicalCondition.Operator.OR,
+                        compile(binaryExpression.getLhs()), compile(binaryExpression.getRhs()));
+            default:
+                break;
+        }
+
+        if (binaryExpression.getLhs() instanceof IdentifierExpression identifier &&
+                binaryExpression.getRhs() instanceof LiteralExpression literal) {
+            return compileComparison(identifier, operatorKind, literal);
+        }
+
+        if (binaryExpression.getLhs() instanceof LiteralExpression literal &&
+                binaryExpression.getRhs() instanceof IdentifierExpression identifier) {
+            return compileComparison(identifier, mirror(operatorKind), literal);
+        }
+
+        throw new DBError("Expected a comparison between an attribute and a literal near \"" +
+                binaryExpression.getOperatorToken().getTokenText() + "\".");
+    }
+
+    private static Predicate compileComparison(IdentifierExpression identifier, TokenKind operatorKind,
+                                               LiteralExpression literal) throws DBError {
+        Predicate predicate = PredicateFactory.of(identifier.getIdentifierToken().getTokenText(),
+                operatorKind, literal.getValueToken().getValue());
+        if (predicate == null) {
+            throw new DBError("Invalid comparison operator.");
+        }
+        return predicate;
+    }
+
+    /* "10 < a" is compiled as "a > 10". */
+    private static TokenKind mirror(TokenKind operatorKind) {
+        return switch (operatorKind) {
+            case GreaterToken -> TokenKind.LessToken;
+            case GreaterEqualsToken -> TokenKind.LessEqualsToken;
+            case LessToken -> TokenKind.GreaterToken;
+            case LessEqualsToken -> TokenKind.GreaterEqualsToken;
+            default -> operatorKind;
+        };
+    }
+}
@@ -1,17 +1,24 @@
 package QueryParser.DDLStatements;
 
 import RheaDB.Attribute;
+import RheaDB.StorageMode;
 
 import java.util.Vector;
 
 public class CreateTableStatement extends DDLStatement {
     private final String tableName;
     private final Vector<Attribute> attributeVector;
+    private final StorageMode storageMode;
 
     public CreateTableStatement(String tableName, Vector<Attribute> attributeVector) {
+        this(tableName, attributeVector, StorageMode.SEGMENT);
+    }
+
+    public CreateTableStatement(String tableName, Vector<Attribute> attributeVector, StorageMode storageMode) {
         this.attributeVector = attributeVector;
         this.attributeVector.elementAt(0).setIsPrimaryKey(true);
         this.tableName = tableName;
+        this.storageMode = storageMode;
     }
 
     @Override
@@ -26,4 +33,8 @@ public class CreateTableStatement extends DDLStatement {
     public Vector<Attribute> getAttributeVector() {
         return attributeVector;
     }
+
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
 }
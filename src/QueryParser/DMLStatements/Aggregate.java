@@ -0,0 +1,60 @@
+package QueryParser.DMLStatements;
+
+import java.util.Locale;
+
+/**
+ * An aggregate function in the selected attributes of a SELECT statement,
+ * such as COUNT(*) or MAX(attr).
+ */
+public class Aggregate {
+    public enum Function {
+        COUNT,
+        SUM,
+        MIN,
+        MAX,
+        AVG,
+    }
+
+    private final Function function;
+    private final String attributeName;
+
+    /**
+     * @param attributeName The aggregated attribute, or null for COUNT(*).
+     */
+    public Aggregate(Function function, String attributeName) {
+        this.function = function;
+        this.attributeName = attributeName;
+    }
+
+    /**
+     * @return The function with the given name, or null if there is none.
+     */
+    public static Function functionOf(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "count" -> Function.COUNT;
+            case "sum" -> Function.SUM;
+            case "min" -> Function.MIN;
+            case "max" -> Function.MAX;
+            case "avg" -> Function.AVG;
+            default -> null;
+        };
+    }
+
+    public Function getFunction() {
+        return function;
+    }
+
+    /**
+     * @return The aggregated attribute, or null for COUNT(*).
+     */
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    /**
+     * @return The name of the aggregate's column in the result.
+     */
+    public String getLabel() {
+        return function + "(" + (attributeName == null ? "*" : attributeName) + ")";
+    }
+}
@@ -1,22 +1,34 @@
 package QueryParser.DMLStatements;
 
+import Predicate.Condition;
 import Predicate.Predicate;
 
 import java.util.Vector;
 
 public class DeleteStatement extends DMLStatement {
     private final String tableName;
-    private final Vector<Predicate> predicateVector;
+    private final Condition condition;
+    private final Vector<Predicate> predicateVector = new Vector<>();
 
-    public DeleteStatement(String tableName, Vector<Predicate> predicates) {
+    public DeleteStatement(String tableName, Condition condition) {
         this.tableName = tableName;
-        this.predicateVector = predicates;
+        this.condition = condition;
+        if (condition != null) {
+            condition.collectPredicates(predicateVector);
+        }
     }
 
     public String getTableName() {
         return tableName;
     }
 
+    /**
+     * @return The WHERE clause of the statement, or null if every row is deleted.
+     */
+    public Condition getCondition() {
+        return condition;
+    }
+
     public Vector<Predicate> getPredicateVector() {
         return predicateVector;
     }
@@ -1,22 +1,51 @@
 package QueryParser.DMLStatements;
 
+import QueryParser.Parameter;
+
 import java.util.Vector;
 
 public class InsertStatement extends DMLStatement {
     private final String tableName;
-    private final Vector<Object> values;
+    private final Vector<Vector<Object>> rows;
+    private final boolean hasParameters;
 
-    public InsertStatement(String tableName, Vector<Object> values) {
+    public InsertStatement(String tableName, Vector<Vector<Object>> rows) {
         this.tableName = tableName;
-        this.values = values;
+        this.rows = rows;
+        this.hasParameters = rows.stream()
+                .flatMap(Vector::stream)
+                .anyMatch(v -> v instanceof Parameter);
     }
 
     public String getTableName() {
         return tableName;
     }
 
+    /**
+     * @return The values of the first inserted row.
+     */
     public Vector<Object> getValues() {
-        return values;
+        return getRows().get(0);
+    }
+
+    /**
+     * @return The values of every inserted row, with parameters replaced by
+     * their bound values.
+     */
+    public Vector<Vector<Object>> getRows() {
+        if (!hasParameters) {
+            return rows;
+        }
+
+        Vector<Vector<Object>> boundRows = new Vector<>(rows.size());
+        for (Vector<Object> row : rows) {
+            Vector<Object> boundValues = new Vector<>(row.size());
+            for (Object value : row) {
+                boundValues.add(Parameter.resolve(value));
+            }
+            boundRows.add(boundValues);
+        }
+        return boundRows;
     }
 
     @Override
@@ -0,0 +1,37 @@
+package QueryParser.DMLStatements;
+
+/**
+ * The JOIN clause of a SELECT statement, which pairs every row of the table
+ * in the FROM clause with the rows of the joined table having an equal
+ * value of the compared attributes, as in FROM a JOIN b ON a.x = b.y.
+ */
+public class Join {
+    private final String tableName;
+    private final String lhsAttributeName;
+    private final String rhsAttributeName;
+
+    /**
+     * The compared attributes may be qualified by the name of their table,
+     * and be on either side of the comparison.
+     */
+    public Join(String tableName, String lhsAttributeName, String rhsAttributeName) {
+        this.tableName = tableName;
+        this.lhsAttributeName = lhsAttributeName;
+        this.rhsAttributeName = rhsAttributeName;
+    }
+
+    /**
+     * @return The name of the joined table.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getLhsAttributeName() {
+        return lhsAttributeName;
+    }
+
+    public String getRhsAttributeName() {
+        return rhsAttributeName;
+    }
+}
@@ -1,32 +1,129 @@
 package QueryParser.DMLStatements;
 
+import Predicate.Condition;
 import Predicate.Predicate;
 
+import java.util.Objects;
 import java.util.Vector;
 
 public class SelectStatement extends DMLStatement {
     private final String tableName;
+    private final Join join;
     private final Vector<String> selectedAttributes;
-    private final Vector<Predicate> predicates;
+    private final Vector<Aggregate> aggregates;
+    private final Condition condition;
+    private final Vector<Predicate> predicates = new Vector<>();
+    private final Vector<String> groupAttributes;
+    private final String orderAttribute;
+    private final boolean isDescending;
+    private final long limit;
+    private final long offset;
 
-    public SelectStatement(String tableName, Vector<String> attributes, Vector<Predicate> predicates) {
+    public SelectStatement(String tableName, Vector<String> attributes, Condition condition) {
+        this(tableName, null, attributes, new Vector<>(), condition, new Vector<>(), null, false, -1, 0);
+    }
+
+    /**
+     * @param join            The JOIN clause, or null.
+     * @param aggregates      The aggregate of each selected attribute, or null
+     *                        for plain attributes. May be empty if there are none.
+     * @param groupAttributes The attributes of the GROUP BY clause, if any.
+     * @param orderAttribute  The attribute to order the rows by, or null.
+     * @param limit           The number of rows to produce, or -1 for all of them.
+     * @param offset          The number of rows to skip first.
+     */
+    public SelectStatement(String tableName, Join join, Vector<String> attributes, Vector<Aggregate> aggregates,
+                           Condition condition, Vector<String> groupAttributes, String orderAttribute,
+                           boolean isDescending, long limit, long offset) {
         this.tableName = tableName;
+        this.join = join;
         this.selectedAttributes = attributes;
-        this.predicates = predicates;
+        this.aggregates = aggregates;
+        this.condition = condition;
+        this.groupAttributes = groupAttributes;
+        this.orderAttribute = orderAttribute;
+        this.isDescending = isDescending;
+        this.limit = limit;
+        this.offset = offset;
+        if (condition != null) {
+            condition.collectPredicates(predicates);
+        }
     }
 
     public String getTableName() {
         return tableName;
     }
 
+    /**
+     * @return The JOIN clause of the statement, or null if it has none.
+     */
+    public Join getJoin() {
+        return join;
+    }
+
     public Vector<String> getSelectedAttributes() {
         return selectedAttributes;
     }
 
+    /**
+     * @return The aggregate function of the selected attribute at an index, or
+     * null if it is a plain attribute.
+     */
+    public Aggregate getAggregate(int idx) {
+        return idx < aggregates.size() ? aggregates.get(idx) : null;
+    }
+
+    public boolean hasAggregates() {
+        return aggregates.stream().anyMatch(Objects::nonNull);
+    }
+
+    /**
+     * @return The WHERE clause of the statement, or null if it has none.
+     */
+    public Condition getCondition() {
+        return condition;
+    }
+
+    /**
+     * @return The comparisons of the WHERE clause, in textual order.
+     */
     public Vector<Predicate> getPredicates() {
         return predicates;
     }
 
+    /**
+     * @return The attributes of the GROUP BY clause, empty if it has none.
+     */
+    public Vector<String> getGroupAttributes() {
+        return groupAttributes;
+    }
+
+    /**
+     * @return The attribute of the ORDER BY clause, or null if it has none.
+     */
+    public String getOrderAttribute() {
+        return orderAttribute;
+    }
+
+    public boolean isDescending() {
+        return isDescending;
+    }
+
+    /**
+     * @return Whether the statement has a LIMIT clause.
+     */
+    public boolean hasLimit() {
+        return limit >= 0;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
     @Override
     public DMLStatementKind getDMLKind() {
         return DMLStatementKind.SELECT;
@@ -1,5 +1,6 @@
 package QueryParser.DMLStatements;
 
+import Predicate.Condition;
 import Predicate.Predicate;
 
 import java.util.Vector;
@@ -7,13 +8,17 @@ import java.util.Vector;
 public class UpdateStatement extends DMLStatement {
     private final String tableName;
     private final Vector<Predicate> setPredicates;
-    private final Vector<Predicate> wherePredicates;
+    private final Condition whereCondition;
+    private final Vector<Predicate> wherePredicates = new Vector<>();
 
     public UpdateStatement(String tableName, Vector<Predicate> setPredicates,
-                           Vector<Predicate> wherePredicates) {
+                           Condition whereCondition) {
         this.tableName = tableName;
         this.setPredicates = setPredicates;
-        this.wherePredicates = wherePredicates;
+        this.whereCondition = whereCondition;
+        if (whereCondition != null) {
+            whereCondition.collectPredicates(wherePredicates);
+        }
     }
 
     public String getTableName() {
@@ -29,6 +34,13 @@ public class UpdateStatement extends DMLStatement {
         return setPredicates;
     }
 
+    /**
+     * @return The WHERE clause of the statement, or null if every row is updated.
+     */
+    public Condition getWhereCondition() {
+        return whereCondition;
+    }
+
     public Vector<Predicate> getWherePredicates() {
         return wherePredicates;
     }
@@ -0,0 +1,18 @@
+package QueryParser.InternalStatements;
+
+public class AnalyzeStatement extends InternalStatement {
+    private final String tableName;
+
+    public AnalyzeStatement(String tableName) {
+        this.tableName = tableName;
+    }
+
+    @Override
+    public InternalStatementKind getInternalStatementKind() {
+        return InternalStatementKind.ANALYZE;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+}
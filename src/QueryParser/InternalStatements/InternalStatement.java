@@ -6,6 +6,7 @@ public abstract class InternalStatement extends SQLStatement {
     public enum InternalStatementKind {
         DESCRIBE,
         COMPACT,
+        ANALYZE,
     }
 
     @Override
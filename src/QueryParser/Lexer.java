@@ -9,65 +9,110 @@ public class Lexer {
     private int position;
 
     private final Vector<String> diagnostics = new Vector<>();
+    private final Vector<Parameter> parameters = new Vector<>();
 
-    private final HashSet<String> keywordSet = new HashSet<>();
-    private final HashSet<String> dataTypeSet = new HashSet<>();
-    private final HashSet<Character> operatorSet = new HashSet<>();
+    /* Shared by all lexers, which are created for every statement. */
+    private static final HashSet<String> keywordSet = new HashSet<>();
+    private static final HashSet<String> dataTypeSet = new HashSet<>();
+    private static final HashSet<Character> operatorSet = new HashSet<>();
 
-    public Lexer(String input) {
-        text = input;
-        position = 0;
+    static {
         populateKeywordSet();
         populateDataTypeSet();
         populateOperatorSet();
     }
 
-    private void populateOperatorSet() {
+    public Lexer(String input) {
+        text = input;
+        position = 0;
+    }
+
+    private static void populateOperatorSet() {
         operatorSet.add('=');
         operatorSet.add('>');
         operatorSet.add('<');
         operatorSet.add('!');
     }
 
-    private void populateDataTypeSet() {
+    private static void populateDataTypeSet() {
         dataTypeSet.add("int");
         dataTypeSet.add("string");
         dataTypeSet.add("float");
     }
 
-    private void populateKeywordSet() {
+    private static void populateKeywordSet() {
+        keywordSet.add("analyze");
+        keywordSet.add("and");
+        keywordSet.add("asc");
+        keywordSet.add("begin");
+        keywordSet.add("by");
+        keywordSet.add("commit");
         keywordSet.add("compact");
         keywordSet.add("create");
         keywordSet.add("delete");
+        keywordSet.add("desc");
         keywordSet.add("describe");
         keywordSet.add("drop");
         keywordSet.add("from");
+        keywordSet.add("group");
         keywordSet.add("index");
         keywordSet.add("insert");
         keywordSet.add("into");
+        keywordSet.add("join");
+        keywordSet.add("limit");
+        keywordSet.add("offset");
+        keywordSet.add("on");
+        keywordSet.add("or");
+        keywordSet.add("order");
+        keywordSet.add("release");
+        keywordSet.add("rollback");
+        keywordSet.add("savepoint");
         keywordSet.add("select");
         keywordSet.add("set");
         keywordSet.add("table");
+        keywordSet.add("to");
+        keywordSet.add("transaction");
         keywordSet.add("update");
+        keywordSet.add("using");
         keywordSet.add("values");
         keywordSet.add("where");
     }
 
     private TokenKind getKeywordTokenKind(String keyword) {
         return switch (keyword.toLowerCase(Locale.ROOT)) {
+            case "analyze" -> TokenKind.AnalyzeToken;
+            case "and" -> TokenKind.AmpersandAmpersandToken;
+            case "asc" -> TokenKind.AscToken;
+            case "begin" -> TokenKind.BeginToken;
+            case "by" -> TokenKind.ByToken;
+            case "commit" -> TokenKind.CommitToken;
             case "compact" -> TokenKind.CompactToken;
             case "create" -> TokenKind.CreateToken;
             case "delete" -> TokenKind.DeleteToken;
+            case "desc" -> TokenKind.DescToken;
             case "describe" -> TokenKind.DescribeToken;
             case "drop" -> TokenKind.DropToken;
             case "from" -> TokenKind.FromToken;
+            case "group" -> TokenKind.GroupToken;
             case "index" -> TokenKind.IndexToken;
             case "insert" -> TokenKind.InsertToken;
             case "into" -> TokenKind.IntoToken;
+            case "join" -> TokenKind.JoinToken;
+            case "limit" -> TokenKind.LimitToken;
+            case "offset" -> TokenKind.OffsetToken;
+            case "on" -> TokenKind.OnToken;
+            case "or" -> TokenKind.BarBarToken;
+            case "order" -> TokenKind.OrderToken;
+            case "release" -> TokenKind.ReleaseToken;
+            case "rollback" -> TokenKind.RollbackToken;
+            case "savepoint" -> TokenKind.SavepointToken;
             case "select" -> TokenKind.SelectToken;
             case "set" -> TokenKind.SetTotken;
             case "table" -> TokenKind.TableToken;
+            case "to" -> TokenKind.ToToken;
+            case "transaction" -> TokenKind.TransactionToken;
             case "update" -> TokenKind.UpdateToken;
+            case "using" -> TokenKind.UsingToken;
             case "values" -> TokenKind.ValuesToken;
             case "where" -> TokenKind.WhereToken;
             default -> null;
@@ -96,8 +141,13 @@ public class Lexer {
         }
     }
 
+    /**
+     * Lexes a keyword, a data type or an identifier. An identifier may be
+     * qualified by a table name, as in table.attribute.
+     */
     private Token lexAlphabeticalToken(int tokenPosition) {
-        while (Character.isAlphabetic(getCurr()) || getCurr() == '_')
+        while (Character.isAlphabetic(getCurr()) || getCurr() == '_' ||
+                (getCurr() == '.' && Character.isAlphabetic(peek())))
             advance();
         String tokenText = text.substring(tokenPosition, position);
         if (isKeyword(tokenText))
@@ -242,6 +292,15 @@ public class Lexer {
         }
     }
 
+    private Token lexParameterToken(int tokenPosition) {
+        advance();
+        String tokenText = "?";
+        Parameter parameter = new Parameter(parameters.size() + 1);
+        parameters.add(parameter);
+        return new Token(tokenPosition, tokenText, parameter,
+                TokenKind.ParameterToken);
+    }
+
     private Token lexBadToken(int tokenPosition) {
         advance();
         return addBadTokenToDiagnostics(new Token(tokenPosition, Character.toString(getCurr()), Character.toString(getCurr()), TokenKind.BadToken));
@@ -251,6 +310,13 @@ public class Lexer {
         return diagnostics;
     }
 
+    /**
+     * @return The '?' placeholders of the lexed text, in order.
+     */
+    public Vector<Parameter> getParameters() {
+        return parameters;
+    }
+
     public Vector<Token> lex() {
         Vector<Token> tokens = new Vector<>();
 
@@ -281,6 +347,8 @@ public class Lexer {
                 tokens.add(lexStartingWithAmpersand(tokenPosition));
             else if (getCurr() == '|')
                 tokens.add(lexStartingWithBar(tokenPosition));
+            else if (getCurr() == '?')
+                tokens.add(lexParameterToken(tokenPosition));
             else if (!inBounds())
                 break;
             else {
@@ -312,6 +380,12 @@ public class Lexer {
         return text.charAt(position);
     }
 
+    private char peek() {
+        if (position + 1 >= text.length())
+            return '\0';
+        return text.charAt(position + 1);
+    }
+
     private void advance() {
         if (position != text.length())
             position++;
@@ -0,0 +1,53 @@
+package QueryParser;
+
+/**
+ * A '?' placeholder in a prepared statement. It takes the place of a literal
+ * value in the parsed statement, and is bound to a value before each
+ * execution.
+ */
+public class Parameter {
+    private final int index;
+    private Object value;
+    private boolean isBound;
+
+    public Parameter(int index) {
+        this.index = index;
+    }
+
+    /**
+     * @return The position of the placeholder in the statement, starting at 1.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public boolean isBound() {
+        return isBound;
+    }
+
+    public void bind(Object value) {
+        this.value = value;
+        this.isBound = true;
+    }
+
+    public void clear() {
+        this.value = null;
+        this.isBound = false;
+    }
+
+    /**
+     * @return The bound value if the object is a parameter, the object itself otherwise.
+     */
+    public static Object resolve(Object value) {
+        return value instanceof Parameter parameter ? parameter.getValue() : value;
+    }
+
+    @Override
+    public String toString() {
+        return isBound ? String.valueOf(value) : "?";
+    }
+}
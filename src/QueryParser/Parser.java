@@ -39,6 +39,8 @@ public class Parser {
             ret = parseDML();
         else if (SQLStatement.isInternalKeyword(token))
             ret = parseInternalStatement();
+        else if (SQLStatement.isTransactionKeyword(token))
+            ret = parseTransactionStatement();
         else
             diagnostics.add("Unexpected token: \"" + tokenVector.get(0).getTokenText() + "\".");
 
@@ -60,6 +62,14 @@ public class Parser {
         return ret;
     }
 
+    private SQLStatement parseTransactionStatement() {
+        var p = new TransactionParser(tokenVector, position);
+        var ret = p.parse();
+        position = p.getPosition();
+        diagnostics.addAll(p.getDiagnostics());
+        return ret;
+    }
+
     private SQLStatement parseDDL() throws DBError {
         SQLStatement ret = null;
         if (matchToken(TokenKind.CreateToken)) {
@@ -221,4 +231,8 @@ public class Parser {
     public Vector<String> getDiagnostics() {
         return diagnostics;
     }
+
+    public Vector<Parameter> getParameters() {
+        return lexer.getParameters();
+    }
 }
@@ -5,6 +5,8 @@ import QueryParser.Token;
 import QueryParser.TokenKind;
 import RheaDB.DBError;
 
+import java.util.Vector;
+
 public class PredicateParser {
     private final Token[] tokenList;
     private int position = 0;
@@ -16,6 +18,19 @@ public class PredicateParser {
                 .toArray(Token[]::new);
     }
 
+    /**
+     * Parses a predicate embedded in a statement, starting at a position in
+     * its (whitespace-free) tokens. {@link #getPosition()} then tells where
+     * the predicate ends.
+     */
+    public PredicateParser(Vector<Token> tokens, int position) {
+        this.tokenList = tokens.subList(position, tokens.size()).toArray(Token[]::new);
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
     /**
      * Checks whether a tree contains at least one predicate or a binary expression.
      *
@@ -24,13 +39,17 @@ public class PredicateParser {
      */
     private boolean isPredicate(ASTNode node) {
         if (node instanceof ParenthesizedExpression parenthesizedExpression) {
-            return isPredicate(parenthesizedExpression);
+            return isPredicate(parenthesizedExpression.getExpression());
         } else {
             return node instanceof BinaryLogicalExpression;
         }
     }
 
     public PredicateAST parse() throws DBError {
+        if (tokenList.length == 0) {
+            throw new DBError("Expected a predicate.");
+        }
+
         ASTNode root = parseExpression();
         return isPredicate(root) ? new PredicateAST(root) : null;
     }
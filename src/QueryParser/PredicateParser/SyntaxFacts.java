@@ -5,8 +5,10 @@ import QueryParser.TokenKind;
 public class SyntaxFacts {
     public static int binaryOperatorPrecedence(TokenKind kind) {
         return switch (kind) {
-            case GreaterEqualsToken, GreaterToken, LessEqualsToken, LessToken, NotEqualsToken, EqualsToken -> 2;
-            case AmpersandAmpersandToken, BarBarToken -> 1;
+            case GreaterEqualsToken, GreaterToken, LessEqualsToken, LessToken, NotEqualsToken, EqualsToken -> 3;
+            case AmpersandAmpersandToken -> 2;
+            /* A comma between predicates reads as OR, as in the comma-separated lists it replaces. */
+            case BarBarToken, CommaToken -> 1;
             default -> 0;
         };
     }
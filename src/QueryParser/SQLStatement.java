@@ -4,7 +4,8 @@ public abstract class SQLStatement {
     public enum SQLStatementKind {
         DDL,
         DML,
-        INTERNAL
+        INTERNAL,
+        TRANSACTION
     }
 
     public abstract SQLStatementKind getKind();
@@ -23,6 +24,15 @@ public abstract class SQLStatement {
 
     public static boolean isInternalKeyword(Token token) {
         return token.getKind() == TokenKind.DescribeToken ||
-                token.getKind() == TokenKind.CompactToken;
+                token.getKind() == TokenKind.CompactToken ||
+                token.getKind() == TokenKind.AnalyzeToken;
+    }
+
+    public static boolean isTransactionKeyword(Token token) {
+        return token.getKind() == TokenKind.BeginToken ||
+                token.getKind() == TokenKind.CommitToken ||
+                token.getKind() == TokenKind.RollbackToken ||
+                token.getKind() == TokenKind.SavepointToken ||
+                token.getKind() == TokenKind.ReleaseToken;
     }
 }
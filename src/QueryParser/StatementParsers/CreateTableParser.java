@@ -6,6 +6,7 @@ import QueryParser.Token;
 import QueryParser.TokenKind;
 import RheaDB.Attribute;
 import RheaDB.AttributeType;
+import RheaDB.StorageMode;
 
 import java.util.Locale;
 import java.util.Vector;
@@ -62,6 +63,27 @@ public class CreateTableParser extends StatementParser {
             return null;
         }
 
+        StorageMode storageMode = StorageMode.SEGMENT;
+        if (matchToken(TokenKind.UsingToken)) {
+            advanceToken();
+            Token storageToken = consumeIdentifier("Expected ROW or COLUMNAR after USING.");
+            if (storageToken == null) {
+                return null;
+            }
+
+            storageMode = switch (storageToken.getTokenText().toLowerCase(Locale.ROOT)) {
+                case "row" -> StorageMode.SEGMENT;
+                case "columnar" -> StorageMode.COLUMNAR;
+                default -> null;
+            };
+
+            if (storageMode == null) {
+                diagnostics.add("Unknown storage \"" + storageToken.getTokenText() +
+                        "\". Expected ROW or COLUMNAR.");
+                return null;
+            }
+        }
+
         consumeSemicolon();
         consumeEndOfInput();
 
@@ -69,6 +91,6 @@ public class CreateTableParser extends StatementParser {
             return null;
         }
 
-        return new CreateTableStatement(tableNameToken.getTokenText(), attributes);
+        return new CreateTableStatement(tableNameToken.getTokenText(), attributes, storageMode);
     }
 }
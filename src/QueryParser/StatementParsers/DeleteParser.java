@@ -1,6 +1,6 @@
 package QueryParser.StatementParsers;
 
-import Predicate.Predicate;
+import Predicate.Condition;
 import QueryParser.DMLStatements.DeleteStatement;
 import QueryParser.SQLStatement;
 import QueryParser.Token;
@@ -30,10 +30,10 @@ public class DeleteParser extends StatementParser {
             return null;
         }
 
-        Vector<Predicate> predicates = new Vector<>();
+        Condition condition = null;
         if (matchToken(TokenKind.WhereToken)) {
             advanceToken();
-            predicates = parsePredicateList();
+            condition = parseCondition();
         }
 
         consumeSemicolon();
@@ -43,6 +43,6 @@ public class DeleteParser extends StatementParser {
             return null;
         }
 
-        return new DeleteStatement(tableNameToken.getTokenText(), predicates);
+        return new DeleteStatement(tableNameToken.getTokenText(), condition);
     }
 }
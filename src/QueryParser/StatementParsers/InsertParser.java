@@ -32,6 +32,33 @@ public class InsertParser extends StatementParser {
             return null;
         }
 
+        Vector<Vector<Object>> rows = new Vector<>();
+        Vector<Object> row = parseValueTuple();
+        if (row == null) {
+            return null;
+        }
+        rows.add(row);
+
+        while (matchToken(TokenKind.CommaToken)) {
+            advanceToken();
+            row = parseValueTuple();
+            if (row == null) {
+                return null;
+            }
+            rows.add(row);
+        }
+
+        consumeSemicolon();
+        consumeEndOfInput();
+
+        if (!diagnostics.isEmpty()) {
+            return null;
+        }
+
+        return new InsertStatement(tableNameToken.getTokenText(), rows);
+    }
+
+    private Vector<Object> parseValueTuple() {
         if (consumeToken(TokenKind.OpenParenToken, "Expected '(' before values.") == null) {
             return null;
         }
@@ -56,13 +83,6 @@ public class InsertParser extends StatementParser {
             return null;
         }
 
-        consumeSemicolon();
-        consumeEndOfInput();
-
-        if (!diagnostics.isEmpty()) {
-            return null;
-        }
-
-        return new InsertStatement(tableNameToken.getTokenText(), valueObjects);
+        return valueObjects;
     }
 }
@@ -1,5 +1,6 @@
 package QueryParser.StatementParsers;
 
+import QueryParser.InternalStatements.AnalyzeStatement;
 import QueryParser.InternalStatements.CompactStatement;
 import QueryParser.InternalStatements.DescribeStatement;
 import QueryParser.SQLStatement;
@@ -17,8 +18,9 @@ public class InternalParser extends StatementParser {
 
     @Override
     public SQLStatement parse() {
-        if (!matchToken(TokenKind.DescribeToken) && !matchToken(TokenKind.CompactToken)) {
-            diagnostics.add(getUnexpectedTokenMessage(getCurrent(), "Expected DESCRIBE or COMPACT."));
+        if (!matchToken(TokenKind.DescribeToken) && !matchToken(TokenKind.CompactToken) &&
+                !matchToken(TokenKind.AnalyzeToken)) {
+            diagnostics.add(getUnexpectedTokenMessage(getCurrent(), "Expected DESCRIBE, COMPACT or ANALYZE."));
             return null;
         }
 
@@ -39,6 +41,10 @@ public class InternalParser extends StatementParser {
             return new DescribeStatement(tableNameToken.getTokenText());
         }
 
+        if (statementKind == TokenKind.AnalyzeToken) {
+            return new AnalyzeStatement(tableNameToken.getTokenText());
+        }
+
         return new CompactStatement(tableNameToken.getTokenText());
     }
 }
@@ -1,6 +1,8 @@
 package QueryParser.StatementParsers;
 
-import Predicate.Predicate;
+import Predicate.Condition;
+import QueryParser.DMLStatements.Aggregate;
+import QueryParser.DMLStatements.Join;
 import QueryParser.DMLStatements.SelectStatement;
 import QueryParser.SQLStatement;
 import QueryParser.Token;
@@ -21,19 +23,16 @@ public class SelectParser extends StatementParser {
         }
 
         Vector<String> attributeNames = new Vector<>();
-        Token attributeToken = consumeIdentifier("Expected selected attribute.");
-        if (attributeToken == null) {
+        Vector<Aggregate> aggregates = new Vector<>();
+        if (!parseSelectedAttribute(attributeNames, aggregates, "Expected selected attribute.")) {
             return null;
         }
-        attributeNames.add(attributeToken.getTokenText());
 
         while (matchToken(TokenKind.CommaToken)) {
             advanceToken();
-            attributeToken = consumeIdentifier("Expected selected attribute after ','.");
-            if (attributeToken == null) {
+            if (!parseSelectedAttribute(attributeNames, aggregates, "Expected selected attribute after ','.")) {
                 return null;
             }
-            attributeNames.add(attributeToken.getTokenText());
         }
 
         if (consumeToken(TokenKind.FromToken, "Expected FROM after selected attributes.") == null) {
@@ -45,10 +44,59 @@ public class SelectParser extends StatementParser {
             return null;
         }
 
-        Vector<Predicate> predicates = new Vector<>();
+        Join join = null;
+        if (matchToken(TokenKind.JoinToken)) {
+            advanceToken();
+            join = parseJoin();
+            if (join == null) {
+                return null;
+            }
+        }
+
+        Condition condition = null;
         if (matchToken(TokenKind.WhereToken)) {
             advanceToken();
-            predicates = parsePredicateList();
+            condition = parseCondition();
+        }
+
+        Vector<String> groupAttributes = new Vector<>();
+        if (matchToken(TokenKind.GroupToken)) {
+            advanceToken();
+            consumeToken(TokenKind.ByToken, "Expected BY after GROUP.");
+            do {
+                if (!groupAttributes.isEmpty()) {
+                    advanceToken();
+                }
+                Token groupToken = consumeIdentifier("Expected the attribute to group by.");
+                if (groupToken == null) {
+                    return null;
+                }
+                groupAttributes.add(groupToken.getTokenText());
+            } while (matchToken(TokenKind.CommaToken));
+        }
+
+        String orderAttribute = null;
+        boolean isDescending = false;
+        if (matchToken(TokenKind.OrderToken)) {
+            advanceToken();
+            consumeToken(TokenKind.ByToken, "Expected BY after ORDER.");
+            Token orderToken = consumeIdentifier("Expected the attribute to order by.");
+            orderAttribute = orderToken == null ? null : orderToken.getTokenText();
+            if (matchToken(TokenKind.AscToken) || matchToken(TokenKind.DescToken)) {
+                isDescending = matchToken(TokenKind.DescToken);
+                advanceToken();
+            }
+        }
+
+        long limit = -1;
+        long offset = 0;
+        if (matchToken(TokenKind.LimitToken)) {
+            advanceToken();
+            limit = parseRowCount("Expected the number of rows after LIMIT.");
+            if (matchToken(TokenKind.OffsetToken)) {
+                advanceToken();
+                offset = parseRowCount("Expected the number of rows after OFFSET.");
+            }
         }
 
         consumeSemicolon();
@@ -58,6 +106,82 @@ public class SelectParser extends StatementParser {
             return null;
         }
 
-        return new SelectStatement(tableNameToken.getTokenText(), attributeNames, predicates);
+        return new SelectStatement(tableNameToken.getTokenText(), join, attributeNames, aggregates, condition,
+                groupAttributes, orderAttribute, isDescending, limit, offset);
+    }
+
+    /**
+     * Parses an attribute, or an aggregate function of one such as SUM(attr)
+     * or COUNT(*), whose label is then added as the attribute name. The
+     * aggregates are kept at the same positions, with nulls for attributes.
+     *
+     * @return Whether the attribute was parsed.
+     */
+    private boolean parseSelectedAttribute(Vector<String> attributeNames, Vector<Aggregate> aggregates,
+                                           String errorMessage) {
+        Token attributeToken = consumeIdentifier(errorMessage);
+        if (attributeToken == null) {
+            return false;
+        }
+
+        if (!matchToken(TokenKind.OpenParenToken)) {
+            attributeNames.add(attributeToken.getTokenText());
+            aggregates.add(null);
+            return true;
+        }
+
+        Aggregate.Function function = Aggregate.functionOf(attributeToken.getTokenText());
+        if (function == null) {
+            diagnostics.add("Unknown aggregate function: " + attributeToken.getTokenText());
+            return false;
+        }
+
+        advanceToken();
+        Token argumentToken = consumeIdentifier("Expected the attribute to aggregate.");
+        if (argumentToken == null ||
+                consumeToken(TokenKind.ClosedParenToken, "Expected ')' after the aggregated attribute.") == null) {
+            return false;
+        }
+
+        String argument = argumentToken.getTokenText();
+        if (argument.equals("*") && function != Aggregate.Function.COUNT) {
+            diagnostics.add("Only COUNT can aggregate '*'.");
+            return false;
+        }
+
+        Aggregate aggregate = new Aggregate(function, argument.equals("*") ? null : argument);
+        attributeNames.add(aggregate.getLabel());
+        aggregates.add(aggregate);
+        return true;
+    }
+
+    /**
+     * Parses the joined table and the equality of attributes it is joined on.
+     *
+     * @return The JOIN clause, or null if it could not be parsed.
+     */
+    private Join parseJoin() {
+        Token tableNameToken = consumeIdentifier("Expected table name after JOIN.");
+        if (tableNameToken == null ||
+                consumeToken(TokenKind.OnToken, "Expected ON after the joined table.") == null) {
+            return null;
+        }
+
+        Token lhsToken = consumeIdentifier("Expected the attribute to join on after ON.");
+        if (lhsToken == null ||
+                consumeToken(TokenKind.EqualsToken, "Expected '=' between the attributes to join on.") == null) {
+            return null;
+        }
+
+        Token rhsToken = consumeIdentifier("Expected the attribute to join on after '='.");
+        if (rhsToken == null) {
+            return null;
+        }
+        return new Join(tableNameToken.getTokenText(), lhsToken.getTokenText(), rhsToken.getTokenText());
+    }
+
+    private long parseRowCount(String errorMessage) {
+        Token countToken = consumeToken(TokenKind.IntegralToken, errorMessage);
+        return countToken == null ? 0 : (Integer) countToken.getValue();
     }
 }
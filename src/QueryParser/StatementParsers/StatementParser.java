@@ -1,10 +1,15 @@
 package QueryParser.StatementParsers;
 
+import Predicate.Condition;
 import Predicate.Predicate;
+import Predicate.PredicateCompiler;
 import Predicate.PredicateFactory;
+import QueryParser.PredicateParser.PredicateAST;
+import QueryParser.PredicateParser.PredicateParser;
 import QueryParser.SQLStatement;
 import QueryParser.Token;
 import QueryParser.TokenKind;
+import RheaDB.DBError;
 
 import java.util.Vector;
 
@@ -46,6 +51,33 @@ public abstract class StatementParser {
         return predicates;
     }
 
+    /**
+     * Parses the boolean expression of a WHERE clause, where && (AND) binds
+     * tighter than || (OR) and a comma is read as OR.
+     *
+     * @return The compiled condition, or null after adding a diagnostic.
+     */
+    protected Condition parseCondition() {
+        if (getCurrent() == null) {
+            diagnostics.add("Expected a predicate after WHERE.");
+            return null;
+        }
+
+        try {
+            PredicateParser predicateParser = new PredicateParser(tokens, position);
+            PredicateAST predicateAST = predicateParser.parse();
+            position += predicateParser.getPosition();
+            if (predicateAST == null) {
+                diagnostics.add("Expected a predicate after WHERE.");
+                return null;
+            }
+            return PredicateCompiler.compile(predicateAST);
+        } catch (DBError e) {
+            diagnostics.add(e.getMessage());
+            return null;
+        }
+    }
+
     protected Predicate parsePredicate() {
         Token attributeToken = consumeToken(TokenKind.IdentifierToken, "Expected attribute name.");
         Token operatorToken = getCurrent();
@@ -0,0 +1,92 @@
+package QueryParser.StatementParsers;
+
+import QueryParser.SQLStatement;
+import QueryParser.Token;
+import QueryParser.TokenKind;
+import QueryParser.TransactionStatements.*;
+
+import java.util.Vector;
+
+/**
+ * Parses the statements controlling transactions:
+ * <pre>
+ * BEGIN [TRANSACTION];
+ * COMMIT [TRANSACTION];
+ * ROLLBACK [TRANSACTION] [TO [SAVEPOINT] name];
+ * SAVEPOINT name;
+ * RELEASE [SAVEPOINT] name;
+ * </pre>
+ */
+public class TransactionParser extends StatementParser {
+
+    public TransactionParser(Vector<Token> tokens, int position) {
+        super(tokens);
+        this.position = position;
+    }
+
+    @Override
+    public SQLStatement parse() {
+        Token keywordToken = advanceToken();
+        if (keywordToken == null) {
+            diagnostics.add("Expected BEGIN, COMMIT, ROLLBACK, SAVEPOINT or RELEASE.");
+            return null;
+        }
+
+        SQLStatement statement = switch (keywordToken.getKind()) {
+            case BeginToken -> {
+                skipOptional(TokenKind.TransactionToken);
+                yield new BeginStatement();
+            }
+            case CommitToken -> {
+                skipOptional(TokenKind.TransactionToken);
+                yield new CommitStatement();
+            }
+            case RollbackToken -> parseRollback();
+            case SavepointToken -> {
+                Token nameToken = consumeIdentifier("Expected savepoint name.");
+                yield nameToken == null ? null : new SavepointStatement(nameToken.getTokenText());
+            }
+            case ReleaseToken -> {
+                skipOptional(TokenKind.SavepointToken);
+                Token nameToken = consumeIdentifier("Expected savepoint name.");
+                yield nameToken == null ? null : new ReleaseSavepointStatement(nameToken.getTokenText());
+            }
+            default -> {
+                diagnostics.add(getUnexpectedTokenMessage(keywordToken,
+                        "Expected BEGIN, COMMIT, ROLLBACK, SAVEPOINT or RELEASE."));
+                yield null;
+            }
+        };
+
+        if (statement == null) {
+            return null;
+        }
+
+        consumeSemicolon();
+        consumeEndOfInput();
+
+        if (!diagnostics.isEmpty()) {
+            return null;
+        }
+
+        return statement;
+    }
+
+    private SQLStatement parseRollback() {
+        skipOptional(TokenKind.TransactionToken);
+        if (!matchToken(TokenKind.ToToken)) {
+            return new RollbackStatement(null);
+        }
+
+        advanceToken();
+        skipOptional(TokenKind.SavepointToken);
+        Token nameToken = consumeIdentifier("Expected savepoint name after TO.");
+        return nameToken == null ? null : new RollbackStatement(nameToken.getTokenText());
+    }
+
+    private void skipOptional(TokenKind kind) {
+        if (matchToken(kind)) {
+            advanceToken();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package QueryParser.StatementParsers;
 
+import Predicate.Condition;
 import Predicate.Predicate;
 import QueryParser.DMLStatements.UpdateStatement;
 import QueryParser.SQLStatement;
@@ -30,11 +31,11 @@ public class UpdateParser extends StatementParser {
         }
 
         Vector<Predicate> setPredicates = parsePredicateList();
-        Vector<Predicate> predicates = new Vector<>();
+        Condition condition = null;
 
         if (matchToken(TokenKind.WhereToken)) {
             advanceToken();
-            predicates = parsePredicateList();
+            condition = parseCondition();
         }
 
         consumeSemicolon();
@@ -44,6 +45,6 @@ public class UpdateParser extends StatementParser {
             return null;
         }
 
-        return new UpdateStatement(tableNameToken.getTokenText(), setPredicates, predicates);
+        return new UpdateStatement(tableNameToken.getTokenText(), setPredicates, condition);
     }
 }
@@ -13,10 +13,15 @@ public class Token {
         this.kind = kind;
     }
 
+    /**
+     * Parameters count as literals: they stand for a value that is only
+     * known when the statement is executed.
+     */
     public boolean isLiteral() {
         return kind == TokenKind.StringLiteralToken ||
                 kind == TokenKind.FloatingPointToken ||
-                kind == TokenKind.IntegralToken;
+                kind == TokenKind.IntegralToken ||
+                kind == TokenKind.ParameterToken;
     }
 
     public boolean isOperator() {
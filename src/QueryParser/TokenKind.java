@@ -20,21 +20,40 @@ public enum TokenKind {
     AmpersandAmpersandToken,
     BarBarToken,
     SemiColonToken,
+    ParameterToken,
 
     // Keywords
+    AnalyzeToken,
+    AscToken,
+    BeginToken,
+    ByToken,
+    CommitToken,
     CompactToken,
     CreateToken,
     DeleteToken,
+    DescToken,
     DescribeToken,
     DropToken,
     FromToken,
+    GroupToken,
     IndexToken,
     InsertToken,
     IntoToken,
+    JoinToken,
+    LimitToken,
+    OffsetToken,
+    OnToken,
+    OrderToken,
+    ReleaseToken,
+    RollbackToken,
+    SavepointToken,
     SelectToken,
     SetTotken,
     TableToken,
+    ToToken,
+    TransactionToken,
     UpdateToken,
+    UsingToken,
     ValuesToken,
     WhereToken,
 }
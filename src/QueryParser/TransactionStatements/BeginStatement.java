@@ -0,0 +1,8 @@
+package QueryParser.TransactionStatements;
+
+public class BeginStatement extends TransactionStatement {
+    @Override
+    public TransactionStatementKind getTransactionStatementKind() {
+        return TransactionStatementKind.BEGIN;
+    }
+}
@@ -0,0 +1,8 @@
+package QueryParser.TransactionStatements;
+
+public class CommitStatement extends TransactionStatement {
+    @Override
+    public TransactionStatementKind getTransactionStatementKind() {
+        return TransactionStatementKind.COMMIT;
+    }
+}
@@ -0,0 +1,18 @@
+package QueryParser.TransactionStatements;
+
+public class ReleaseSavepointStatement extends TransactionStatement {
+    private final String savepointName;
+
+    public ReleaseSavepointStatement(String savepointName) {
+        this.savepointName = savepointName;
+    }
+
+    @Override
+    public TransactionStatementKind getTransactionStatementKind() {
+        return TransactionStatementKind.RELEASE_SAVEPOINT;
+    }
+
+    public String getSavepointName() {
+        return savepointName;
+    }
+}
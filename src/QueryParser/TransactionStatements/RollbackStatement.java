@@ -0,0 +1,22 @@
+package QueryParser.TransactionStatements;
+
+public class RollbackStatement extends TransactionStatement {
+    private final String savepointName;
+
+    /**
+     * @param savepointName The savepoint to roll back to, or null to roll
+     *                      back the whole transaction.
+     */
+    public RollbackStatement(String savepointName) {
+        this.savepointName = savepointName;
+    }
+
+    @Override
+    public TransactionStatementKind getTransactionStatementKind() {
+        return TransactionStatementKind.ROLLBACK;
+    }
+
+    public String getSavepointName() {
+        return savepointName;
+    }
+}
@@ -0,0 +1,18 @@
+package QueryParser.TransactionStatements;
+
+public class SavepointStatement extends TransactionStatement {
+    private final String savepointName;
+
+    public SavepointStatement(String savepointName) {
+        this.savepointName = savepointName;
+    }
+
+    @Override
+    public TransactionStatementKind getTransactionStatementKind() {
+        return TransactionStatementKind.SAVEPOINT;
+    }
+
+    public String getSavepointName() {
+        return savepointName;
+    }
+}
@@ -0,0 +1,20 @@
+package QueryParser.TransactionStatements;
+
+import QueryParser.SQLStatement;
+
+public abstract class TransactionStatement extends SQLStatement {
+    public enum TransactionStatementKind {
+        BEGIN,
+        COMMIT,
+        ROLLBACK,
+        SAVEPOINT,
+        RELEASE_SAVEPOINT,
+    }
+
+    @Override
+    public SQLStatementKind getKind() {
+        return SQLStatementKind.TRANSACTION;
+    }
+
+    public abstract TransactionStatementKind getTransactionStatementKind();
+}
@@ -11,6 +11,7 @@ import java.util.concurrent.Executor;
 
 public class JCConnection implements Connection {
     private final RheaDB rheaDB;
+    private int nextSavepointId = 1;
 
     public JCConnection(Path dataDir) throws IOException {
         this.rheaDB = new RheaDB(dataDir == null ? null : dataDir.toString());
@@ -24,7 +25,7 @@ public class JCConnection implements Connection {
 
     @Override
     public PreparedStatement prepareStatement(String sql) throws SQLException {
-        return null;
+        return new JCPreparedStatement(rheaDB, sql);
     }
 
     @Override
@@ -39,22 +40,22 @@ public class JCConnection implements Connection {
 
     @Override
     public void setAutoCommit(boolean autoCommit) throws SQLException {
-        this.rheaDB.setLazyCommit(!autoCommit);
+        this.rheaDB.setAutoCommit(autoCommit);
     }
 
     @Override
     public boolean getAutoCommit() throws SQLException {
-        return !this.rheaDB.getLazyCommit();
+        return this.rheaDB.getAutoCommit();
     }
 
     @Override
     public void commit() throws SQLException {
-        this.rheaDB.commitOnExit();
+        this.rheaDB.commit();
     }
 
     @Override
     public void rollback() throws SQLException {
-        throw new UnsupportedOperationException();
+        this.rheaDB.rollback();
     }
 
     @Override
@@ -152,22 +153,34 @@ public class JCConnection implements Connection {
 
     @Override
     public Savepoint setSavepoint() throws SQLException {
-        return null;
+        int savepointId = nextSavepointId++;
+        JCSavepoint savepoint = new JCSavepoint(savepointId, null, "__savepoint_" + savepointId);
+        this.rheaDB.setSavepoint(savepoint.getInternalName());
+        return savepoint;
     }
 
     @Override
     public Savepoint setSavepoint(String name) throws SQLException {
-        return null;
+        JCSavepoint savepoint = new JCSavepoint(0, name, name);
+        this.rheaDB.setSavepoint(savepoint.getInternalName());
+        return savepoint;
     }
 
     @Override
     public void rollback(Savepoint savepoint) throws SQLException {
-
+        this.rheaDB.rollbackToSavepoint(asJCSavepoint(savepoint).getInternalName());
     }
 
     @Override
     public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        this.rheaDB.releaseSavepoint(asJCSavepoint(savepoint).getInternalName());
+    }
 
+    private static JCSavepoint asJCSavepoint(Savepoint savepoint) throws SQLException {
+        if (!(savepoint instanceof JCSavepoint jcSavepoint)) {
+            throw new SQLException("The savepoint was not set by this driver.");
+        }
+        return jcSavepoint;
     }
 
     @Override
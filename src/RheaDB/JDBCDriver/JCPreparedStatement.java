@@ -0,0 +1,371 @@
+package RheaDB.JDBCDriver;
+
+import QueryParser.DMLStatements.InsertStatement;
+import QueryParser.Parameter;
+import QueryParser.Parser;
+import QueryParser.SQLStatement;
+import RheaDB.RheaDB;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.*;
+import java.util.Calendar;
+import java.util.Vector;
+
+/**
+ * A statement that is lexed and parsed once, with '?' placeholders in place
+ * of literal values. Each execution binds the placeholders to the values set
+ * since the last one and runs the same parsed statement.
+ */
+public class JCPreparedStatement extends JCStatement implements PreparedStatement {
+    private final String sql;
+    private final SQLStatement sqlStatement;
+    private final Vector<Parameter> parameters;
+
+    public JCPreparedStatement(RheaDB rheaDB, String sql) throws SQLException {
+        super(rheaDB);
+        this.sql = sql;
+        Parser parser = new Parser(sql);
+        this.sqlStatement = parser.parse();
+        this.parameters = parser.getParameters();
+        if (sqlStatement == null) {
+            throw new SQLException("Cannot prepare an empty statement.");
+        }
+    }
+
+    private void verifyParametersBound() throws SQLException {
+        for (Parameter parameter : parameters) {
+            if (!parameter.isBound()) {
+                throw new SQLException("No value specified for parameter " + parameter.getIndex() + ".");
+            }
+        }
+    }
+
+    private void executePrepared() throws SQLException {
+        verifyParametersBound();
+        setResult(rheaDB.executeStatement(sqlStatement));
+        rheaDB.saveMetadata();
+    }
+
+    private void bind(int parameterIndex, Object value) throws SQLException {
+        if (parameterIndex < 1 || parameterIndex > parameters.size()) {
+            throw new SQLException("Invalid parameter index " + parameterIndex + ".");
+        }
+        parameters.get(parameterIndex - 1).bind(value);
+    }
+
+    private static SQLException unsupportedType(String typeName) {
+        return new SQLFeatureNotSupportedException(typeName + " parameters are not supported.");
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        executePrepared();
+        ResultSet resultSet = getResultSet();
+        return resultSet != null ? resultSet : new JCResultSet();
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        executePrepared();
+        if (getUpdateCount() < 0) {
+            throw new SQLException("Expected an UPDATE statement.");
+        }
+        return getUpdateCount();
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        executePrepared();
+        return getResultSet() != null;
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        parameters.forEach(Parameter::clear);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        bind(parameterIndex, null);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        bind(parameterIndex, null);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        bind(parameterIndex, (int) x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        bind(parameterIndex, (int) x);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        bind(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        if (x < Integer.MIN_VALUE || x > Integer.MAX_VALUE) {
+            throw new SQLException("Value " + x + " does not fit in an INT.");
+        }
+        bind(parameterIndex, (int) x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        bind(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        bind(parameterIndex, (float) x);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        bind(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        bind(parameterIndex, value);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        if (x == null || x instanceof Integer || x instanceof Float || x instanceof String) {
+            bind(parameterIndex, x);
+        } else if (x instanceof Byte || x instanceof Short || x instanceof Long) {
+            setLong(parameterIndex, ((Number) x).longValue());
+        } else if (x instanceof Double) {
+            setDouble(parameterIndex, (Double) x);
+        } else {
+            throw unsupportedType(x.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        setObject(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        setObject(parameterIndex, x);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        throw unsupportedType("BOOLEAN");
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        throw unsupportedType("DECIMAL");
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        throw unsupportedType("Binary");
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        throw unsupportedType("DATE");
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        throw unsupportedType("TIME");
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        throw unsupportedType("TIMESTAMP");
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        throw unsupportedType("Stream");
+    }
+
+    @Override
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        throw unsupportedType("Stream");
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        throw unsupportedType("Stream");
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        throw unsupportedType("Stream");
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        throw unsupportedType("REF");
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        throw unsupportedType("BLOB");
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        throw unsupportedType("CLOB");
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        throw unsupportedType("ARRAY");
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        throw unsupportedType("DATE");
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        throw unsupportedType("TIME");
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        throw unsupportedType("TIMESTAMP");
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        throw unsupportedType("URL");
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        throw unsupportedType("ROWID");
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        throw unsupportedType("Stream");
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        throw unsupportedType("NCLOB");
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        throw unsupportedType("CLOB");
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        throw unsupportedType("BLOB");
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        throw unsupportedType("NCLOB");
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        throw unsupportedType("SQLXML");
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        throw unsupportedType("Stream");
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        throw unsupportedType("Stream");
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        throw unsupportedType("Stream");
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        throw unsupportedType("Stream");
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        throw unsupportedType("Stream");
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        throw unsupportedType("Stream");
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        throw unsupportedType("Stream");
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        throw unsupportedType("CLOB");
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        throw unsupportedType("BLOB");
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        throw unsupportedType("NCLOB");
+    }
+
+    /**
+     * Adds the statement with its current bindings to the batch. The rows of
+     * an INSERT are copied as they are; other statements are parsed again to
+     * get parameters of their own.
+     */
+    @Override
+    public void addBatch() throws SQLException {
+        verifyParametersBound();
+        if (sqlStatement instanceof InsertStatement insertStatement) {
+            batch.add(new InsertStatement(insertStatement.getTableName(), insertStatement.getRows()));
+            return;
+        }
+
+        Parser parser = new Parser(sql);
+        SQLStatement batchedStatement = parser.parse();
+        for (int i = 0; i < parameters.size(); i++) {
+            parser.getParameters().get(i).bind(parameters.get(i).getValue());
+        }
+        batch.add(batchedStatement);
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return null;
+    }
+}
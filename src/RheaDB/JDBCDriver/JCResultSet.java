@@ -2,6 +2,7 @@ package RheaDB.JDBCDriver;
 
 import RheaDB.Attribute;
 import RheaDB.AttributeType;
+import RheaDB.QueryResult;
 import RheaDB.RowRecord;
 
 import java.io.InputStream;
@@ -10,18 +11,44 @@ import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.*;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Vector;
 import java.util.stream.Stream;
 
+/**
+ * The rows of a query, holding only its selected columns. Column labels are
+ * resolved to indices once per result set rather than once per value.
+ */
 public class JCResultSet implements ResultSet {
     private final Iterator<RowRecord> iterator;
     private RowRecord record;
+    private final HashMap<String, Integer> columnIndices = new HashMap<>();
+
+    /**
+     * Creates an empty result set.
+     */
+    public JCResultSet() {
+        this.iterator = null;
+    }
 
     public JCResultSet(Stream<RowRecord> stream) {
         this.iterator = stream == null ? null : stream.iterator();
     }
 
+    public JCResultSet(QueryResult queryResult) {
+        this(queryResult.stream());
+        indexColumns(queryResult.getAttributes());
+    }
+
+    private void indexColumns(Vector<Attribute> attributes) {
+        for (int i = 0; i < attributes.size(); i++) {
+            columnIndices.putIfAbsent(attributes.get(i).getName().toLowerCase(Locale.ROOT), i);
+        }
+    }
+
     public Iterator<RowRecord> getIterator() {
         return iterator;
     }
@@ -53,7 +80,7 @@ public class JCResultSet implements ResultSet {
         if (attribute.getType() != AttributeType.STRING)
             throw new SQLException("Column #" + columnIndex + " \"" +
                     attribute.getName() + "\" is not of type STRING.");
-        return (String) record.getValueOf(attribute);
+        return record.getString(columnIndex);
     }
 
     @Override
@@ -77,7 +104,7 @@ public class JCResultSet implements ResultSet {
         if (attribute.getType() != AttributeType.INT)
             throw new SQLException("Column #" + columnIndex + " \"" +
                     attribute.getName() + "\" is not of integral type.");
-        return (Integer) record.getValueOf(attribute);
+        return record.getInt(columnIndex);
     }
 
     @Override
@@ -91,7 +118,7 @@ public class JCResultSet implements ResultSet {
         if (attribute.getType() != AttributeType.FLOAT)
             throw new SQLException("Column #" + columnIndex + " \"" +
                     attribute.getName() + "\" is not of floating point type.");
-        return (Float) record.getValueOf(attribute);
+        return record.getFloat(columnIndex);
     }
 
     @Override
@@ -141,20 +168,7 @@ public class JCResultSet implements ResultSet {
 
     @Override
     public String getString(String columnLabel) throws SQLException {
-        Attribute attribute = record.getAttributes()
-                .stream()
-                .filter(a -> a.getName().equalsIgnoreCase(columnLabel))
-                .findAny()
-                .orElse(null);
-
-        if (attribute == null) {
-            throw new SQLException("Could not find attribute \"" + columnLabel + "\"");
-        }
-
-        if (attribute.getType() != AttributeType.STRING)
-            throw new SQLException("Column \"" +
-                    attribute.getName() + "\" is not of STRING type.");
-        return (String) record.getValueOf(attribute);
+        return getString(findColumn(columnLabel));
     }
 
     @Override
@@ -174,20 +188,7 @@ public class JCResultSet implements ResultSet {
 
     @Override
     public int getInt(String columnLabel) throws SQLException {
-        Attribute attribute = record.getAttributes()
-                .stream()
-                .filter(a -> a.getName().equalsIgnoreCase(columnLabel))
-                .findAny()
-                .orElse(null);
-
-        if (attribute == null) {
-            throw new SQLException("Could not find attribute \"" + columnLabel + "\"");
-        }
-
-        if (attribute.getType() != AttributeType.INT)
-            throw new SQLException("Column \"" +
-                    attribute.getName() + "\" is not of integral type.");
-        return (Integer) record.getValueOf(attribute);
+        return getInt(findColumn(columnLabel));
     }
 
     @Override
@@ -197,20 +198,7 @@ public class JCResultSet implements ResultSet {
 
     @Override
     public float getFloat(String columnLabel) throws SQLException {
-        Attribute attribute = record.getAttributes()
-                .stream()
-                .filter(a -> a.getName().equalsIgnoreCase(columnLabel))
-                .findAny()
-                .orElse(null);
-
-        if (attribute == null) {
-            throw new SQLException("Could not find attribute \"" + columnLabel + "\"");
-        }
-
-        if (attribute.getType() != AttributeType.FLOAT)
-            throw new SQLException("Column \"" +
-                    attribute.getName() + "\" is not of floating point type.");
-        return (Float) record.getValueOf(attribute);
+        return getFloat(findColumn(columnLabel));
     }
 
     @Override
@@ -290,7 +278,15 @@ public class JCResultSet implements ResultSet {
 
     @Override
     public int findColumn(String columnLabel) throws SQLException {
-        return 0;
+        if (columnIndices.isEmpty() && record != null) {
+            indexColumns(record.getAttributes());
+        }
+
+        Integer columnIndex = columnIndices.get(columnLabel.toLowerCase(Locale.ROOT));
+        if (columnIndex == null) {
+            throw new SQLException("Could not find attribute \"" + columnLabel + "\"");
+        }
+        return columnIndex;
     }
 
     @Override
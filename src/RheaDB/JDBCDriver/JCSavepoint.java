@@ -0,0 +1,40 @@
+package RheaDB.JDBCDriver;
+
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * A savepoint of a connection. Unnamed savepoints are identified by a number
+ * and set in the database under a generated name.
+ */
+public class JCSavepoint implements Savepoint {
+    private final int savepointId;
+    private final String savepointName;
+    private final String internalName;
+
+    JCSavepoint(int savepointId, String savepointName, String internalName) {
+        this.savepointId = savepointId;
+        this.savepointName = savepointName;
+        this.internalName = internalName;
+    }
+
+    @Override
+    public int getSavepointId() throws SQLException {
+        if (savepointName != null) {
+            throw new SQLException("A named savepoint has no id.");
+        }
+        return savepointId;
+    }
+
+    @Override
+    public String getSavepointName() throws SQLException {
+        if (savepointName == null) {
+            throw new SQLException("An unnamed savepoint has no name.");
+        }
+        return savepointName;
+    }
+
+    String getInternalName() {
+        return internalName;
+    }
+}
@@ -1,13 +1,17 @@
 package RheaDB.JDBCDriver;
 
+import QueryParser.Parser;
+import QueryParser.SQLStatement;
 import RheaDB.QueryResult;
 import RheaDB.RheaDB;
 import RheaDB.UpdateResult;
 
 import java.sql.*;
+import java.util.Vector;
 
 public class JCStatement implements Statement {
-    private final RheaDB rheaDB;
+    protected final RheaDB rheaDB;
+    protected final Vector<SQLStatement> batch = new Vector<>();
     private ResultSet currentResultSet;
     private int currentUpdateCount = -1;
 
@@ -18,7 +22,7 @@ public class JCStatement implements Statement {
     @Override
     public ResultSet executeQuery(String sql) throws SQLException {
         executeInternal(sql);
-        return currentResultSet != null ? currentResultSet : new JCResultSet(null);
+        return currentResultSet != null ? currentResultSet : new JCResultSet();
     }
 
     @Override
@@ -143,17 +147,26 @@ public class JCStatement implements Statement {
 
     @Override
     public void addBatch(String sql) throws SQLException {
-
+        SQLStatement sqlStatement = new Parser(sql).parse();
+        if (sqlStatement != null) {
+            batch.add(sqlStatement);
+        }
     }
 
     @Override
     public void clearBatch() throws SQLException {
-
+        batch.clear();
     }
 
     @Override
     public int[] executeBatch() throws SQLException {
-        return new int[0];
+        try {
+            int[] updateCounts = rheaDB.executeBatch(batch);
+            rheaDB.saveMetadata();
+            return updateCounts;
+        } finally {
+            batch.clear();
+        }
     }
 
     @Override
@@ -244,7 +257,10 @@ public class JCStatement implements Statement {
     private void executeInternal(String sql) {
         QueryResult queryResult = rheaDB.executeStatement(sql);
         rheaDB.saveMetadata();
+        setResult(queryResult);
+    }
 
+    protected void setResult(QueryResult queryResult) {
         if (queryResult instanceof UpdateResult updateResult) {
             currentResultSet = null;
             currentUpdateCount = updateResult.getAffectedRows();
@@ -252,7 +268,7 @@ public class JCStatement implements Statement {
         }
 
         if (queryResult != null) {
-            currentResultSet = new JCResultSet(queryResult.getRows().stream());
+            currentResultSet = new JCResultSet(queryResult);
             currentUpdateCount = -1;
             return;
         }
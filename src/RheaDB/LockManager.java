@@ -0,0 +1,26 @@
+package RheaDB;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hands out one reader/writer lock per table name. Locks are created on first
+ * use and kept for the lifetime of the database, so a table that is dropped
+ * and created again gets the same lock.
+ */
+public class LockManager {
+    private final ConcurrentHashMap<String, ReentrantReadWriteLock> tableLocks = new ConcurrentHashMap<>();
+
+    public Lock readLock(String tableName) {
+        return getLock(tableName).readLock();
+    }
+
+    public Lock writeLock(String tableName) {
+        return getLock(tableName).writeLock();
+    }
+
+    private ReentrantReadWriteLock getLock(String tableName) {
+        return tableLocks.computeIfAbsent(tableName, name -> new ReentrantReadWriteLock());
+    }
+}
@@ -14,6 +14,9 @@ public class Page implements Serializable {
     private final Vector<RowRecord> records;
     private final String tableName;
 
+    /* Kept by the page format between appends, such as the size of the page once encoded. */
+    private transient Object formatState;
+
     public Page(String tableName, int maxRows, int pageIdx) {
         this.tableName = tableName;
         this.maxRows = maxRows;
@@ -37,6 +40,40 @@ public class Page implements Serializable {
         return this.records;
     }
 
+    /**
+     * Finds a row by its row id. Rows are kept in increasing row id order,
+     * so the page is binary searched.
+     *
+     * @return The row, or null if the page has no row with that id.
+     */
+    public RowRecord getRecord(int rowId) {
+        synchronized (records) {
+            int low = 0;
+            int high = records.size() - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int middleRowId = records.get(middle).getRowId();
+                if (middleRowId < rowId) {
+                    low = middle + 1;
+                } else if (middleRowId > rowId) {
+                    high = middle - 1;
+                } else {
+                    return records.get(middle);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @return The monitor guarding the rows of the page. It is held while
+     * rows are added or removed, by the row vector itself, and while the page
+     * is written out.
+     */
+    public Object getLatch() {
+        return this.records;
+    }
+
     public int getPageIdx() {
         return pageIdx;
     }
@@ -49,8 +86,13 @@ public class Page implements Serializable {
         return this.records.size() == 0;
     }
 
+    /**
+     * Row ids increase along the page, so the next id follows the last row.
+     * Using the row count instead would hand out ids of rows still in the page
+     * once an earlier row is deleted.
+     */
     public int getLastRowIndex() {
-        return this.records.size();
+        return this.records.isEmpty() ? 0 : this.records.lastElement().getRowId() + 1;
     }
 
     public String getTableName() {
@@ -72,6 +114,14 @@ public class Page implements Serializable {
         return Objects.hash(maxRows, pageIdx, tableName);
     }
 
+    public Object getFormatState() {
+        return formatState;
+    }
+
+    public void setFormatState(Object formatState) {
+        this.formatState = formatState;
+    }
+
     public int getMaxRows() {
         return maxRows;
     }
@@ -0,0 +1,112 @@
+package RheaDB.QueryExecution;
+
+import QueryParser.DMLStatements.Aggregate;
+import RheaDB.AttributeType;
+import RheaDB.RowRecord;
+
+/**
+ * The running state of an aggregate function over the rows added to it, so
+ * that they are aggregated as they are produced instead of being collected.
+ * Nulls are skipped, except by COUNT(*). SUM, MIN, MAX and AVG of no values
+ * are null, and the sum of INT values must fit an INT.
+ */
+public class Accumulator {
+    private final Aggregate.Function function;
+    private final int ordinal;
+    private final AttributeType inputType;
+
+    private long count;
+    private long integralSum;
+    private double floatingSum;
+    private Object extremum;
+
+    /**
+     * @param ordinal   The ordinal of the aggregated attribute, or -1 for COUNT(*).
+     * @param inputType The type of the aggregated attribute, or null for COUNT(*).
+     */
+    public Accumulator(Aggregate.Function function, int ordinal, AttributeType inputType) {
+        this.function = function;
+        this.ordinal = ordinal;
+        this.inputType = inputType;
+    }
+
+    /**
+     * @return A new accumulator of the same function and attribute, with no
+     * rows added to it.
+     */
+    public Accumulator emptyCopy() {
+        return new Accumulator(function, ordinal, inputType);
+    }
+
+    public Aggregate.Function getFunction() {
+        return function;
+    }
+
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    public AttributeType getResultType() {
+        return switch (function) {
+            case COUNT -> AttributeType.INT;
+            case AVG -> AttributeType.FLOAT;
+            case SUM, MIN, MAX -> inputType;
+        };
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void add(RowRecord rowRecord) {
+        if (ordinal < 0) {
+            count++;
+            return;
+        }
+
+        Object value = rowRecord.getValue(ordinal);
+        if (value == null) {
+            return;
+        }
+
+        count++;
+        switch (function) {
+            case SUM, AVG -> {
+                if (inputType == AttributeType.INT) {
+                    integralSum += (Integer) value;
+                } else {
+                    floatingSum += (Float) value;
+                }
+            }
+            case MIN -> {
+                if (extremum == null || ((Comparable) value).compareTo(extremum) < 0) {
+                    extremum = value;
+                }
+            }
+            case MAX -> {
+                if (extremum == null || ((Comparable) value).compareTo(extremum) > 0) {
+                    extremum = value;
+                }
+            }
+        }
+    }
+
+    /**
+     * @throws ArithmeticException If the result does not fit an INT.
+     */
+    public Object getResult() {
+        if (function == Aggregate.Function.COUNT) {
+            return Math.toIntExact(count);
+        }
+        if (count == 0) {
+            return null;
+        }
+
+        if (function == Aggregate.Function.SUM && inputType == AttributeType.INT) {
+            return Math.toIntExact(integralSum);
+        }
+
+        return switch (function) {
+            case SUM -> (float) floatingSum;
+            case AVG -> (float) ((inputType == AttributeType.INT ? integralSum : floatingSum) / count);
+            default -> extremum;
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package RheaDB.QueryExecution;
+
+import RheaDB.Attribute;
+import RheaDB.RowRecord;
+
+import java.util.Vector;
+
+/**
+ * Produces a single row holding the results of aggregate functions, whose
+ * accumulators are fed the rows of the child as they are pulled.
+ * <p>
+ * An accumulator may instead have a source of its own, which produces the
+ * only rows that can affect its result, such as the first visible entry of an
+ * index for MIN. The child is then only needed by the other accumulators,
+ * and may be null if there are none.
+ */
+public class Aggregation implements Operator {
+    private final Operator child;
+    private final Vector<Accumulator> accumulators;
+    private final Vector<Operator> sources;
+    private final Vector<Attribute> attributes;
+
+    private boolean isProduced;
+
+    /**
+     * @param sources    The source of each accumulator, or null for the ones
+     *                   fed by the child.
+     * @param attributes The attributes of the produced row, one per accumulator.
+     */
+    public Aggregation(Operator child, Vector<Accumulator> accumulators, Vector<Operator> sources,
+                       Vector<Attribute> attributes) {
+        this.child = child;
+        this.accumulators = accumulators;
+        this.sources = sources;
+        this.attributes = attributes;
+    }
+
+    @Override
+    public void open() {
+        isProduced = false;
+        accumulators.replaceAll(Accumulator::emptyCopy);
+        if (child != null) {
+            child.open();
+        }
+        for (Operator source : sources) {
+            if (source != null) {
+                source.open();
+            }
+        }
+    }
+
+    @Override
+    public RowRecord next() {
+        if (isProduced) {
+            return null;
+        }
+        isProduced = true;
+
+        if (child != null) {
+            for (RowRecord rowRecord = child.next(); rowRecord != null; rowRecord = child.next()) {
+                for (int i = 0; i < accumulators.size(); i++) {
+                    if (sources.get(i) == null) {
+                        accumulators.get(i).add(rowRecord);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < accumulators.size(); i++) {
+            Operator source = sources.get(i);
+            if (source == null) {
+                continue;
+            }
+            for (RowRecord rowRecord = source.next(); rowRecord != null; rowRecord = source.next()) {
+                accumulators.get(i).add(rowRecord);
+            }
+        }
+
+        RowRecord result = new RowRecord(attributes);
+        for (int i = 0; i < accumulators.size(); i++) {
+            result.setAttributeValue(i, accumulators.get(i).getResult());
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (child != null) {
+            child.close();
+        }
+        for (Operator source : sources) {
+            if (source != null) {
+                source.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package RheaDB.QueryExecution;
+
+import Predicate.Predicate;
+import RheaDB.Table;
+import RheaDB.TableStatistics;
+
+/**
+ * Estimates the cost of the access paths for a table in units of one
+ * sequentially read page. Rows reached through an index are charged as
+ * random page reads, since each one may land on a different page.
+ */
+public class CostModel {
+    static final double sequentialPageCost = 1.0;
+    static final double randomPageCost = 4.0;
+    static final double rowCost = 0.01;
+    static final double indexRowCost = 0.005;
+    static final double predicateCost = 0.0025;
+
+    private CostModel() {
+    }
+
+    /**
+     * @return The cost of reading every page of a table and testing each row
+     * against a number of predicates.
+     */
+    public static double sequentialScanCost(Table table, int numberOfPredicates) {
+        long rows = TableStatistics.estimateRowCount(table);
+        return table.getNumPages() * sequentialPageCost +
+                rows * (rowCost + numberOfPredicates * predicateCost);
+    }
+
+    /**
+     * @return The cost of finding the rows matching a predicate through the
+     * index of its attribute and fetching them.
+     */
+    public static double indexScanCost(Table table, Predicate predicate) {
+        long rows = TableStatistics.estimateRowCount(table);
+        double matchingRows = rows * TableStatistics.estimateSelectivity(table, predicate);
+        double fetchedPages = Math.min(table.getNumPages(), matchingRows);
+        double descent = Math.log(Math.max(2, rows)) / Math.log(2) * indexRowCost;
+        return descent + matchingRows * indexRowCost + fetchedPages * randomPageCost;
+    }
+}
@@ -0,0 +1,39 @@
+package RheaDB.QueryExecution;
+
+import Predicate.Condition;
+import RheaDB.RowRecord;
+
+/**
+ * Passes on the rows of its child that satisfy a condition. The predicates
+ * of the condition must already be resolved to the attributes of the table.
+ */
+public class Filter implements Operator {
+    private final Operator child;
+    private final Condition condition;
+
+    public Filter(Operator child, Condition condition) {
+        this.child = child;
+        this.condition = condition;
+    }
+
+    @Override
+    public void open() {
+        child.open();
+    }
+
+    @Override
+    public RowRecord next() {
+        RowRecord rowRecord;
+        while ((rowRecord = child.next()) != null) {
+            if (condition.isSatisfiedBy(rowRecord)) {
+                return rowRecord;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        child.close();
+    }
+}
@@ -0,0 +1,150 @@
+package RheaDB.QueryExecution;
+
+import RheaDB.Attribute;
+import RheaDB.AttributeType;
+import RheaDB.RowRecord;
+
+import java.util.Vector;
+
+/**
+ * How rows are grouped by a grouped aggregation, and how the row of each
+ * group is laid out: every column is either a grouping attribute, taken from
+ * a row of the group, or the result of an aggregate function over its rows.
+ * Groups are compared on the primitive values of their grouping attributes,
+ * and two nulls are in the same group.
+ */
+public class GroupLayout {
+    private final Vector<Attribute> inputAttributes;
+    private final int[] groupOrdinals;
+    private final Vector<Accumulator> accumulators;
+    private final int[] columnOrdinals;
+    private final Vector<Attribute> attributes;
+
+    /**
+     * @param inputAttributes The attributes of the grouped rows.
+     * @param groupOrdinals   The ordinals of the grouping attributes.
+     * @param accumulators    The aggregate functions, in column order.
+     * @param columnOrdinals  For each column, the ordinal of the grouping
+     *                        attribute it holds, or -1 for the next aggregate.
+     * @param attributes      The attributes of the produced rows.
+     */
+    public GroupLayout(Vector<Attribute> inputAttributes, int[] groupOrdinals, Vector<Accumulator> accumulators,
+                       int[] columnOrdinals, Vector<Attribute> attributes) {
+        this.inputAttributes = inputAttributes;
+        this.groupOrdinals = groupOrdinals;
+        this.accumulators = accumulators;
+        this.columnOrdinals = columnOrdinals;
+        this.attributes = attributes;
+    }
+
+    public Vector<Accumulator> getAccumulators() {
+        return accumulators;
+    }
+
+    public Vector<Attribute> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @return The index of the column holding a grouping attribute, or -1 if
+     * none does.
+     */
+    public int getColumnOf(int ordinal) {
+        for (int i = 0; i < columnOrdinals.length; i++) {
+            if (columnOrdinals[i] == ordinal) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    Vector<Attribute> getInputAttributes() {
+        return inputAttributes;
+    }
+
+    Accumulator[] newStates() {
+        Accumulator[] states = new Accumulator[accumulators.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = accumulators.get(i).emptyCopy();
+        }
+        return states;
+    }
+
+    /**
+     * @return A well mixed hash of the grouping attributes of a row.
+     */
+    int hash(RowRecord rowRecord) {
+        int hash = 1;
+        for (int ordinal : groupOrdinals) {
+            int valueHash;
+            if (rowRecord.isNull(ordinal)) {
+                valueHash = 0x9e3779b9;
+            } else {
+                valueHash = switch (inputAttributes.get(ordinal).getType()) {
+                    case INT -> rowRecord.getInt(ordinal);
+                    case FLOAT -> Float.floatToIntBits(rowRecord.getFloat(ordinal));
+                    case STRING -> rowRecord.getString(ordinal).hashCode();
+                };
+            }
+            hash = 31 * hash + valueHash;
+        }
+
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    boolean isSameGroup(RowRecord lhs, RowRecord rhs) {
+        for (int ordinal : groupOrdinals) {
+            boolean isNull = lhs.isNull(ordinal);
+            if (isNull != rhs.isNull(ordinal)) {
+                return false;
+            }
+            if (isNull) {
+                continue;
+            }
+
+            AttributeType type = inputAttributes.get(ordinal).getType();
+            boolean isEqual = switch (type) {
+                case INT -> lhs.getInt(ordinal) == rhs.getInt(ordinal);
+                case FLOAT -> Float.floatToIntBits(lhs.getFloat(ordinal)) ==
+                        Float.floatToIntBits(rhs.getFloat(ordinal));
+                case STRING -> lhs.getString(ordinal).equals(rhs.getString(ordinal));
+            };
+            if (!isEqual) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return A rough number of bytes a group of a row takes in memory.
+     */
+    long estimateGroupBytes(RowRecord rowRecord) {
+        long bytes = 64 + 32L * accumulators.size();
+        for (int ordinal : groupOrdinals) {
+            if (inputAttributes.get(ordinal).getType() == AttributeType.STRING && !rowRecord.isNull(ordinal)) {
+                bytes += 40 + 2L * rowRecord.getString(ordinal).length();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @param groupRow A row of the group.
+     */
+    RowRecord produce(RowRecord groupRow, Accumulator[] states) {
+        RowRecord result = new RowRecord(attributes);
+        int accumulatorIdx = 0;
+        for (int i = 0; i < columnOrdinals.length; i++) {
+            Object value = columnOrdinals[i] < 0 ? states[accumulatorIdx++].getResult() :
+                    groupRow.getValue(columnOrdinals[i]);
+            result.setAttributeValue(i, value);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,191 @@
+package RheaDB.QueryExecution;
+
+import RheaDB.RowRecord;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/**
+ * Produces a row per group of the rows of its child, aggregating them in an
+ * open-addressing hash table keyed on the primitive values of the grouping
+ * attributes. The groups are produced in no particular order.
+ * <p>
+ * Once the groups take more than {@value #MEMORY_PROPERTY} bytes, no new
+ * group is added: the rows of groups already in the table are still
+ * aggregated in it, while the others are partitioned by their hash into
+ * temporary files in the spill directory. Each partition is aggregated the
+ * same way after the groups in memory are produced, spilling again on the
+ * next bits of the hash if needed; past the last bits the budget is ignored.
+ */
+public class HashAggregation implements Operator {
+    public static final String MEMORY_PROPERTY = "rheadb.groupBy.memoryBytes";
+
+    private static final long defaultMemoryBytes = 64L << 20;
+    private static final int partitionBits = 4;
+    private static final int maxDepth = Integer.SIZE / partitionBits - 1;
+
+    private final Operator child;
+    private final GroupLayout layout;
+    private final String spillDirectory;
+
+    private long memoryBytes;
+    private GroupTable groups;
+    private int slotIdx;
+    private final ArrayDeque<Partition> partitions = new ArrayDeque<>();
+
+    /* Spilled rows of the groups sharing the bits of their hash used so far. */
+    private record Partition(SpillFile spillFile, int depth) {
+    }
+
+    /* The groups, with linear probing over power of two sized arrays. */
+    private static class GroupTable {
+        int[] hashes = new int[64];
+        RowRecord[] groupRows = new RowRecord[64];
+        Accumulator[][] states = new Accumulator[64][];
+        int numberOfGroups;
+        long estimatedBytes;
+
+        /**
+         * @return The slot of the row's group, or of the empty slot it would take.
+         */
+        int findSlot(GroupLayout layout, RowRecord rowRecord, int hash) {
+            int mask = groupRows.length - 1;
+            int slot = hash & mask;
+            while (groupRows[slot] != null &&
+                    (hashes[slot] != hash || !layout.isSameGroup(groupRows[slot], rowRecord))) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        int addGroup(GroupLayout layout, RowRecord rowRecord, int hash) {
+            if (2 * (numberOfGroups + 1) > groupRows.length) {
+                grow();
+            }
+
+            int slot = findSlot(layout, rowRecord, hash);
+            hashes[slot] = hash;
+            groupRows[slot] = rowRecord;
+            states[slot] = layout.newStates();
+            numberOfGroups++;
+            estimatedBytes += layout.estimateGroupBytes(rowRecord);
+            return slot;
+        }
+
+        private void grow() {
+            int[] oldHashes = hashes;
+            RowRecord[] oldGroupRows = groupRows;
+            Accumulator[][] oldStates = states;
+            hashes = new int[2 * oldHashes.length];
+            groupRows = new RowRecord[2 * oldGroupRows.length];
+            states = new Accumulator[2 * oldStates.length][];
+
+            int mask = groupRows.length - 1;
+            for (int i = 0; i < oldGroupRows.length; i++) {
+                if (oldGroupRows[i] == null) {
+                    continue;
+                }
+
+                int slot = oldHashes[i] & mask;
+                while (groupRows[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                hashes[slot] = oldHashes[i];
+                groupRows[slot] = oldGroupRows[i];
+                states[slot] = oldStates[i];
+            }
+        }
+    }
+
+    /**
+     * @param spillDirectory The directory partitions are spilled to.
+     */
+    public HashAggregation(Operator child, GroupLayout layout, String spillDirectory) {
+        this.child = child;
+        this.layout = layout;
+        this.spillDirectory = spillDirectory;
+    }
+
+    public static long getMemoryBytes() {
+        return Long.getLong(MEMORY_PROPERTY, defaultMemoryBytes);
+    }
+
+    @Override
+    public void open() {
+        memoryBytes = getMemoryBytes();
+        child.open();
+        groups = aggregate(child::next, 0);
+        child.close();
+        slotIdx = 0;
+    }
+
+    private GroupTable aggregate(Supplier<RowRecord> rows, int depth) {
+        GroupTable table = new GroupTable();
+        SpillFile[] spillFiles = null;
+        for (RowRecord rowRecord = rows.get(); rowRecord != null; rowRecord = rows.get()) {
+            int hash = layout.hash(rowRecord);
+            int slot = table.findSlot(layout, rowRecord, hash);
+            if (table.groupRows[slot] == null) {
+                if (spillFiles == null && depth < maxDepth && table.estimatedBytes >= memoryBytes) {
+                    spillFiles = new SpillFile[1 << partitionBits];
+                }
+                if (spillFiles != null) {
+                    int partitionIdx = (hash >>> (Integer.SIZE - partitionBits * (depth + 1))) &
+                            ((1 << partitionBits) - 1);
+                    if (spillFiles[partitionIdx] == null) {
+                        spillFiles[partitionIdx] = new SpillFile(spillDirectory, "group",
+                                layout.getInputAttributes());
+                    }
+                    spillFiles[partitionIdx].write(rowRecord);
+                    continue;
+                }
+                slot = table.addGroup(layout, rowRecord, hash);
+            }
+
+            for (Accumulator state : table.states[slot]) {
+                state.add(rowRecord);
+            }
+        }
+
+        if (spillFiles != null) {
+            for (SpillFile spillFile : spillFiles) {
+                if (spillFile != null) {
+                    spillFile.finishWriting();
+                    partitions.add(new Partition(spillFile, depth + 1));
+                }
+            }
+        }
+        return table;
+    }
+
+    @Override
+    public RowRecord next() {
+        while (groups != null) {
+            while (slotIdx < groups.groupRows.length) {
+                int slot = slotIdx++;
+                if (groups.groupRows[slot] != null) {
+                    return layout.produce(groups.groupRows[slot], groups.states[slot]);
+                }
+            }
+
+            Partition partition = partitions.poll();
+            if (partition == null) {
+                groups = null;
+                break;
+            }
+            groups = aggregate(partition.spillFile()::read, partition.depth());
+            partition.spillFile().delete();
+            slotIdx = 0;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        groups = null;
+        for (Partition partition : partitions) {
+            partition.spillFile().delete();
+        }
+        partitions.clear();
+    }
+}
@@ -0,0 +1,258 @@
+package RheaDB.QueryExecution;
+
+import RheaDB.Attribute;
+import RheaDB.AttributeType;
+import RheaDB.RowRecord;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Vector;
+import java.util.function.Supplier;
+
+/**
+ * Joins the rows of two children having equal values of an attribute each.
+ * The rows of the build child are put in a hash table keyed on their value,
+ * which the rows of the probe child then look up as they are produced. Rows
+ * with a null value join no row.
+ * <p>
+ * Once the build rows take more than {@value #MEMORY_PROPERTY} bytes, only
+ * rows with a value already in the table are still added to it, while the
+ * others are partitioned by the hash of their value into temporary files in
+ * the spill directory. Probe rows whose value is not in the table are
+ * partitioned the same way if their build partition is not empty. Each pair
+ * of partitions is then joined the same way, partitioning again on the next
+ * bits of the hash if needed; past the last bits the budget is ignored.
+ */
+public class HashJoin implements Operator {
+    public static final String MEMORY_PROPERTY = "rheadb.join.memoryBytes";
+
+    private static final long defaultMemoryBytes = 64L << 20;
+    private static final int partitionBits = 4;
+    private static final int maxDepth = Integer.SIZE / partitionBits - 1;
+
+    private final Operator build;
+    private final Operator probe;
+    private final Vector<Attribute> buildAttributes;
+    private final Vector<Attribute> probeAttributes;
+    private final int buildOrdinal;
+    private final int probeOrdinal;
+    private final boolean isBuildFirst;
+    private final Vector<Attribute> attributes;
+    private final String spillDirectory;
+
+    private long memoryBytes;
+    private HashMap<Object, ArrayList<RowRecord>> table;
+    private SpillFile[] buildSpillFiles;
+    private SpillFile[] probeSpillFiles;
+    private int depth;
+    private Supplier<RowRecord> probeRows;
+    private SpillFile probeSpillFile;
+    private RowRecord probeRow;
+    private ArrayList<RowRecord> matches;
+    private int matchIdx;
+    private final ArrayDeque<Partition> partitions = new ArrayDeque<>();
+
+    /* Spilled rows of both children whose values share the bits of their hash used so far. */
+    private record Partition(SpillFile buildFile, SpillFile probeFile, int depth) {
+    }
+
+    /**
+     * @param buildOrdinal   The ordinal of the joined attribute in the build rows.
+     * @param probeOrdinal   The ordinal of the joined attribute in the probe rows.
+     * @param isBuildFirst   Whether the attributes of the build rows come
+     *                       first in the joined rows.
+     * @param attributes     The attributes of the joined rows.
+     * @param spillDirectory The directory partitions are spilled to.
+     */
+    public HashJoin(Operator build, Vector<Attribute> buildAttributes, int buildOrdinal,
+                    Operator probe, Vector<Attribute> probeAttributes, int probeOrdinal,
+                    boolean isBuildFirst, Vector<Attribute> attributes, String spillDirectory) {
+        this.build = build;
+        this.probe = probe;
+        this.buildAttributes = buildAttributes;
+        this.probeAttributes = probeAttributes;
+        this.buildOrdinal = buildOrdinal;
+        this.probeOrdinal = probeOrdinal;
+        this.isBuildFirst = isBuildFirst;
+        this.attributes = attributes;
+        this.spillDirectory = spillDirectory;
+    }
+
+    public static long getMemoryBytes() {
+        return Long.getLong(MEMORY_PROPERTY, defaultMemoryBytes);
+    }
+
+    @Override
+    public void open() {
+        memoryBytes = getMemoryBytes();
+        build.open();
+        buildTable(build::next, 0);
+        build.close();
+        probe.open();
+        probeRows = probe::next;
+        probeSpillFile = null;
+        matches = null;
+    }
+
+    private void buildTable(Supplier<RowRecord> rows, int depth) {
+        this.depth = depth;
+        table = new HashMap<>();
+        buildSpillFiles = null;
+        probeSpillFiles = null;
+        long estimatedBytes = 0;
+        for (RowRecord rowRecord = rows.get(); rowRecord != null; rowRecord = rows.get()) {
+            Object key = rowRecord.getValue(buildOrdinal);
+            if (key == null) {
+                continue;
+            }
+
+            ArrayList<RowRecord> rowsOfKey = table.get(key);
+            if (rowsOfKey == null) {
+                if (buildSpillFiles == null && depth < maxDepth && estimatedBytes >= memoryBytes) {
+                    buildSpillFiles = new SpillFile[1 << partitionBits];
+                    probeSpillFiles = new SpillFile[1 << partitionBits];
+                }
+                if (buildSpillFiles != null) {
+                    int partitionIdx = partitionOf(key);
+                    if (buildSpillFiles[partitionIdx] == null) {
+                        buildSpillFiles[partitionIdx] = new SpillFile(spillDirectory, "build", buildAttributes);
+                    }
+                    buildSpillFiles[partitionIdx].write(rowRecord);
+                    continue;
+                }
+
+                rowsOfKey = new ArrayList<>(1);
+                table.put(key, rowsOfKey);
+            }
+            rowsOfKey.add(rowRecord);
+            estimatedBytes += estimateRowBytes(rowRecord);
+        }
+    }
+
+    private int partitionOf(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (hash >>> (Integer.SIZE - partitionBits * (depth + 1))) & ((1 << partitionBits) - 1);
+    }
+
+    private long estimateRowBytes(RowRecord rowRecord) {
+        long bytes = 48 + 16L * buildAttributes.size();
+        for (int i = 0; i < buildAttributes.size(); i++) {
+            if (buildAttributes.get(i).getType() == AttributeType.STRING && !rowRecord.isNull(i)) {
+                bytes += 40 + 2L * rowRecord.getString(i).length();
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public RowRecord next() {
+        while (table != null) {
+            if (matches != null && matchIdx < matches.size()) {
+                return join(matches.get(matchIdx++), probeRow);
+            }
+
+            probeRow = probeRows.get();
+            if (probeRow == null) {
+                nextPartition();
+                continue;
+            }
+
+            Object key = probeRow.getValue(probeOrdinal);
+            matches = key == null ? null : table.get(key);
+            matchIdx = 0;
+            if (key != null && matches == null && buildSpillFiles != null) {
+                int partitionIdx = partitionOf(key);
+                if (buildSpillFiles[partitionIdx] != null) {
+                    if (probeSpillFiles[partitionIdx] == null) {
+                        probeSpillFiles[partitionIdx] = new SpillFile(spillDirectory, "probe", probeAttributes);
+                    }
+                    probeSpillFiles[partitionIdx].write(probeRow);
+                }
+            }
+        }
+        return null;
+    }
+
+    /* Queues the partitions spilled by the finished table, and builds the next one. */
+    private void nextPartition() {
+        if (probeSpillFile != null) {
+            probeSpillFile.delete();
+            probeSpillFile = null;
+        }
+        if (buildSpillFiles != null) {
+            for (int i = 0; i < buildSpillFiles.length; i++) {
+                if (buildSpillFiles[i] == null) {
+                    continue;
+                }
+
+                if (probeSpillFiles[i] == null) {
+                    buildSpillFiles[i].delete();
+                    continue;
+                }
+                buildSpillFiles[i].finishWriting();
+                probeSpillFiles[i].finishWriting();
+                partitions.add(new Partition(buildSpillFiles[i], probeSpillFiles[i], depth + 1));
+            }
+            buildSpillFiles = null;
+            probeSpillFiles = null;
+        }
+
+        matches = null;
+        Partition partition = partitions.poll();
+        if (partition == null) {
+            table = null;
+            return;
+        }
+
+        buildTable(partition.buildFile()::read, partition.depth());
+        partition.buildFile().delete();
+        probeSpillFile = partition.probeFile();
+        probeRows = probeSpillFile::read;
+    }
+
+    private RowRecord join(RowRecord buildRow, RowRecord probeRow) {
+        RowRecord first = isBuildFirst ? buildRow : probeRow;
+        RowRecord second = isBuildFirst ? probeRow : buildRow;
+        int firstWidth = isBuildFirst ? buildAttributes.size() : probeAttributes.size();
+
+        RowRecord joinedRow = new RowRecord(attributes);
+        for (int i = 0; i < attributes.size(); i++) {
+            joinedRow.setAttributeValue(i, i < firstWidth ? first.getValue(i) : second.getValue(i - firstWidth));
+        }
+        return joinedRow;
+    }
+
+    @Override
+    public void close() {
+        table = null;
+        matches = null;
+        for (SpillFile[] spillFiles : new SpillFile[][]{buildSpillFiles, probeSpillFiles}) {
+            if (spillFiles == null) {
+                continue;
+            }
+            for (SpillFile spillFile : spillFiles) {
+                if (spillFile != null) {
+                    spillFile.delete();
+                }
+            }
+        }
+        buildSpillFiles = null;
+        probeSpillFiles = null;
+        if (probeSpillFile != null) {
+            probeSpillFile.delete();
+            probeSpillFile = null;
+        }
+        for (Partition partition : partitions) {
+            partition.buildFile().delete();
+            partition.probeFile().delete();
+        }
+        partitions.clear();
+        probe.close();
+    }
+}
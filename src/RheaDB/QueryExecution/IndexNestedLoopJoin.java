@@ -0,0 +1,113 @@
+package RheaDB.QueryExecution;
+
+import BPlusTree.BPlusTree;
+import Predicate.Condition;
+import Predicate.Predicate;
+import QueryParser.Parameter;
+import RheaDB.Attribute;
+import RheaDB.RowRecord;
+import RheaDB.StorageManagement.BufferPool;
+import RheaDB.Table;
+import RheaDB.TransactionManagement.Snapshot;
+
+import java.util.Vector;
+
+/**
+ * Joins each row of the outer child with the rows of the inner table having
+ * an equal value of an indexed attribute, found by looking the outer row's
+ * value up in the index of that attribute. The inner rows are read again
+ * from their pages and checked against the snapshot as by an
+ * {@link IndexScan}. Outer rows with a null value join no row.
+ */
+public class IndexNestedLoopJoin implements Operator {
+    private final Operator outer;
+    private final Vector<Attribute> outerAttributes;
+    private final int outerOrdinal;
+    private final Condition innerCondition;
+    private final boolean isOuterFirst;
+    private final Vector<Attribute> attributes;
+
+    private final Parameter lookedUpValue = new Parameter(1);
+    private final IndexScan lookup;
+    private RowRecord outerRow;
+
+    /**
+     * @param outerOrdinal   The ordinal of the joined attribute in the outer rows.
+     * @param innerOrdinal   The ordinal of the indexed attribute in the inner table.
+     * @param innerCondition A condition the inner rows must satisfy, or null.
+     * @param isOuterFirst   Whether the attributes of the outer rows come
+     *                       first in the joined rows.
+     * @param attributes     The attributes of the joined rows.
+     */
+    public IndexNestedLoopJoin(Operator outer, Vector<Attribute> outerAttributes, int outerOrdinal,
+                               BufferPool bufferPool, Table innerTable, BPlusTree<?, Long> index,
+                               int innerOrdinal, Condition innerCondition, Snapshot snapshot,
+                               boolean isOuterFirst, Vector<Attribute> attributes) {
+        this.outer = outer;
+        this.outerAttributes = outerAttributes;
+        this.outerOrdinal = outerOrdinal;
+        this.innerCondition = innerCondition;
+        this.isOuterFirst = isOuterFirst;
+        this.attributes = attributes;
+
+        Attribute innerAttribute = innerTable.getAttributeList().get(innerOrdinal);
+        Predicate predicate = new Predicate(innerAttribute.getName(), lookedUpValue, Predicate.Operation.EQUALS);
+        predicate.setAttribute(innerAttribute, innerOrdinal);
+        this.lookup = new IndexScan(bufferPool, innerTable, index, predicate, snapshot);
+    }
+
+    @Override
+    public void open() {
+        outer.open();
+        outerRow = null;
+    }
+
+    @Override
+    public RowRecord next() {
+        while (true) {
+            if (outerRow != null) {
+                RowRecord innerRow;
+                while ((innerRow = lookup.next()) != null) {
+                    if (innerCondition == null || innerCondition.isSatisfiedBy(innerRow)) {
+                        return join(outerRow, innerRow);
+                    }
+                }
+                lookup.close();
+                outerRow = null;
+            }
+
+            RowRecord rowRecord = outer.next();
+            if (rowRecord == null) {
+                return null;
+            }
+
+            Object value = rowRecord.getValue(outerOrdinal);
+            if (value != null) {
+                lookedUpValue.bind(value);
+                lookup.open();
+                outerRow = rowRecord;
+            }
+        }
+    }
+
+    private RowRecord join(RowRecord outerRow, RowRecord innerRow) {
+        RowRecord first = isOuterFirst ? outerRow : innerRow;
+        RowRecord second = isOuterFirst ? innerRow : outerRow;
+        int firstWidth = isOuterFirst ? outerAttributes.size() : attributes.size() - outerAttributes.size();
+
+        RowRecord joinedRow = new RowRecord(attributes);
+        for (int i = 0; i < attributes.size(); i++) {
+            joinedRow.setAttributeValue(i, i < firstWidth ? first.getValue(i) : second.getValue(i - firstWidth));
+        }
+        return joinedRow;
+    }
+
+    @Override
+    public void close() {
+        if (outerRow != null) {
+            lookup.close();
+            outerRow = null;
+        }
+        outer.close();
+    }
+}
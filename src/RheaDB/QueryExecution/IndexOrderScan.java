@@ -0,0 +1,119 @@
+package RheaDB.QueryExecution;
+
+import BPlusTree.BPlusTree;
+import BPlusTree.ValueList;
+import RheaDB.RowRecord;
+import RheaDB.StorageManagement.BufferPool;
+import RheaDB.Table;
+import RheaDB.TransactionManagement.Snapshot;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Vector;
+
+/**
+ * Produces the rows of a table ordered by an indexed attribute, by walking
+ * the leaves of the attribute's B+Tree from the first one through their right
+ * siblings, or from the last one through their left siblings for a
+ * descending order.
+ * <p>
+ * Like an {@link IndexScan}, the row of each entry is read from its page and
+ * produced only if that version is visible in the scan's snapshot. The leaves
+ * are walked in batches under the index's monitor, each continuing after the
+ * last key of the previous one; the first batch is sized by the number of
+ * rows wanted and batches double from there.
+ */
+public class IndexOrderScan implements Operator {
+    private static final int maxFirstBatch = 1024;
+
+    private final BufferPool bufferPool;
+    private final Table table;
+    private final BPlusTree<?, Long> index;
+    private final int ordinal;
+    private final boolean isDescending;
+    private final Snapshot snapshot;
+    private final int rowsWanted;
+
+    private Iterator<Entry> entries;
+    private Object lastKey;
+    private int batchSize;
+    private boolean isExhausted;
+
+    /* The locator of a row with its key in the index. */
+    private record Entry(Object key, long locator) {
+    }
+
+    /**
+     * @param ordinal    The ordinal of the indexed attribute.
+     * @param rowsWanted The number of rows the consumer is expected to pull.
+     */
+    public IndexOrderScan(BufferPool bufferPool, Table table, BPlusTree<?, Long> index, int ordinal,
+                          boolean isDescending, Snapshot snapshot, int rowsWanted) {
+        this.bufferPool = bufferPool;
+        this.table = table;
+        this.index = index;
+        this.ordinal = ordinal;
+        this.isDescending = isDescending;
+        this.snapshot = snapshot;
+        this.rowsWanted = Math.max(1, rowsWanted);
+    }
+
+    @Override
+    public void open() {
+        entries = null;
+        lastKey = null;
+        batchSize = Math.min(rowsWanted, maxFirstBatch);
+        isExhausted = false;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private boolean walkNextBatch() {
+        if (isExhausted) {
+            return false;
+        }
+
+        Vector<Entry> batch = new Vector<>();
+        synchronized (index) {
+            Vector<ValueList> valueLists = ((BPlusTree) index)
+                    .findInOrder((Comparable) lastKey, isDescending, batchSize);
+            for (ValueList valueList : valueLists) {
+                for (Object locator : valueList) {
+                    batch.add(new Entry(valueList.getKey(), (Long) locator));
+                }
+            }
+            if (!valueLists.isEmpty()) {
+                lastKey = valueLists.lastElement().getKey();
+            }
+        }
+
+        isExhausted = batch.size() < batchSize;
+        batchSize = (int) Math.min(Integer.MAX_VALUE, 2L * batchSize);
+        entries = batch.iterator();
+        return true;
+    }
+
+    @Override
+    public RowRecord next() {
+        while (true) {
+            if (entries == null || !entries.hasNext()) {
+                if (!walkNextBatch()) {
+                    return null;
+                }
+                continue;
+            }
+
+            Entry entry = entries.next();
+            RowRecord rowRecord = bufferPool.getRecord(table, entry.locator());
+            if (rowRecord != null && Objects.equals(rowRecord.getValue(ordinal), entry.key()) &&
+                    (snapshot == null || snapshot.isVisible(rowRecord))) {
+                return rowRecord;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        entries = null;
+        isExhausted = true;
+    }
+}
@@ -0,0 +1,122 @@
+package RheaDB.QueryExecution;
+
+import BPlusTree.BPlusTree;
+import BPlusTree.ValueList;
+import Predicate.Predicate;
+import RheaDB.RowRecord;
+import RheaDB.StorageManagement.BufferPool;
+import RheaDB.Table;
+import RheaDB.TransactionManagement.Snapshot;
+
+import java.util.Iterator;
+import java.util.Vector;
+
+/**
+ * Produces the rows whose indexed attribute satisfies a predicate, as found
+ * by a lookup in the attribute's B+Tree.
+ * <p>
+ * The index holds the locator of every version of a row, as given by
+ * {@link RowRecord#getLocator()}. Each match is read from its page through
+ * the buffer pool, and produced only if that version is visible in the
+ * scan's snapshot.
+ * <p>
+ * Readers do not lock the table, so the lookup holds the index's monitor,
+ * which writers also hold while changing it. A scan expected to produce only
+ * a few rows, such as one under a LIMIT, looks matches up in batches that
+ * double in size, each continuing after the last key of the previous one.
+ */
+public class IndexScan implements Operator {
+    private final BufferPool bufferPool;
+    private final Table table;
+    private final BPlusTree<?, Long> index;
+    private final Predicate predicate;
+    private final Snapshot snapshot;
+    private final int rowsWanted;
+
+    private Iterator<Long> matches;
+    private Object lastKey;
+    private int batchSize;
+    private boolean isExhausted;
+
+    public IndexScan(BufferPool bufferPool, Table table, BPlusTree<?, Long> index,
+                     Predicate predicate, Snapshot snapshot) {
+        this(bufferPool, table, index, predicate, snapshot, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param rowsWanted The number of rows the consumer is expected to pull,
+     *                   which sizes the first batch of matches.
+     */
+    public IndexScan(BufferPool bufferPool, Table table, BPlusTree<?, Long> index,
+                     Predicate predicate, Snapshot snapshot, int rowsWanted) {
+        this.bufferPool = bufferPool;
+        this.table = table;
+        this.index = index;
+        this.predicate = predicate;
+        this.snapshot = snapshot;
+        this.rowsWanted = Math.max(1, rowsWanted);
+    }
+
+    @Override
+    public void open() {
+        lastKey = null;
+        batchSize = rowsWanted;
+        isExhausted = false;
+        if (rowsWanted == Integer.MAX_VALUE) {
+            synchronized (index) {
+                matches = index.findWithPredicate(predicate).iterator();
+            }
+            isExhausted = true;
+        } else {
+            matches = null;
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private boolean lookUpNextBatch() {
+        if (isExhausted) {
+            return false;
+        }
+
+        Vector<Long> batch = new Vector<>();
+        synchronized (index) {
+            Vector<ValueList> valueLists = ((BPlusTree) index)
+                    .findWithPredicate(predicate, (Comparable) lastKey, batchSize);
+            for (ValueList valueList : valueLists) {
+                batch.addAll(valueList);
+            }
+            if (!valueLists.isEmpty()) {
+                lastKey = valueLists.lastElement().getKey();
+            }
+        }
+
+        isExhausted = batch.size() < batchSize;
+        batchSize = (int) Math.min(Integer.MAX_VALUE, 2L * batchSize);
+        matches = batch.iterator();
+        return true;
+    }
+
+    @Override
+    public RowRecord next() {
+        while (true) {
+            if (matches == null || !matches.hasNext()) {
+                if (!lookUpNextBatch()) {
+                    return null;
+                }
+                continue;
+            }
+
+            RowRecord rowRecord = bufferPool.getRecord(table, matches.next());
+            if (rowRecord != null && predicate.isSatisfiedBy(rowRecord) &&
+                    (snapshot == null || snapshot.isVisible(rowRecord))) {
+                return rowRecord;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        matches = null;
+        isExhausted = true;
+    }
+}
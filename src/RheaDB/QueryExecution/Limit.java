@@ -0,0 +1,63 @@
+package RheaDB.QueryExecution;
+
+import RheaDB.RowRecord;
+
+/**
+ * Skips the first rows of its child and produces at most a given number of
+ * the following ones. Once the limit is reached the child is not pulled
+ * again, so the scans below it stop fetching pages.
+ */
+public class Limit implements Operator {
+    private final Operator child;
+    private final long limit;
+    private final long offset;
+
+    private long skippedRows;
+    private long producedRows;
+
+    /**
+     * @param limit  The number of rows to produce.
+     * @param offset The number of rows to skip first.
+     */
+    public Limit(Operator child, long limit, long offset) {
+        this.child = child;
+        this.limit = limit;
+        this.offset = offset;
+    }
+
+    @Override
+    public void open() {
+        skippedRows = 0;
+        producedRows = 0;
+        child.open();
+    }
+
+    @Override
+    public RowRecord next() {
+        if (producedRows >= limit) {
+            return null;
+        }
+
+        while (skippedRows < offset) {
+            if (child.next() == null) {
+                skippedRows = offset;
+                producedRows = limit;
+                return null;
+            }
+            skippedRows++;
+        }
+
+        RowRecord rowRecord = child.next();
+        if (rowRecord == null) {
+            producedRows = limit;
+            return null;
+        }
+        producedRows++;
+        return rowRecord;
+    }
+
+    @Override
+    public void close() {
+        child.close();
+    }
+}
@@ -0,0 +1,26 @@
+package RheaDB.QueryExecution;
+
+import RheaDB.RowRecord;
+
+/**
+ * A node of a pull-based (Volcano) execution plan. Each call to
+ * {@link #next()} produces at most one row, pulling rows from child
+ * operators only as they are needed.
+ */
+public interface Operator {
+
+    /**
+     * Prepares the operator, and its children, to produce rows.
+     */
+    void open();
+
+    /**
+     * @return The next row, or null once the operator is exhausted.
+     */
+    RowRecord next();
+
+    /**
+     * Releases whatever the operator holds. No rows are produced afterwards.
+     */
+    void close();
+}
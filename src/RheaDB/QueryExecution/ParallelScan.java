@@ -0,0 +1,203 @@
+package RheaDB.QueryExecution;
+
+import Predicate.Condition;
+import RheaDB.Page;
+import RheaDB.RowRecord;
+import RheaDB.StorageManagement.BufferPool;
+import RheaDB.Table;
+import RheaDB.TransactionManagement.Snapshot;
+import RheaDB.ZoneMap;
+
+import java.io.Serial;
+import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Produces the rows of a table satisfying a condition, fetching and
+ * filtering its pages on several threads. Pages are taken in windows of a
+ * few pages per thread; each window is split into page ranges by a fork/join
+ * task, and the rows its ranges produce are merged back in page order, so
+ * the scan produces rows in the same order as a {@link SeqScan}. Pages whose
+ * zone map summary rules the condition out are not fetched. The first window
+ * has a single task per thread and windows double from there, so a consumer
+ * that stops early, as under a LIMIT, does not wait for a large window.
+ * <p>
+ * The degree of parallelism is read from {@value #PARALLELISM_PROPERTY}, and
+ * tables with fewer pages than {@value #THRESHOLD_PROPERTY} are better off
+ * scanned serially, see {@link #create}.
+ */
+public class ParallelScan implements Operator {
+    public static final String PARALLELISM_PROPERTY = "rheadb.scan.parallelism";
+    public static final String THRESHOLD_PROPERTY = "rheadb.scan.parallelThreshold";
+
+    private static final int defaultThresholdPages = 64;
+    private static final int pagesPerTask = 4;
+    private static final int tasksPerThread = 4;
+
+    private static final RowRecord[] emptyWindow = new RowRecord[0];
+    private static volatile ForkJoinPool scanPool;
+
+    private final BufferPool bufferPool;
+    private final Table table;
+    private final Snapshot snapshot;
+    private final Condition condition;
+    private final boolean[] columns;
+
+    private int pageIdx;
+    private int windowPages;
+    private RowRecord[] windowRows = emptyWindow;
+    private int rowIdx;
+
+    /**
+     * @param condition The condition produced rows satisfy, or null for every row.
+     */
+    public ParallelScan(BufferPool bufferPool, Table table, Snapshot snapshot, Condition condition) {
+        this(bufferPool, table, snapshot, condition, null);
+    }
+
+    /**
+     * @param condition The condition produced rows satisfy, or null for every row.
+     * @param columns   Whether each attribute, by ordinal, is needed by the
+     *                  condition or the consumers of the scan, or null for all.
+     */
+    public ParallelScan(BufferPool bufferPool, Table table, Snapshot snapshot, Condition condition,
+                        boolean[] columns) {
+        this.bufferPool = bufferPool;
+        this.table = table;
+        this.snapshot = snapshot;
+        this.condition = condition;
+        this.columns = columns;
+    }
+
+    /**
+     * @return A parallel scan of the table, or a serial one when the table is
+     * below the threshold or a single thread is configured.
+     */
+    public static Operator create(BufferPool bufferPool, Table table, Snapshot snapshot, Condition condition) {
+        return create(bufferPool, table, snapshot, condition, null);
+    }
+
+    public static Operator create(BufferPool bufferPool, Table table, Snapshot snapshot, Condition condition,
+                                  boolean[] columns) {
+        if (getParallelism() > 1 && table.getNumPages() >= getThresholdPages()) {
+            return new ParallelScan(bufferPool, table, snapshot, condition, columns);
+        }
+
+        Operator seqScan = new SeqScan(bufferPool, table, snapshot, columns, condition);
+        return condition == null ? seqScan : new Filter(seqScan, condition);
+    }
+
+    @Override
+    public void open() {
+        pageIdx = 0;
+        windowPages = getParallelism() * pagesPerTask;
+        windowRows = emptyWindow;
+        rowIdx = 0;
+    }
+
+    @Override
+    public RowRecord next() {
+        while (rowIdx == windowRows.length) {
+            if (!scanNextWindow()) {
+                return null;
+            }
+        }
+        return windowRows[rowIdx++];
+    }
+
+    private boolean scanNextWindow() {
+        int numPages = table.getNumPages();
+        if (pageIdx >= numPages) {
+            return false;
+        }
+
+        int lastPageIdx = Math.min(numPages, pageIdx + windowPages);
+        windowRows = getScanPool().invoke(new PageRangeTask(pageIdx + 1, lastPageIdx)).toArray(emptyWindow);
+        pageIdx = lastPageIdx;
+        windowPages = Math.min(2 * windowPages, getParallelism() * tasksPerThread * pagesPerTask);
+        rowIdx = 0;
+        return true;
+    }
+
+    @Override
+    public void close() {
+        pageIdx = table.getNumPages();
+        windowRows = emptyWindow;
+        rowIdx = 0;
+    }
+
+    /**
+     * Scans the pages from firstPageIdx to lastPageIdx, both included.
+     */
+    private class PageRangeTask extends RecursiveTask<Vector<RowRecord>> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int firstPageIdx;
+        private final int lastPageIdx;
+
+        PageRangeTask(int firstPageIdx, int lastPageIdx) {
+            this.firstPageIdx = firstPageIdx;
+            this.lastPageIdx = lastPageIdx;
+        }
+
+        @Override
+        protected Vector<RowRecord> compute() {
+            if (lastPageIdx - firstPageIdx < pagesPerTask) {
+                return scanPages();
+            }
+
+            int middlePageIdx = (firstPageIdx + lastPageIdx) / 2;
+            PageRangeTask upperHalf = new PageRangeTask(middlePageIdx + 1, lastPageIdx);
+            upperHalf.fork();
+            Vector<RowRecord> rows = new PageRangeTask(firstPageIdx, middlePageIdx).compute();
+            rows.addAll(upperHalf.join());
+            return rows;
+        }
+
+        private Vector<RowRecord> scanPages() {
+            Vector<RowRecord> rows = new Vector<>();
+            ZoneMap zoneMap = table.getZoneMap();
+            for (int i = firstPageIdx; i <= lastPageIdx; i++) {
+                if (!zoneMap.mayMatch(i, condition)) {
+                    continue;
+                }
+
+                Page page = bufferPool.getPage(table, i, columns);
+                if (page == null) {
+                    continue;
+                }
+
+                for (RowRecord rowRecord : page.getRecords().toArray(emptyWindow)) {
+                    if ((snapshot == null || snapshot.isVisible(rowRecord)) &&
+                            (condition == null || condition.isSatisfiedBy(rowRecord))) {
+                        rows.add(rowRecord);
+                    }
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static ForkJoinPool getScanPool() {
+        ForkJoinPool pool = scanPool;
+        if (pool == null) {
+            synchronized (ParallelScan.class) {
+                if (scanPool == null) {
+                    scanPool = new ForkJoinPool(getParallelism());
+                }
+                pool = scanPool;
+            }
+        }
+        return pool;
+    }
+
+    public static int getParallelism() {
+        return Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static int getThresholdPages() {
+        return Integer.getInteger(THRESHOLD_PROPERTY, defaultThresholdPages);
+    }
+}
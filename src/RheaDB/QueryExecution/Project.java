@@ -0,0 +1,56 @@
+package RheaDB.QueryExecution;
+
+import RheaDB.Attribute;
+import RheaDB.RowRecord;
+
+import java.util.Vector;
+
+/**
+ * Narrows the rows of its child down to the selected attributes. The
+ * projected rows keep the page and row ids of the rows they came from.
+ */
+public class Project implements Operator {
+    private final Operator child;
+    private final Vector<Attribute> projectedAttributes;
+    private final int[] ordinals;
+
+    /**
+     * @param child               The operator producing full table rows.
+     * @param tableAttributes     The attributes of the rows the child produces.
+     * @param projectedAttributes The attributes to keep, in output order.
+     */
+    public Project(Operator child, Vector<Attribute> tableAttributes, Vector<Attribute> projectedAttributes) {
+        this.child = child;
+        this.projectedAttributes = projectedAttributes;
+        this.ordinals = new int[projectedAttributes.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = tableAttributes.indexOf(projectedAttributes.get(i));
+        }
+    }
+
+    @Override
+    public void open() {
+        child.open();
+    }
+
+    @Override
+    public RowRecord next() {
+        RowRecord rowRecord = child.next();
+        if (rowRecord == null) {
+            return null;
+        }
+
+        RowRecord projectedRow = new RowRecord(projectedAttributes);
+        for (int i = 0; i < ordinals.length; i++) {
+            projectedRow.setAttributeValue(i, rowRecord.getValue(ordinals[i]));
+        }
+        projectedRow.setPageId(rowRecord.getPageId());
+        projectedRow.setRowId(rowRecord.getRowId());
+        return projectedRow;
+    }
+
+    @Override
+    public void close() {
+        child.close();
+    }
+}
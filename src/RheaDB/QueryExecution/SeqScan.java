@@ -0,0 +1,104 @@
+package RheaDB.QueryExecution;
+
+import Predicate.Condition;
+import RheaDB.Page;
+import RheaDB.RowRecord;
+import RheaDB.StorageManagement.BufferPool;
+import RheaDB.Table;
+import RheaDB.TransactionManagement.Snapshot;
+
+/**
+ * Produces every row of a table, fetching one page at a time from the
+ * buffer pool. The rows of the current page are copied when the page is
+ * fetched, so writes made while the scan is suspended do not disturb it.
+ * <p>
+ * A scan given a snapshot only produces the row versions visible in it, so
+ * its rows stay consistent however long the scan is suspended. A scan
+ * given the columns its consumers need may produce rows whose other values
+ * were left null, see {@link BufferPool#getPage(Table, int, boolean[])}.
+ * A scan given a condition skips the pages whose zone map summary rules it
+ * out, but its rows are still to be filtered by the condition.
+ */
+public class SeqScan implements Operator {
+    private static final RowRecord[] emptyPage = new RowRecord[0];
+
+    private final BufferPool bufferPool;
+    private final Table table;
+    private final Snapshot snapshot;
+    private final boolean[] columns;
+    private final Condition condition;
+
+    private int pageIdx;
+    private RowRecord[] pageRows = emptyPage;
+    private int rowIdx;
+
+    public SeqScan(BufferPool bufferPool, Table table) {
+        this(bufferPool, table, null);
+    }
+
+    public SeqScan(BufferPool bufferPool, Table table, Snapshot snapshot) {
+        this(bufferPool, table, snapshot, null);
+    }
+
+    /**
+     * @param columns Whether each attribute, by ordinal, is needed, or null for all.
+     */
+    public SeqScan(BufferPool bufferPool, Table table, Snapshot snapshot, boolean[] columns) {
+        this(bufferPool, table, snapshot, columns, null);
+    }
+
+    /**
+     * @param columns   Whether each attribute, by ordinal, is needed, or null for all.
+     * @param condition The condition used to skip pages, or null to read every page.
+     */
+    public SeqScan(BufferPool bufferPool, Table table, Snapshot snapshot, boolean[] columns,
+                   Condition condition) {
+        this.bufferPool = bufferPool;
+        this.table = table;
+        this.snapshot = snapshot;
+        this.columns = columns;
+        this.condition = condition;
+    }
+
+    @Override
+    public void open() {
+        pageIdx = 0;
+        pageRows = emptyPage;
+        rowIdx = 0;
+    }
+
+    @Override
+    public RowRecord next() {
+        while (true) {
+            while (rowIdx == pageRows.length) {
+                if (!fetchNextPage()) {
+                    return null;
+                }
+            }
+
+            RowRecord rowRecord = pageRows[rowIdx++];
+            if (snapshot == null || snapshot.isVisible(rowRecord)) {
+                return rowRecord;
+            }
+        }
+    }
+
+    private boolean fetchNextPage() {
+        if (pageIdx >= table.getNumPages()) {
+            return false;
+        }
+
+        Page page = table.getZoneMap().mayMatch(++pageIdx, condition) ?
+                bufferPool.getPage(table, pageIdx, columns) : null;
+        pageRows = page == null ? emptyPage : page.getRecords().toArray(emptyPage);
+        rowIdx = 0;
+        return true;
+    }
+
+    @Override
+    public void close() {
+        pageIdx = table.getNumPages();
+        pageRows = emptyPage;
+        rowIdx = 0;
+    }
+}
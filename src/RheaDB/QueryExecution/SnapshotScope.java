@@ -0,0 +1,38 @@
+package RheaDB.QueryExecution;
+
+import RheaDB.RowRecord;
+import RheaDB.TransactionManagement.Snapshot;
+
+/**
+ * Produces the rows of its child, and releases the snapshot the child reads
+ * under once the child is exhausted or closed.
+ */
+public class SnapshotScope implements Operator {
+    private final Operator child;
+    private final Snapshot snapshot;
+
+    public SnapshotScope(Operator child, Snapshot snapshot) {
+        this.child = child;
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public void open() {
+        child.open();
+    }
+
+    @Override
+    public RowRecord next() {
+        RowRecord rowRecord = child.next();
+        if (rowRecord == null) {
+            snapshot.release();
+        }
+        return rowRecord;
+    }
+
+    @Override
+    public void close() {
+        child.close();
+        snapshot.release();
+    }
+}
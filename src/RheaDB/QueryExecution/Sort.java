@@ -0,0 +1,188 @@
+package RheaDB.QueryExecution;
+
+import RheaDB.Attribute;
+import RheaDB.RowRecord;
+
+import java.util.*;
+
+/**
+ * Produces the rows of its child ordered by one attribute, with nulls after
+ * every value in ascending order and before them in descending order. Rows
+ * with equal values keep the order the child produced them in.
+ * <p>
+ * When only the first rows are wanted, as under a LIMIT, and they fit in a
+ * run, they are kept in a bounded heap while the child is drained. Otherwise
+ * the rows are collected in runs of up to {@value #RUN_ROWS_PROPERTY} rows;
+ * if more than one run is needed, each is sorted and spilled to a temporary
+ * file in the spill directory, and the runs are merged as rows are pulled.
+ * The files are deleted once the operator is closed.
+ */
+public class Sort implements Operator {
+    public static final String RUN_ROWS_PROPERTY = "rheadb.sort.runRows";
+
+    private static final int defaultRunRows = 100_000;
+
+    private final Operator child;
+    private final Vector<Attribute> attributes;
+    private final Comparator<RowRecord> comparator;
+    private final long rowsWanted;
+    private final String spillDirectory;
+
+    private Iterator<RowRecord> sortedRows;
+    private final Vector<RunReader> runReaders = new Vector<>();
+    private PriorityQueue<RunReader> mergeQueue;
+
+    /**
+     * @param attributes     The attributes of the child's rows.
+     * @param ordinal        The ordinal of the attribute to order by.
+     * @param rowsWanted     The number of rows the consumer is expected to pull.
+     * @param spillDirectory The directory runs are spilled to.
+     */
+    public Sort(Operator child, Vector<Attribute> attributes, int ordinal, boolean isDescending,
+                long rowsWanted, String spillDirectory) {
+        this.child = child;
+        this.attributes = attributes;
+        this.rowsWanted = Math.max(1, rowsWanted);
+        this.spillDirectory = spillDirectory;
+
+        Comparator<RowRecord> ascending = (lhs, rhs) -> compareValues(lhs.getValue(ordinal), rhs.getValue(ordinal));
+        this.comparator = isDescending ? ascending.reversed() : ascending;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static int compareValues(Object lhs, Object rhs) {
+        if (lhs == null || rhs == null) {
+            return lhs == null ? (rhs == null ? 0 : 1) : -1;
+        }
+        return ((Comparable) lhs).compareTo(rhs);
+    }
+
+    public static int getRunRows() {
+        return Integer.getInteger(RUN_ROWS_PROPERTY, defaultRunRows);
+    }
+
+    @Override
+    public void open() {
+        child.open();
+        int runRows = Math.max(1, getRunRows());
+        if (rowsWanted <= runRows) {
+            sortedRows = topRows((int) rowsWanted).iterator();
+        } else {
+            sortAllRows(runRows);
+        }
+        child.close();
+    }
+
+    /* A row and the position the child produced it at, which breaks ties. */
+    private record SequencedRow(RowRecord rowRecord, long sequence) {
+    }
+
+    private List<RowRecord> topRows(int numberOfRows) {
+        Comparator<SequencedRow> order = Comparator.<SequencedRow, RowRecord>comparing(SequencedRow::rowRecord,
+                comparator).thenComparingLong(SequencedRow::sequence);
+        PriorityQueue<SequencedRow> heap = new PriorityQueue<>(order.reversed());
+
+        long sequence = 0;
+        RowRecord rowRecord;
+        while ((rowRecord = child.next()) != null) {
+            SequencedRow sequencedRow = new SequencedRow(rowRecord, sequence++);
+            if (heap.size() < numberOfRows) {
+                heap.add(sequencedRow);
+            } else if (order.compare(sequencedRow, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(sequencedRow);
+            }
+        }
+
+        RowRecord[] rows = new RowRecord[heap.size()];
+        for (int i = rows.length - 1; i >= 0; i--) {
+            rows[i] = heap.poll().rowRecord();
+        }
+        return Arrays.asList(rows);
+    }
+
+    private void sortAllRows(int runRows) {
+        ArrayList<RowRecord> run = new ArrayList<>();
+        RowRecord rowRecord;
+        while ((rowRecord = child.next()) != null) {
+            run.add(rowRecord);
+            if (run.size() >= runRows) {
+                spillRun(run);
+                run.clear();
+            }
+        }
+
+        run.sort(comparator);
+        if (runReaders.isEmpty()) {
+            sortedRows = run.iterator();
+            return;
+        }
+
+        if (!run.isEmpty()) {
+            spillRun(run);
+        }
+        mergeQueue = new PriorityQueue<>((lhs, rhs) -> {
+            int comparison = comparator.compare(lhs.current, rhs.current);
+            return comparison != 0 ? comparison : Integer.compare(lhs.runIdx, rhs.runIdx);
+        });
+        for (RunReader runReader : runReaders) {
+            if (runReader.advance()) {
+                mergeQueue.add(runReader);
+            }
+        }
+    }
+
+    private void spillRun(ArrayList<RowRecord> run) {
+        run.sort(comparator);
+        SpillFile runFile = new SpillFile(spillDirectory, "sort", attributes);
+        for (RowRecord rowRecord : run) {
+            runFile.write(rowRecord);
+        }
+        runFile.finishWriting();
+        runReaders.add(new RunReader(runFile, runReaders.size()));
+    }
+
+    /* Reads back the rows of a spilled run, in order. */
+    private static class RunReader {
+        private final SpillFile runFile;
+        private final int runIdx;
+        private RowRecord current;
+
+        RunReader(SpillFile runFile, int runIdx) {
+            this.runFile = runFile;
+            this.runIdx = runIdx;
+        }
+
+        boolean advance() {
+            current = runFile.read();
+            return current != null;
+        }
+    }
+
+    @Override
+    public RowRecord next() {
+        if (sortedRows != null) {
+            return sortedRows.hasNext() ? sortedRows.next() : null;
+        }
+        if (mergeQueue == null || mergeQueue.isEmpty()) {
+            return null;
+        }
+
+        RunReader runReader = mergeQueue.poll();
+        RowRecord rowRecord = runReader.current;
+        if (runReader.advance()) {
+            mergeQueue.add(runReader);
+        }
+        return rowRecord;
+    }
+
+    @Override
+    public void close() {
+        sortedRows = null;
+        mergeQueue = null;
+        for (RunReader runReader : runReaders) {
+            runReader.runFile.delete();
+        }
+        runReaders.clear();
+    }
+}
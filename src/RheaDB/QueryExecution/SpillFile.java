@@ -0,0 +1,127 @@
+package RheaDB.QueryExecution;
+
+import RheaDB.Attribute;
+import RheaDB.RowRecord;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Vector;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A temporary file of rows spilled by an operator that holds more of them
+ * than it keeps in memory. The rows are written one after the other, each
+ * value preceded by whether it is null, and read back in the same order once
+ * writing is finished. Only the values of the rows are kept.
+ */
+final class SpillFile {
+    private static final Logger LOGGER = Logger.getLogger(SpillFile.class.getName());
+
+    private final File file;
+    private final Vector<Attribute> attributes;
+    private DataOutputStream outputStream;
+    private DataInputStream inputStream;
+
+    /**
+     * Creates an empty file in a directory, to be written to.
+     */
+    SpillFile(String directory, String prefix, Vector<Attribute> attributes) {
+        this.attributes = attributes;
+        File spillFile = null;
+        try {
+            spillFile = File.createTempFile(prefix, ".spill", new File(directory));
+            spillFile.deleteOnExit();
+            outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile)));
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Could not create a spill file in " + directory + "... Exiting.", e);
+            System.exit(1);
+        }
+        this.file = spillFile;
+    }
+
+    void write(RowRecord rowRecord) {
+        try {
+            for (int i = 0; i < attributes.size(); i++) {
+                Object value = rowRecord.getValue(i);
+                outputStream.writeBoolean(value == null);
+                if (value == null) {
+                    continue;
+                }
+
+                switch (attributes.get(i).getType()) {
+                    case INT -> outputStream.writeInt(rowRecord.getInt(i));
+                    case FLOAT -> outputStream.writeFloat(rowRecord.getFloat(i));
+                    case STRING -> {
+                        byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+                        outputStream.writeInt(bytes.length);
+                        outputStream.write(bytes);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Could not write spill file " + file + "... Exiting.", e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Finishes writing, after which the rows are read from the first one.
+     */
+    void finishWriting() {
+        try {
+            outputStream.close();
+            inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Could not reopen spill file " + file + "... Exiting.", e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return The next row, or null once every row was read.
+     */
+    RowRecord read() {
+        try {
+            RowRecord rowRecord = new RowRecord(attributes);
+            for (int i = 0; i < attributes.size(); i++) {
+                if (inputStream.readBoolean()) {
+                    rowRecord.setAttributeValue(i, null);
+                    continue;
+                }
+
+                switch (attributes.get(i).getType()) {
+                    case INT -> rowRecord.setInt(i, inputStream.readInt());
+                    case FLOAT -> rowRecord.setFloat(i, inputStream.readFloat());
+                    case STRING -> {
+                        byte[] bytes = new byte[inputStream.readInt()];
+                        inputStream.readFully(bytes);
+                        rowRecord.setString(i, new String(bytes, StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            return rowRecord;
+        } catch (EOFException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Could not read spill file " + file + "... Exiting.", e);
+            System.exit(1);
+            return null;
+        }
+    }
+
+    void delete() {
+        try {
+            if (inputStream != null) {
+                inputStream.close();
+            } else {
+                outputStream.close();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not close spill file " + file, e);
+        }
+        if (!file.delete()) {
+            LOGGER.log(Level.WARNING, "Could not delete spill file " + file);
+        }
+    }
+}
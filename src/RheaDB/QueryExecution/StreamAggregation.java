@@ -0,0 +1,51 @@
+package RheaDB.QueryExecution;
+
+import RheaDB.RowRecord;
+
+/**
+ * Produces a row per group of the rows of its child, which must produce the
+ * rows of each group one after the other, such as an {@link IndexOrderScan}
+ * of the grouping attribute. Only the group being aggregated is kept, and the
+ * groups are produced in the order the child produces them.
+ */
+public class StreamAggregation implements Operator {
+    private final Operator child;
+    private final GroupLayout layout;
+
+    private RowRecord nextRow;
+
+    public StreamAggregation(Operator child, GroupLayout layout) {
+        this.child = child;
+        this.layout = layout;
+    }
+
+    @Override
+    public void open() {
+        child.open();
+        nextRow = child.next();
+    }
+
+    @Override
+    public RowRecord next() {
+        if (nextRow == null) {
+            return null;
+        }
+
+        RowRecord groupRow = nextRow;
+        Accumulator[] states = layout.newStates();
+        do {
+            for (Accumulator state : states) {
+                state.add(nextRow);
+            }
+            nextRow = child.next();
+        } while (nextRow != null && layout.isSameGroup(groupRow, nextRow));
+
+        return layout.produce(groupRow, states);
+    }
+
+    @Override
+    public void close() {
+        nextRow = null;
+        child.close();
+    }
+}
@@ -0,0 +1,60 @@
+package RheaDB.QueryExecution;
+
+import RheaDB.RowRecord;
+
+import java.util.HashSet;
+import java.util.Vector;
+
+/**
+ * Produces the rows of each child in turn, skipping rows that an earlier
+ * child already produced. Rows are identified by their page and row ids.
+ */
+public class Union implements Operator {
+    private record RowIdentifier(int pageId, int rowId) {
+    }
+
+    private final Vector<Operator> children;
+    private final HashSet<RowIdentifier> producedRows = new HashSet<>();
+    private int childIdx;
+
+    public Union(Vector<Operator> children) {
+        this.children = children;
+    }
+
+    @Override
+    public void open() {
+        producedRows.clear();
+        childIdx = 0;
+        if (!children.isEmpty()) {
+            children.get(0).open();
+        }
+    }
+
+    @Override
+    public RowRecord next() {
+        while (childIdx < children.size()) {
+            RowRecord rowRecord = children.get(childIdx).next();
+            if (rowRecord == null) {
+                children.get(childIdx).close();
+                if (++childIdx < children.size()) {
+                    children.get(childIdx).open();
+                }
+                continue;
+            }
+
+            if (producedRows.add(new RowIdentifier(rowRecord.getPageId(), rowRecord.getRowId()))) {
+                return rowRecord;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        if (childIdx < children.size()) {
+            children.get(childIdx).close();
+        }
+        childIdx = children.size();
+        producedRows.clear();
+    }
+}
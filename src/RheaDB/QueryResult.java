@@ -1,107 +1,146 @@
 package RheaDB;
 
-import java.util.HashSet;
+import RheaDB.QueryExecution.Operator;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.Vector;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * The rows produced by a statement. Rows of a query are pulled from its
+ * execution plan as they are consumed, either one by one through
+ * {@link #stream()} or all at once through {@link #getRows()}; a result can
+ * only be consumed once.
+ */
 public class QueryResult {
-    private final HashSet<RowRecord> rows;
-    private Vector<Attribute> allAttributes;
-    private final Vector<String> selectedAttributes;
+    private Vector<RowRecord> rows;
+    private Operator plan;
+    private RowRecord firstRow;
+    private Vector<Attribute> attributes;
 
     QueryResult() {
-        rows = new HashSet<>();
-        allAttributes = new Vector<>();
-        selectedAttributes = new Vector<>();
+        rows = new Vector<>();
+        attributes = new Vector<>();
     }
 
     QueryResult(Vector<String> attributeNames, Vector<AttributeType> types) {
         this();
-        Vector<Attribute> artificialAttributes = new Vector<>();
-
-        artificialAttributes.add(new Attribute(null, "Column", false));
-        artificialAttributes.add(new Attribute(null, "Type", false));
-
-        allAttributes = artificialAttributes;
-        selectedAttributes.add("Column");
-        selectedAttributes.add("Type");
+        attributes.add(new Attribute(AttributeType.STRING, "Column", false));
+        attributes.add(new Attribute(AttributeType.STRING, "Type", false));
 
         for (int i = 0; i < attributeNames.size(); i++) {
             Vector<Object> vals = new Vector<>();
             vals.add(attributeNames.get(i));
-            vals.add(types.get(i));
-            RowRecord r = new RowRecord(artificialAttributes, vals);
+            vals.add(types.get(i).toString());
+            RowRecord r = new RowRecord(attributes, vals);
             rows.add(r);
         }
     }
 
-    QueryResult(HashSet<RowRecord> rows, Vector<Attribute> attributes,
-                Vector<String> selectedAttributes) {
-        this.rows = rows;
-        this.allAttributes = attributes;
-        boolean starAttribute = selectedAttributes.contains("*");
-        if (starAttribute) {
-            this.selectedAttributes = attributes.stream()
-                    .map(attr -> attr.getName())
-                    .collect(Collectors.toCollection(Vector::new));
-        } else {
-            this.selectedAttributes = selectedAttributes.stream()
-                    .map(selected -> attributes.stream()
-                            .map(Attribute::getName)
-                            .filter(attributeName -> attributeName.equalsIgnoreCase(selected))
-                            .findFirst()
-                            .orElse(selected))
-                    .collect(Collectors.toCollection(Vector::new));
-        }
+    /**
+     * @param firstRow   The first row of the plan, already pulled to know
+     *                   that the result is not empty.
+     * @param plan       The opened plan producing the remaining rows.
+     * @param attributes The selected attributes, which are the attributes of
+     *                   the rows the plan produces.
+     */
+    QueryResult(RowRecord firstRow, Operator plan, Vector<Attribute> attributes) {
+        this.firstRow = firstRow;
+        this.plan = plan;
+        this.attributes = attributes;
+    }
+
+    /**
+     * @return The attributes of the rows, in column order.
+     */
+    public Vector<Attribute> getAttributes() {
+        return attributes;
     }
 
-    public HashSet<RowRecord> getRows() {
+    /**
+     * @return Every row of the result, pulling whatever the plan has not
+     * produced yet.
+     */
+    public Vector<RowRecord> getRows() {
+        if (rows == null) {
+            rows = new Vector<>();
+            pullRemainingRows().forEachRemaining(rows::add);
+        }
         return rows;
     }
 
-    private Vector<Integer> getLengths() {
-        Vector<Integer> lengths = new Vector<>();
-        for (int i = 0; i < allAttributes.size(); i++) {
-            lengths.add(-1);
-            for (RowRecord rowRecord : rows) {
-                String strVal = rowRecord.getValueOf(allAttributes.get(i)).toString();
-                lengths.set(i, Math.max(lengths.get(i), strVal.length()));
-            }
+    /**
+     * @return A stream that pulls rows from the plan only as it is consumed.
+     */
+    public Stream<RowRecord> stream() {
+        if (rows != null) {
+            return rows.stream();
         }
 
-        for (int i = 0; i < allAttributes.size(); i++) {
-            Attribute attribute = allAttributes.get(i);
-            String attributeName = attribute.getName();
-            if (selectedAttributes.stream().anyMatch(s -> s.equalsIgnoreCase(attributeName))) {
-                lengths.set(i, Math.max(lengths.get(i), attributeName.length()));
-            }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pullRemainingRows(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private Iterator<RowRecord> pullRemainingRows() {
+        if (plan == null) {
+            throw new IllegalStateException("The rows of this result were already consumed.");
         }
 
+        Operator source = plan;
+        RowRecord first = firstRow;
+        plan = null;
+        firstRow = null;
+        return new Iterator<>() {
+            private RowRecord nextRow = first;
+
+            @Override
+            public boolean hasNext() {
+                return nextRow != null;
+            }
+
+            @Override
+            public RowRecord next() {
+                if (nextRow == null) {
+                    throw new NoSuchElementException();
+                }
+
+                RowRecord currentRow = nextRow;
+                nextRow = source.next();
+                if (nextRow == null) {
+                    source.close();
+                }
+                return currentRow;
+            }
+        };
+    }
+
+    private int[] getLengths() {
+        int[] lengths = new int[attributes.size()];
+        for (int i = 0; i < attributes.size(); i++) {
+            lengths[i] = attributes.get(i).getName().length();
+            for (RowRecord rowRecord : getRows()) {
+                lengths[i] = Math.max(lengths[i], String.valueOf(rowRecord.getValue(i)).length());
+            }
+        }
         return lengths;
     }
 
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
-        Vector<Integer> lengths = getLengths();
+        int[] lengths = getLengths();
 
-        for (int i = 0; i < allAttributes.size(); i++) {
-            Attribute attribute = allAttributes.get(i);
-            String attributeName = attribute.getName();
-            if (selectedAttributes.stream().anyMatch(s -> s.equalsIgnoreCase(attributeName))) {
-                builder.append(String.format("%-" + lengths.get(i) + "s ", allAttributes.get(i).getName()));
-            }
+        for (int i = 0; i < attributes.size(); i++) {
+            builder.append(String.format("%-" + lengths[i] + "s ", attributes.get(i).getName()));
         }
         builder.append("\n");
-        for (RowRecord rowRecord : rows) {
-            Vector<Object> attributeValues = rowRecord.getAttributeValues();
-            for (int i = 0; i < attributeValues.size(); i++) {
-                int finalIndex = i;
-                if (selectedAttributes.stream()
-                        .anyMatch(s -> s.equalsIgnoreCase(allAttributes.get(finalIndex).getName()))) {
-                    Object attributeVal = attributeValues.get(i);
-                    builder.append(String.format("%-" + lengths.get(i) + "s ", attributeVal));
-                }
+        for (RowRecord rowRecord : getRows()) {
+            for (int i = 0; i < rowRecord.getNumberOfValues(); i++) {
+                builder.append(String.format("%-" + lengths[i] + "s ", rowRecord.getValue(i)));
             }
             builder.append("\n");
         }
@@ -1,39 +1,108 @@
 package RheaDB;
 
 import BPlusTree.BPlusTree;
+import Predicate.Condition;
+import Predicate.LogicalCondition;
 import Predicate.Predicate;
 import QueryParser.DDLStatements.CreateIndexStatement;
 import QueryParser.DDLStatements.CreateTableStatement;
 import QueryParser.DDLStatements.DDLStatement;
 import QueryParser.DMLStatements.*;
+import QueryParser.InternalStatements.AnalyzeStatement;
 import QueryParser.InternalStatements.CompactStatement;
 import QueryParser.InternalStatements.DescribeStatement;
 import QueryParser.InternalStatements.InternalStatement;
 import QueryParser.Parser;
 import QueryParser.SQLStatement;
+import QueryParser.TransactionStatements.ReleaseSavepointStatement;
+import QueryParser.TransactionStatements.RollbackStatement;
+import QueryParser.TransactionStatements.SavepointStatement;
+import QueryParser.TransactionStatements.TransactionStatement;
+import RheaDB.QueryExecution.*;
 import RheaDB.StorageManagement.BufferPool;
 import RheaDB.StorageManagement.DiskManager;
+import RheaDB.StorageManagement.WriteAheadLog;
+import RheaDB.TransactionManagement.Snapshot;
+import RheaDB.TransactionManagement.Transaction;
+import RheaDB.TransactionManagement.TransactionManager;
 
 import java.io.File;
 import java.io.IOException;
+import java.sql.BatchUpdateException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
+/**
+ * The database engine. A single instance may be used by many threads:
+ * <ul>
+ *     <li>Rows are versioned. INSERT, UPDATE and DELETE with a WHERE clause
+ *     run as a transaction that creates new versions of rows and marks the
+ *     versions it replaces as deleted, instead of changing them in
+ *     place.</li>
+ *     <li>SELECT reads a snapshot of the committed versions and takes no
+ *     table lock, so readers never wait for writers nor writers for readers,
+ *     however long the rows of a result take to be consumed. While a result
+ *     is open, COMPACT only removes the dead versions of its tables in place,
+ *     and DELETE without a WHERE clause deletes their row versions instead of
+ *     dropping their pages.</li>
+ *     <li>Writers hold the catalog lock for reading and the lock of their
+ *     table for writing. Writers of a table run one at a time, and
+ *     statements on different tables run independently.</li>
+ *     <li>Statements changing the catalog or the layout of a table (CREATE,
+ *     DROP, DELETE without a WHERE clause outside a transaction, COMPACT) and
+ *     checkpoints hold the catalog lock for writing, which excludes every
+ *     other statement. DESCRIBE and ANALYZE only hold it for reading.</li>
+ *     <li>Versions no snapshot can see any more are removed by vacuum: in
+ *     place, in the background, once enough of them pile up in a table, and
+ *     by COMPACT, which also packs the remaining rows.</li>
+ *     <li>BEGIN, or turning autocommit off, groups the following statements
+ *     into one transaction that commits or rolls back as a whole. The
+ *     instance runs at most one such transaction at a time, which every
+ *     statement executed through it joins. Its changes are reverted through
+ *     its undo log, and statements changing the catalog or the layout of a
+ *     table are refused while it is open.</li>
+ * </ul>
+ */
 public class RheaDB {
     static final int maxTuplesPerPage = 32;
 
+    /* Columnar pages encode their values compactly, so they are sized by bytes rather than rows. */
+    static final int maxColumnarTuplesPerPage = 512;
+
     private boolean lazyCommit;
     private final String rootDirectory;
-    private HashMap<String, Table> createdTables = new HashMap<>();
+    private ConcurrentHashMap<String, Table> createdTables = new ConcurrentHashMap<>();
     private final Thread shutdownThread;
 
     private final BufferPool bufferPool;
+    private final WriteAheadLog writeAheadLog;
+    private final TransactionManager transactionManager;
+    private final ScheduledExecutorService checkpointer;
+
+    private final ReentrantReadWriteLock catalogLock = new ReentrantReadWriteLock();
+    private final LockManager lockManager = new LockManager();
+
+    /* Versions deleted in each table since it was last vacuumed. */
+    private final ConcurrentHashMap<String, AtomicLong> deadVersions = new ConcurrentHashMap<>();
+
+    /* The explicit transaction statements run in, or null when each statement commits on its own. */
+    private volatile Transaction currentTransaction;
+    private volatile boolean autoCommit = true;
 
-    private boolean isClosed = false;
-    private boolean metadataDirty = false;
+    private volatile boolean isClosed = false;
+    private volatile boolean metadataDirty = false;
 
     @SuppressWarnings("ResultOfMethodCallIgnored")
     public RheaDB(String rootDirectory) {
@@ -67,16 +136,48 @@ public class RheaDB {
                 System.out.println("Could not instantiate a metadata file... " + "Exiting.");
                 System.exit(1);
             }
-            createdTables = new HashMap<>();
+            createdTables = new ConcurrentHashMap<>();
         } else {
             try {
-                createdTables = DiskManager.readMetadata(rootDirectory);
+                createdTables = new ConcurrentHashMap<>(DiskManager.readMetadata(rootDirectory));
             } catch (IOException ioException) {
                 System.out.println("Could not read metadata file... " + "Exiting.");
                 System.exit(1);
             }
         }
         bufferPool = new BufferPool();
+
+        WriteAheadLog log = null;
+        try {
+            log = new WriteAheadLog(rootDirectory);
+        } catch (IOException ioException) {
+            System.out.println("Could not open the write-ahead log... Exiting.");
+            System.exit(1);
+        }
+        writeAheadLog = log;
+
+        TransactionManager manager = null;
+        try {
+            manager = new TransactionManager(rootDirectory);
+        } catch (IOException ioException) {
+            System.out.println("Could not read the transaction state... Exiting.");
+            System.exit(1);
+        }
+        transactionManager = manager;
+        recover();
+
+        checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RheaDB-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkpointInterval = WriteAheadLog.getCheckpointIntervalMillis();
+        checkpointer.scheduleWithFixedDelay(this::backgroundCheckpoint,
+                checkpointInterval, checkpointInterval, TimeUnit.MILLISECONDS);
+        long vacuumInterval = TransactionManager.getVacuumIntervalMillis();
+        checkpointer.scheduleWithFixedDelay(this::backgroundVacuum,
+                vacuumInterval, vacuumInterval, TimeUnit.MILLISECONDS);
+
         lazyCommit = true;
         shutdownThread = new Thread(this::commitOnExit);
         Runtime.getRuntime().addShutdownHook(shutdownThread);
@@ -91,15 +192,142 @@ public class RheaDB {
     }
 
     public void close() {
+        if (isClosed) {
+            return;
+        }
+
+        rollback();
         isClosed = true;
-        saveMetadata(true);
-        if (lazyCommit) {
-            commitOnExit();
+        checkpointer.shutdownNow();
+        checkpoint();
+        bufferPool.closeAllIndexes();
+        try {
+            writeAheadLog.close();
+        } catch (IOException ioException) {
+            System.out.println("Could not close the write-ahead log.");
         }
+        DiskManager.closeAllSegments();
     }
 
     public void commitOnExit() {
-        bufferPool.commitAllPages();
+        if (!isClosed) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Writes every dirty page, index, the metadata and the transaction state
+     * to disk, after which the log is no longer needed and is emptied.
+     */
+    public void checkpoint() {
+        catalogLock.writeLock().lock();
+        try {
+            bufferPool.commitAllPages();
+            DiskManager.forceAllSegments();
+            saveMetadata(true);
+            try {
+                transactionManager.save();
+            } catch (IOException ioException) {
+                System.out.println("Could not save the transaction state: " + ioException.getMessage());
+                return;
+            }
+            try {
+                writeAheadLog.truncate();
+            } catch (IOException ioException) {
+                System.out.println("Could not truncate the write-ahead log: " + ioException.getMessage());
+            }
+        } finally {
+            catalogLock.writeLock().unlock();
+        }
+    }
+
+    private void backgroundCheckpoint() {
+        if (!isClosed && writeAheadLog.size() > 0) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Replays the log over the pages on disk. Each record sets or removes the
+     * row at its location, so replaying records whose changes already reached
+     * the disk is harmless. Indexes of replayed tables are rebuilt afterwards.
+     * Transactions that did not log their commit are marked as aborted.
+     */
+    private void recover() {
+        Vector<WriteAheadLog.LogRecord> logRecords = null;
+        try {
+            logRecords = writeAheadLog.readRecords();
+        } catch (IOException ioException) {
+            System.out.println("Could not read the write-ahead log... Exiting.");
+            System.exit(1);
+        }
+
+        HashSet<Long> loggedTransactions = new HashSet<>();
+        HashSet<Long> committedTransactions = new HashSet<>();
+        for (WriteAheadLog.LogRecord logRecord : logRecords) {
+            if (logRecord.isCommit()) {
+                committedTransactions.add(logRecord.createdBy());
+            } else if (!logRecord.isDelete()) {
+                loggedTransactions.add(logRecord.createdBy());
+                loggedTransactions.add(logRecord.deletedBy());
+            }
+        }
+        loggedTransactions.remove(0L);
+        transactionManager.recover(loggedTransactions, committedTransactions);
+
+        if (logRecords.isEmpty()) {
+            return;
+        }
+
+        HashSet<Table> replayedTables = new HashSet<>();
+        for (WriteAheadLog.LogRecord logRecord : logRecords) {
+            if (logRecord.isCommit()) {
+                continue;
+            }
+
+            Table table = getTable(logRecord.tableName());
+            if (table == null) {
+                continue;
+            }
+
+            while (table.getNumPages() < logRecord.pageIdx()) {
+                table.getNewPage();
+            }
+
+            Page page = bufferPool.getPage(table, logRecord.pageIdx());
+            if (page == null) {
+                page = new Page(table.getName(), table.getMaxTuplesPerPage(), logRecord.pageIdx());
+            }
+
+            Vector<RowRecord> records = page.getRecords();
+            records.removeIf(r -> r.getRowId() == logRecord.rowId());
+            if (!logRecord.isDelete()) {
+                RowRecord rowRecord = new RowRecord(table.getAttributeList(), logRecord.values());
+                rowRecord.setPageId(logRecord.pageIdx());
+                rowRecord.setRowId(logRecord.rowId());
+                rowRecord.setCreatedBy(logRecord.createdBy());
+                rowRecord.setDeletedBy(logRecord.deletedBy());
+
+                int position = 0;
+                while (position < records.size() && records.get(position).getRowId() < logRecord.rowId()) {
+                    position++;
+                }
+                records.add(position, rowRecord);
+                table.getZoneMap().include(table, rowRecord);
+            }
+
+            bufferPool.updatePage(table, page);
+            replayedTables.add(table);
+        }
+
+        for (Table table : replayedTables) {
+            for (Attribute attribute : getIndexedAttributes(table)) {
+                bufferPool.deleteIndex(table, attribute);
+                createIndex(table, attribute);
+            }
+        }
+
+        checkpoint();
     }
 
     public void run() {
@@ -149,18 +377,23 @@ public class RheaDB {
         return queryResult;
     }
 
-    private QueryResult executeDML(DMLStatement dmlStatement) throws DBError {
+    /**
+     * @param transaction The transaction the statement runs in, or null for
+     *                    reads under their own snapshot and for statements
+     *                    that run alone under the catalog lock.
+     */
+    private QueryResult executeDML(DMLStatement dmlStatement, Transaction transaction) throws DBError {
         return switch (dmlStatement.getDMLKind()) {
-            case SELECT -> executeSelectFrom((SelectStatement) dmlStatement);
-            case INSERT -> executeInsertInto((InsertStatement) dmlStatement);
-            case DELETE -> executeDeleteFrom((DeleteStatement) dmlStatement);
+            case SELECT -> executeSelectFrom((SelectStatement) dmlStatement, transaction);
+            case INSERT -> executeInsertInto((InsertStatement) dmlStatement, transaction);
+            case DELETE -> executeDeleteFrom((DeleteStatement) dmlStatement, transaction);
             case DROP_TABLE -> executeDropTable((DropTableStatement) dmlStatement);
             case DROP_INDEX -> executeDropIndex((DropIndexStatement) dmlStatement);
-            case UPDATE -> executeUpdate((UpdateStatement) dmlStatement);
+            case UPDATE -> executeUpdate((UpdateStatement) dmlStatement, transaction);
         };
     }
 
-    private QueryResult executeUpdate(UpdateStatement statement) throws DBError {
+    private QueryResult executeUpdate(UpdateStatement statement, Transaction transaction) throws DBError {
         Table table = getTable(statement.getTableName());
 
         if (table == null) {
@@ -169,52 +402,122 @@ public class RheaDB {
         }
 
         Vector<Predicate> setPredicates = statement.getSetPredicates();
-        Vector<Predicate> wherePredicates = statement.getWherePredicates();
 
         resolvePredicatesAttributes(table, setPredicates);
 
-        resolvePredicatesAttributes(table, wherePredicates);
+        resolvePredicatesAttributes(table, statement.getWherePredicates());
         int affectedRows = updatePredicatedRows(table, setPredicates,
-                wherePredicates);
+                statement.getWhereCondition(), transaction);
 
         return new UpdateResult(affectedRows);
     }
 
-    private int updatePredicatedRows(Table table, Vector<Predicate> setPredicates, Vector<Predicate> wherePredicates) {
-        int rows = 0;
-        for (int i = 1; i <= table.getNumPages(); i++) {
-            Page page = bufferPool.getPage(table, i);
+    /**
+     * Marks every visible row satisfying the condition as deleted by the
+     * transaction, and appends its updated version to the end of the table.
+     * Versions appended by the statement are never updated twice, as the
+     * pages are scanned before any is appended.
+     */
+    private int updatePredicatedRows(Table table, Vector<Predicate> setPredicates,
+                                     Condition whereCondition, Transaction transaction) throws DBError {
+        Vector<RowRecord> newVersions = new Vector<>();
+        boolean resizesRows = setPredicates.stream()
+                .anyMatch(p -> p.getAttribute().getType() == AttributeType.STRING);
+        Page page = null;
+        for (RowRecord match : findRows(table, whereCondition, transaction.getSnapshot())) {
+            page = getPageOf(table, match, page);
+            RowRecord r = page.getRecord(match.getRowId());
+            verifyNotChangedConcurrently(r, transaction);
+
+            RowRecord newVersion = r.copyValues();
             for (Predicate predicate : setPredicates) {
-                for (RowRecord r : page.getRecords()) {
-                    boolean satisfy = wherePredicates.isEmpty();
-                    for (Predicate wherePredicate : wherePredicates) {
-                        Object value =
-                                r.getValueOf(wherePredicate.getAttribute());
-                        satisfy |= wherePredicate.doesSatisfy(value);
-                    }
-                    if (satisfy) {
-                        r.setAttributeValue(predicate.getAttribute(),
-                                predicate.getValue());
-                        rows++;
-                    }
-                }
+                newVersion.setAttributeValue(predicate.getOrdinal(), predicate.getValue());
             }
-            if (!lazyCommit) {
-                bufferPool.updatePage(table, page);
+            if (resizesRows) {
+                verifyUpdatedRowFits(table, newVersion);
             }
+            newVersion.setCreatedBy(transaction.getId());
+            newVersions.add(newVersion);
+
+            transaction.logDelete(table, r);
+            r.setDeletedBy(transaction.getId());
+            writeAheadLog.logPut(table, r);
+        }
+        if (page != null) {
+            bufferPool.updatePage(table, page);
         }
 
+        insertInto(table, newVersions, transaction);
+        countDeadVersions(table, newVersions.size());
+        return newVersions.size();
+    }
+
+    /**
+     * @return The row versions visible in the snapshot that satisfy the
+     * condition, or every visible one if it is null, in page order. Large
+     * tables are scanned on several threads.
+     */
+    private Vector<RowRecord> findRows(Table table, Condition condition, Snapshot snapshot) {
+        Operator scan = ParallelScan.create(bufferPool, table, snapshot, condition);
+        Vector<RowRecord> rows = new Vector<>();
+        scan.open();
+        for (RowRecord rowRecord = scan.next(); rowRecord != null; rowRecord = scan.next()) {
+            rows.add(rowRecord);
+        }
+        scan.close();
         return rows;
     }
 
+    /**
+     * Walks the pages holding rows found by {@link #findRows} in order. The
+     * previous page is marked dirty before the next one is fetched, which
+     * may evict it, so rows are changed through the page currently cached.
+     */
+    private Page getPageOf(Table table, RowRecord rowRecord, Page previousPage) {
+        if (previousPage != null && previousPage.getPageIdx() == rowRecord.getPageId()) {
+            return previousPage;
+        }
+        if (previousPage != null) {
+            bufferPool.updatePage(table, previousPage);
+        }
+        return bufferPool.getPage(table, rowRecord.getPageId());
+    }
+
+    /**
+     * A visible version already marked deleted by a transaction this one does
+     * not see was changed after its snapshot was taken, and changing it again
+     * would lose that change.
+     */
+    private void verifyNotChangedConcurrently(RowRecord rowRecord, Transaction transaction) throws DBError {
+        long deletedBy = rowRecord.getDeletedBy();
+        if (deletedBy != 0 && deletedBy != transaction.getId() && !transactionManager.isAborted(deletedBy)) {
+            throw new DBError("Row was changed by a concurrent transaction.");
+        }
+    }
+
+    private void verifyUpdatedRowFits(Table table, RowRecord updatedRow) throws DBError {
+        Page emptyPage = new Page(table.getName(), table.getMaxTuplesPerPage(), 0);
+        if (!DiskManager.canFit(table, emptyPage, updatedRow)) {
+            throw new DBError("Updated row does not fit in a page.");
+        }
+    }
+
     private void resolvePredicatesAttributes(Table table, Vector<Predicate> predicates) throws DBError {
+        Vector<Attribute> attributes = table.getAttributeList();
         for (Predicate predicate : predicates) {
+            /* Predicates of re-executed statements are usually still bound to this table. */
+            int ordinal = predicate.getOrdinal();
+            if (ordinal >= 0 && ordinal < attributes.size() &&
+                    attributes.get(ordinal) == predicate.getAttribute()) {
+                continue;
+            }
+
             Attribute attribute = table.getAttributeWithName(predicate.getAttributeName());
             if (attribute == null) {
                 throw new DBError("Invalid attribute: \"" + predicate.getAttributeName()
                         + "\"");
             }
-            predicate.setAttribute(attribute);
+            predicate.setAttribute(attribute, attributes.indexOf(attribute));
         }
     }
 
@@ -257,7 +560,7 @@ public class RheaDB {
 
     private void executeCreateTable(CreateTableStatement statement) throws DBError {
         boolean wasCreated = createTable(statement.getTableName(),
-                statement.getAttributeVector());
+                statement.getAttributeVector(), statement.getStorageMode());
         if (!wasCreated) {
             throw new DBError("Could not create the table. Table already exists.");
         }
@@ -295,33 +598,456 @@ public class RheaDB {
         return null;
     }
 
-    private QueryResult executeStatement(SQLStatement sqlStatement) throws DBError {
-        QueryResult queryResult = switch (sqlStatement.getKind()) {
-            case DDL -> executeDDL((DDLStatement) sqlStatement);
-            case DML -> executeDML((DMLStatement) sqlStatement);
-            case INTERNAL -> executeInternal((InternalStatement) sqlStatement);
+    /**
+     * Executes an already parsed statement. Prepared statements are parsed
+     * once and executed through here with new parameter bindings each time.
+     */
+    public QueryResult executeStatement(SQLStatement sqlStatement) throws DBError {
+        QueryResult queryResult = executeUncommitted(sqlStatement);
+        commitLog();
+        return queryResult;
+    }
+
+    /**
+     * Executes a batch of statements under a single commit of the log.
+     * Consecutive INSERTs into the same table are appended together, as if
+     * they were one multi-row INSERT. Statements producing rows cannot be
+     * batched.
+     *
+     * @return The number of rows affected by each statement.
+     * @throws BatchUpdateException Holding the number of rows affected by
+     *                              each statement that ran before the one
+     *                              that failed.
+     */
+    public int[] executeBatch(Vector<SQLStatement> statements) throws BatchUpdateException {
+        int[] updateCounts = new int[statements.size()];
+        int completed = 0;
+        try {
+            for (SQLStatement statement : statements) {
+                if (statement instanceof SelectStatement || statement instanceof DescribeStatement) {
+                    throw new DBError("Statements returning rows cannot be batched.");
+                }
+            }
+
+            while (completed < statements.size()) {
+                if (!(statements.get(completed) instanceof InsertStatement insertStatement)) {
+                    QueryResult queryResult = executeUncommitted(statements.get(completed));
+                    updateCounts[completed++] = queryResult instanceof UpdateResult updateResult ?
+                            updateResult.getAffectedRows() : 0;
+                    continue;
+                }
+
+                Vector<Vector<Object>> rows = new Vector<>();
+                int i = completed;
+                while (i < statements.size() &&
+                        statements.get(i) instanceof InsertStatement next &&
+                        next.getTableName().equals(insertStatement.getTableName())) {
+                    Vector<Vector<Object>> statementRows = next.getRows();
+                    rows.addAll(statementRows);
+                    updateCounts[i++] = statementRows.size();
+                }
+
+                /* The appended INSERTs fail together, so none of them is counted as completed. */
+                if (i - completed == 1) {
+                    executeUncommitted(insertStatement);
+                } else {
+                    executeUncommitted(new InsertStatement(insertStatement.getTableName(), rows));
+                }
+                completed = i;
+            }
+
+            commitLog();
+        } catch (DBError dbError) {
+            throw new BatchUpdateException(dbError.getMessage(), Arrays.copyOf(updateCounts, completed), dbError);
+        }
+        return updateCounts;
+    }
+
+    /**
+     * Executes a statement under the locks it needs, without committing the log.
+     */
+    private QueryResult executeUncommitted(SQLStatement sqlStatement) throws DBError {
+        if (sqlStatement.getKind() == SQLStatement.SQLStatementKind.TRANSACTION) {
+            return executeTransactionStatement((TransactionStatement) sqlStatement);
+        }
+
+        if (isStructuralStatement(sqlStatement, currentTransaction != null || !autoCommit)) {
+            if (currentTransaction != null) {
+                throw new DBError("The statement cannot run inside a transaction.");
+            }
+
+            catalogLock.writeLock().lock();
+            try {
+                /*
+                 * Statements that drop or move pages are not logged. They run
+                 * between two checkpoints, so the log never refers to page
+                 * contents they changed.
+                 */
+                checkpoint();
+                QueryResult queryResult = switch (sqlStatement.getKind()) {
+                    case DDL -> executeDDL((DDLStatement) sqlStatement);
+                    case DML -> executeDML((DMLStatement) sqlStatement, null);
+                    case INTERNAL -> executeInternal((InternalStatement) sqlStatement);
+                    case TRANSACTION -> executeTransactionStatement((TransactionStatement) sqlStatement);
+                };
+                checkpoint();
+                return queryResult;
+            } finally {
+                catalogLock.writeLock().unlock();
+            }
+        }
+
+        /* DESCRIBE reads only the catalog, and ANALYZE reads its table under a snapshot as SELECT does. */
+        if (sqlStatement.getKind() == SQLStatement.SQLStatementKind.INTERNAL) {
+            catalogLock.readLock().lock();
+            try {
+                return executeInternal((InternalStatement) sqlStatement);
+            } finally {
+                catalogLock.readLock().unlock();
+            }
+        }
+
+        DMLStatement dmlStatement = (DMLStatement) sqlStatement;
+        Transaction transaction = getCurrentTransaction();
+        catalogLock.readLock().lock();
+        try {
+            if (dmlStatement.getDMLKind() == DMLStatement.DMLStatementKind.SELECT) {
+                return executeDML(dmlStatement, transaction);
+            }
+
+            Lock tableLock = lockManager.writeLock(getTargetTableName(dmlStatement));
+            tableLock.lock();
+            try {
+                return executeWrite(dmlStatement, transaction);
+            } finally {
+                tableLock.unlock();
+            }
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a writing statement. Without an explicit transaction, the
+     * statement is a transaction of its own: its commit is logged and made
+     * visible before the table is unlocked, while forcing the log is left to
+     * the caller. Inside one, a failing statement only reverts its own
+     * changes and the transaction stays open.
+     */
+    private QueryResult executeWrite(DMLStatement dmlStatement, Transaction transaction) throws DBError {
+        if (transaction != null) {
+            synchronized (transaction) {
+                int undoPosition = transaction.getUndoPosition();
+                try {
+                    return executeDML(dmlStatement, transaction);
+                } catch (DBError | RuntimeException e) {
+                    undo(transaction, undoPosition);
+                    throw e;
+                }
+            }
+        }
+
+        transaction = transactionManager.begin();
+        try {
+            QueryResult queryResult = executeDML(dmlStatement, transaction);
+            writeAheadLog.logCommit(transaction.getId());
+            transactionManager.commit(transaction);
+            return queryResult;
+        } catch (DBError | RuntimeException e) {
+            undo(transaction, 0);
+            transactionManager.rollback(transaction);
+            throw e;
+        }
+    }
+
+    /**
+     * Reverts the changes a transaction recorded after a position, newest
+     * first. The caller holds the write locks of the changed tables.
+     */
+    private void undo(Transaction transaction, int position) {
+        for (Transaction.UndoRecord undoRecord : transaction.truncateUndoLog(position)) {
+            Table table = undoRecord.table();
+            Page page = bufferPool.getPage(table, undoRecord.pageIdx());
+            RowRecord rowRecord = page == null ? null : page.getRecord(undoRecord.rowId());
+            if (rowRecord == null) {
+                continue;
+            }
+
+            if (undoRecord.isInsert()) {
+                page.getRecords().removeIf(r -> r == rowRecord);
+                removeFromIndices(table, getIndexedAttributes(table), rowRecord);
+                writeAheadLog.logDelete(table, undoRecord.pageIdx(), undoRecord.rowId());
+            } else {
+                rowRecord.setDeletedBy(undoRecord.previousDeletedBy());
+                writeAheadLog.logPut(table, rowRecord);
+            }
+            bufferPool.updatePage(table, page);
+        }
+    }
+
+    /**
+     * Reverts the changes of a transaction after a position under the locks
+     * of the tables they touched, taken in name order.
+     */
+    private void undoLocked(Transaction transaction, int position) {
+        catalogLock.readLock().lock();
+        Vector<Lock> tableLocks = new Vector<>();
+        try {
+            synchronized (transaction) {
+                for (String tableName : transaction.getTablesChangedSince(position)) {
+                    Lock tableLock = lockManager.writeLock(tableName);
+                    tableLock.lock();
+                    tableLocks.add(tableLock);
+                }
+                undo(transaction, position);
+            }
+        } finally {
+            tableLocks.forEach(Lock::unlock);
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The explicit transaction, which is begun on the first statement
+     * once autocommit is off, or null.
+     */
+    private synchronized Transaction getCurrentTransaction() {
+        if (currentTransaction == null && !autoCommit) {
+            currentTransaction = transactionManager.begin();
+        }
+        return currentTransaction;
+    }
+
+    private QueryResult executeTransactionStatement(TransactionStatement statement) throws DBError {
+        switch (statement.getTransactionStatementKind()) {
+            case BEGIN -> begin();
+            case COMMIT -> commit();
+            case ROLLBACK -> {
+                String savepointName = ((RollbackStatement) statement).getSavepointName();
+                if (savepointName == null) {
+                    rollback();
+                } else {
+                    rollbackToSavepoint(savepointName);
+                }
+            }
+            case SAVEPOINT -> setSavepoint(((SavepointStatement) statement).getSavepointName());
+            case RELEASE_SAVEPOINT -> releaseSavepoint(((ReleaseSavepointStatement) statement).getSavepointName());
+        }
+        return null;
+    }
+
+    /**
+     * Begins an explicit transaction. The statements executed until it is
+     * committed or rolled back run in it.
+     */
+    public synchronized void begin() throws DBError {
+        if (currentTransaction != null) {
+            throw new DBError("A transaction is already in progress.");
+        }
+        currentTransaction = transactionManager.begin();
+    }
+
+    /**
+     * Commits the explicit transaction, if any, and forces its changes to the log.
+     */
+    public void commit() throws DBError {
+        Transaction transaction = takeCurrentTransaction();
+        if (transaction == null) {
+            return;
+        }
+
+        /* Logged and made visible together, so a checkpoint never separates the two. */
+        catalogLock.readLock().lock();
+        try {
+            synchronized (transaction) {
+                writeAheadLog.logCommit(transaction.getId());
+                transactionManager.commit(transaction);
+            }
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+
+        try {
+            writeAheadLog.commit();
+        } catch (IOException ioException) {
+            throw new DBError("Could not write to the write-ahead log: " + ioException.getMessage());
+        }
+    }
+
+    /**
+     * Rolls back the explicit transaction, if any, reverting all of its changes.
+     */
+    public void rollback() {
+        Transaction transaction = takeCurrentTransaction();
+        if (transaction == null) {
+            return;
+        }
+
+        undoLocked(transaction, 0);
+        transactionManager.rollback(transaction);
+    }
+
+    private synchronized Transaction takeCurrentTransaction() {
+        Transaction transaction = currentTransaction;
+        currentTransaction = null;
+        return transaction;
+    }
+
+    /**
+     * Marks the current point of the explicit transaction with a name.
+     */
+    public void setSavepoint(String name) throws DBError {
+        Transaction transaction = getCurrentTransaction();
+        if (transaction == null) {
+            throw new DBError("Savepoints can only be set inside a transaction.");
+        }
+        synchronized (transaction) {
+            transaction.setSavepoint(name);
+        }
+    }
+
+    /**
+     * Reverts the changes made since a savepoint, which is kept while the
+     * ones set after it are released.
+     */
+    public void rollbackToSavepoint(String name) throws DBError {
+        Transaction transaction = getSavepointTransaction(name);
+        int position;
+        synchronized (transaction) {
+            position = transaction.getSavepoint(name);
+            transaction.releaseSavepoint(name, true);
+        }
+        undoLocked(transaction, position);
+    }
+
+    public void releaseSavepoint(String name) throws DBError {
+        Transaction transaction = getSavepointTransaction(name);
+        synchronized (transaction) {
+            transaction.releaseSavepoint(name, false);
+        }
+    }
+
+    private Transaction getSavepointTransaction(String name) throws DBError {
+        Transaction transaction = currentTransaction;
+        if (transaction == null || transaction.getSavepoint(name) < 0) {
+            throw new DBError("No savepoint named \"" + name + "\" exists.");
+        }
+        return transaction;
+    }
+
+    /**
+     * Turns autocommit off, after which statements run in a transaction
+     * until it is committed or rolled back, or back on, which commits the
+     * open transaction.
+     */
+    public void setAutoCommit(boolean autoCommit) throws DBError {
+        boolean wasAutoCommit = this.autoCommit;
+        this.autoCommit = autoCommit;
+        if (autoCommit && !wasAutoCommit) {
+            commit();
+        }
+    }
+
+    public boolean getAutoCommit() {
+        return autoCommit;
+    }
+
+    private static String getTargetTableName(DMLStatement dmlStatement) {
+        return switch (dmlStatement.getDMLKind()) {
+            case SELECT -> ((SelectStatement) dmlStatement).getTableName();
+            case INSERT -> ((InsertStatement) dmlStatement).getTableName();
+            case UPDATE -> ((UpdateStatement) dmlStatement).getTableName();
+            case DELETE -> ((DeleteStatement) dmlStatement).getTableName();
+            case DROP_TABLE -> ((DropTableStatement) dmlStatement).getTableName();
+            case DROP_INDEX -> ((DropIndexStatement) dmlStatement).getTableName();
         };
+    }
 
-        if (!lazyCommit) {
-            bufferPool.commitAllPages();
-            saveMetadata(false);
+    private void commitLog() throws DBError {
+        /*
+         * Committed outside the lock so that concurrent statements share a
+         * force. The changes of an explicit transaction are forced by its commit.
+         */
+        if (!lazyCommit && currentTransaction == null) {
+            try {
+                writeAheadLog.commit();
+            } catch (IOException ioException) {
+                throw new DBError("Could not write to the write-ahead log: " + ioException.getMessage());
+            }
         }
 
-        return queryResult;
+        if (writeAheadLog.size() > WriteAheadLog.getCheckpointBytes()) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * @param inTransaction Whether the statement runs in an explicit
+     *                      transaction, in which a DELETE without a WHERE
+     *                      clause deletes every row version instead of
+     *                      dropping the pages of the table.
+     */
+    private static boolean isStructuralStatement(SQLStatement sqlStatement, boolean inTransaction) {
+        return switch (sqlStatement.getKind()) {
+            case DDL -> true;
+            case INTERNAL -> ((InternalStatement) sqlStatement).getInternalStatementKind() ==
+                    InternalStatement.InternalStatementKind.COMPACT;
+            case TRANSACTION -> false;
+            case DML -> switch (((DMLStatement) sqlStatement).getDMLKind()) {
+                case DROP_TABLE, DROP_INDEX -> true;
+                case DELETE -> ((DeleteStatement) sqlStatement).getCondition() == null && !inTransaction;
+                case SELECT, INSERT, UPDATE -> false;
+            };
+        };
     }
 
     private QueryResult executeInternal(InternalStatement sqlStatement) throws DBError {
         return switch (sqlStatement.getInternalStatementKind()) {
             case DESCRIBE -> describeTable((DescribeStatement) sqlStatement);
             case COMPACT -> compactTable((CompactStatement) sqlStatement);
+            case ANALYZE -> analyzeTable((AnalyzeStatement) sqlStatement);
         };
     }
 
+    private QueryResult analyzeTable(AnalyzeStatement analyzeStatement) throws DBError {
+        Table table = getTable(analyzeStatement.getTableName());
+        if (table == null) {
+            throw new DBError("The name \"" + analyzeStatement.getTableName() + "\" does not resolve " +
+                    "to a valid table.");
+        }
+
+        Snapshot snapshot = transactionManager.openSnapshot(table.getName());
+        table.setStatistics(TableStatistics.collect(table,
+                new SnapshotScope(new SeqScan(bufferPool, table, snapshot), snapshot)));
+        metadataDirty = true;
+        return null;
+    }
+
     private QueryResult compactTable(CompactStatement compactStatement) {
         Table t = getTable(compactStatement.getTableName());
+        if (transactionManager.isBeingRead(t.getName())) {
+            /* Rows a result is still reading stay where they are; only dead versions are removed. */
+            vacuum(t.getName());
+            return null;
+        }
+
         bufferPool.commitTable(t);
-        DiskManager.compactTable(t);
+        long vacuumHorizon = transactionManager.getVacuumHorizon();
+        DiskManager.compactTable(t, r -> !transactionManager.isDead(r, vacuumHorizon));
+        deadVersions.remove(t.getName());
         bufferPool.updateTablePagesFromDisk(t);
+
+        ZoneMap zoneMap = t.getZoneMap();
+        zoneMap.truncate(t.getNumPages());
+        for (int i = 1; i <= t.getNumPages(); i++) {
+            zoneMap.summarize(t, bufferPool.getPage(t, i));
+        }
+
+        /* Compaction moves rows between pages, so row locations changed. */
+        for (Attribute attribute : getIndexedAttributes(t)) {
+            bufferPool.deleteIndex(t, attribute);
+            createIndex(t, attribute);
+        }
         metadataDirty = true;
         return null;
     }
@@ -347,13 +1073,14 @@ public class RheaDB {
         return new QueryResult(attributeNames, attributeTypes);
     }
 
-    private boolean createTable(String tableName, Vector<Attribute> attributeList) {
+    private boolean createTable(String tableName, Vector<Attribute> attributeList, StorageMode storageMode) {
         if (createdTables.containsKey(tableName))
             return false;
 
         String pageDirectory = rootDirectory + File.separator + tableName;
+        int maxTuples = storageMode == StorageMode.COLUMNAR ? maxColumnarTuplesPerPage : maxTuplesPerPage;
         Table newTable = new Table(tableName, attributeList, pageDirectory,
-                maxTuplesPerPage);
+                maxTuples, storageMode);
         createdTables.put(tableName, newTable);
         metadataDirty = true;
 
@@ -369,6 +1096,7 @@ public class RheaDB {
         }
 
         dropTable(table);
+        deadVersions.remove(tableName);
         return null;
     }
 
@@ -385,80 +1113,677 @@ public class RheaDB {
         metadataDirty = true;
     }
 
-    private QueryResult executeSelectFrom(SelectStatement selectStatement) throws DBError {
+    /**
+     * @param transaction The transaction reading the rows, or null to read
+     *                    them under a snapshot of their own.
+     */
+    private QueryResult executeSelectFrom(SelectStatement selectStatement, Transaction transaction)
+            throws DBError {
+        if (selectStatement.getJoin() != null) {
+            return executeSelectJoin(selectStatement, transaction);
+        }
+
         Table table = getTable(selectStatement.getTableName());
         Vector<String> selectedAttributes = selectStatement.getSelectedAttributes();
         if (table == null) {
             throw new DBError("The name \"" + selectStatement.getTableName()
                     + "\" does not resolve to a table in the database.");
         }
-        HashSet<RowRecord> result = new HashSet<>();
-        Vector<Predicate> predicates = selectStatement.getPredicates();
+        boolean isGrouped = !selectStatement.getGroupAttributes().isEmpty();
+        if (!selectStatement.hasAggregates() && !isGrouped) {
+            verifySelectedAttributesExist(table, selectedAttributes);
+        }
+        resolvePredicatesAttributes(table, selectStatement.getPredicates());
 
-        verifySelectedAttributesExist(table, selectedAttributes);
+        Attribute orderAttribute = null;
+        if (selectStatement.getOrderAttribute() != null) {
+            orderAttribute = table.getAttributeWithName(selectStatement.getOrderAttribute());
+            if (orderAttribute == null) {
+                throw new DBError("Invalid attribute name " + selectStatement.getOrderAttribute());
+            }
+        }
 
-        if (selectedAttributes.contains("*")) {
-            selectedAttributes = table.getAttributeList()
-                    .stream()
-                    .map(o -> o.getName())
-                    .collect(Collectors.toCollection(Vector::new));
+        GroupLayout layout = isGrouped ? resolveGroupLayout(table, selectStatement, orderAttribute) : null;
+
+        Snapshot snapshot = transaction == null ? transactionManager.openSnapshot(table.getName()) :
+                transaction.getSnapshot();
+        Vector<Attribute> resultAttributes;
+        Operator plan;
+        if (isGrouped) {
+            resultAttributes = layout.getAttributes();
+            plan = planGroupedAggregation(table, selectStatement, layout, orderAttribute, snapshot);
+        } else if (selectStatement.hasAggregates()) {
+            resultAttributes = new Vector<>();
+            Vector<Accumulator> accumulators = resolveAggregates(table, selectStatement, resultAttributes);
+            plan = planAggregation(table, selectStatement, accumulators, resultAttributes, snapshot);
+        } else {
+            resultAttributes = selectedAttributes.contains("*") ?
+                    table.getAttributeList() :
+                    selectedAttributes.stream()
+                            .map(table::getAttributeWithName)
+                            .collect(Collectors.toCollection(Vector::new));
+            plan = planSelection(table, selectStatement, resultAttributes, orderAttribute, snapshot);
         }
+        return runSelection(selectStatement, plan, resultAttributes, snapshot, transaction);
+    }
 
-        if (predicates.isEmpty()) {
-            return getAllRows(table, selectedAttributes);
+    /**
+     * Applies the LIMIT clause of a select statement to its plan, and opens
+     * the plan to pull its first row.
+     *
+     * @param snapshot The snapshot the plan reads under, released along with
+     *                 the plan if it is not the transaction's.
+     */
+    private QueryResult runSelection(SelectStatement selectStatement, Operator plan,
+                                     Vector<Attribute> resultAttributes, Snapshot snapshot,
+                                     Transaction transaction) throws DBError {
+        if (selectStatement.hasLimit()) {
+            plan = new Limit(plan, selectStatement.getLimit(), selectStatement.getOffset());
+        }
+        if (transaction == null) {
+            plan = new SnapshotScope(plan, snapshot);
         }
 
-        for (Predicate predicate : predicates) {
-            Attribute attribute = table.getAttributeWithName(predicate.getAttributeName());
+        plan.open();
+        RowRecord firstRow;
+        try {
+            firstRow = plan.next();
+        } catch (ArithmeticException e) {
+            plan.close();
+            throw new DBError("The result of an aggregate function is out of the range of its type.");
+        }
+        if (firstRow == null) {
+            plan.close();
+            return null;
+        }
+
+        return new QueryResult(firstRow, plan, resultAttributes);
+    }
+
+    /**
+     * Runs a select statement joining the table of its FROM clause with the
+     * table of its JOIN clause. The joined rows hold the attributes of both
+     * tables, named after their table as in table.attribute, and an attribute
+     * may be referred to by its name alone if only one of the tables has it.
+     * <p>
+     * Each operand of the top-level conjunction of the WHERE clause that only
+     * compares attributes of one table filters the rows of that table before
+     * they are joined, and the other operands filter the joined rows.
+     */
+    private QueryResult executeSelectJoin(SelectStatement selectStatement, Transaction transaction)
+            throws DBError {
+        Join join = selectStatement.getJoin();
+        for (String tableName : new String[]{selectStatement.getTableName(), join.getTableName()}) {
+            if (getTable(tableName) == null) {
+                throw new DBError("The name \"" + tableName + "\" does not resolve to a table in the database.");
+            }
+        }
+        Table lhsTable = getTable(selectStatement.getTableName());
+        Table rhsTable = getTable(join.getTableName());
+        if (lhsTable == rhsTable) {
+            throw new DBError("A table cannot be joined with itself.");
+        }
+        if (selectStatement.hasAggregates() || !selectStatement.getGroupAttributes().isEmpty()) {
+            throw new DBError("Aggregates and GROUP BY are not supported in a join.");
+        }
+
+        Vector<Attribute> joinedAttributes = new Vector<>();
+        for (Table table : new Table[]{lhsTable, rhsTable}) {
+            for (Attribute attribute : table.getAttributeList()) {
+                joinedAttributes.add(new Attribute(attribute.getType(), table.getName() + "." + attribute.getName()));
+            }
+        }
+        int lhsWidth = lhsTable.getAttributeList().size();
+
+        int lhsKey = resolveJoinedAttribute(lhsTable, rhsTable, join.getLhsAttributeName());
+        int rhsKey = resolveJoinedAttribute(lhsTable, rhsTable, join.getRhsAttributeName());
+        if ((lhsKey < lhsWidth) == (rhsKey < lhsWidth)) {
+            throw new DBError("A join must compare an attribute of each table.");
+        }
+        if (lhsKey > rhsKey) {
+            int key = lhsKey;
+            lhsKey = rhsKey;
+            rhsKey = key;
+        }
+        if (joinedAttributes.get(lhsKey).getType() != joinedAttributes.get(rhsKey).getType()) {
+            throw new DBError("Cannot join " + joinedAttributes.get(lhsKey).getName() + " with " +
+                    joinedAttributes.get(rhsKey).getName() + ", which is of a different type.");
+        }
+
+        boolean[] joinedColumns = new boolean[joinedAttributes.size()];
+        joinedColumns[lhsKey] = true;
+        joinedColumns[rhsKey] = true;
+        Vector<Attribute> resultAttributes = new Vector<>();
+        for (String attributeName : selectStatement.getSelectedAttributes()) {
+            if (attributeName.equals("*")) {
+                resultAttributes.addAll(joinedAttributes);
+                Arrays.fill(joinedColumns, true);
+                continue;
+            }
+
+            int ordinal = resolveJoinedAttribute(lhsTable, rhsTable, attributeName);
+            resultAttributes.add(joinedAttributes.get(ordinal));
+            joinedColumns[ordinal] = true;
+        }
+
+        int orderOrdinal = -1;
+        if (selectStatement.getOrderAttribute() != null) {
+            orderOrdinal = resolveJoinedAttribute(lhsTable, rhsTable, selectStatement.getOrderAttribute());
+            joinedColumns[orderOrdinal] = true;
+        }
+
+        Vector<Condition> lhsConditions = new Vector<>();
+        Vector<Condition> rhsConditions = new Vector<>();
+        Vector<Condition> joinedConditions = new Vector<>();
+        Vector<Condition> conjuncts = new Vector<>();
+        if (selectStatement.getCondition() != null) {
+            collectConjuncts(selectStatement.getCondition(), conjuncts);
+        }
+        for (Condition conjunct : conjuncts) {
+            Vector<Predicate> predicates = new Vector<>();
+            conjunct.collectPredicates(predicates);
+            int[] ordinals = new int[predicates.size()];
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = resolveJoinedAttribute(lhsTable, rhsTable, predicates.get(i).getAttributeName());
+                joinedColumns[ordinals[i]] = true;
+            }
+
+            boolean isOfLhs = Arrays.stream(ordinals).allMatch(ordinal -> ordinal < lhsWidth);
+            boolean isOfRhs = Arrays.stream(ordinals).allMatch(ordinal -> ordinal >= lhsWidth);
+            for (int i = 0; i < ordinals.length; i++) {
+                boolean isLhsAttribute = ordinals[i] < lhsWidth;
+                Attribute attribute = isLhsAttribute ? lhsTable.getAttributeList().get(ordinals[i]) :
+                        rhsTable.getAttributeList().get(ordinals[i] - lhsWidth);
+                predicates.get(i).setAttribute(attribute, isOfRhs ? ordinals[i] - lhsWidth : ordinals[i]);
+            }
+            (isOfLhs ? lhsConditions : isOfRhs ? rhsConditions : joinedConditions).add(conjunct);
+        }
+
+        Snapshot snapshot = transaction == null ?
+                transactionManager.openSnapshot(lhsTable.getName(), rhsTable.getName()) :
+                transaction.getSnapshot();
+        Operator plan = planJoin(lhsTable, lhsKey, conjunctionOf(lhsConditions),
+                Arrays.copyOfRange(joinedColumns, 0, lhsWidth), rhsTable, rhsKey - lhsWidth,
+                conjunctionOf(rhsConditions), Arrays.copyOfRange(joinedColumns, lhsWidth, joinedColumns.length),
+                joinedAttributes, snapshot);
+        if (!joinedConditions.isEmpty()) {
+            plan = new Filter(plan, conjunctionOf(joinedConditions));
+        }
+        if (orderOrdinal >= 0) {
+            long rowsWanted = selectStatement.hasLimit() ?
+                    selectStatement.getLimit() + selectStatement.getOffset() : Long.MAX_VALUE;
+            plan = new Sort(plan, joinedAttributes, orderOrdinal, selectStatement.isDescending(), rowsWanted,
+                    lhsTable.getPageDirectory());
+        }
+        if (!resultAttributes.equals(joinedAttributes)) {
+            plan = new Project(plan, joinedAttributes, resultAttributes);
+        }
+        return runSelection(selectStatement, plan, resultAttributes, snapshot, transaction);
+    }
+
+    /**
+     * Plans the join of the rows of two tables satisfying a condition each on
+     * the equality of an attribute of each. When the attribute of a table is
+     * indexed, every row of the other table looks its value up in the index,
+     * the smaller table looking up the larger one if both are. Otherwise the
+     * smaller table is hashed and probed by the rows of the larger one.
+     *
+     * @param lhsColumns The attributes of the first table needed by the
+     *                   statement, which come first in the joined rows.
+     * @param rhsColumns The attributes of the second table needed by the statement.
+     */
+    private Operator planJoin(Table lhsTable, int lhsKey, Condition lhsCondition, boolean[] lhsColumns,
+                              Table rhsTable, int rhsKey, Condition rhsCondition, boolean[] rhsColumns,
+                              Vector<Attribute> joinedAttributes, Snapshot snapshot) {
+        Attribute lhsAttribute = lhsTable.getAttributeList().get(lhsKey);
+        Attribute rhsAttribute = rhsTable.getAttributeList().get(rhsKey);
+        boolean isLhsSmaller = TableStatistics.estimateRowCount(lhsTable) <= TableStatistics.estimateRowCount(rhsTable);
+
+        if (rhsAttribute.getIsIndexed() && (!lhsAttribute.getIsIndexed() || isLhsSmaller)) {
+            Operator outer = planJoinedScan(lhsTable, lhsCondition, lhsColumns, snapshot);
+            return new IndexNestedLoopJoin(outer, lhsTable.getAttributeList(), lhsKey, bufferPool, rhsTable,
+                    readIndex(rhsTable, rhsAttribute), rhsKey, rhsCondition, snapshot, true, joinedAttributes);
+        }
+        if (lhsAttribute.getIsIndexed()) {
+            Operator outer = planJoinedScan(rhsTable, rhsCondition, rhsColumns, snapshot);
+            return new IndexNestedLoopJoin(outer, rhsTable.getAttributeList(), rhsKey, bufferPool, lhsTable,
+                    readIndex(lhsTable, lhsAttribute), lhsKey, lhsCondition, snapshot, false, joinedAttributes);
+        }
+
+        Operator lhsScan = planJoinedScan(lhsTable, lhsCondition, lhsColumns, snapshot);
+        Operator rhsScan = planJoinedScan(rhsTable, rhsCondition, rhsColumns, snapshot);
+        if (isLhsSmaller) {
+            return new HashJoin(lhsScan, lhsTable.getAttributeList(), lhsKey, rhsScan, rhsTable.getAttributeList(),
+                    rhsKey, true, joinedAttributes, rootDirectory);
+        }
+        return new HashJoin(rhsScan, rhsTable.getAttributeList(), rhsKey, lhsScan, lhsTable.getAttributeList(),
+                lhsKey, false, joinedAttributes, rootDirectory);
+    }
+
+    private Operator planJoinedScan(Table table, Condition condition, boolean[] columns, Snapshot snapshot) {
+        Vector<Predicate> predicates = new Vector<>();
+        if (condition != null) {
+            condition.collectPredicates(predicates);
+        }
+        for (boolean isNeeded : columns) {
+            if (!isNeeded) {
+                return planScan(table, condition, predicates.size(), snapshot, columns, Integer.MAX_VALUE);
+            }
+        }
+        return planScan(table, condition, predicates.size(), snapshot, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return The ordinal of an attribute in the rows joining two tables,
+     * which holds the attributes of the first table then those of the
+     * second one.
+     */
+    private static int resolveJoinedAttribute(Table lhsTable, Table rhsTable, String attributeName)
+            throws DBError {
+        int separatorIdx = attributeName.indexOf('.');
+        if (separatorIdx >= 0) {
+            String tableName = attributeName.substring(0, separatorIdx);
+            String name = attributeName.substring(separatorIdx + 1);
+            if (tableName.equals(lhsTable.getName()) && lhsTable.getAttributeWithName(name) != null) {
+                return lhsTable.getAttributeList().indexOf(lhsTable.getAttributeWithName(name));
+            }
+            if (tableName.equals(rhsTable.getName()) && rhsTable.getAttributeWithName(name) != null) {
+                return lhsTable.getAttributeList().size() +
+                        rhsTable.getAttributeList().indexOf(rhsTable.getAttributeWithName(name));
+            }
+            throw new DBError("Invalid attribute name " + attributeName);
+        }
+
+        Attribute lhsAttribute = lhsTable.getAttributeWithName(attributeName);
+        Attribute rhsAttribute = rhsTable.getAttributeWithName(attributeName);
+        if (lhsAttribute != null && rhsAttribute != null) {
+            throw new DBError("The attribute name " + attributeName + " is ambiguous, as both " +
+                    lhsTable.getName() + " and " + rhsTable.getName() + " have it.");
+        }
+        if (lhsAttribute != null) {
+            return lhsTable.getAttributeList().indexOf(lhsAttribute);
+        }
+        if (rhsAttribute != null) {
+            return lhsTable.getAttributeList().size() + rhsTable.getAttributeList().indexOf(rhsAttribute);
+        }
+        throw new DBError("Invalid attribute name " + attributeName);
+    }
+
+    private static void collectConjuncts(Condition condition, Vector<Condition> conjuncts) {
+        if (condition instanceof LogicalCondition logicalCondition &&
+                logicalCondition.getOperator() == LogicalCondition.Operator.AND) {
+            collectConjuncts(logicalCondition.getLhs(), conjuncts);
+            collectConjuncts(logicalCondition.getRhs(), conjuncts);
+        } else {
+            conjuncts.add(condition);
+        }
+    }
+
+    /**
+     * @return The conjunction of the conditions, or null if there are none.
+     */
+    private static Condition conjunctionOf(Vector<Condition> conditions) {
+        Condition conjunction = null;
+        for (Condition condition : conditions) {
+            conjunction = conjunction == null ? condition :
+                    new LogicalCondition(LogicalCondition.Operator.AND, conjunction, condition);
+        }
+        return conjunction;
+    }
+
+    private BPlusTree<?, Long> readIndex(Table table, Attribute attribute) {
+        BPlusTree<?, Long> indexTree = bufferPool.getIndex(table, attribute);
+        if (indexTree == null) {
+            System.out.println("Could not read the index file for attribute: " + attribute.getName());
+            System.exit(1);
+        }
+        return indexTree;
+    }
+
+    /**
+     * Plans the projected attributes of the rows of a table satisfying the
+     * condition of a select statement, in the requested order.
+     */
+    private Operator planSelection(Table table, SelectStatement selectStatement,
+                                   Vector<Attribute> projectedAttributes, Attribute orderAttribute,
+                                   Snapshot snapshot) {
+        int rowsWanted = selectStatement.hasLimit() ?
+                (int) Math.min(Integer.MAX_VALUE, selectStatement.getLimit() + selectStatement.getOffset()) :
+                Integer.MAX_VALUE;
+        Operator plan;
+        if (orderAttribute == null) {
+            plan = planScan(table, selectStatement.getCondition(), selectStatement.getPredicates().size(), snapshot,
+                    getNeededColumns(table, projectedAttributes, selectStatement.getPredicates(), null), rowsWanted);
+        } else {
+            plan = planOrderedScan(table, selectStatement, orderAttribute, snapshot,
+                    getNeededColumns(table, projectedAttributes, selectStatement.getPredicates(), orderAttribute),
+                    rowsWanted);
+        }
+        if (!projectedAttributes.equals(table.getAttributeList())) {
+            plan = new Project(plan, table.getAttributeList(), projectedAttributes);
+        }
+        return plan;
+    }
+
+    /**
+     * Creates an accumulator for each aggregate function of a select
+     * statement, all of whose selected attributes must be aggregated.
+     *
+     * @param resultAttributes Filled with the attribute of each aggregate's result.
+     */
+    private Vector<Accumulator> resolveAggregates(Table table, SelectStatement selectStatement,
+                                                  Vector<Attribute> resultAttributes) throws DBError {
+        Vector<Accumulator> accumulators = new Vector<>();
+        Vector<String> selectedAttributes = selectStatement.getSelectedAttributes();
+        for (int i = 0; i < selectedAttributes.size(); i++) {
+            Aggregate aggregate = selectStatement.getAggregate(i);
+            if (aggregate == null) {
+                throw new DBError("The attribute " + selectedAttributes.get(i) +
+                        " must be aggregated along with the other selected attributes.");
+            }
+
+            Accumulator accumulator = resolveAccumulator(table, aggregate);
+            accumulators.add(accumulator);
+            resultAttributes.add(new Attribute(accumulator.getResultType(), aggregate.getLabel()));
+        }
+        return accumulators;
+    }
+
+    private Accumulator resolveAccumulator(Table table, Aggregate aggregate) throws DBError {
+        if (aggregate.getAttributeName() == null) {
+            return new Accumulator(aggregate.getFunction(), -1, null);
+        }
+
+        Attribute attribute = table.getAttributeWithName(aggregate.getAttributeName());
+        if (attribute == null) {
+            throw new DBError("Invalid attribute name " + aggregate.getAttributeName());
+        }
+        if (attribute.getType() == AttributeType.STRING &&
+                (aggregate.getFunction() == Aggregate.Function.SUM ||
+                        aggregate.getFunction() == Aggregate.Function.AVG)) {
+            throw new DBError("Cannot apply " + aggregate.getFunction() +
+                    " to the STRING attribute " + attribute.getName());
+        }
+        return new Accumulator(aggregate.getFunction(), table.getAttributeList().indexOf(attribute),
+                attribute.getType());
+    }
+
+    /**
+     * Lays out the groups of a select statement with a GROUP BY clause, whose
+     * selected attributes must either be aggregated or be grouped by.
+     *
+     * @param orderAttribute The attribute to order the groups by, or null. It
+     *                       must be selected and grouped by.
+     */
+    private GroupLayout resolveGroupLayout(Table table, SelectStatement selectStatement, Attribute orderAttribute)
+            throws DBError {
+        Vector<Attribute> tableAttributes = table.getAttributeList();
+        Vector<Attribute> groupAttributes = new Vector<>();
+        for (String attributeName : selectStatement.getGroupAttributes()) {
+            Attribute attribute = table.getAttributeWithName(attributeName);
             if (attribute == null) {
-                throw new DBError("Invalid attribute: \"" + predicate.getAttributeName()
-                        + "\"");
+                throw new DBError("Invalid attribute name " + attributeName);
             }
-            predicate.setAttribute(attribute);
-            if (attribute.getIsIndexed()) {
-                BPlusTree<?, RowRecord> indexTree = bufferPool.getIndex(table, attribute);
-                if (indexTree == null) {
-                    System.out.println("Could not read the index file for attribute: " + attribute.getName());
-                    System.exit(1);
+            if (!groupAttributes.contains(attribute)) {
+                groupAttributes.add(attribute);
+            }
+        }
+
+        Vector<String> selectedAttributes = selectStatement.getSelectedAttributes();
+        Vector<Accumulator> accumulators = new Vector<>();
+        int[] columnOrdinals = new int[selectedAttributes.size()];
+        Vector<Attribute> resultAttributes = new Vector<>();
+        for (int i = 0; i < selectedAttributes.size(); i++) {
+            Aggregate aggregate = selectStatement.getAggregate(i);
+            if (aggregate != null) {
+                Accumulator accumulator = resolveAccumulator(table, aggregate);
+                accumulators.add(accumulator);
+                columnOrdinals[i] = -1;
+                resultAttributes.add(new Attribute(accumulator.getResultType(), aggregate.getLabel()));
+                continue;
+            }
+
+            Attribute attribute = table.getAttributeWithName(selectedAttributes.get(i));
+            if (attribute == null || !groupAttributes.contains(attribute)) {
+                throw new DBError("The attribute " + selectedAttributes.get(i) +
+                        " must be aggregated or appear in GROUP BY.");
+            }
+            columnOrdinals[i] = tableAttributes.indexOf(attribute);
+            resultAttributes.add(attribute);
+        }
+
+        int[] groupOrdinals = groupAttributes.stream().mapToInt(tableAttributes::indexOf).toArray();
+        GroupLayout layout = new GroupLayout(tableAttributes, groupOrdinals, accumulators, columnOrdinals,
+                resultAttributes);
+        if (orderAttribute != null && layout.getColumnOf(tableAttributes.indexOf(orderAttribute)) < 0) {
+            throw new DBError("The attribute " + orderAttribute.getName() +
+                    " must be selected and appear in GROUP BY to order by it.");
+        }
+        return layout;
+    }
+
+    /**
+     * Plans the aggregation of the rows of a table satisfying the condition of
+     * a select statement. Without a condition, MIN and MAX of an indexed
+     * attribute only read the first visible entry at the matching end of its
+     * index. The other aggregates are fed by a scan that only decodes their
+     * attributes, so that COUNT(*) alone counts the rows of each page visible
+     * in the snapshot without decoding any of their values.
+     */
+    private Operator planAggregation(Table table, SelectStatement selectStatement,
+                                     Vector<Accumulator> accumulators, Vector<Attribute> resultAttributes,
+                                     Snapshot snapshot) {
+        Vector<Operator> sources = new Vector<>();
+        Vector<Attribute> aggregatedAttributes = new Vector<>();
+        boolean isScanNeeded = false;
+        for (Accumulator accumulator : accumulators) {
+            Attribute attribute = accumulator.getOrdinal() < 0 ? null :
+                    table.getAttributeList().get(accumulator.getOrdinal());
+            boolean isExtremum = accumulator.getFunction() == Aggregate.Function.MIN ||
+                    accumulator.getFunction() == Aggregate.Function.MAX;
+            if (selectStatement.getCondition() != null || !isExtremum || !attribute.getIsIndexed()) {
+                sources.add(null);
+                isScanNeeded = true;
+                if (attribute != null && !aggregatedAttributes.contains(attribute)) {
+                    aggregatedAttributes.add(attribute);
                 }
-                result.addAll(indexTree.findWithPredicate(predicate));
+                continue;
             }
+
+            BPlusTree<?, Long> indexTree = readIndex(table, attribute);
+            boolean isDescending = accumulator.getFunction() == Aggregate.Function.MAX;
+            sources.add(new Limit(new IndexOrderScan(bufferPool, table, indexTree, accumulator.getOrdinal(),
+                    isDescending, snapshot, 1), 1, 0));
         }
 
-        predicates = predicates
-                .stream()
-                .filter(p -> !table.getAttributeWithName(p.getAttributeName()).getIsIndexed())
-                .collect(Collectors.toCollection(Vector::new));
+        Operator child = !isScanNeeded ? null :
+                planScan(table, selectStatement.getCondition(), selectStatement.getPredicates().size(), snapshot,
+                        getNeededColumns(table, aggregatedAttributes, selectStatement.getPredicates(), null),
+                        Integer.MAX_VALUE);
+        return new Aggregation(child, accumulators, sources, resultAttributes);
+    }
+
+    /**
+     * Plans the groups of the rows of a table satisfying the condition of a
+     * select statement. Grouping by a single indexed attribute aggregates the
+     * groups one at a time as the index produces them in order, which is also
+     * the order of the ORDER BY clause if it is on that attribute. Otherwise
+     * the groups are hash aggregated over a scan that only decodes the needed
+     * attributes, spilling to the database directory past the memory budget,
+     * and sorted if ordered.
+     *
+     * @param orderAttribute The attribute to order the groups by, or null.
+     */
+    private Operator planGroupedAggregation(Table table, SelectStatement selectStatement, GroupLayout layout,
+                                            Attribute orderAttribute, Snapshot snapshot) {
+        Vector<Attribute> tableAttributes = table.getAttributeList();
+        int orderColumn = orderAttribute == null ? -1 : layout.getColumnOf(tableAttributes.indexOf(orderAttribute));
+
+        Vector<String> groupAttributes = selectStatement.getGroupAttributes();
+        Attribute groupAttribute = table.getAttributeWithName(groupAttributes.get(0));
+        if (groupAttributes.stream().distinct().count() == 1 && groupAttribute.getIsIndexed()) {
+            BPlusTree<?, Long> indexTree = readIndex(table, groupAttribute);
+
+            boolean isOrdered = groupAttribute.equals(orderAttribute);
+            boolean isDescending = isOrdered && selectStatement.isDescending();
+            Operator plan = new IndexOrderScan(bufferPool, table, indexTree, tableAttributes.indexOf(groupAttribute),
+                    isDescending, snapshot, Integer.MAX_VALUE);
+            if (selectStatement.getCondition() != null) {
+                plan = new Filter(plan, selectStatement.getCondition());
+            }
+            plan = new StreamAggregation(plan, layout);
+            if (orderColumn < 0 || isOrdered) {
+                return plan;
+            }
+            return sortGroups(plan, table, selectStatement, layout, orderColumn);
+        }
 
-        if (predicates.isEmpty()) {
-            return result.isEmpty() ? null :
-                    new QueryResult(result, table.getAttributeList(), selectedAttributes);
+        Vector<Attribute> neededAttributes = new Vector<>();
+        for (String attributeName : groupAttributes) {
+            neededAttributes.add(table.getAttributeWithName(attributeName));
+        }
+        for (Accumulator accumulator : layout.getAccumulators()) {
+            if (accumulator.getOrdinal() >= 0) {
+                neededAttributes.add(tableAttributes.get(accumulator.getOrdinal()));
+            }
         }
 
-        result.addAll(selectWithPredicates(table, predicates));
-        return result.size() == 0 ? null :
-                new QueryResult(result, table.getAttributeList(),
-                        selectedAttributes);
+        Operator plan = planScan(table, selectStatement.getCondition(), selectStatement.getPredicates().size(),
+                snapshot, getNeededColumns(table, neededAttributes, selectStatement.getPredicates(), null),
+                Integer.MAX_VALUE);
+        plan = new HashAggregation(plan, layout, rootDirectory);
+        return orderColumn < 0 ? plan : sortGroups(plan, table, selectStatement, layout, orderColumn);
     }
 
-    private HashSet<RowRecord> selectWithPredicates(Table table, final Vector<Predicate> predicates) {
-        HashSet<RowRecord> result = new HashSet<>();
+    private static Operator sortGroups(Operator plan, Table table, SelectStatement selectStatement,
+                                       GroupLayout layout, int orderColumn) {
+        long rowsWanted = selectStatement.hasLimit() ?
+                selectStatement.getLimit() + selectStatement.getOffset() : Long.MAX_VALUE;
+        return new Sort(plan, layout.getAttributes(), orderColumn, selectStatement.isDescending(), rowsWanted,
+                table.getPageDirectory());
+    }
 
-        for (int i = 1; i <= table.getNumPages(); i++) {
-            Page page = bufferPool.getPage(table, i);
-            for (RowRecord r : page.getRecords()) {
-                boolean ret = false;
-                for (Predicate p : predicates) {
-                    Attribute attribute = table
-                            .getAttributeWithName(p.getAttributeName());
-                    ret |= p.doesSatisfy(r.getValueOf(attribute));
-                }
-                if (ret) {
-                    result.add(r);
-                }
+    /**
+     * Plans the rows of a select statement ordered by an attribute. An index on
+     * the attribute produces them in order, in which case the condition is
+     * checked against every produced row; otherwise the rows satisfying the
+     * condition are sorted, keeping only the first ones if fewer are wanted.
+     */
+    private Operator planOrderedScan(Table table, SelectStatement selectStatement, Attribute orderAttribute,
+                                     Snapshot snapshot, boolean[] columns, int rowsWanted) {
+        int ordinal = table.getAttributeList().indexOf(orderAttribute);
+        if (orderAttribute.getIsIndexed()) {
+            BPlusTree<?, Long> indexTree = readIndex(table, orderAttribute);
+
+            Operator plan = new IndexOrderScan(bufferPool, table, indexTree, ordinal,
+                    selectStatement.isDescending(), snapshot, rowsWanted);
+            return selectStatement.getCondition() == null ? plan :
+                    new Filter(plan, selectStatement.getCondition());
+        }
+
+        Operator plan = planScan(table, selectStatement.getCondition(), selectStatement.getPredicates().size(),
+                snapshot, columns, Integer.MAX_VALUE);
+        return new Sort(plan, table.getAttributeList(), ordinal, selectStatement.isDescending(),
+                rowsWanted, table.getPageDirectory());
+    }
+
+    /**
+     * @return Whether each attribute of the table, by ordinal, is projected,
+     * compared by a predicate or ordered by, or null if all of them are.
+     */
+    private static boolean[] getNeededColumns(Table table, Vector<Attribute> projectedAttributes,
+                                              Vector<Predicate> predicates, Attribute orderAttribute) {
+        Vector<Attribute> attributes = table.getAttributeList();
+        boolean[] columns = new boolean[attributes.size()];
+        if (orderAttribute != null) {
+            columns[attributes.indexOf(orderAttribute)] = true;
+        }
+        for (Attribute attribute : projectedAttributes) {
+            columns[attributes.indexOf(attribute)] = true;
+        }
+        for (Predicate predicate : predicates) {
+            columns[predicate.getOrdinal()] = true;
+        }
+
+        for (boolean isNeeded : columns) {
+            if (!isNeeded) {
+                return columns;
             }
         }
-        return result;
+        return null;
+    }
+
+    /**
+     * A plan producing a superset of the rows satisfying a condition through
+     * index scans, together with its estimated cost.
+     */
+    private record IndexAccess(Operator plan, double cost) {
+    }
+
+    /**
+     * Plans the rows of a table satisfying a condition. When index scans can
+     * narrow the table down to a superset of those rows, the cost model
+     * decides between them and a full scan. Either way the condition is then
+     * checked against every produced row. Only the row versions visible in
+     * the snapshot are produced. Full scans only decode the given columns,
+     * while index scans produce whole rows, looking them up in batches when
+     * fewer than all of them are wanted.
+     */
+    private Operator planScan(Table table, Condition condition, int numberOfPredicates, Snapshot snapshot,
+                              boolean[] columns, int rowsWanted) {
+        if (condition == null) {
+            return ParallelScan.create(bufferPool, table, snapshot, null, columns);
+        }
+
+        IndexAccess indexAccess = planIndexAccess(table, condition, snapshot, rowsWanted);
+        if (indexAccess == null ||
+                indexAccess.cost() >= CostModel.sequentialScanCost(table, numberOfPredicates)) {
+            return ParallelScan.create(bufferPool, table, snapshot, condition, columns);
+        }
+
+        if (condition instanceof Predicate) {
+            return indexAccess.plan();
+        }
+        return new Filter(indexAccess.plan(), condition);
+    }
+
+    /**
+     * Finds the cheapest index plan for a condition. A comparison on an
+     * indexed attribute is an index scan, a disjunction needs a plan for both
+     * of its sides, and a conjunction only needs one for either side.
+     *
+     * @return The plan, or null if the condition has no usable index.
+     */
+    private IndexAccess planIndexAccess(Table table, Condition condition, Snapshot snapshot, int rowsWanted) {
+        if (condition instanceof Predicate predicate) {
+            if (!predicate.getAttribute().getIsIndexed()) {
+                return null;
+            }
+
+            BPlusTree<?, Long> indexTree = readIndex(table, predicate.getAttribute());
+            return new IndexAccess(new IndexScan(bufferPool, table, indexTree, predicate, snapshot, rowsWanted),
+                    CostModel.indexScanCost(table, predicate));
+        }
+
+        LogicalCondition logicalCondition = (LogicalCondition) condition;
+        IndexAccess lhs = planIndexAccess(table, logicalCondition.getLhs(), snapshot, rowsWanted);
+        IndexAccess rhs = planIndexAccess(table, logicalCondition.getRhs(), snapshot, rowsWanted);
+
+        if (logicalCondition.getOperator() == LogicalCondition.Operator.AND) {
+            if (lhs == null || rhs == null) {
+                return lhs == null ? rhs : lhs;
+            }
+            return lhs.cost() <= rhs.cost() ? lhs : rhs;
+        }
+
+        if (lhs == null || rhs == null) {
+            return null;
+        }
+
+        Vector<Operator> children = new Vector<>();
+        children.add(lhs.plan());
+        children.add(rhs.plan());
+        return new IndexAccess(new Union(children), lhs.cost() + rhs.cost());
     }
 
     private void verifySelectedAttributesExist(Table table, Vector<String> selectedAttributes) throws DBError {
@@ -470,18 +1795,8 @@ public class RheaDB {
         }
     }
 
-    private QueryResult getAllRows(Table table, Vector<String> selectedAttributes) {
-        HashSet<RowRecord> result = new HashSet<>();
-        for (int i = 1; i <= table.getNumPages(); i++) {
-            Page page = bufferPool.getPage(table, i);
-            result.addAll(page.getRecords());
-        }
-
-        return result.isEmpty() ? null :
-                new QueryResult(result, table.getAttributeList(), selectedAttributes);
-    }
-
-    private QueryResult executeDeleteFrom(DeleteStatement deleteStatement) throws DBError {
+    private QueryResult executeDeleteFrom(DeleteStatement deleteStatement, Transaction transaction)
+            throws DBError {
         String tableName = deleteStatement.getTableName();
         Table table = getTable(tableName);
         if (table == null) {
@@ -489,64 +1804,128 @@ public class RheaDB {
                     "to a table in the database");
         }
 
-        Vector<Predicate> predicates = deleteStatement.getPredicateVector();
-        Vector<String> predicatedAttributes = predicates.stream()
-                .map(p -> p.getAttributeName())
-                .collect(Collectors.toCollection(Vector::new));
-
-        verifySelectedAttributesExist(table, predicatedAttributes);
+        Condition condition = deleteStatement.getCondition();
+        if (transaction == null) {
+            /* Pages a result is still reading are kept, and every row version is deleted instead. */
+            if (transactionManager.isBeingRead(tableName)) {
+                return executeWrite(deleteStatement, null);
+            }
 
-        if (predicates.isEmpty()) {
             deleteAllRows(table);
             return null;
         }
 
-        for (Predicate predicate : predicates) {
-            Attribute attribute = table.getAttributeWithName(predicate.getAttributeName());
-            if (attribute == null) {
-                throw new DBError("Invalid attribute: \"" + predicate.getAttributeName()
-                        + "\"");
+        resolvePredicatesAttributes(table, deleteStatement.getPredicateVector());
+
+        /* Deleted versions stay in place for older snapshots until vacuum removes them. */
+        int deletedRows = 0;
+        Page page = null;
+        for (RowRecord match : findRows(table, condition, transaction.getSnapshot())) {
+            page = getPageOf(table, match, page);
+            RowRecord r = page.getRecord(match.getRowId());
+            verifyNotChangedConcurrently(r, transaction);
+            transaction.logDelete(table, r);
+            r.setDeletedBy(transaction.getId());
+            writeAheadLog.logPut(table, r);
+            deletedRows++;
+        }
+        if (page != null) {
+            bufferPool.updatePage(table, page);
+        }
+        countDeadVersions(table, deletedRows);
+        return null;
+    }
+
+    private void countDeadVersions(Table table, long versions) {
+        if (versions > 0) {
+            deadVersions.computeIfAbsent(table.getName(), name -> new AtomicLong()).addAndGet(versions);
+        }
+    }
+
+    private void backgroundVacuum() {
+        long threshold = TransactionManager.getVacuumThreshold();
+        for (Map.Entry<String, AtomicLong> entry : deadVersions.entrySet()) {
+            if (isClosed) {
+                return;
+            }
+            if (entry.getValue().get() >= threshold) {
+                vacuum(entry.getKey());
             }
-            predicate.setAttribute(attribute);
         }
+    }
 
-        final Vector<Predicate> finalPredicates = predicates;
+    /**
+     * Removes the row versions of a table that no snapshot can see any more
+     * from the pages holding them. Remaining rows are not moved, so scans in
+     * progress are not disturbed; COMPACT also packs them together.
+     *
+     * @return The number of removed versions.
+     */
+    public int vacuum(String tableName) {
+        catalogLock.readLock().lock();
+        Lock tableLock = lockManager.writeLock(tableName);
+        tableLock.lock();
+        try {
+            Table table = getTable(tableName);
+            deadVersions.remove(tableName);
+            if (table == null) {
+                return 0;
+            }
 
-        for (int i = 1; i <= table.getNumPages(); i++) {
-            Page page = bufferPool.getPage(table, i);
-            int rowsBeforeDelete = page.getNumberOfRows();
-            page.getRecords()
-                    .removeIf((r) -> {
-                        boolean ret = false;
-                        for (Predicate p : finalPredicates) {
-                            Attribute attribute = table.getAttributeWithName(p.getAttributeName());
-                            ret |= p.doesSatisfy(r.getValueOf(attribute));
-                        }
-                        return ret;
-                    });
-            if (!lazyCommit && page.getNumberOfRows() != rowsBeforeDelete) {
+            long vacuumHorizon = transactionManager.getVacuumHorizon();
+            Vector<Attribute> indexedAttributes = getIndexedAttributes(table);
+            int removedVersions = 0;
+            long pendingVersions = 0;
+            for (int i = 1; i <= table.getNumPages(); i++) {
+                Page page = bufferPool.getPage(table, i);
+                Vector<RowRecord> deadRows = new Vector<>();
+                for (RowRecord r : page.getRecords()) {
+                    if (transactionManager.isDead(r, vacuumHorizon)) {
+                        deadRows.add(r);
+                    } else if (r.getDeletedBy() != 0 && !transactionManager.isAborted(r.getDeletedBy())) {
+                        pendingVersions++;
+                    }
+                }
+
+                if (deadRows.isEmpty()) {
+                    continue;
+                }
+
+                page.getRecords().removeIf(deadRows::contains);
+                table.getZoneMap().summarize(table, page);
+                for (RowRecord r : deadRows) {
+                    removeFromIndices(table, indexedAttributes, r);
+                    writeAheadLog.logDelete(table, r.getPageId(), r.getRowId());
+                }
                 bufferPool.updatePage(table, page);
-                table.getAttributeList()
-                        .stream()
-                        .filter(p -> p.getIsIndexed())
-                        .forEach(p -> updateIndex(table, p));
+                removedVersions += deadRows.size();
             }
+
+            /* Versions some snapshot may still see are counted again for the next run. */
+            countDeadVersions(table, pendingVersions);
+            return removedVersions;
+        } finally {
+            tableLock.unlock();
+            catalogLock.readLock().unlock();
         }
-        return null;
     }
 
     private void deleteAllRows(Table table) {
+        deadVersions.remove(table.getName());
         for (int i = table.getNumPages(); i > 0; i--) {
-            Page page = bufferPool.getPage(table, i);
             bufferPool.deletePage(table, i);
             metadataDirty = true;
-            if (!lazyCommit) {
-                bufferPool.updatePage(table, page);
-            }
+        }
+        table.getZoneMap().truncate(0);
+
+        for (Attribute attribute : getIndexedAttributes(table)) {
+            bufferPool.deleteIndex(table, attribute);
+            createIndex(table, attribute);
         }
     }
 
-    private QueryResult executeInsertInto(InsertStatement insertStatement) throws DBError {
+    private QueryResult executeInsertInto(InsertStatement insertStatement, Transaction transaction)
+            throws DBError {
         String tableName = insertStatement.getTableName();
         Table table = getTable(tableName);
 
@@ -555,10 +1934,23 @@ public class RheaDB {
                     "to a table in the database");
         }
 
+        /* Every row is checked before any is inserted, so a bad row fails the whole statement. */
+        Vector<RowRecord> rowRecords = new Vector<>();
+        for (Vector<Object> values : insertStatement.getRows()) {
+            RowRecord rowRecord = makeRowRecord(table, values);
+            rowRecord.setCreatedBy(transaction.getId());
+            rowRecords.add(rowRecord);
+        }
+
+        insertInto(table, rowRecords, transaction);
+
+        return new UpdateResult(rowRecords.size());
+    }
+
+    private RowRecord makeRowRecord(Table table, Vector<Object> values) throws DBError {
         Vector<Attribute> attributes = table.getAttributeList();
-        Vector<Object> values = insertStatement.getValues();
 
-        if (values.size() != table.getAttributeList().size()) {
+        if (values.size() != attributes.size()) {
             throw new DBError("Invalid number of attribute values.");
         }
 
@@ -587,31 +1979,61 @@ public class RheaDB {
                         "for attribute: " + attribute.getName());
             }
         }
-        RowRecord rowRecord = new RowRecord(attributes, values);
-        insertInto(table, rowRecord);
-
-        return null;
+        /* Copied: the values of a prepared statement are inserted once per execution. */
+        RowRecord rowRecord = new RowRecord(attributes, new Vector<>(values));
+        Page emptyPage = new Page(table.getName(), table.getMaxTuplesPerPage(), 0);
+        if (!DiskManager.canFit(table, emptyPage, rowRecord)) {
+            throw new DBError("Row does not fit in a page.");
+        }
+        return rowRecord;
     }
 
-    private void insertInto(Table table, RowRecord record) {
-        Page lastPage = bufferPool.getPage(table, table.getNumPages());
-        if (lastPage == null || lastPage.isFull()) {
-            lastPage = bufferPool.insertPage(table, table.getNewPage());
-            metadataDirty = true;
+    /**
+     * Appends rows to the end of a table in one pass. Each filled page is
+     * marked dirty once, and every index is looked up and marked dirty once
+     * for all the rows.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void insertInto(Table table, Vector<RowRecord> records, Transaction transaction) {
+        if (records.isEmpty()) {
+            return;
         }
 
-        record.setPageId(lastPage.getPageIdx());
-        record.setRowId(lastPage.getLastRowIndex());
-        lastPage.addRecord(record);
+        Page lastPage = bufferPool.getPage(table, table.getNumPages());
+        boolean pageChanged = false;
+        for (RowRecord record : records) {
+            if (lastPage == null || lastPage.isFull() || !DiskManager.canFit(table, lastPage, record)) {
+                /* Marked dirty before a new page may evict it. */
+                if (pageChanged) {
+                    bufferPool.updatePage(table, lastPage);
+                }
+                lastPage = bufferPool.insertPage(table, table.getNewPage());
+                metadataDirty = true;
+            }
 
-        if (!lazyCommit) {
-            bufferPool.updatePage(table, lastPage);
+            record.setPageId(lastPage.getPageIdx());
+            record.setRowId(lastPage.getLastRowIndex());
+            lastPage.addRecord(record);
+            table.getZoneMap().include(table, record);
+            transaction.logInsert(table, record);
+            writeAheadLog.logPut(table, record);
+            pageChanged = true;
         }
+        bufferPool.updatePage(table, lastPage);
 
-        table.getAttributeList()
-                .stream()
-                .filter(attr -> attr.getIsIndexed())
-                .forEach(attr -> updateIndex(table, attr));
+        for (Attribute attribute : getIndexedAttributes(table)) {
+            BPlusTree indexTree = bufferPool.getIndex(table, attribute);
+            if (indexTree == null) {
+                continue;
+            }
+            int ordinal = table.getAttributeList().indexOf(attribute);
+            synchronized (indexTree) {
+                for (RowRecord record : records) {
+                    indexTree.insert(record.getValue(ordinal), record.getLocator());
+                }
+            }
+            bufferPool.markIndexDirty(table, attribute);
+        }
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -619,12 +2041,13 @@ public class RheaDB {
         if (table == null || attribute == null)
             return false;
 
-        BPlusTree<?, RowRecord> bPlusTree = new BPlusTree();
+        BPlusTree<?, Long> bPlusTree = new BPlusTree();
+        int ordinal = table.getAttributeList().indexOf(attribute);
 
         for (int i = 1; i <= table.getNumPages(); i++) {
             Page page = bufferPool.getPage(table, i);
             page.getRecords().forEach(
-                    r -> bPlusTree.insert(r.getValueOf(attribute), r)
+                    r -> bPlusTree.insert(r.getValue(ordinal), r.getLocator())
             );
         }
 
@@ -634,9 +2057,26 @@ public class RheaDB {
         return true;
     }
 
-    private void updateIndex(Table table, Attribute attribute) {
-        bufferPool.deleteIndex(table, attribute);
-        createIndex(table, attribute);
+    private Vector<Attribute> getIndexedAttributes(Table table) {
+        return table.getAttributeList()
+                .stream()
+                .filter(Attribute::getIsIndexed)
+                .collect(Collectors.toCollection(Vector::new));
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void removeFromIndices(Table table, Vector<Attribute> indexedAttributes, RowRecord record) {
+        for (Attribute attribute : indexedAttributes) {
+            BPlusTree indexTree = bufferPool.getIndex(table, attribute);
+            if (indexTree == null) {
+                continue;
+            }
+            synchronized (indexTree) {
+                if (indexTree.delete(record.getValue(table.getAttributeList().indexOf(attribute)), record.getLocator())) {
+                    bufferPool.markIndexDirty(table, attribute);
+                }
+            }
+        }
     }
 
     private Table getTable(String name) {
@@ -652,8 +2092,13 @@ public class RheaDB {
             return;
         }
 
-        DiskManager.saveMetadata(rootDirectory, createdTables);
-        metadataDirty = false;
+        catalogLock.writeLock().lock();
+        try {
+            DiskManager.saveMetadata(rootDirectory, new HashMap<>(createdTables));
+            metadataDirty = false;
+        } finally {
+            catalogLock.writeLock().unlock();
+        }
     }
 
     public void setLazyCommit(boolean b) {
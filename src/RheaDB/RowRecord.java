@@ -1,50 +1,191 @@
 package RheaDB;
 
-import java.io.Serial;
-import java.io.Serializable;
-import java.util.Arrays;
+import java.io.*;
 import java.util.Objects;
 import java.util.Vector;
-import java.util.stream.Collectors;
 
+/**
+ * A version of a row. Values are kept by attribute ordinal in primitive
+ * slots: INT and FLOAT values in an int array, FLOAT ones as their raw bits,
+ * and STRING values in an array that is only allocated for tables having
+ * STRING attributes. The typed getters read a value without boxing it.
+ */
 public class RowRecord implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
-    private Vector<Object> attributeValues;
-    private final Vector<Attribute> attributeList;
+    /*
+     * Rows keep their earlier serialized form, with boxed values, because index
+     * files written before indexes held row locators serialized whole rows.
+     * Those files are read once, when they are converted to paged index files.
+     */
+    @Serial
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("attributeValues", Vector.class),
+            new ObjectStreamField("attributeList", Vector.class),
+            new ObjectStreamField("pageId", int.class),
+            new ObjectStreamField("rowId", int.class),
+            new ObjectStreamField("createdBy", long.class),
+            new ObjectStreamField("deletedBy", long.class),
+    };
+
+    private Vector<Attribute> attributeList;
+    private int[] numericValues;
+    private String[] stringValues;
+
+    /* Bit i is set when the value at ordinal i is null, allocated with the first null. */
+    private long[] nullBits;
 
     private int pageId, rowId;
 
-    public RowRecord(Vector<Attribute> attributeList, Vector<Object> attributeValues) {
-        this.attributeValues = attributeValues;
+    /* Ids of the transactions that created and deleted this version of the row, 0 for none. */
+    private volatile long createdBy, deletedBy;
+
+    /**
+     * Creates a row whose values are all 0 or empty, to be set by ordinal.
+     */
+    public RowRecord(Vector<Attribute> attributeList) {
         this.attributeList = attributeList;
+        allocateSlots();
+    }
+
+    public RowRecord(Vector<Attribute> attributeList, Vector<Object> attributeValues) {
+        this(attributeList);
+        for (int i = 0; i < attributeValues.size(); i++) {
+            setAttributeValue(i, attributeValues.get(i));
+        }
     }
 
+    private void allocateSlots() {
+        int numberOfAttributes = attributeList.size();
+        numericValues = new int[numberOfAttributes];
+        for (Attribute attribute : attributeList) {
+            if (attribute.getType() == AttributeType.STRING) {
+                stringValues = new String[numberOfAttributes];
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return A new row with the same attributes and values, but no location
+     * or transaction ids.
+     */
+    public RowRecord copyValues() {
+        RowRecord copy = new RowRecord(attributeList);
+        copy.numericValues = numericValues.clone();
+        copy.stringValues = stringValues == null ? null : stringValues.clone();
+        copy.nullBits = nullBits == null ? null : nullBits.clone();
+        return copy;
+    }
+
+    /**
+     * @return The values boxed into a new vector, in attribute order.
+     */
     public Vector<Object> getAttributeValues() {
-        return attributeValues;
+        Vector<Object> values = new Vector<>(numericValues.length);
+        for (int i = 0; i < numericValues.length; i++) {
+            values.add(getValue(i));
+        }
+        return values;
     }
 
     public Vector<Attribute> getAttributes() {
         return attributeList;
     }
 
+    public int getNumberOfValues() {
+        return numericValues.length;
+    }
+
+    public boolean isNull(int ordinal) {
+        return nullBits != null && (nullBits[ordinal >> 6] & (1L << ordinal)) != 0;
+    }
+
+    public int getInt(int ordinal) {
+        return numericValues[ordinal];
+    }
+
+    public float getFloat(int ordinal) {
+        return Float.intBitsToFloat(numericValues[ordinal]);
+    }
+
+    public String getString(int ordinal) {
+        return stringValues[ordinal];
+    }
+
+    public void setInt(int ordinal, int value) {
+        numericValues[ordinal] = value;
+        setNull(ordinal, false);
+    }
+
+    public void setFloat(int ordinal, float value) {
+        numericValues[ordinal] = Float.floatToRawIntBits(value);
+        setNull(ordinal, false);
+    }
+
+    public void setString(int ordinal, String value) {
+        stringValues[ordinal] = value;
+        setNull(ordinal, value == null);
+    }
+
+    private void setNull(int ordinal, boolean isNull) {
+        if (nullBits == null) {
+            if (!isNull) {
+                return;
+            }
+            nullBits = new long[(numericValues.length + 63) >> 6];
+        }
+
+        if (isNull) {
+            nullBits[ordinal >> 6] |= 1L << ordinal;
+        } else {
+            nullBits[ordinal >> 6] &= ~(1L << ordinal);
+        }
+    }
+
+    /**
+     * @return The value at an ordinal, boxed, or null.
+     */
+    public Object getValue(int ordinal) {
+        if (isNull(ordinal)) {
+            return null;
+        }
+
+        return switch (attributeList.get(ordinal).getType()) {
+            case INT -> numericValues[ordinal];
+            case FLOAT -> Float.intBitsToFloat(numericValues[ordinal]);
+            case STRING -> stringValues[ordinal];
+        };
+    }
+
     public void setAttributeValue(int idx, Object val) {
-        this.attributeValues.set(idx, val);
+        if (val == null) {
+            if (stringValues != null) {
+                stringValues[idx] = null;
+            }
+            setNull(idx, true);
+            return;
+        }
+
+        switch (attributeList.get(idx).getType()) {
+            case INT -> setInt(idx, (Integer) val);
+            case FLOAT -> setFloat(idx, (Float) val);
+            case STRING -> setString(idx, (String) val);
+        }
     }
 
     public void setAttributeValue(Attribute attribute, Object val) {
-        for (int i = 0; i < attributeList.size(); i++) {
-            if (attributeList.get(i).equals(attribute)) {
-                attributeValues.set(i, val);
-                break;
-            }
+        int ordinal = attributeList.indexOf(attribute);
+        if (ordinal >= 0) {
+            setAttributeValue(ordinal, val);
         }
     }
 
     public void setAttributeValues(Object[] values) {
-        this.attributeValues = Arrays.stream(values)
-                .collect(Collectors.toCollection(Vector::new));
+        for (int i = 0; i < values.length; i++) {
+            setAttributeValue(i, values[i]);
+        }
     }
 
     public int getPageId() {
@@ -63,19 +204,80 @@ public class RowRecord implements Serializable {
         this.rowId = rowId;
     }
 
+    /**
+     * @return The page id and row id of the row packed into a single value,
+     * which is what indexes store to find the row again.
+     */
+    public long getLocator() {
+        return ((long) pageId << Integer.SIZE) | (rowId & 0xffffffffL);
+    }
+
+    public static int pageIdOf(long locator) {
+        return (int) (locator >>> Integer.SIZE);
+    }
+
+    public static int rowIdOf(long locator) {
+        return (int) locator;
+    }
+
+    public long getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(long createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public long getDeletedBy() {
+        return deletedBy;
+    }
+
+    public void setDeletedBy(long deletedBy) {
+        this.deletedBy = deletedBy;
+    }
+
+    /**
+     * Looks the attribute up among the row's attributes. Callers evaluating
+     * many rows should resolve the ordinal once and use {@link #getValue(int)}.
+     */
     public Object getValueOf(Attribute attribute) {
-        for (int i = 0; i < attributeList.size(); i++) {
-            if (attribute.equals(attributeList.get(i)))
-                return attributeValues.get(i);
+        int ordinal = attributeList.indexOf(attribute);
+        return ordinal < 0 ? null : getValue(ordinal);
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream outputStream) throws IOException {
+        ObjectOutputStream.PutField fields = outputStream.putFields();
+        fields.put("attributeValues", getAttributeValues());
+        fields.put("attributeList", attributeList);
+        fields.put("pageId", pageId);
+        fields.put("rowId", rowId);
+        fields.put("createdBy", createdBy);
+        fields.put("deletedBy", deletedBy);
+        outputStream.writeFields();
+    }
+
+    @Serial
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = inputStream.readFields();
+        attributeList = (Vector<Attribute>) fields.get("attributeList", null);
+        allocateSlots();
+        Vector<Object> attributeValues = (Vector<Object>) fields.get("attributeValues", null);
+        for (int i = 0; i < attributeValues.size(); i++) {
+            setAttributeValue(i, attributeValues.get(i));
         }
-        return null;
+        pageId = fields.get("pageId", 0);
+        rowId = fields.get("rowId", 0);
+        createdBy = fields.get("createdBy", 0L);
+        deletedBy = fields.get("deletedBy", 0L);
     }
 
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
-        for (Object o : this.attributeValues)
-            builder.append(o).append(", ");
+        for (int i = 0; i < numericValues.length; i++)
+            builder.append(getValue(i)).append(", ");
         builder.setLength(builder.length() - 2);
         return builder.toString();
     }
@@ -93,8 +295,7 @@ public class RowRecord implements Serializable {
         if (this.pageId != other.pageId || this.rowId != other.rowId)
             return false;
 
-        if (this.attributeValues.size() != other.attributeValues.size() ||
-                this.attributeList.size() != other.attributeList.size())
+        if (this.attributeList.size() != other.attributeList.size())
             return false;
 
         for (int i = 0; i < attributeList.size(); i++) {
@@ -102,8 +303,16 @@ public class RowRecord implements Serializable {
                 return false;
         }
 
-        for (int i = 0; i < attributeValues.size(); i++) {
-            if (!this.attributeValues.get(i).equals(other.attributeValues.get(i)))
+        for (int i = 0; i < numericValues.length; i++) {
+            if (this.isNull(i) != other.isNull(i))
+                return false;
+            if (this.isNull(i))
+                continue;
+
+            boolean isEqual = attributeList.get(i).getType() == AttributeType.STRING ?
+                    this.stringValues[i].equals(other.stringValues[i]) :
+                    this.numericValues[i] == other.numericValues[i];
+            if (!isEqual)
                 return false;
         }
         return true;
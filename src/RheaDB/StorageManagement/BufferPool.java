@@ -15,10 +15,21 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class BufferPool {
 
-    private final static int maxPagesInCache = 16;
+    /* Pool configuration, read from system properties when no explicit one is given. */
+    public static final String POLICY_PROPERTY = "rheadb.bufferpool.policy";
+    public static final String CAPACITY_PAGES_PROPERTY = "rheadb.bufferpool.pages";
+    public static final String CAPACITY_BYTES_PROPERTY = "rheadb.bufferpool.bytes";
+
+    private static final String defaultPolicy = "2q";
+    private static final int defaultPagesInCache = 1024;
+
+    private final int maxPagesInCache;
+    private final String policyName;
+    private final ReplacementPolicy<PageIdentifier> replacementPolicy;
     private final ConcurrentHashMap<PageIdentifier, Page> pageHashMap;
-    private final ConcurrentHashMap<IndexIdentifier, BPlusTree<?, RowRecord>> indexHashMap;
+    private final ConcurrentHashMap<IndexIdentifier, BPlusTree<?, Long>> indexHashMap;
     private final Set<PageIdentifier> dirtyPages;
+    private final Set<IndexIdentifier> dirtyIndexes;
 
     private record PageIdentifier(Table table, int pageIdx) {
         @Override
@@ -43,6 +54,21 @@ public class BufferPool {
                 flushPage(pageIdentifier, page);
             }
         });
+        commitAllIndexes();
+    }
+
+    private void commitAllIndexes() {
+        dirtyIndexes.forEach(this::flushIndex);
+    }
+
+    private void flushIndex(IndexIdentifier indexIdentifier) {
+        dirtyIndexes.remove(indexIdentifier);
+        BPlusTree<?, Long> index = indexHashMap.get(indexIdentifier);
+        if (index != null) {
+            synchronized (index) {
+                index.flush();
+            }
+        }
     }
 
     private record IndexIdentifier(String tableName, String attributeName) {
@@ -58,9 +84,15 @@ public class BufferPool {
                 .filter(Attribute::getIsIndexed)
                 .forEach(attr -> deleteIndex(table, attr));
 
+        DiskManager.deleteTableFiles(table);
+
         String pageDir = table.getPageDirectory();
         File indexDirectory = Paths.get(pageDir + File.separator + "index").toFile();
-        indexHashMap.keySet().removeIf(key -> key.tableName.equals(table.getName()));
+        indexHashMap.keySet().forEach(key -> {
+            if (key.tableName.equals(table.getName())) {
+                closeIndex(key);
+            }
+        });
         indexDirectory.delete();
         Paths.get(pageDir).toFile().delete();
 
@@ -77,6 +109,9 @@ public class BufferPool {
 
         pageHashMap.keySet().removeIf(p -> p.table == t);
         dirtyPages.removeIf(p -> p.table == t);
+        synchronized (replacementPolicy) {
+            pages.forEach(pageIdx -> replacementPolicy.remove(new PageIdentifier(t, pageIdx)));
+        }
         for (int i : pages) {
             getPageFromStorage(t, i);
         }
@@ -92,48 +127,109 @@ public class BufferPool {
                 }
             }
         });
+
+        dirtyIndexes.forEach(indexIdentifier -> {
+            if (indexIdentifier.tableName.equals(t.getName())) {
+                flushIndex(indexIdentifier);
+            }
+        });
     }
 
-    public BPlusTree<?, RowRecord> getIndex(Table table, Attribute attribute) {
+    public BPlusTree<?, Long> getIndex(Table table, Attribute attribute) {
         IndexIdentifier indexIdentifier = new IndexIdentifier(table.getName(), attribute.getName());
-        BPlusTree<?, RowRecord> cachedIndex = indexHashMap.get(indexIdentifier);
+        BPlusTree<?, Long> cachedIndex = indexHashMap.get(indexIdentifier);
         if (cachedIndex != null) {
             return cachedIndex;
         }
 
-        String indexFullPath =
-                table.getPageDirectory() + File.separator + "index" +
-                        File.separator + attribute.getName() + ".idx";
+        BPlusTree<?, Long> openedIndex = openIndex(table, attribute);
+        if (openedIndex == null) {
+            return null;
+        }
 
-        BPlusTree<?, RowRecord> deserializedIndex = DiskManager.deserializeIndex(indexFullPath);
-        if (deserializedIndex != null) {
-            indexHashMap.put(indexIdentifier, deserializedIndex);
+        /* A reader and a writer may open the index together; both must use the same tree. */
+        BPlusTree<?, Long> racingIndex = indexHashMap.putIfAbsent(indexIdentifier, openedIndex);
+        if (racingIndex != null) {
+            openedIndex.close();
+            return racingIndex;
         }
-        return deserializedIndex;
+        return openedIndex;
     }
 
-    public void saveIndex(Table table, Attribute attribute, BPlusTree<?, RowRecord> bPlusTree) {
+    /**
+     * Opens an index file, whose nodes are then read as lookups reach them.
+     * Each index caches as many nodes as the pool caches pages, chosen by
+     * the pool's replacement policy.
+     */
+    private BPlusTree<?, Long> openIndex(Table table, Attribute attribute) {
+        return DiskManager.openIndex(getIndexPath(table, attribute), attribute.getType(), policyName,
+                maxPagesInCache);
+    }
+
+    /**
+     * Writes a tree built in memory as the index of an attribute, which is
+     * then opened from its file.
+     */
+    public void saveIndex(Table table, Attribute attribute, BPlusTree<?, Long> bPlusTree) {
         IndexIdentifier indexIdentifier = new IndexIdentifier(table.getName(), attribute.getName());
-        String fullIndexPath = table.getPageDirectory() + File.separator +
-                "index" + File.separator + attribute.getName() + ".idx";
 
-        DiskManager.saveIndex(fullIndexPath, bPlusTree);
-        indexHashMap.put(indexIdentifier, bPlusTree);
+        closeIndex(indexIdentifier);
+        DiskManager.saveIndex(getIndexPath(table, attribute), attribute.getType(), bPlusTree);
+        indexHashMap.put(indexIdentifier, openIndex(table, attribute));
+    }
+
+    /**
+     * Marks a cached index as modified in memory. Dirty indices are written
+     * back together with the dirty pages instead of once per changed key.
+     *
+     * @param table     The table the index belongs to.
+     * @param attribute The indexed attribute.
+     */
+    public void markIndexDirty(Table table, Attribute attribute) {
+        IndexIdentifier indexIdentifier = new IndexIdentifier(table.getName(), attribute.getName());
+        if (indexHashMap.containsKey(indexIdentifier)) {
+            dirtyIndexes.add(indexIdentifier);
+        }
     }
 
     public void deleteIndex(Table table, Attribute attribute) {
         IndexIdentifier indexIdentifier = new IndexIdentifier(table.getName(), attribute.getName());
-        String fullIndexPath = table.getPageDirectory() + File.separator +
-                "index" + File.separator + attribute.getName() + ".idx";
 
-        indexHashMap.remove(indexIdentifier);
-        DiskManager.deleteIndex(fullIndexPath);
+        closeIndex(indexIdentifier);
+        DiskManager.deleteIndex(getIndexPath(table, attribute));
+    }
+
+    /* Drops a cached index without writing its changed nodes. */
+    private void closeIndex(IndexIdentifier indexIdentifier) {
+        dirtyIndexes.remove(indexIdentifier);
+        BPlusTree<?, Long> index = indexHashMap.remove(indexIdentifier);
+        if (index != null) {
+            synchronized (index) {
+                index.close();
+            }
+        }
+    }
+
+    /**
+     * Closes the files of every cached index, whose changes must have been
+     * committed before.
+     */
+    public void closeAllIndexes() {
+        indexHashMap.keySet().forEach(this::closeIndex);
+    }
+
+    private static String getIndexPath(Table table, Attribute attribute) {
+        return table.getPageDirectory() + File.separator + "index" +
+                File.separator + attribute.getName() + ".idx";
     }
 
     public void deletePage(Table table, int pageIdx) {
         PageIdentifier pageIdentifier = new PageIdentifier(table, pageIdx);
         pageHashMap.remove(pageIdentifier);
         dirtyPages.remove(pageIdentifier);
+        synchronized (replacementPolicy) {
+            replacementPolicy.remove(pageIdentifier);
+        }
         boolean didDelete = DiskManager.deletePage(table, pageIdx);
         if (!didDelete) table.popPage();
     }
@@ -144,10 +240,28 @@ public class BufferPool {
         dirtyPages.add(pageIdentifier);
     }
 
+    /**
+     * Creates a pool configured through system properties. The policy is
+     * taken from {@value #POLICY_PROPERTY} ("lru", "clock" or "2q"), and the
+     * capacity from {@value #CAPACITY_PAGES_PROPERTY} in pages or from
+     * {@value #CAPACITY_BYTES_PROPERTY} in bytes of segment pages.
+     */
     public BufferPool() {
+        this(System.getProperty(POLICY_PROPERTY, defaultPolicy), getConfiguredCapacity());
+    }
+
+    public BufferPool(String policyName, int capacityInPages) {
+        if (capacityInPages < 1) {
+            throw new IllegalArgumentException("Buffer pool capacity must be at least one page.");
+        }
+
+        maxPagesInCache = capacityInPages;
+        this.policyName = policyName;
+        replacementPolicy = ReplacementPolicy.create(policyName, capacityInPages);
         pageHashMap = new ConcurrentHashMap<>();
         indexHashMap = new ConcurrentHashMap<>();
         dirtyPages = ConcurrentHashMap.newKeySet();
+        dirtyIndexes = ConcurrentHashMap.newKeySet();
     }
 
     /**
@@ -160,7 +274,51 @@ public class BufferPool {
     public Page getPage(Table table, int pageIdx) {
         PageIdentifier pageIdentifier = new PageIdentifier(table, pageIdx);
         Page cachedPage = pageHashMap.get(pageIdentifier);
-        return cachedPage != null ? cachedPage : getPageFromStorage(table, pageIdx);
+        if (cachedPage == null) {
+            return getPageFromStorage(table, pageIdx);
+        }
+
+        synchronized (replacementPolicy) {
+            replacementPolicy.recordAccess(pageIdentifier);
+        }
+        return cachedPage;
+    }
+
+    /**
+     * Fetches a page for a reader that only needs some of its columns. A
+     * cached page is returned whole. Otherwise only those columns are decoded
+     * from storage, and the partial page is handed to the reader without
+     * being cached, since writers need whole pages. Pages leave the cache
+     * only after being written, so storage holds the latest uncached pages.
+     *
+     * @param columns Whether each attribute, by ordinal, is needed, or null for all.
+     */
+    public Page getPage(Table table, int pageIdx, boolean[] columns) {
+        if (columns == null || !table.getStorageMode().isSegmented()) {
+            return getPage(table, pageIdx);
+        }
+
+        PageIdentifier pageIdentifier = new PageIdentifier(table, pageIdx);
+        Page cachedPage = pageHashMap.get(pageIdentifier);
+        if (cachedPage == null) {
+            return DiskManager.getPage(table, pageIdx, columns);
+        }
+
+        synchronized (replacementPolicy) {
+            replacementPolicy.recordAccess(pageIdentifier);
+        }
+        return cachedPage;
+    }
+
+    /**
+     * Fetches the row an index entry points to.
+     *
+     * @param locator The locator of the row, as given by {@link RowRecord#getLocator()}.
+     * @return The row, or null if its page no longer holds it.
+     */
+    public RowRecord getRecord(Table table, long locator) {
+        Page page = getPage(table, RowRecord.pageIdOf(locator));
+        return page == null ? null : page.getRecord(RowRecord.rowIdOf(locator));
     }
 
     /**
@@ -172,27 +330,61 @@ public class BufferPool {
      */
     private Page getPageFromStorage(Table table, int pageIdx) {
         Page page = DiskManager.getPage(table, pageIdx);
-        return page == null ? null : insertPage(table, page);
+        return page == null ? null : cachePage(table, page, false);
     }
 
     public Page insertPage(Table table, Page page) {
+        return cachePage(table, page, true);
+    }
+
+    /**
+     * @param replace Whether a page already cached under the same identifier
+     *                is replaced. A page read from storage never replaces one
+     *                that a writer cached while it was being read.
+     * @return The page that ends up cached.
+     */
+    private Page cachePage(Table table, Page page, boolean replace) {
         PageIdentifier pageIdentifier = new PageIdentifier(table, page.getPageIdx());
 
-        Page previousPage = pageHashMap.get(pageIdentifier);
-        if (previousPage != null) {
-            pageHashMap.put(pageIdentifier, page);
-            return page;
+        synchronized (replacementPolicy) {
+            Page previousPage = replace ? pageHashMap.put(pageIdentifier, page) :
+                    pageHashMap.putIfAbsent(pageIdentifier, page);
+            if (previousPage != null) {
+                replacementPolicy.recordAccess(pageIdentifier);
+                return replace ? page : previousPage;
+            }
+
+            while (pageHashMap.size() > maxPagesInCache) {
+                PageIdentifier victim = replacementPolicy.evict();
+                if (victim == null) {
+                    break;
+                }
+
+                /* Written before it is dropped, so a concurrent miss never reads a stale page. */
+                Page evictedPage = pageHashMap.get(victim);
+                if (evictedPage != null) {
+                    flushPage(victim, evictedPage);
+                }
+                pageHashMap.remove(victim);
+            }
+
+            replacementPolicy.recordInsertion(pageIdentifier);
+        }
+        return page;
+    }
+
+    private static int getConfiguredCapacity() {
+        String pages = System.getProperty(CAPACITY_PAGES_PROPERTY);
+        if (pages != null) {
+            return Integer.parseInt(pages.trim());
         }
 
-        if (pageHashMap.size() >= maxPagesInCache) {
-            PageIdentifier randKey = (PageIdentifier) pageHashMap.keySet().toArray()[0];
-            Page evictedPage = pageHashMap.get(randKey);
-            flushPage(randKey, evictedPage);
-            pageHashMap.remove(randKey);
+        String bytes = System.getProperty(CAPACITY_BYTES_PROPERTY);
+        if (bytes != null) {
+            return (int) Math.max(1, Long.parseLong(bytes.trim()) / SlottedPage.PAGE_SIZE);
         }
 
-        pageHashMap.put(pageIdentifier, page);
-        return page;
+        return defaultPagesInCache;
     }
 
     private void flushPage(PageIdentifier pageIdentifier, Page page) {
@@ -200,7 +392,9 @@ public class BufferPool {
             return;
         }
 
-        DiskManager.savePage(pageIdentifier.table, page);
         dirtyPages.remove(pageIdentifier);
+        synchronized (page.getLatch()) {
+            DiskManager.savePage(pageIdentifier.table, page);
+        }
     }
 }
@@ -0,0 +1,96 @@
+package RheaDB.StorageManagement;
+
+import java.util.HashMap;
+
+/**
+ * Second-chance replacement. Keys sit on a circular list with a reference
+ * bit; the hand clears set bits as it sweeps and evicts the first key whose
+ * bit is already clear.
+ *
+ * @param <K> The key type used to identify cached pages.
+ */
+public class ClockReplacementPolicy<K> implements ReplacementPolicy<K> {
+
+    private static class Frame<K> {
+        private final K key;
+        private boolean referenced = true;
+        private Frame<K> previous;
+        private Frame<K> next;
+
+        private Frame(K key) {
+            this.key = key;
+        }
+    }
+
+    private final HashMap<K, Frame<K>> frames = new HashMap<>();
+    private Frame<K> hand;
+
+    @Override
+    public void recordInsertion(K key) {
+        if (frames.containsKey(key)) {
+            recordAccess(key);
+            return;
+        }
+
+        Frame<K> frame = new Frame<>(key);
+        frames.put(key, frame);
+        if (hand == null) {
+            frame.previous = frame;
+            frame.next = frame;
+            hand = frame;
+            return;
+        }
+
+        /* New frames go right behind the hand, so they are swept last. */
+        frame.next = hand;
+        frame.previous = hand.previous;
+        hand.previous.next = frame;
+        hand.previous = frame;
+    }
+
+    @Override
+    public void recordAccess(K key) {
+        Frame<K> frame = frames.get(key);
+        if (frame != null) {
+            frame.referenced = true;
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        Frame<K> frame = frames.remove(key);
+        if (frame != null) {
+            unlink(frame);
+        }
+    }
+
+    @Override
+    public K evict() {
+        if (hand == null) {
+            return null;
+        }
+
+        while (hand.referenced) {
+            hand.referenced = false;
+            hand = hand.next;
+        }
+
+        Frame<K> victim = hand;
+        frames.remove(victim.key);
+        unlink(victim);
+        return victim.key;
+    }
+
+    private void unlink(Frame<K> frame) {
+        if (frame.next == frame) {
+            hand = null;
+            return;
+        }
+
+        frame.previous.next = frame.next;
+        frame.next.previous = frame.previous;
+        if (hand == frame) {
+            hand = frame.next;
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package RheaDB.StorageManagement;
+
+import RheaDB.Attribute;
+import RheaDB.AttributeType;
+import RheaDB.Page;
+import RheaDB.RowRecord;
+import RheaDB.Table;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Vector;
+
+/**
+ * Encodes pages into the PAX layout of columnar tables, whose pages hold
+ * the values of each column together instead of one row after the other.
+ * <p>
+ * A page starts with a header (magic, version, page index, maximum rows,
+ * row count and column count), followed by the row id and transaction ids
+ * of every row, and a directory of (offset, length) pairs locating the chunk
+ * of each column. A chunk starts with a bitmap of the rows whose value is
+ * null, followed by the values of the column:
+ * <ul>
+ *     <li>INT values as their distance to the smallest value of the chunk,
+ *     bit-packed to the width of the largest distance (frame of reference);</li>
+ *     <li>FLOAT values as 4 bytes each;</li>
+ *     <li>STRING values as a dictionary of the distinct values of the chunk,
+ *     followed by the bit-packed dictionary codes of the rows.</li>
+ * </ul>
+ * The directory lets a reader decode a column without reading the others.
+ */
+final class ColumnarPage {
+    private static final int PAGE_MAGIC = 0x52484350;
+    private static final int PAGE_VERSION = 1;
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+    private static final int ROW_HEADER_SIZE = Integer.BYTES + 2 * Long.BYTES;
+    private static final int DIRECTORY_ENTRY_SIZE = 2 * Integer.BYTES;
+
+    private ColumnarPage() {
+    }
+
+    /**
+     * Checks whether a page still fits into a single columnar page after a
+     * row is appended to it. The size of the page is kept with it and only
+     * grows by the rows appended since the last check, so filling a page
+     * does not encode its rows again for every new one.
+     *
+     * @param table  The table the page belongs to.
+     * @param page   The page to check.
+     * @param record The row to be appended, or null to check the page as is.
+     * @return Whether the encoded page would fit in {@link SlottedPage#PAGE_SIZE} bytes.
+     */
+    static boolean fits(Table table, Page page, RowRecord record) {
+        synchronized (page.getLatch()) {
+            SizeEstimate estimate = page.getFormatState() instanceof SizeEstimate sizeEstimate &&
+                    sizeEstimate.summarizes(page.getRecords()) ? sizeEstimate : new SizeEstimate(table);
+            Vector<RowRecord> records = page.getRecords();
+            for (int row = estimate.numberOfRows; row < records.size(); row++) {
+                estimate.add(records.get(row));
+            }
+            page.setFormatState(estimate);
+            return estimate.sizeWith(record) <= SlottedPage.PAGE_SIZE;
+        }
+    }
+
+    private static int encodedSize(Table table, Vector<RowRecord> records) {
+        Vector<Attribute> attributes = table.getAttributeList();
+        int size = HEADER_SIZE + records.size() * ROW_HEADER_SIZE + attributes.size() * DIRECTORY_ENTRY_SIZE;
+        for (int i = 0; i < attributes.size(); i++) {
+            size += chunkSize(attributes.get(i).getType(), records, i);
+        }
+        return size;
+    }
+
+    private static int chunkSize(AttributeType type, Vector<RowRecord> records, int ordinal) {
+        int numberOfRows = records.size();
+        int size = bitmapSize(numberOfRows);
+        return size + switch (type) {
+            case INT -> {
+                IntFrame frame = IntFrame.of(records, ordinal);
+                yield Integer.BYTES + 1 + packedSize(numberOfRows, frame.width());
+            }
+            case FLOAT -> numberOfRows * Float.BYTES;
+            case STRING -> {
+                LinkedHashMap<String, Integer> dictionary = dictionaryOf(records, ordinal);
+                int dictionarySize = Integer.BYTES + 1;
+                for (String value : dictionary.keySet()) {
+                    dictionarySize += Integer.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+                }
+                yield dictionarySize + packedSize(numberOfRows, codeWidth(dictionary.size()));
+            }
+        };
+    }
+
+    static ByteBuffer encode(Table table, Page page) throws IOException {
+        Vector<RowRecord> records = new Vector<>(page.getRecords());
+        Vector<Attribute> attributes = table.getAttributeList();
+        if (encodedSize(table, records) > SlottedPage.PAGE_SIZE) {
+            throw new IOException("Page " + page.getPageIdx() + " of table " +
+                    table.getName() + " exceeds " + SlottedPage.PAGE_SIZE + " bytes.");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(SlottedPage.PAGE_SIZE);
+        buffer.putInt(PAGE_MAGIC);
+        buffer.putInt(PAGE_VERSION);
+        buffer.putInt(page.getPageIdx());
+        buffer.putInt(page.getMaxRows());
+        buffer.putInt(records.size());
+        buffer.putInt(attributes.size());
+
+        for (RowRecord rowRecord : records) {
+            buffer.putInt(rowRecord.getRowId());
+            buffer.putLong(rowRecord.getCreatedBy());
+            buffer.putLong(rowRecord.getDeletedBy());
+        }
+
+        int directoryPosition = buffer.position();
+        buffer.position(directoryPosition + attributes.size() * DIRECTORY_ENTRY_SIZE);
+        for (int i = 0; i < attributes.size(); i++) {
+            int chunkStart = buffer.position();
+            writeChunk(buffer, attributes.get(i).getType(), records, i);
+            buffer.putInt(directoryPosition + i * DIRECTORY_ENTRY_SIZE, chunkStart);
+            buffer.putInt(directoryPosition + i * DIRECTORY_ENTRY_SIZE + Integer.BYTES,
+                    buffer.position() - chunkStart);
+        }
+
+        buffer.clear();
+        return buffer;
+    }
+
+    private static void writeChunk(ByteBuffer buffer, AttributeType type, Vector<RowRecord> records, int ordinal) {
+        byte[] nullBitmap = new byte[bitmapSize(records.size())];
+        for (int row = 0; row < records.size(); row++) {
+            if (records.get(row).isNull(ordinal)) {
+                nullBitmap[row >> 3] |= (byte) (1 << (row & 7));
+            }
+        }
+        buffer.put(nullBitmap);
+
+        switch (type) {
+            case INT -> {
+                IntFrame frame = IntFrame.of(records, ordinal);
+                buffer.putInt(frame.min());
+                buffer.put((byte) frame.width());
+                long[] distances = new long[records.size()];
+                for (int row = 0; row < records.size(); row++) {
+                    RowRecord rowRecord = records.get(row);
+                    distances[row] = rowRecord.isNull(ordinal) ? 0 :
+                            (long) rowRecord.getInt(ordinal) - frame.min();
+                }
+                packBits(buffer, distances, frame.width());
+            }
+            case FLOAT -> {
+                for (RowRecord rowRecord : records) {
+                    buffer.putFloat(rowRecord.isNull(ordinal) ? 0 : rowRecord.getFloat(ordinal));
+                }
+            }
+            case STRING -> {
+                LinkedHashMap<String, Integer> dictionary = dictionaryOf(records, ordinal);
+                buffer.putInt(dictionary.size());
+                for (String value : dictionary.keySet()) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    buffer.putInt(bytes.length);
+                    buffer.put(bytes);
+                }
+
+                int width = codeWidth(dictionary.size());
+                buffer.put((byte) width);
+                long[] codes = new long[records.size()];
+                for (int row = 0; row < records.size(); row++) {
+                    RowRecord rowRecord = records.get(row);
+                    codes[row] = rowRecord.isNull(ordinal) ? 0 : dictionary.get(rowRecord.getString(ordinal));
+                }
+                packBits(buffer, codes, width);
+            }
+        }
+    }
+
+    /**
+     * Decodes a page previously written by {@link #encode(Table, Page)}.
+     *
+     * @param table   The table the page belongs to.
+     * @param pageIdx The index the page is expected to have.
+     * @param buffer  A buffer positioned at the start of the page.
+     * @return The decoded page, or an empty page if it was never written.
+     */
+    static Page decode(Table table, int pageIdx, ByteBuffer buffer) throws IOException {
+        return decode(table, pageIdx, buffer, null);
+    }
+
+    /**
+     * Decodes only the chunks of the columns a reader needs; the values of
+     * the other columns are left null.
+     *
+     * @param columns Whether each attribute, by ordinal, is needed, or null for all.
+     */
+    static Page decode(Table table, int pageIdx, ByteBuffer buffer, boolean[] columns) throws IOException {
+        int base = buffer.position();
+        int magic = buffer.getInt(base);
+        if (magic == 0) {
+            return new Page(table.getName(), table.getMaxTuplesPerPage(), pageIdx);
+        }
+        if (magic != PAGE_MAGIC) {
+            throw new IOException("Invalid columnar page " + pageIdx + " in table " + table.getName());
+        }
+
+        int version = buffer.getInt(base + 4);
+        if (version != PAGE_VERSION) {
+            throw new IOException("Unsupported columnar page version " + version);
+        }
+
+        int storedPageIdx = buffer.getInt(base + 8);
+        int maxRows = buffer.getInt(base + 12);
+        int numberOfRows = buffer.getInt(base + 16);
+        int numberOfColumns = buffer.getInt(base + 20);
+        Vector<Attribute> attributes = table.getAttributeList();
+        if (numberOfColumns != attributes.size()) {
+            throw new IOException("Columnar page " + pageIdx + " in table " + table.getName() +
+                    " has " + numberOfColumns + " columns.");
+        }
+
+        Page page = new Page(table.getName(), maxRows, storedPageIdx);
+        try {
+            RowRecord[] rows = new RowRecord[numberOfRows];
+            int rowHeader = base + HEADER_SIZE;
+            for (int row = 0; row < numberOfRows; row++, rowHeader += ROW_HEADER_SIZE) {
+                rows[row] = new RowRecord(attributes);
+                rows[row].setPageId(storedPageIdx);
+                rows[row].setRowId(buffer.getInt(rowHeader));
+                rows[row].setCreatedBy(buffer.getLong(rowHeader + Integer.BYTES));
+                rows[row].setDeletedBy(buffer.getLong(rowHeader + Integer.BYTES + Long.BYTES));
+            }
+
+            int directoryPosition = rowHeader;
+            for (int i = 0; i < numberOfColumns; i++) {
+                if (columns != null && !columns[i]) {
+                    for (RowRecord rowRecord : rows) {
+                        rowRecord.setAttributeValue(i, null);
+                    }
+                    continue;
+                }
+
+                int chunkStart = base + buffer.getInt(directoryPosition + i * DIRECTORY_ENTRY_SIZE);
+                readChunk(buffer, chunkStart, attributes.get(i).getType(), rows, i);
+            }
+
+            for (RowRecord rowRecord : rows) {
+                page.addRecord(rowRecord);
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupted columnar page " + pageIdx + " in table " + table.getName());
+        }
+
+        return page;
+    }
+
+    private static void readChunk(ByteBuffer buffer, int chunkStart, AttributeType type,
+                                  RowRecord[] rows, int ordinal) {
+        int position = chunkStart + bitmapSize(rows.length);
+        switch (type) {
+            case INT -> {
+                int min = buffer.getInt(position);
+                int width = buffer.get(position + Integer.BYTES);
+                int packedStart = position + Integer.BYTES + 1;
+                for (int row = 0; row < rows.length; row++) {
+                    rows[row].setInt(ordinal, (int) (min + unpackBits(buffer, packedStart, row, width)));
+                }
+            }
+            case FLOAT -> {
+                for (int row = 0; row < rows.length; row++, position += Float.BYTES) {
+                    rows[row].setFloat(ordinal, buffer.getFloat(position));
+                }
+            }
+            case STRING -> {
+                String[] dictionary = new String[buffer.getInt(position)];
+                position += Integer.BYTES;
+                for (int code = 0; code < dictionary.length; code++) {
+                    byte[] bytes = new byte[buffer.getInt(position)];
+                    buffer.get(position + Integer.BYTES, bytes);
+                    dictionary[code] = new String(bytes, StandardCharsets.UTF_8);
+                    position += Integer.BYTES + bytes.length;
+                }
+
+                int width = buffer.get(position);
+                for (int row = 0; row < rows.length; row++) {
+                    int code = (int) unpackBits(buffer, position + 1, row, width);
+                    rows[row].setString(ordinal, dictionary.length == 0 ? null : dictionary[code]);
+                }
+            }
+        }
+
+        for (int row = 0; row < rows.length; row++) {
+            if ((buffer.get(chunkStart + (row >> 3)) & (1 << (row & 7))) != 0) {
+                rows[row].setAttributeValue(ordinal, null);
+            }
+        }
+    }
+
+    /**
+     * The smallest INT value of a chunk, and the number of bits needed for
+     * the distance of any value to it.
+     */
+    private record IntFrame(int min, int width) {
+        static IntFrame of(Vector<RowRecord> records, int ordinal) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (RowRecord rowRecord : records) {
+                if (!rowRecord.isNull(ordinal)) {
+                    min = Math.min(min, rowRecord.getInt(ordinal));
+                    max = Math.max(max, rowRecord.getInt(ordinal));
+                }
+            }
+
+            if (min > max) {
+                return new IntFrame(0, 0);
+            }
+            return new IntFrame((int) min, 64 - Long.numberOfLeadingZeros(max - min));
+        }
+    }
+
+    /**
+     * The size of a page once encoded, summarizing the rows it was given in
+     * page order: the range of every INT column and the distinct values of
+     * every STRING column.
+     */
+    private static final class SizeEstimate {
+        private final AttributeType[] types;
+        private final long[] min;
+        private final long[] max;
+        private final HashSet<String>[] dictionaries;
+        private final int[] dictionaryBytes;
+        private int numberOfRows;
+        private RowRecord lastRecord;
+
+        @SuppressWarnings("unchecked")
+        SizeEstimate(Table table) {
+            Vector<Attribute> attributes = table.getAttributeList();
+            types = new AttributeType[attributes.size()];
+            min = new long[types.length];
+            max = new long[types.length];
+            dictionaries = new HashSet[types.length];
+            dictionaryBytes = new int[types.length];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = attributes.get(i).getType();
+                min[i] = Long.MAX_VALUE;
+                max[i] = Long.MIN_VALUE;
+                if (types[i] == AttributeType.STRING) {
+                    dictionaries[i] = new HashSet<>();
+                }
+            }
+        }
+
+        /**
+         * @return Whether the rows summarized are still the first rows of the
+         * page, which stops being true once a row is removed from it.
+         */
+        boolean summarizes(Vector<RowRecord> records) {
+            return numberOfRows <= records.size() &&
+                    (numberOfRows == 0 || records.get(numberOfRows - 1) == lastRecord);
+        }
+
+        void add(RowRecord rowRecord) {
+            for (int i = 0; i < types.length; i++) {
+                if (rowRecord.isNull(i)) {
+                    continue;
+                }
+                if (types[i] == AttributeType.INT) {
+                    min[i] = Math.min(min[i], rowRecord.getInt(i));
+                    max[i] = Math.max(max[i], rowRecord.getInt(i));
+                } else if (types[i] == AttributeType.STRING && dictionaries[i].add(rowRecord.getString(i))) {
+                    dictionaryBytes[i] += Integer.BYTES +
+                            rowRecord.getString(i).getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+            numberOfRows++;
+            lastRecord = rowRecord;
+        }
+
+        /**
+         * @param record A row to be appended, or null.
+         * @return The size of the page once encoded, were the row appended to it.
+         */
+        int sizeWith(RowRecord record) {
+            int rows = numberOfRows + (record == null ? 0 : 1);
+            int size = HEADER_SIZE + rows * ROW_HEADER_SIZE + types.length * DIRECTORY_ENTRY_SIZE;
+            for (int i = 0; i < types.length; i++) {
+                boolean hasValue = record != null && !record.isNull(i);
+                size += bitmapSize(rows) + switch (types[i]) {
+                    case INT -> {
+                        long low = hasValue ? Math.min(min[i], record.getInt(i)) : min[i];
+                        long high = hasValue ? Math.max(max[i], record.getInt(i)) : max[i];
+                        int width = low > high ? 0 : 64 - Long.numberOfLeadingZeros(high - low);
+                        yield Integer.BYTES + 1 + packedSize(rows, width);
+                    }
+                    case FLOAT -> rows * Float.BYTES;
+                    case STRING -> {
+                        int distinctValues = dictionaries[i].size();
+                        int bytes = dictionaryBytes[i];
+                        if (hasValue && !dictionaries[i].contains(record.getString(i))) {
+                            distinctValues++;
+                            bytes += Integer.BYTES + record.getString(i).getBytes(StandardCharsets.UTF_8).length;
+                        }
+                        yield Integer.BYTES + 1 + bytes + packedSize(rows, codeWidth(distinctValues));
+                    }
+                };
+            }
+            return size;
+        }
+    }
+
+    private static LinkedHashMap<String, Integer> dictionaryOf(Vector<RowRecord> records, int ordinal) {
+        LinkedHashMap<String, Integer> dictionary = new LinkedHashMap<>();
+        for (RowRecord rowRecord : records) {
+            if (!rowRecord.isNull(ordinal)) {
+                dictionary.putIfAbsent(rowRecord.getString(ordinal), dictionary.size());
+            }
+        }
+        return dictionary;
+    }
+
+    private static int codeWidth(int dictionarySize) {
+        return dictionarySize <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(dictionarySize - 1);
+    }
+
+    private static int bitmapSize(int numberOfRows) {
+        return (numberOfRows + 7) >> 3;
+    }
+
+    private static int packedSize(int numberOfValues, int width) {
+        return (int) (((long) numberOfValues * width + 7) >> 3);
+    }
+
+    /**
+     * Writes the low width bits of each value, least significant bits first.
+     */
+    private static void packBits(ByteBuffer buffer, long[] values, int width) {
+        long mask = (1L << width) - 1;
+        long pendingBits = 0;
+        int numberOfPendingBits = 0;
+        for (long value : values) {
+            pendingBits |= (value & mask) << numberOfPendingBits;
+            numberOfPendingBits += width;
+            while (numberOfPendingBits >= 8) {
+                buffer.put((byte) pendingBits);
+                pendingBits >>>= 8;
+                numberOfPendingBits -= 8;
+            }
+        }
+        if (numberOfPendingBits > 0) {
+            buffer.put((byte) pendingBits);
+        }
+    }
+
+    private static long unpackBits(ByteBuffer buffer, int packedStart, int index, int width) {
+        if (width == 0) {
+            return 0;
+        }
+
+        long firstBit = (long) index * width;
+        int firstByte = packedStart + (int) (firstBit >>> 3);
+        int shift = (int) (firstBit & 7);
+        long bits = 0;
+        for (int i = 0; i < (shift + width + 7) >>> 3; i++) {
+            bits |= (buffer.get(firstByte + i) & 0xFFL) << (8 * i);
+        }
+        return (bits >>> shift) & ((1L << width) - 1);
+    }
+}
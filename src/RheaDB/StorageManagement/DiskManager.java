@@ -1,24 +1,48 @@
 package RheaDB.StorageManagement;
 
 import BPlusTree.BPlusTree;
+import BPlusTree.NodeStore;
 import BPlusTree.ValueList;
 import RheaDB.AttributeType;
 import RheaDB.Page;
 import RheaDB.RowRecord;
+import RheaDB.StorageMode;
 import RheaDB.Table;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class DiskManager {
+    /* "channel" reads segment pages with positional reads, "mmap" through mapped regions of the segment. */
+    public static final String READ_MODE_PROPERTY = "rheadb.io.readMode";
+
     private final static Logger LOGGER = Logger.getLogger(DiskManager.class.getName());
     private static final int PAGE_FILE_MAGIC = 0x52484541;
-    private static final int PAGE_FILE_VERSION = 1;
+    private static final int PAGE_FILE_VERSION = 2;
+    private static final int UNVERSIONED_PAGE_FILE_VERSION = 1;
+    private static final int FLAT_INDEX_FILE_VERSION = 1;
+
+    /* Index files are written with few cached nodes, since entries are inserted in key order. */
+    private static final int indexWriteCachedNodes = 64;
+
+    private static final ConcurrentHashMap<String, FileChannel> segmentChannels = new ConcurrentHashMap<>();
 
+    /* Read-only mappings of each segment, keyed by the offset they start at. */
+    private static final int pagesPerMappedRegion = 128;
+    private static final ConcurrentHashMap<String, ConcurrentHashMap<Long, MappedByteBuffer>> mappedRegions =
+            new ConcurrentHashMap<>();
+
+    /* The contents of index files written before indexes held row locators. */
     private static class IndexSnapshot implements Serializable {
         @Serial
         private static final long serialVersionUID = 1L;
@@ -31,55 +55,101 @@ public class DiskManager {
     }
 
     public static Page getPage(Table table, int idx) {
+        return getPage(table, idx, null);
+    }
+
+    /**
+     * Reads a page for a reader that only needs some of its columns. Segment
+     * pages skip decoding the values of the other columns, which may then be
+     * left null; pages of older page files are always read whole.
+     *
+     * @param columns Whether each attribute, by ordinal, is needed, or null for all.
+     */
+    public static Page getPage(Table table, int idx, boolean[] columns) {
+        if (table.getStorageMode().isSegmented()) {
+            return readSegmentPage(table, idx, columns);
+        }
+
         String fullPath = getFullPath(table, idx);
         return deserializePage(table, fullPath);
     }
 
-    public static void compactTable(Table table) {
+    /**
+     * Checks whether a row can be appended to a page without overflowing the
+     * table's page format.
+     *
+     * @param table  The table the page belongs to.
+     * @param page   The page to append to.
+     * @param record The row to append, or null to check the page as it is.
+     * @return Whether the page can hold the row.
+     */
+    public static boolean canFit(Table table, Page page, RowRecord record) {
+        if (table.getStorageMode() == StorageMode.COLUMNAR) {
+            return ColumnarPage.fits(table, page, record);
+        }
+        if (table.getStorageMode() == StorageMode.SEGMENT) {
+            return SlottedPage.fits(table, page, record);
+        }
+
+        return true;
+    }
+
+    /**
+     * Rewrites the table so that its rows are densely packed into the lowest
+     * numbered pages, then drops the pages that are no longer needed. Pages
+     * are read and written in ascending order; a page is never overwritten
+     * before it has been read, so only one input and one output page are
+     * held in memory.
+     *
+     * @param table  The table to compact.
+     * @param isLive Decides which row versions are kept; the others are dropped.
+     */
+    public static void compactTable(Table table, Predicate<RowRecord> isLive) {
         int numPages = table.getNumPages();
+        int writtenPages = 0;
+        Page outputPage = null;
 
-        for (int i = numPages; i > 0; i--) {
-            Page p = deserializePage(table, getFullPath(table, i));
-            if (p.isEmpty()) {
-                deletePage(table, i);
+        for (int i = 1; i <= numPages; i++) {
+            Page inputPage = getPage(table, i);
+            if (inputPage == null) {
+                continue;
             }
-        }
 
-        Page lastPage = deserializePage(table, getFullPath(table, numPages));
-        for (int i = 1; i < numPages; i++) {
-            Page p = deserializePage(table, getFullPath(table, i));
-            if (!p.isFull()) {
-                mergePages(p, lastPage);
-                savePage(table, p);
-                if (lastPage.isEmpty()) {
-                    deletePage(table, numPages);
-                    lastPage = deserializePage(table, getFullPath(table, i));
-                } else {
-                    savePage(table, lastPage);
+            for (RowRecord rowRecord : inputPage.getRecords()) {
+                if (!isLive.test(rowRecord)) {
+                    continue;
                 }
-            }
-        }
-    }
 
-    private static void mergePages(Page p, Page lastPage) {
-        int rem = p.getMaxRows() - p.getNumberOfRows();
-        int taken = (rem - lastPage.getNumberOfRows());
-        taken = taken < 0 ? rem : taken;
+                if (outputPage == null || outputPage.isFull() ||
+                        !canFit(table, outputPage, rowRecord)) {
+                    if (outputPage != null) {
+                        savePage(table, outputPage);
+                    }
+                    outputPage = new Page(table.getName(), table.getMaxTuplesPerPage(), ++writtenPages);
+                }
 
-        for (int i = 0; i < taken; i++) {
-            stealRow(p, lastPage);
+                rowRecord.setPageId(outputPage.getPageIdx());
+                rowRecord.setRowId(outputPage.getLastRowIndex());
+                outputPage.addRecord(rowRecord);
+            }
         }
-    }
 
-    private static void stealRow(Page p1, Page p2) {
-        if (p1.isFull() || p2.isEmpty()) {
-            return;
+        if (outputPage != null) {
+            savePage(table, outputPage);
         }
 
-        p1.addRecord(p2.popRow());
+        for (int i = numPages; i > writtenPages; i--) {
+            if (!deletePage(table, i)) {
+                table.popPage();
+            }
+        }
     }
 
     public static boolean deletePage(Table table, int idx) {
+        if (table.getStorageMode().isSegmented()) {
+            return truncateSegment(table, idx);
+        }
+
         String fullPath = getFullPath(table, idx);
         File pageFile = new File(fullPath);
 
@@ -99,10 +169,217 @@ public class DiskManager {
         return table.getPageDirectory() + File.separator + table.getName() + "_" + idx + ".db";
     }
 
+    private static String getSegmentPath(Table table) {
+        return table.getPageDirectory() + File.separator + table.getName() + ".seg";
+    }
+
     public static void savePage(Table table, Page page) {
+        if (table.getStorageMode().isSegmented()) {
+            writeSegmentPage(table, page);
+            return;
+        }
+
         serializePage(table, page, getFullPath(table, page.getPageIdx()));
     }
 
+    /**
+     * Closes and removes the segment file of a table, if it has one.
+     *
+     * @param table The table being dropped.
+     */
+    public static void deleteTableFiles(Table table) {
+        String segmentPath = getSegmentPath(table);
+        closeSegment(segmentPath);
+        File segmentFile = new File(segmentPath);
+        if (segmentFile.exists() && !segmentFile.delete()) {
+            LOGGER.log(Level.SEVERE, "Could not delete segment file " + segmentPath);
+        }
+    }
+
+    /**
+     * Forces every open segment file to the storage device.
+     */
+    public static void forceAllSegments() {
+        segmentChannels.forEach((segmentPath, channel) -> {
+            try {
+                if (channel.isOpen()) {
+                    channel.force(true);
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Could not force segment file " + segmentPath + "... Exiting.", e);
+                System.exit(1);
+            }
+        });
+    }
+
+    public static void closeAllSegments() {
+        segmentChannels.keySet().forEach(DiskManager::closeSegment);
+    }
+
+    private static void closeSegment(String segmentPath) {
+        mappedRegions.remove(segmentPath);
+        FileChannel channel = segmentChannels.remove(segmentPath);
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not close segment file " + segmentPath, e);
+        }
+    }
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    private static FileChannel getSegmentChannel(Table table) throws IOException {
+        String segmentPath = getSegmentPath(table);
+        FileChannel channel = segmentChannels.get(segmentPath);
+        if (channel != null && channel.isOpen()) {
+            return channel;
+        }
+
+        File file = new File(segmentPath);
+        file.getParentFile().mkdirs();
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel existing = segmentChannels.putIfAbsent(segmentPath, channel);
+        if (existing == null) {
+            return channel;
+        }
+
+        if (existing.isOpen()) {
+            channel.close();
+            return existing;
+        }
+
+        segmentChannels.put(segmentPath, channel);
+        return channel;
+    }
+
+    private static long segmentOffset(int pageIdx) {
+        return (long) (pageIdx - 1) * SlottedPage.PAGE_SIZE;
+    }
+
+    private static Page readSegmentPage(Table table, int idx, boolean[] columns) {
+        if (idx < 1) {
+            return null;
+        }
+
+        try {
+            FileChannel channel = getSegmentChannel(table);
+            long offset = segmentOffset(idx);
+            long segmentSize = channel.size();
+            if (offset >= segmentSize) {
+                return null;
+            }
+
+            if (isMappedReadMode()) {
+                ByteBuffer mappedPage = getMappedPage(table, channel, offset, segmentSize);
+                if (mappedPage != null) {
+                    return decodeSegmentPage(table, idx, mappedPage, columns);
+                }
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(SlottedPage.PAGE_SIZE);
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, offset + buffer.position());
+                if (read < 0) {
+                    break;
+                }
+            }
+            buffer.clear();
+            return decodeSegmentPage(table, idx, buffer, columns);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "An error occurred while reading a segment page... Exiting.", e);
+            System.exit(1);
+        }
+        return null;
+    }
+
+    private static Page decodeSegmentPage(Table table, int idx, ByteBuffer buffer, boolean[] columns)
+            throws IOException {
+        if (table.getStorageMode() == StorageMode.COLUMNAR) {
+            return ColumnarPage.decode(table, idx, buffer, columns);
+        }
+        return SlottedPage.decode(table, idx, buffer, columns);
+    }
+
+    /**
+     * Segments are mapped in regions of a fixed number of pages, once per
+     * region, and pages are decoded straight from the mapping. Writes go
+     * through the channel and reach the same page cache, so mapped regions
+     * stay valid until the segment is truncated or closed.
+     *
+     * @return The page at an offset as a view of its mapped region, or null
+     * if the region extends past the end of the segment, whose last pages are
+     * then read through the channel.
+     */
+    private static ByteBuffer getMappedPage(Table table, FileChannel channel, long offset, long segmentSize)
+            throws IOException {
+        long regionSize = (long) SlottedPage.PAGE_SIZE * pagesPerMappedRegion;
+        long regionStart = offset - offset % regionSize;
+        if (regionStart + regionSize > segmentSize) {
+            return null;
+        }
+
+        ConcurrentHashMap<Long, MappedByteBuffer> regions =
+                mappedRegions.computeIfAbsent(getSegmentPath(table), segmentPath -> new ConcurrentHashMap<>());
+        MappedByteBuffer region = regions.get(regionStart);
+        if (region == null) {
+            region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionSize);
+            MappedByteBuffer racingRegion = regions.putIfAbsent(regionStart, region);
+            if (racingRegion != null) {
+                region = racingRegion;
+            }
+        }
+
+        /* A slice has a position of its own, so concurrent readers may share the region. */
+        return region.slice((int) (offset - regionStart), SlottedPage.PAGE_SIZE);
+    }
+
+    private static boolean isMappedReadMode() {
+        return "mmap".equalsIgnoreCase(System.getProperty(READ_MODE_PROPERTY, "channel"));
+    }
+
+    private static void writeSegmentPage(Table table, Page page) {
+        try {
+            ByteBuffer buffer = table.getStorageMode() == StorageMode.COLUMNAR ?
+                    ColumnarPage.encode(table, page) : SlottedPage.encode(table, page);
+            FileChannel channel = getSegmentChannel(table);
+            long offset = segmentOffset(page.getPageIdx());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, offset + buffer.position());
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "An error occurred while writing a segment page... Exiting.", e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Pages are always deleted from the end of a table, so deleting a page of
+     * a segment truncates the file right before it.
+     */
+    private static boolean truncateSegment(Table table, int idx) {
+        try {
+            FileChannel channel = getSegmentChannel(table);
+            long offset = segmentOffset(idx);
+            if (offset >= channel.size()) {
+                return false;
+            }
+
+            /* Reading a mapping past the end of its file crashes, so regions are mapped again. */
+            mappedRegions.remove(getSegmentPath(table));
+            channel.truncate(offset);
+            table.popPage();
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Could not truncate segment file... Exiting", e);
+            System.exit(1);
+        }
+        return false;
+    }
+
     private static Page deserializePage(Table table, String fullPath) {
         try {
             File file = new File(fullPath);
@@ -148,10 +425,12 @@ public class DiskManager {
                 for (RowRecord rowRecord : page.getRecords()) {
                     outputStream.writeInt(rowRecord.getPageId());
                     outputStream.writeInt(rowRecord.getRowId());
+                    outputStream.writeLong(rowRecord.getCreatedBy());
+                    outputStream.writeLong(rowRecord.getDeletedBy());
 
-                    Vector<Object> values = rowRecord.getAttributeValues();
                     for (int i = 0; i < table.getAttributeList().size(); i++) {
-                        writeTypedValue(outputStream, table.getAttributeList().get(i).getType(), values.get(i));
+                        writeTypedValue(outputStream, table.getAttributeList().get(i).getType(),
+                                rowRecord.getValue(i));
                     }
                 }
             }
@@ -179,24 +458,26 @@ public class DiskManager {
         return map;
     }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
-    public static void saveIndex(String fullPath, BPlusTree<?, RowRecord> tree) {
+    /**
+     * Writes a tree into a new index file, replacing any file at the path.
+     * The entries are inserted in key order into a tree of the file's order.
+     *
+     * @param keyType The type of the indexed attribute.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static void saveIndex(String fullPath, AttributeType keyType, BPlusTree<?, Long> tree) {
+        Vector<ValueList> valueLists = (Vector) tree.getAllValueLists();
         try {
-            File file = new File(fullPath);
-            if (!file.exists()) {
-                file.getParentFile().mkdirs();
-                boolean fileCreated = file.createNewFile();
-                if (!fileCreated) {
-                    LOGGER.log(Level.SEVERE, "Could not create index file... Exiting.");
-                    System.exit(1);
+            IndexFile indexFile = IndexFile.create(fullPath, keyType, IndexFile.orderFor(keyType),
+                    "lru", indexWriteCachedNodes);
+            BPlusTree pagedTree = new BPlusTree(indexFile, indexFile.getOrder());
+            for (ValueList valueList : valueLists) {
+                for (Object locator : valueList) {
+                    pagedTree.insert(valueList.getKey(), locator);
                 }
             }
-            FileOutputStream fos = new FileOutputStream(file);
-            ObjectOutputStream oos = new ObjectOutputStream(fos);
-            oos.writeObject(new IndexSnapshot(flattenTree(tree)));
-
-            oos.close();
-            fos.close();
+            pagedTree.flush();
+            pagedTree.close();
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "An error occurred while serializing index... Exiting.", e);
             System.exit(1);
@@ -216,22 +497,38 @@ public class DiskManager {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    public static BPlusTree<?, RowRecord> deserializeIndex(String fullPath) {
+    /**
+     * Opens an index file written by {@link #saveIndex}, reading only its
+     * header page. Its nodes are read as the tree reaches them, and at most
+     * a given number of them stay cached.
+     * <p>
+     * Index files of earlier formats, which hold the whole index in one
+     * piece, are read once and written again as paged index files. So are
+     * empty index files whose header names another key type, which earlier
+     * versions wrote for indexes created on empty tables.
+     *
+     * @param keyType The type of the indexed attribute.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static BPlusTree<?, Long> openIndex(String fullPath, AttributeType keyType, String policyName,
+                                               int maxCachedNodes) {
         try {
             File file = new File(fullPath);
             if (!file.exists()) {
                 return null;
             }
 
-            FileInputStream fis = new FileInputStream(file);
-            ObjectInputStream ois = new ObjectInputStream(fis);
-
-            IndexSnapshot snapshot = (IndexSnapshot) ois.readObject();
-
-            ois.close();
-            fis.close();
-            return rebuildTree(snapshot);
+            IndexFile indexFile = IndexFile.open(fullPath, policyName, maxCachedNodes);
+            if (indexFile != null && indexFile.getKeyType() != keyType &&
+                    indexFile.getFirstLeafId() == NodeStore.NO_NODE) {
+                indexFile.close();
+                saveIndex(fullPath, keyType, new BPlusTree<>());
+                indexFile = IndexFile.open(fullPath, policyName, maxCachedNodes);
+            } else if (indexFile == null) {
+                saveIndex(fullPath, keyType, deserializeUnpagedIndex(file));
+                indexFile = IndexFile.open(fullPath, policyName, maxCachedNodes);
+            }
+            return new BPlusTree(indexFile, indexFile.getOrder());
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "An error occurred while deserializing"
                     + " index... Exiting.");
@@ -243,26 +540,53 @@ public class DiskManager {
         return null;
     }
 
+    /**
+     * Reads an index file holding each key with its row locators, or, from
+     * before indexes held row locators, serialized copies of the rows.
+     */
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private static Vector<ValueList<?, RowRecord>> flattenTree(BPlusTree<?, RowRecord> tree) {
-        Vector<ValueList<?, RowRecord>> flattened = new Vector<>();
-        for (ValueList valueList : tree.getAllValueLists()) {
-            ValueList copy = new ValueList(valueList.getKey(), valueList.getOneValue());
-            for (int i = 1; i < valueList.size(); i++) {
-                copy.add(valueList.get(i));
+    private static BPlusTree<?, Long> deserializeUnpagedIndex(File file) throws IOException, ClassNotFoundException {
+        try (DataInputStream inputStream = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            inputStream.mark(Integer.BYTES);
+            int magic = inputStream.readInt();
+            if (magic != IndexFile.INDEX_FILE_MAGIC) {
+                inputStream.reset();
+                return deserializeLegacyIndex(inputStream);
+            }
+
+            int version = inputStream.readInt();
+            if (version != FLAT_INDEX_FILE_VERSION) {
+                throw new IOException("Unsupported index file version " + version + " for " + file.getPath());
+            }
+            AttributeType keyType = AttributeType.values()[inputStream.readByte()];
+            int numberOfKeys = inputStream.readInt();
+
+            BPlusTree tree = new BPlusTree();
+            for (int i = 0; i < numberOfKeys; i++) {
+                Object key = switch (keyType) {
+                    case INT -> inputStream.readInt();
+                    case FLOAT -> inputStream.readFloat();
+                    case STRING -> readString(inputStream);
+                };
+                int numberOfEntries = inputStream.readInt();
+                for (int j = 0; j < numberOfEntries; j++) {
+                    tree.insert(key, inputStream.readLong());
+                }
             }
-            flattened.add(copy);
+            return tree;
         }
-        return flattened;
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private static BPlusTree<?, RowRecord> rebuildTree(IndexSnapshot snapshot) {
+    private static BPlusTree<?, Long> deserializeLegacyIndex(InputStream inputStream)
+            throws IOException, ClassNotFoundException {
+        IndexSnapshot snapshot = (IndexSnapshot) new ObjectInputStream(inputStream).readObject();
         BPlusTree tree = new BPlusTree();
 
         for (ValueList valueList : snapshot.valueLists) {
             for (Object rowRecord : valueList) {
-                tree.insert(valueList.getKey(), rowRecord);
+                tree.insert(valueList.getKey(), ((RowRecord) rowRecord).getLocator());
             }
         }
 
@@ -298,7 +622,7 @@ public class DiskManager {
 
     private static Page deserializePageSnapshot(Table table, DataInputStream inputStream) throws IOException {
         int version = inputStream.readInt();
-        if (version != PAGE_FILE_VERSION) {
+        if (version != PAGE_FILE_VERSION && version != UNVERSIONED_PAGE_FILE_VERSION) {
             throw new IOException("Unsupported page version " + version);
         }
 
@@ -310,6 +634,8 @@ public class DiskManager {
         for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
             int pageId = inputStream.readInt();
             int rowId = inputStream.readInt();
+            long createdBy = version == UNVERSIONED_PAGE_FILE_VERSION ? 0 : inputStream.readLong();
+            long deletedBy = version == UNVERSIONED_PAGE_FILE_VERSION ? 0 : inputStream.readLong();
             Vector<Object> values = new Vector<>();
 
             for (int attributeIdx = 0; attributeIdx < table.getAttributeList().size(); attributeIdx++) {
@@ -320,6 +646,8 @@ public class DiskManager {
             RowRecord rowRecord = new RowRecord(table.getAttributeList(), values);
             rowRecord.setPageId(pageId);
             rowRecord.setRowId(rowId);
+            rowRecord.setCreatedBy(createdBy);
+            rowRecord.setDeletedBy(deletedBy);
             page.addRecord(rowRecord);
         }
 
@@ -354,13 +682,13 @@ public class DiskManager {
         };
     }
 
-    private static void writeString(DataOutputStream outputStream, String value) throws IOException {
+    static void writeString(DataOutputStream outputStream, String value) throws IOException {
         byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
         outputStream.writeInt(bytes.length);
         outputStream.write(bytes);
     }
 
-    private static String readString(DataInputStream inputStream) throws IOException {
+    static String readString(DataInputStream inputStream) throws IOException {
         int length = inputStream.readInt();
         byte[] bytes = inputStream.readNBytes(length);
         if (bytes.length != length) {
@@ -0,0 +1,513 @@
+package RheaDB.StorageManagement;
+
+import BPlusTree.InnerNode;
+import BPlusTree.LeafNode;
+import BPlusTree.Node;
+import BPlusTree.NodeStore;
+import BPlusTree.ValueList;
+import RheaDB.AttributeType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the nodes of an index in fixed-size pages of its file, reading each
+ * node only when the tree first gets it, so that opening an index reads its
+ * header page alone.
+ * <p>
+ * The header page holds the magic, version, key type, order, the ids of the
+ * root and the first leaf, the number of pages and the first free page. A
+ * node's id is the page it starts on. Each page starts with the id of the
+ * page the node continues on, for nodes too large for one page, and free
+ * pages are chained the same way. A node is its length, its kind, the ids of
+ * its parent and siblings, then the keys and child ids of an inner node or
+ * the keys and row locators of a leaf.
+ * <p>
+ * At most a given number of nodes stay cached, chosen by a
+ * {@link ReplacementPolicy}. Changed nodes are written when they are evicted
+ * or flushed, and are not evicted while an update still holds them.
+ */
+final class IndexFile<K extends Comparable<K>> implements NodeStore<K, Long> {
+    static final int INDEX_FILE_MAGIC = 0x52484549;
+    static final int INDEX_FILE_VERSION = 2;
+
+    private static final Logger LOGGER = Logger.getLogger(IndexFile.class.getName());
+    private static final int PAGE_SIZE = SlottedPage.PAGE_SIZE;
+    private static final int PAGE_DATA_SIZE = PAGE_SIZE - Integer.BYTES;
+    private static final byte INNER_NODE = 0;
+    private static final byte LEAF_NODE = 1;
+
+    private final FileChannel channel;
+    private final AttributeType keyType;
+    private final int order;
+    private int rootId;
+    private int firstLeafId;
+    private int numberOfPages;
+    private int freePageId;
+
+    private final int maxCachedNodes;
+    private final ReplacementPolicy<Integer> replacementPolicy;
+    private final HashMap<Integer, Node<K>> cachedNodes = new HashMap<>();
+    /* The pages each cached node continues on, past the one it starts on. */
+    private final HashMap<Integer, int[]> continuationPages = new HashMap<>();
+    private final HashSet<Integer> dirtyNodes = new HashSet<>();
+    private final ArrayList<Node<K>> updatedNodes = new ArrayList<>();
+    private int updateDepth;
+
+    private IndexFile(FileChannel channel, AttributeType keyType, int order, int rootId, int firstLeafId,
+                      int numberOfPages, int freePageId, String policyName, int maxCachedNodes) {
+        this.channel = channel;
+        this.keyType = keyType;
+        this.order = order;
+        this.rootId = rootId;
+        this.firstLeafId = firstLeafId;
+        this.numberOfPages = numberOfPages;
+        this.freePageId = freePageId;
+        this.maxCachedNodes = Math.max(1, maxCachedNodes);
+        this.replacementPolicy = ReplacementPolicy.create(policyName, this.maxCachedNodes);
+    }
+
+    /**
+     * The order of the trees kept in index files, such that a leaf of
+     * distinct keys fills about one page.
+     */
+    static int orderFor(AttributeType keyType) {
+        int entryBytes = switch (keyType) {
+            case INT, FLOAT -> Integer.BYTES + Integer.BYTES + Long.BYTES;
+            case STRING -> 64;
+        };
+        return (PAGE_DATA_SIZE - 64) / entryBytes;
+    }
+
+    /**
+     * Creates an empty index file, replacing any file at the path.
+     */
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    static <K extends Comparable<K>> IndexFile<K> create(String fullPath, AttributeType keyType, int order,
+                                                         String policyName, int maxCachedNodes) throws IOException {
+        File file = new File(fullPath);
+        file.getParentFile().mkdirs();
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        IndexFile<K> indexFile = new IndexFile<>(channel, keyType, order, NO_NODE, NO_NODE, 1, NO_NODE,
+                policyName, maxCachedNodes);
+        indexFile.writeHeader();
+        return indexFile;
+    }
+
+    /**
+     * Opens an index file by reading its header page.
+     *
+     * @return The index file, or null if it is not one of this version.
+     */
+    static <K extends Comparable<K>> IndexFile<K> open(String fullPath, String policyName, int maxCachedNodes)
+            throws IOException {
+        FileChannel channel = FileChannel.open(new File(fullPath).toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(PAGE_SIZE);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.remaining() < 2 * Integer.BYTES || header.getInt() != INDEX_FILE_MAGIC ||
+                header.getInt() != INDEX_FILE_VERSION) {
+            channel.close();
+            return null;
+        }
+
+        AttributeType keyType = AttributeType.values()[header.get()];
+        int order = header.getInt();
+        int rootId = header.getInt();
+        int firstLeafId = header.getInt();
+        int numberOfPages = header.getInt();
+        int freePageId = header.getInt();
+        return new IndexFile<>(channel, keyType, order, rootId, firstLeafId, numberOfPages, freePageId,
+                policyName, maxCachedNodes);
+    }
+
+    int getOrder() {
+        return order;
+    }
+
+    AttributeType getKeyType() {
+        return keyType;
+    }
+
+    @Override
+    public Node<K> getNode(int id) {
+        Node<K> node = cachedNodes.get(id);
+        if (node != null) {
+            replacementPolicy.recordAccess(id);
+        } else {
+            node = readNode(id);
+            cachedNodes.put(id, node);
+            replacementPolicy.recordInsertion(id);
+        }
+
+        if (updateDepth > 0) {
+            updatedNodes.add(node);
+        } else {
+            evictExcessNodes();
+        }
+        return node;
+    }
+
+    @Override
+    public int addNode(Node<K> node) {
+        int id = allocatePage();
+        node.setId(id);
+        cachedNodes.put(id, node);
+        continuationPages.put(id, new int[0]);
+        replacementPolicy.recordInsertion(id);
+        dirtyNodes.add(id);
+        if (updateDepth > 0) {
+            updatedNodes.add(node);
+        }
+        return id;
+    }
+
+    @Override
+    public void removeNode(int id) {
+        int[] continuation = continuationPages.remove(id);
+        if (continuation == null) {
+            continuation = readContinuation(id);
+        }
+        if (cachedNodes.remove(id) != null) {
+            replacementPolicy.remove(id);
+        }
+        dirtyNodes.remove(id);
+
+        freePage(id);
+        for (int pageId : continuation) {
+            freePage(pageId);
+        }
+    }
+
+    @Override
+    public int getRootId() {
+        return rootId;
+    }
+
+    @Override
+    public void setRootId(int rootId) {
+        this.rootId = rootId;
+    }
+
+    @Override
+    public int getFirstLeafId() {
+        return firstLeafId;
+    }
+
+    @Override
+    public void setFirstLeafId(int firstLeafId) {
+        this.firstLeafId = firstLeafId;
+    }
+
+    @Override
+    public void beginUpdate() {
+        updateDepth++;
+    }
+
+    @Override
+    public void endUpdate() {
+        if (--updateDepth > 0) {
+            return;
+        }
+
+        /* A node removed by the update may have given its id to a new one. */
+        for (Node<K> node : updatedNodes) {
+            if (cachedNodes.get(node.getId()) == node) {
+                dirtyNodes.add(node.getId());
+            }
+        }
+        updatedNodes.clear();
+        evictExcessNodes();
+    }
+
+    @Override
+    public void flush() {
+        for (int id : dirtyNodes) {
+            writeNode(cachedNodes.get(id));
+        }
+        dirtyNodes.clear();
+        writeHeader();
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "An error occurred while writing an index... Exiting.", e);
+            System.exit(1);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not close an index file.", e);
+        }
+    }
+
+    private void evictExcessNodes() {
+        while (cachedNodes.size() > maxCachedNodes) {
+            Integer victim = replacementPolicy.evict();
+            if (victim == null) {
+                return;
+            }
+
+            if (dirtyNodes.remove(victim)) {
+                writeNode(cachedNodes.get(victim));
+            }
+            cachedNodes.remove(victim);
+            continuationPages.remove(victim);
+        }
+    }
+
+    private int allocatePage() {
+        if (freePageId == NO_NODE) {
+            return numberOfPages++;
+        }
+
+        int pageId = freePageId;
+        freePageId = readPage(pageId).getInt();
+        return pageId;
+    }
+
+    private void freePage(int pageId) {
+        ByteBuffer page = ByteBuffer.allocate(Integer.BYTES);
+        page.putInt(freePageId);
+        page.flip();
+        writeFully(page, (long) pageId * PAGE_SIZE);
+        freePageId = pageId;
+    }
+
+    private void writeHeader() {
+        ByteBuffer header = ByteBuffer.allocate(PAGE_SIZE);
+        header.putInt(INDEX_FILE_MAGIC);
+        header.putInt(INDEX_FILE_VERSION);
+        header.put((byte) keyType.ordinal());
+        header.putInt(order);
+        header.putInt(rootId);
+        header.putInt(firstLeafId);
+        header.putInt(numberOfPages);
+        header.putInt(freePageId);
+        header.clear();
+        writeFully(header, 0);
+    }
+
+    private ByteBuffer readPage(int pageId) {
+        ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+        try {
+            readFully(channel, page, (long) pageId * PAGE_SIZE);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "An error occurred while reading an index page... Exiting.", e);
+            System.exit(1);
+        }
+        page.flip();
+        return page;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) {
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "An error occurred while writing an index page... Exiting.", e);
+            System.exit(1);
+        }
+    }
+
+    private int[] readContinuation(int id) {
+        ArrayList<Integer> pageIds = new ArrayList<>();
+        for (int pageId = readPage(id).getInt(); pageId != NO_NODE; pageId = readPage(pageId).getInt()) {
+            pageIds.add(pageId);
+        }
+        return pageIds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Writes a node over the pages it starts and continues on, taking or
+     * freeing continuation pages as its size changed.
+     */
+    private void writeNode(Node<K> node) {
+        byte[] bytes = encode(node);
+        int neededPages = Math.max(1, (bytes.length + PAGE_DATA_SIZE - 1) / PAGE_DATA_SIZE);
+
+        int[] continuation = continuationPages.get(node.getId());
+        if (continuation == null) {
+            continuation = readContinuation(node.getId());
+        }
+        int[] pageIds = new int[neededPages];
+        pageIds[0] = node.getId();
+        for (int i = 1; i < neededPages; i++) {
+            pageIds[i] = i - 1 < continuation.length ? continuation[i - 1] : allocatePage();
+        }
+        for (int i = neededPages - 1; i < continuation.length; i++) {
+            freePage(continuation[i]);
+        }
+
+        for (int i = 0; i < neededPages; i++) {
+            ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+            page.putInt(i + 1 < neededPages ? pageIds[i + 1] : NO_NODE);
+            int offset = i * PAGE_DATA_SIZE;
+            page.put(bytes, offset, Math.min(PAGE_DATA_SIZE, bytes.length - offset));
+            page.clear();
+            writeFully(page, (long) pageIds[i] * PAGE_SIZE);
+        }
+
+        int[] newContinuation = new int[neededPages - 1];
+        System.arraycopy(pageIds, 1, newContinuation, 0, newContinuation.length);
+        continuationPages.put(node.getId(), newContinuation);
+    }
+
+    private Node<K> readNode(int id) {
+        ByteBuffer page = readPage(id);
+        int nextPageId = page.getInt();
+        int length = page.getInt();
+        byte[] bytes = new byte[Integer.BYTES + length];
+        ByteBuffer payload = ByteBuffer.wrap(bytes);
+        payload.putInt(length);
+        payload.put(page.array(), 2 * Integer.BYTES, Math.min(payload.remaining(), PAGE_DATA_SIZE - Integer.BYTES));
+
+        ArrayList<Integer> pageIds = new ArrayList<>();
+        while (payload.hasRemaining() && nextPageId != NO_NODE) {
+            pageIds.add(nextPageId);
+            page = readPage(nextPageId);
+            nextPageId = page.getInt();
+            payload.put(page.array(), Integer.BYTES, Math.min(payload.remaining(), PAGE_DATA_SIZE));
+        }
+        continuationPages.put(id, pageIds.stream().mapToInt(Integer::intValue).toArray());
+
+        try {
+            return decode(id, bytes);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Corrupted index node... Exiting.", e);
+            System.exit(1);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] encode(Node<K> node) {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (DataOutputStream outputStream = new DataOutputStream(byteStream)) {
+            outputStream.writeInt(0);
+            outputStream.writeByte(node instanceof InnerNode ? INNER_NODE : LEAF_NODE);
+            outputStream.writeInt(node.getParentId());
+            outputStream.writeInt(node.getLeftSiblingId());
+            outputStream.writeInt(node.getRightSiblingId());
+
+            if (node instanceof InnerNode<K> innerNode) {
+                outputStream.writeInt(innerNode.getNumberOfKeys());
+                for (int i = 0; i < innerNode.getNumberOfKeys(); i++) {
+                    writeKey(outputStream, innerNode.getKeys()[i]);
+                }
+                outputStream.writeInt(innerNode.getDegree());
+                for (int i = 0; i < innerNode.getDegree(); i++) {
+                    outputStream.writeInt(innerNode.getChildren()[i]);
+                }
+            } else {
+                LeafNode<K, Long> leaf = (LeafNode<K, Long>) node;
+                outputStream.writeInt(leaf.getNumberOfLists());
+                for (int i = 0; i < leaf.getNumberOfLists(); i++) {
+                    ValueList<K, Long> valueList = leaf.getLists()[i];
+                    writeKey(outputStream, valueList.getKey());
+                    outputStream.writeInt(valueList.size());
+                    for (long locator : valueList) {
+                        outputStream.writeLong(locator);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "An error occurred while encoding an index node... Exiting.", e);
+            System.exit(1);
+        }
+
+        byte[] bytes = byteStream.toByteArray();
+        ByteBuffer.wrap(bytes).putInt(bytes.length - Integer.BYTES);
+        return bytes;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Node<K> decode(int id, byte[] bytes) throws IOException {
+        DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(bytes));
+        inputStream.readInt();
+        byte kind = inputStream.readByte();
+        int parentId = inputStream.readInt();
+        int leftSiblingId = inputStream.readInt();
+        int rightSiblingId = inputStream.readInt();
+
+        Node<K> node;
+        if (kind == INNER_NODE) {
+            K[] keys = (K[]) new Comparable[order];
+            int numberOfKeys = inputStream.readInt();
+            for (int i = 0; i < numberOfKeys; i++) {
+                keys[i] = readKey(inputStream);
+            }
+            int[] children = new int[order + 1];
+            int degree = inputStream.readInt();
+            for (int i = 0; i < degree; i++) {
+                children[i] = inputStream.readInt();
+            }
+            node = new InnerNode<>(order, keys, children);
+        } else {
+            ValueList<K, Long>[] valueLists = new ValueList[order];
+            int numberOfLists = inputStream.readInt();
+            for (int i = 0; i < numberOfLists; i++) {
+                K key = readKey(inputStream);
+                int size = inputStream.readInt();
+                valueLists[i] = new ValueList<>(key, inputStream.readLong());
+                for (int j = 1; j < size; j++) {
+                    valueLists[i].add(inputStream.readLong());
+                }
+            }
+            LeafNode<K, Long> leaf = new LeafNode<>(order);
+            leaf.setLists(valueLists, numberOfLists);
+            node = leaf;
+        }
+
+        node.setId(id);
+        node.setParentId(parentId);
+        node.setLeftSiblingId(leftSiblingId);
+        node.setRightSiblingId(rightSiblingId);
+        return node;
+    }
+
+    private void writeKey(DataOutputStream outputStream, K key) throws IOException {
+        switch (keyType) {
+            case INT -> outputStream.writeInt((Integer) key);
+            case FLOAT -> outputStream.writeFloat((Float) key);
+            case STRING -> DiskManager.writeString(outputStream, (String) key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private K readKey(DataInputStream inputStream) throws IOException {
+        Object key = switch (keyType) {
+            case INT -> inputStream.readInt();
+            case FLOAT -> inputStream.readFloat();
+            case STRING -> DiskManager.readString(inputStream);
+        };
+        return (K) key;
+    }
+}
@@ -0,0 +1,43 @@
+package RheaDB.StorageManagement;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Evicts the least recently used key. The set keeps keys in recency order,
+ * with the least recently used key first.
+ *
+ * @param <K> The key type used to identify cached pages.
+ */
+public class LRUReplacementPolicy<K> implements ReplacementPolicy<K> {
+    private final LinkedHashSet<K> recencyOrder = new LinkedHashSet<>();
+
+    @Override
+    public void recordInsertion(K key) {
+        recencyOrder.add(key);
+    }
+
+    @Override
+    public void recordAccess(K key) {
+        if (recencyOrder.remove(key)) {
+            recencyOrder.add(key);
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        recencyOrder.remove(key);
+    }
+
+    @Override
+    public K evict() {
+        Iterator<K> iterator = recencyOrder.iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+
+        K victim = iterator.next();
+        iterator.remove();
+        return victim;
+    }
+}
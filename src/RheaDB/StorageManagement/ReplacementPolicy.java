@@ -0,0 +1,55 @@
+package RheaDB.StorageManagement;
+
+/**
+ * Decides which cached page the buffer pool gives up when it runs out of
+ * frames. Implementations only track keys; the pool owns the pages.
+ *
+ * @param <K> The key type used to identify cached pages.
+ */
+public interface ReplacementPolicy<K> {
+
+    /**
+     * Records that a key was admitted into the cache.
+     *
+     * @param key The newly cached key.
+     */
+    void recordInsertion(K key);
+
+    /**
+     * Records a cache hit on a key that is already tracked.
+     *
+     * @param key The accessed key.
+     */
+    void recordAccess(K key);
+
+    /**
+     * Stops tracking a key that left the cache without being evicted.
+     *
+     * @param key The removed key.
+     */
+    void remove(K key);
+
+    /**
+     * Selects a victim and stops tracking it.
+     *
+     * @return The key to evict, or null if no key is tracked.
+     */
+    K evict();
+
+    /**
+     * Creates a policy by name.
+     *
+     * @param name     One of "lru", "clock" or "2q", case insensitive.
+     * @param capacity The number of pages the pool can hold.
+     * @param <K>      The key type used to identify cached pages.
+     * @return The replacement policy.
+     */
+    static <K> ReplacementPolicy<K> create(String name, int capacity) {
+        return switch (name.toLowerCase()) {
+            case "lru" -> new LRUReplacementPolicy<>();
+            case "clock" -> new ClockReplacementPolicy<>();
+            case "2q" -> new TwoQueueReplacementPolicy<>(capacity);
+            default -> throw new IllegalArgumentException("Unknown replacement policy: " + name);
+        };
+    }
+}
@@ -0,0 +1,248 @@
+package RheaDB.StorageManagement;
+
+import RheaDB.Attribute;
+import RheaDB.AttributeType;
+import RheaDB.Page;
+import RheaDB.RowRecord;
+import RheaDB.Table;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Vector;
+
+/**
+ * Encodes pages into the fixed-size slotted layout used by segment files.
+ * <p>
+ * A page starts with a header (magic, version, page index, maximum rows,
+ * slot count and the offset where tuple data begins), followed by a slot
+ * directory of (offset, length) pairs. Tuples are laid out from the end of
+ * the page towards the slot directory. Each tuple starts with its location
+ * and, since version 2, the ids of the transactions that created and deleted
+ * it.
+ */
+final class SlottedPage {
+    static final int PAGE_SIZE = 8192;
+
+    private static final int PAGE_MAGIC = 0x52484541;
+    private static final int PAGE_VERSION = 2;
+    private static final int UNVERSIONED_PAGE_VERSION = 1;
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+    private static final int SLOT_SIZE = 2 * Integer.BYTES;
+    private static final int TUPLE_HEADER_SIZE = 2 * Integer.BYTES + 2 * Long.BYTES;
+
+    private SlottedPage() {
+    }
+
+    /**
+     * Checks whether a page still fits into a single slotted page after a row
+     * is appended to it.
+     *
+     * @param table  The table the page belongs to.
+     * @param page   The page to check.
+     * @param record The row to be appended, or null to check the page as is.
+     * @return Whether the encoded page would fit in {@link #PAGE_SIZE} bytes.
+     */
+    static boolean fits(Table table, Page page, RowRecord record) {
+        int numberOfRows = page.getNumberOfRows() + (record == null ? 0 : 1);
+        int size = HEADER_SIZE + numberOfRows * SLOT_SIZE;
+        for (RowRecord rowRecord : page.getRecords()) {
+            size += tupleSize(table, rowRecord);
+        }
+        if (record != null) {
+            size += tupleSize(table, record);
+        }
+        return size <= PAGE_SIZE;
+    }
+
+    static ByteBuffer encode(Table table, Page page) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+        Vector<RowRecord> records = page.getRecords();
+
+        int dataStart = PAGE_SIZE;
+        int slotPosition = HEADER_SIZE;
+        for (RowRecord rowRecord : records) {
+            int tupleSize = tupleSize(table, rowRecord);
+            dataStart -= tupleSize;
+            if (dataStart < slotPosition + SLOT_SIZE) {
+                throw new IOException("Page " + page.getPageIdx() + " of table " +
+                        table.getName() + " exceeds " + PAGE_SIZE + " bytes.");
+            }
+
+            buffer.putInt(slotPosition, dataStart);
+            buffer.putInt(slotPosition + Integer.BYTES, tupleSize);
+            slotPosition += SLOT_SIZE;
+
+            buffer.position(dataStart);
+            writeTuple(buffer, table, rowRecord);
+        }
+
+        buffer.putInt(0, PAGE_MAGIC);
+        buffer.putInt(4, PAGE_VERSION);
+        buffer.putInt(8, page.getPageIdx());
+        buffer.putInt(12, page.getMaxRows());
+        buffer.putInt(16, records.size());
+        buffer.putInt(20, dataStart);
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Decodes a page previously written by {@link #encode(Table, Page)}.
+     *
+     * @param table   The table the page belongs to.
+     * @param pageIdx The index the page is expected to have.
+     * @param buffer  A buffer positioned at the start of the page.
+     * @return The decoded page, or an empty page if the slot was never written.
+     */
+    static Page decode(Table table, int pageIdx, ByteBuffer buffer) throws IOException {
+        return decode(table, pageIdx, buffer, null);
+    }
+
+    /**
+     * Decodes a page for a reader that only needs some of the columns. The
+     * STRING values of the other columns are skipped and left null; numeric
+     * values cost no more to read than to skip.
+     *
+     * @param columns Whether each attribute, by ordinal, is needed, or null for all.
+     */
+    static Page decode(Table table, int pageIdx, ByteBuffer buffer, boolean[] columns) throws IOException {
+        int base = buffer.position();
+        int magic = buffer.getInt(base);
+        if (magic == 0) {
+            return new Page(table.getName(), table.getMaxTuplesPerPage(), pageIdx);
+        }
+        if (magic != PAGE_MAGIC) {
+            throw new IOException("Invalid segment page " + pageIdx + " in table " + table.getName());
+        }
+
+        int version = buffer.getInt(base + 4);
+        if (version != PAGE_VERSION && version != UNVERSIONED_PAGE_VERSION) {
+            throw new IOException("Unsupported page version " + version);
+        }
+
+        int maxRows = buffer.getInt(base + 12);
+        int slotCount = buffer.getInt(base + 16);
+        Page page = new Page(table.getName(), maxRows, buffer.getInt(base + 8));
+
+        try {
+            for (int slot = 0; slot < slotCount; slot++) {
+                int slotPosition = base + HEADER_SIZE + slot * SLOT_SIZE;
+                buffer.position(base + buffer.getInt(slotPosition));
+                page.addRecord(readTuple(buffer, table, version, columns));
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupted segment page " + pageIdx + " in table " + table.getName());
+        }
+
+        return page;
+    }
+
+    private static int tupleSize(Table table, RowRecord rowRecord) {
+        int size = TUPLE_HEADER_SIZE;
+        Vector<Attribute> attributes = table.getAttributeList();
+        for (int i = 0; i < attributes.size(); i++) {
+            size += valueSize(attributes.get(i).getType(), rowRecord, i);
+        }
+        return size;
+    }
+
+    private static int valueSize(AttributeType type, RowRecord rowRecord, int ordinal) {
+        if (rowRecord.isNull(ordinal)) {
+            return 1;
+        }
+
+        return 1 + switch (type) {
+            case INT -> Integer.BYTES;
+            case FLOAT -> Float.BYTES;
+            case STRING -> Integer.BYTES + utf8Length(rowRecord.getString(ordinal));
+        };
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static void writeTuple(ByteBuffer buffer, Table table, RowRecord rowRecord) {
+        buffer.putInt(rowRecord.getPageId());
+        buffer.putInt(rowRecord.getRowId());
+        buffer.putLong(rowRecord.getCreatedBy());
+        buffer.putLong(rowRecord.getDeletedBy());
+
+        Vector<Attribute> attributes = table.getAttributeList();
+        for (int i = 0; i < attributes.size(); i++) {
+            boolean isNull = rowRecord.isNull(i);
+            buffer.put((byte) (isNull ? 1 : 0));
+            if (isNull) {
+                continue;
+            }
+
+            switch (attributes.get(i).getType()) {
+                case INT -> buffer.putInt(rowRecord.getInt(i));
+                case FLOAT -> buffer.putFloat(rowRecord.getFloat(i));
+                case STRING -> {
+                    byte[] bytes = rowRecord.getString(i).getBytes(StandardCharsets.UTF_8);
+                    buffer.putInt(bytes.length);
+                    buffer.put(bytes);
+                }
+            }
+        }
+    }
+
+    private static RowRecord readTuple(ByteBuffer buffer, Table table, int version, boolean[] columns) {
+        int pageId = buffer.getInt();
+        int rowId = buffer.getInt();
+        /* Rows of pages written before versioning are treated as committed. */
+        long createdBy = version == UNVERSIONED_PAGE_VERSION ? 0 : buffer.getLong();
+        long deletedBy = version == UNVERSIONED_PAGE_VERSION ? 0 : buffer.getLong();
+
+        /* Decoded straight into the slots of the row, without boxing. */
+        Vector<Attribute> attributes = table.getAttributeList();
+        RowRecord rowRecord = new RowRecord(attributes);
+        for (int i = 0; i < attributes.size(); i++) {
+            if (buffer.get() != 0) {
+                rowRecord.setAttributeValue(i, null);
+                continue;
+            }
+
+            switch (attributes.get(i).getType()) {
+                case INT -> rowRecord.setInt(i, buffer.getInt());
+                case FLOAT -> rowRecord.setFloat(i, buffer.getFloat());
+                case STRING -> {
+                    int length = buffer.getInt();
+                    if (columns != null && !columns[i]) {
+                        buffer.position(buffer.position() + length);
+                        rowRecord.setAttributeValue(i, null);
+                        continue;
+                    }
+
+                    byte[] bytes = new byte[length];
+                    buffer.get(bytes);
+                    rowRecord.setString(i, new String(bytes, StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        rowRecord.setPageId(pageId);
+        rowRecord.setRowId(rowId);
+        rowRecord.setCreatedBy(createdBy);
+        rowRecord.setDeletedBy(deletedBy);
+        return rowRecord;
+    }
+}
@@ -0,0 +1,74 @@
+package RheaDB.StorageManagement;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Scan-resistant 2Q replacement (Johnson and Shasha).
+ * <p>
+ * Pages seen once enter a FIFO queue and are evicted from it first. A page
+ * is only promoted to the main LRU queue when it is requested again after
+ * leaving the FIFO queue, which the policy notices through a bounded queue
+ * of recently evicted keys. A full table scan therefore cycles through the
+ * FIFO queue without displacing the hot pages held in the main queue.
+ *
+ * @param <K> The key type used to identify cached pages.
+ */
+public class TwoQueueReplacementPolicy<K> implements ReplacementPolicy<K> {
+    private final LinkedHashSet<K> firstAccessQueue = new LinkedHashSet<>();
+    private final LinkedHashSet<K> evictedKeys = new LinkedHashSet<>();
+    private final LinkedHashSet<K> mainQueue = new LinkedHashSet<>();
+
+    private final int firstAccessQueueCapacity;
+    private final int evictedKeysCapacity;
+
+    public TwoQueueReplacementPolicy(int capacity) {
+        this.firstAccessQueueCapacity = Math.max(1, capacity / 4);
+        this.evictedKeysCapacity = Math.max(1, capacity / 2);
+    }
+
+    @Override
+    public void recordInsertion(K key) {
+        if (evictedKeys.remove(key)) {
+            mainQueue.add(key);
+        } else if (!mainQueue.contains(key)) {
+            firstAccessQueue.add(key);
+        }
+    }
+
+    @Override
+    public void recordAccess(K key) {
+        if (mainQueue.remove(key)) {
+            mainQueue.add(key);
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        firstAccessQueue.remove(key);
+        mainQueue.remove(key);
+        evictedKeys.remove(key);
+    }
+
+    @Override
+    public K evict() {
+        if (!firstAccessQueue.isEmpty() &&
+                (firstAccessQueue.size() > firstAccessQueueCapacity || mainQueue.isEmpty())) {
+            K victim = removeFirst(firstAccessQueue);
+            evictedKeys.add(victim);
+            if (evictedKeys.size() > evictedKeysCapacity) {
+                removeFirst(evictedKeys);
+            }
+            return victim;
+        }
+
+        return mainQueue.isEmpty() ? null : removeFirst(mainQueue);
+    }
+
+    private static <K> K removeFirst(LinkedHashSet<K> queue) {
+        Iterator<K> iterator = queue.iterator();
+        K first = iterator.next();
+        iterator.remove();
+        return first;
+    }
+}
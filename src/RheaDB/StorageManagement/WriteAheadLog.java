@@ -0,0 +1,324 @@
+package RheaDB.StorageManagement;
+
+import RheaDB.RowRecord;
+import RheaDB.Table;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Vector;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only redo log of row-level changes.
+ * <p>
+ * Every change to a row is appended as a record keyed by (table, page, row).
+ * Replaying the records in order reproduces the last logged state of every
+ * key, whatever subset of the pages reached the disk before a crash, so the
+ * buffer pool is free to write pages back at any time.
+ * <p>
+ * Row records carry the ids of the transactions that created and deleted the
+ * row version, and every transaction that changed rows appends a commit
+ * record once it is done, so recovery can tell the versions of transactions
+ * that never finished.
+ * <p>
+ * Appending only copies the record into memory. {@link #commit()} makes
+ * everything appended so far durable; committers that arrive while another
+ * thread is forcing the log wait for it and are then served together by a
+ * single write and {@code force()}.
+ * <p>
+ * On disk, each record is its payload length, a CRC32 of the payload and the
+ * payload. Reading stops at the first torn or corrupted record.
+ */
+public class WriteAheadLog implements Closeable {
+    public static final String CHECKPOINT_INTERVAL_PROPERTY = "rheadb.wal.checkpointInterval";
+    public static final String CHECKPOINT_SIZE_PROPERTY = "rheadb.wal.checkpointBytes";
+
+    private static final long defaultCheckpointIntervalMillis = 30_000;
+    private static final long defaultCheckpointBytes = 16L * 1024 * 1024;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte COMMIT = 3;
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte INT_VALUE = 1;
+    private static final byte FLOAT_VALUE = 2;
+    private static final byte STRING_VALUE = 3;
+
+    /**
+     * A decoded log record. Values are null for deleted rows. Commit records
+     * have no table and only carry the id of the committed transaction, as
+     * createdBy.
+     */
+    public record LogRecord(String tableName, int pageIdx, int rowId, Vector<Object> values,
+                            long createdBy, long deletedBy) {
+        public boolean isDelete() {
+            return tableName != null && values == null;
+        }
+
+        public boolean isCommit() {
+            return tableName == null;
+        }
+    }
+
+    private final File logFile;
+    private final FileChannel channel;
+
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appendedBytes;
+    private long durableBytes;
+    private long fileBytes;
+    private boolean flushing;
+
+    public WriteAheadLog(String rootDirectory) throws IOException {
+        logFile = new File(rootDirectory + File.separator + "wal.log");
+        channel = FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+    }
+
+    /**
+     * Logs the current values and transaction ids of a row at its (page, row) location.
+     */
+    public void logPut(Table table, RowRecord rowRecord) {
+        append(encode(PUT, table.getName(), rowRecord.getPageId(), rowRecord.getRowId(),
+                rowRecord.getAttributeValues(), rowRecord.getCreatedBy(), rowRecord.getDeletedBy()));
+    }
+
+    /**
+     * Logs the removal of the row at a (page, row) location.
+     */
+    public void logDelete(Table table, int pageIdx, int rowId) {
+        append(encode(DELETE, table.getName(), pageIdx, rowId, null, 0, 0));
+    }
+
+    /**
+     * Logs that a transaction committed. Like any other record, it is only
+     * durable once {@link #commit()} returns.
+     */
+    public void logCommit(long transactionId) {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        DataOutputStream outputStream = new DataOutputStream(byteStream);
+        try {
+            outputStream.writeByte(COMMIT);
+            outputStream.writeLong(transactionId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        append(byteStream.toByteArray());
+    }
+
+    private synchronized void append(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        DataOutputStream outputStream = new DataOutputStream(pending);
+        try {
+            outputStream.writeInt(payload.length);
+            outputStream.writeInt((int) crc.getValue());
+            outputStream.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        appendedBytes += Integer.BYTES * 2 + payload.length;
+    }
+
+    /**
+     * Makes every record appended before the call durable.
+     */
+    public void commit() throws IOException {
+        ByteBuffer batch;
+        long batchEnd;
+        synchronized (this) {
+            long target = appendedBytes;
+            while (flushing && durableBytes < target) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the log to be forced.");
+                }
+            }
+
+            if (durableBytes >= target) {
+                return;
+            }
+
+            /* This thread leads the next group: it takes every record appended so far. */
+            flushing = true;
+            batch = ByteBuffer.wrap(pending.toByteArray());
+            batchEnd = appendedBytes;
+            pending = new ByteArrayOutputStream();
+        }
+
+        boolean forced = false;
+        try {
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+            forced = true;
+        } finally {
+            synchronized (this) {
+                flushing = false;
+                if (forced) {
+                    fileBytes += batch.limit();
+                    durableBytes = Math.max(durableBytes, batchEnd);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Drops every record, durable or not. Only valid once all the changes they
+     * describe have been written to the table files.
+     */
+    public synchronized void truncate() throws IOException {
+        while (flushing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the log to be forced.");
+            }
+        }
+
+        pending = new ByteArrayOutputStream();
+        durableBytes = appendedBytes;
+        channel.truncate(0);
+        channel.force(true);
+        fileBytes = 0;
+    }
+
+    /**
+     * @return The size of the log, including records that are not yet written.
+     */
+    public synchronized long size() {
+        return fileBytes + pending.size();
+    }
+
+    /**
+     * Reads every intact record currently in the log file.
+     */
+    public Vector<LogRecord> readRecords() throws IOException {
+        Vector<LogRecord> records = new Vector<>();
+        try (DataInputStream inputStream = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(logFile)))) {
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = inputStream.readInt();
+                    checksum = inputStream.readInt();
+                    if (length <= 0 || length > fileBytes) {
+                        break;
+                    }
+                    payload = inputStream.readNBytes(length);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if (payload.length != length || (int) crc.getValue() != checksum) {
+                    break;
+                }
+                records.add(decode(payload));
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static long getCheckpointIntervalMillis() {
+        return Long.getLong(CHECKPOINT_INTERVAL_PROPERTY, defaultCheckpointIntervalMillis);
+    }
+
+    public static long getCheckpointBytes() {
+        return Long.getLong(CHECKPOINT_SIZE_PROPERTY, defaultCheckpointBytes);
+    }
+
+    private static byte[] encode(byte type, String tableName, int pageIdx, int rowId, Vector<Object> values,
+                                 long createdBy, long deletedBy) {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        DataOutputStream outputStream = new DataOutputStream(byteStream);
+        try {
+            outputStream.writeByte(type);
+            outputStream.writeUTF(tableName);
+            outputStream.writeInt(pageIdx);
+            outputStream.writeInt(rowId);
+            if (type == PUT) {
+                outputStream.writeLong(createdBy);
+                outputStream.writeLong(deletedBy);
+                outputStream.writeInt(values.size());
+                for (Object value : values) {
+                    writeValue(outputStream, value);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return byteStream.toByteArray();
+    }
+
+    private static LogRecord decode(byte[] payload) throws IOException {
+        DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = inputStream.readByte();
+        if (type == COMMIT) {
+            return new LogRecord(null, 0, 0, null, inputStream.readLong(), 0);
+        }
+
+        String tableName = inputStream.readUTF();
+        int pageIdx = inputStream.readInt();
+        int rowId = inputStream.readInt();
+        if (type == DELETE) {
+            return new LogRecord(tableName, pageIdx, rowId, null, 0, 0);
+        }
+        if (type != PUT) {
+            throw new IOException("Unknown log record type " + type);
+        }
+
+        long createdBy = inputStream.readLong();
+        long deletedBy = inputStream.readLong();
+        int numberOfValues = inputStream.readInt();
+        Vector<Object> values = new Vector<>(numberOfValues);
+        for (int i = 0; i < numberOfValues; i++) {
+            values.add(readValue(inputStream));
+        }
+        return new LogRecord(tableName, pageIdx, rowId, values, createdBy, deletedBy);
+    }
+
+    private static void writeValue(DataOutputStream outputStream, Object value) throws IOException {
+        if (value == null) {
+            outputStream.writeByte(NULL_VALUE);
+        } else if (value instanceof Integer i) {
+            outputStream.writeByte(INT_VALUE);
+            outputStream.writeInt(i);
+        } else if (value instanceof Float f) {
+            outputStream.writeByte(FLOAT_VALUE);
+            outputStream.writeFloat(f);
+        } else {
+            outputStream.writeByte(STRING_VALUE);
+            outputStream.writeUTF(value.toString());
+        }
+    }
+
+    private static Object readValue(DataInputStream inputStream) throws IOException {
+        byte tag = inputStream.readByte();
+        return switch (tag) {
+            case NULL_VALUE -> null;
+            case INT_VALUE -> inputStream.readInt();
+            case FLOAT_VALUE -> inputStream.readFloat();
+            case STRING_VALUE -> inputStream.readUTF();
+            default -> throw new IOException("Unknown value tag " + tag);
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package RheaDB;
+
+public enum StorageMode {
+    /* One file per page, as written by earlier versions. */
+    PAGE_FILES,
+    /* A single segment file of fixed-size slotted pages per table. */
+    SEGMENT,
+    /* A single segment file of fixed-size pages storing each column apart. */
+    COLUMNAR;
+
+    /**
+     * @return Whether the table's pages live in a segment file.
+     */
+    public boolean isSegmented() {
+        return this != PAGE_FILES;
+    }
+}
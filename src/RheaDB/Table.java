@@ -1,22 +1,38 @@
 package RheaDB;
 
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.Vector;
 
 public class Table implements Serializable {
+    /* Pinned to the value computed for earlier versions so that existing
+     * metadata files keep deserializing; those tables use PAGE_FILES. */
+    @Serial
+    private static final long serialVersionUID = 5060847853321563971L;
+
     private final String name;
     private final Vector<Attribute> attributeList;
     private final String pageDirectory;
-    private int numPages;
+    private volatile int numPages;
     private final int maxTuplesPerPage;
+    private final StorageMode storageMode;
+    private volatile TableStatistics statistics;
+    private ZoneMap zoneMap;
 
     public Table(String name, Vector<Attribute> attributeList,
                  String pageDirectory, int maxTuplesPerPage) {
+        this(name, attributeList, pageDirectory, maxTuplesPerPage, StorageMode.SEGMENT);
+    }
+
+    public Table(String name, Vector<Attribute> attributeList,
+                 String pageDirectory, int maxTuplesPerPage, StorageMode storageMode) {
         this.name = name;
         this.attributeList = attributeList;
         this.pageDirectory = pageDirectory;
         this.maxTuplesPerPage = maxTuplesPerPage;
+        this.storageMode = storageMode;
         this.numPages = 0;
+        this.zoneMap = new ZoneMap(0);
     }
 
     public void popPage() {
@@ -44,6 +60,37 @@ public class Table implements Serializable {
         attributeList.add(attribute);
     }
 
+    public StorageMode getStorageMode() {
+        return storageMode == null ? StorageMode.PAGE_FILES : storageMode;
+    }
+
+    /**
+     * @return The statistics gathered by the last ANALYZE, or null if the
+     * table was never analyzed.
+     */
+    public TableStatistics getStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(TableStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * @return The summaries of the values in each page. Tables created before
+     * zone maps existed get one whose summaries of their current pages are unknown.
+     */
+    public synchronized ZoneMap getZoneMap() {
+        if (zoneMap == null) {
+            zoneMap = new ZoneMap(numPages);
+        }
+        return zoneMap;
+    }
+
+    public int getMaxTuplesPerPage() {
+        return maxTuplesPerPage;
+    }
+
     public int getNumPages() {
         return numPages;
     }
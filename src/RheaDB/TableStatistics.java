@@ -0,0 +1,292 @@
+package RheaDB;
+
+import Predicate.Predicate;
+import RheaDB.QueryExecution.Operator;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Vector;
+
+/**
+ * Statistics gathered by ANALYZE and kept in the table metadata: the row
+ * and page counts of the table, and per attribute the number of distinct
+ * and null values, the minimum and maximum, and an equi-depth histogram.
+ * <p>
+ * Histograms and distinct counts are built from a fixed-size sample of the
+ * rows, so analyzing a large table needs a bounded amount of memory.
+ */
+public class TableStatistics implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    static final int sampleSize = 30_000;
+    static final int histogramBuckets = 32;
+
+    /* Used when a table was never analyzed. */
+    private static final double defaultEqualsSelectivity = 0.005;
+    private static final double defaultRangeSelectivity = 1.0 / 3;
+
+    private final long rowCount;
+    private final int pageCount;
+    private final HashMap<String, ColumnStatistics> columnStatistics;
+
+    public static class ColumnStatistics implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final long distinctCount;
+        private final double nullFraction;
+        private final Object min;
+        private final Object max;
+        private final Object[] histogramBounds;
+
+        ColumnStatistics(long distinctCount, double nullFraction, Object min, Object max,
+                         Object[] histogramBounds) {
+            this.distinctCount = distinctCount;
+            this.nullFraction = nullFraction;
+            this.min = min;
+            this.max = max;
+            this.histogramBounds = histogramBounds;
+        }
+
+        public long getDistinctCount() {
+            return distinctCount;
+        }
+
+        public double getNullFraction() {
+            return nullFraction;
+        }
+
+        public Object getMin() {
+            return min;
+        }
+
+        public Object getMax() {
+            return max;
+        }
+
+        double equalsSelectivity(Object value) {
+            if (min == null || compare(value, min) < 0 || compare(value, max) > 0) {
+                return 0;
+            }
+            return (1 - nullFraction) / Math.max(1, distinctCount);
+        }
+
+        /**
+         * Estimates the fraction of non-null values below a value by finding
+         * its bucket in the histogram, interpolating inside numeric buckets.
+         */
+        double lessThanFraction(Object value) {
+            if (min == null || compare(value, min) <= 0) {
+                return 0;
+            }
+            if (compare(value, max) > 0) {
+                return 1;
+            }
+
+            int buckets = histogramBounds.length - 1;
+            if (buckets < 1) {
+                return 0.5;
+            }
+
+            int bucket = 0;
+            while (bucket < buckets - 1 && compare(value, histogramBounds[bucket + 1]) >= 0) {
+                bucket++;
+            }
+
+            double position = 0.5;
+            Object low = histogramBounds[bucket];
+            Object high = histogramBounds[bucket + 1];
+            if (value instanceof Number && compare(low, high) < 0) {
+                double lowValue = ((Number) low).doubleValue();
+                double highValue = ((Number) high).doubleValue();
+                position = (((Number) value).doubleValue() - lowValue) / (highValue - lowValue);
+            }
+            return (bucket + Math.max(0, Math.min(1, position))) / buckets;
+        }
+    }
+
+    TableStatistics(long rowCount, int pageCount, HashMap<String, ColumnStatistics> columnStatistics) {
+        this.rowCount = rowCount;
+        this.pageCount = pageCount;
+        this.columnStatistics = columnStatistics;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public ColumnStatistics getColumnStatistics(Attribute attribute) {
+        return columnStatistics.get(attribute.getName());
+    }
+
+    /**
+     * Estimates the number of rows in a table. Statistics gathered before the
+     * table grew or shrank are scaled by its current number of pages.
+     */
+    public static long estimateRowCount(Table table) {
+        TableStatistics statistics = table.getStatistics();
+        if (statistics == null || statistics.pageCount == 0) {
+            return (long) table.getNumPages() * table.getMaxTuplesPerPage();
+        }
+        return Math.round((double) statistics.rowCount * table.getNumPages() / statistics.pageCount);
+    }
+
+    /**
+     * Estimates the fraction of the rows of a table satisfying a predicate.
+     */
+    public static double estimateSelectivity(Table table, Predicate predicate) {
+        TableStatistics statistics = table.getStatistics();
+        ColumnStatistics column = statistics == null ? null :
+                statistics.getColumnStatistics(predicate.getAttribute());
+        Object value = predicate.getValue();
+        if (column == null) {
+            return switch (predicate.getOperation()) {
+                case EQUALS -> defaultEqualsSelectivity;
+                case NOT_EQUALS -> 1 - defaultEqualsSelectivity;
+                default -> defaultRangeSelectivity;
+            };
+        }
+
+        double nonNull = 1 - column.nullFraction;
+        double equal = column.equalsSelectivity(value);
+        double less = column.lessThanFraction(value) * nonNull;
+        double selectivity = switch (predicate.getOperation()) {
+            case EQUALS -> equal;
+            case NOT_EQUALS -> nonNull - equal;
+            case LESS_THAN -> less;
+            case LESS_THAN_EQUAL -> less + equal;
+            case GREATER_THAN -> nonNull - less - equal;
+            case GREATER_THAN_EQUAL -> nonNull - less;
+        };
+        return Math.max(0, Math.min(1, selectivity));
+    }
+
+    /**
+     * Gathers the statistics of a table from the rows of a scan over it.
+     *
+     * @param table The analyzed table.
+     * @param scan  An unopened scan producing every row of the table.
+     * @return The statistics of the table.
+     */
+    public static TableStatistics collect(Table table, Operator scan) {
+        Vector<Attribute> attributes = table.getAttributeList();
+        int numberOfAttributes = attributes.size();
+        Object[] min = new Object[numberOfAttributes];
+        Object[] max = new Object[numberOfAttributes];
+        long[] nulls = new long[numberOfAttributes];
+
+        /* Reservoir sample of the rows, with a fixed seed to keep plans reproducible. */
+        Random random = new Random(numberOfAttributes * 31L + table.getName().hashCode());
+        Vector<Object[]> sample = new Vector<>();
+        long rowCount = 0;
+
+        scan.open();
+        RowRecord rowRecord;
+        while ((rowRecord = scan.next()) != null) {
+            for (int i = 0; i < numberOfAttributes; i++) {
+                Object value = rowRecord.getValue(i);
+                if (value == null) {
+                    nulls[i]++;
+                    continue;
+                }
+                if (min[i] == null || compare(value, min[i]) < 0) {
+                    min[i] = value;
+                }
+                if (max[i] == null || compare(value, max[i]) > 0) {
+                    max[i] = value;
+                }
+            }
+
+            rowCount++;
+            if (sample.size() < sampleSize) {
+                sample.add(rowRecord.getAttributeValues().toArray());
+            } else {
+                long slot = (long) (random.nextDouble() * rowCount);
+                if (slot < sampleSize) {
+                    sample.set((int) slot, rowRecord.getAttributeValues().toArray());
+                }
+            }
+        }
+        scan.close();
+
+        HashMap<String, ColumnStatistics> columnStatistics = new HashMap<>();
+        for (int i = 0; i < numberOfAttributes; i++) {
+            final int ordinal = i;
+            Object[] sortedValues = sample.stream()
+                    .map(row -> row[ordinal])
+                    .filter(v -> v != null)
+                    .sorted(TableStatistics::compare)
+                    .toArray();
+
+            double nullFraction = rowCount == 0 ? 0 : (double) nulls[i] / rowCount;
+            long distinctCount = estimateDistinctCount(sortedValues, rowCount - nulls[i]);
+            columnStatistics.put(attributes.get(i).getName(), new ColumnStatistics(distinctCount,
+                    nullFraction, min[i], max[i], histogramBounds(sortedValues, min[i], max[i])));
+        }
+
+        return new TableStatistics(rowCount, table.getNumPages(), columnStatistics);
+    }
+
+    /**
+     * Counts the distinct values of a sample. When the sample does not cover
+     * the whole column, the count is scaled with the Duj1 estimator of Haas
+     * and Stokes, which relies on how many values appear exactly once.
+     */
+    private static long estimateDistinctCount(Object[] sortedSample, long nonNullRows) {
+        int sampled = sortedSample.length;
+        if (sampled == 0) {
+            return 0;
+        }
+
+        long distinct = 0;
+        long singletons = 0;
+        int runLength = 0;
+        for (int i = 0; i < sampled; i++) {
+            runLength++;
+            if (i == sampled - 1 || compare(sortedSample[i], sortedSample[i + 1]) != 0) {
+                distinct++;
+                if (runLength == 1) {
+                    singletons++;
+                }
+                runLength = 0;
+            }
+        }
+
+        if (sampled >= nonNullRows) {
+            return distinct;
+        }
+
+        double estimate = sampled * (double) distinct /
+                (sampled - singletons + singletons * (double) sampled / nonNullRows);
+        return Math.max(distinct, Math.min(nonNullRows, Math.round(estimate)));
+    }
+
+    private static Object[] histogramBounds(Object[] sortedSample, Object min, Object max) {
+        if (sortedSample.length == 0) {
+            return new Object[0];
+        }
+
+        int buckets = Math.min(histogramBuckets, sortedSample.length);
+        Object[] bounds = new Object[buckets + 1];
+        for (int i = 0; i < buckets; i++) {
+            bounds[i] = sortedSample[(int) ((long) i * sortedSample.length / buckets)];
+        }
+
+        /* The sample may miss the extremes, which were tracked over every row. */
+        bounds[0] = min;
+        bounds[buckets] = max;
+        return bounds;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static int compare(Object lhs, Object rhs) {
+        return ((Comparable) lhs).compareTo(rhs);
+    }
+}
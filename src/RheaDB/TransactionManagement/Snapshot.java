@@ -0,0 +1,71 @@
+package RheaDB.TransactionManagement;
+
+import RheaDB.RowRecord;
+
+import java.util.Set;
+
+/**
+ * The set of transactions whose changes a reader sees: every transaction
+ * that committed before the snapshot was taken, and the reader's own
+ * transaction. Row versions created by any other transaction are skipped,
+ * and versions they deleted are still produced.
+ */
+public class Snapshot {
+    private final TransactionManager transactionManager;
+    private final long transactionId;
+    private final long horizon;
+    private final Set<Long> runningTransactions;
+
+    /**
+     * @param transactionManager  The manager that knows which transactions aborted.
+     * @param transactionId       The id of the reading transaction, or 0 for a read-only snapshot.
+     * @param horizon             The first id not yet handed out when the snapshot was taken.
+     * @param runningTransactions The ids of the transactions running when the snapshot was taken.
+     */
+    Snapshot(TransactionManager transactionManager, long transactionId, long horizon,
+             Set<Long> runningTransactions) {
+        this.transactionManager = transactionManager;
+        this.transactionId = transactionId;
+        this.horizon = horizon;
+        this.runningTransactions = runningTransactions;
+    }
+
+    /**
+     * @return Whether the version of a row is part of this snapshot.
+     */
+    public boolean isVisible(RowRecord rowRecord) {
+        long deletedBy = rowRecord.getDeletedBy();
+        return sees(rowRecord.getCreatedBy()) && (deletedBy == 0 || !sees(deletedBy));
+    }
+
+    /**
+     * @return Whether the changes of a transaction are seen. Id 0 stands for
+     * versions older than any running transaction.
+     */
+    public boolean sees(long id) {
+        if (id == 0 || id == transactionId) {
+            return true;
+        }
+        return id < horizon && !runningTransactions.contains(id) && !transactionManager.isAborted(id);
+    }
+
+    /**
+     * @return The oldest transaction id whose changes this snapshot may not see.
+     */
+    long getOldestUnseen() {
+        long oldest = horizon;
+        for (long id : runningTransactions) {
+            oldest = Math.min(oldest, id);
+        }
+        return oldest;
+    }
+
+    /**
+     * Tells the transaction manager that no more rows are read through this
+     * snapshot, so vacuum may drop the versions only it could see. Read-only
+     * snapshots that are never released are forgotten once unreachable.
+     */
+    public void release() {
+        transactionManager.release(this);
+    }
+}
@@ -0,0 +1,135 @@
+package RheaDB.TransactionManagement;
+
+import RheaDB.RowRecord;
+import RheaDB.Table;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.TreeSet;
+import java.util.Vector;
+
+/**
+ * A unit of work that creates and deletes row versions under its id. The
+ * versions it writes only become visible to others once it commits.
+ * <p>
+ * Every change to a page is recorded in an undo log, so that the
+ * transaction, or the part of it after a savepoint, can be rolled back by
+ * reverting its changes newest first. Records refer to rows by location,
+ * since the buffer pool may have replaced the page objects by then.
+ */
+public class Transaction {
+    private final long id;
+    private final Snapshot snapshot;
+
+    private final Vector<UndoRecord> undoLog = new Vector<>();
+    private final LinkedHashMap<String, Integer> savepoints = new LinkedHashMap<>();
+
+    /**
+     * A change to revert: the row at a location was either appended by the
+     * transaction, or marked deleted while previousDeletedBy was its deleter.
+     */
+    public record UndoRecord(Table table, int pageIdx, int rowId, boolean isInsert, long previousDeletedBy) {
+    }
+
+    Transaction(long id, Snapshot snapshot) {
+        this.id = id;
+        this.snapshot = snapshot;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return The snapshot taken when the transaction began, which also sees
+     * the transaction's own changes.
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Records that the transaction appended a row version.
+     */
+    public void logInsert(Table table, RowRecord rowRecord) {
+        undoLog.add(new UndoRecord(table, rowRecord.getPageId(), rowRecord.getRowId(), true, 0));
+    }
+
+    /**
+     * Records that the transaction is about to mark a row version deleted.
+     */
+    public void logDelete(Table table, RowRecord rowRecord) {
+        undoLog.add(new UndoRecord(table, rowRecord.getPageId(), rowRecord.getRowId(), false,
+                rowRecord.getDeletedBy()));
+    }
+
+    /**
+     * @return The number of changes recorded so far, to which the transaction
+     * can later be rolled back.
+     */
+    public int getUndoPosition() {
+        return undoLog.size();
+    }
+
+    /**
+     * @return The names of the tables changed after a position, which must be
+     * locked before those changes are reverted.
+     */
+    public TreeSet<String> getTablesChangedSince(int position) {
+        TreeSet<String> tableNames = new TreeSet<>();
+        for (int i = position; i < undoLog.size(); i++) {
+            tableNames.add(undoLog.get(i).table().getName());
+        }
+        return tableNames;
+    }
+
+    /**
+     * Forgets the changes recorded after a position.
+     *
+     * @return Those changes, newest first, for the caller to revert.
+     */
+    public Vector<UndoRecord> truncateUndoLog(int position) {
+        Vector<UndoRecord> undoneRecords = new Vector<>();
+        while (undoLog.size() > position) {
+            undoneRecords.add(undoLog.remove(undoLog.size() - 1));
+        }
+        return undoneRecords;
+    }
+
+    /**
+     * Marks the current position with a name, replacing any savepoint with
+     * the same name.
+     */
+    public void setSavepoint(String name) {
+        savepoints.remove(name);
+        savepoints.put(name, undoLog.size());
+    }
+
+    /**
+     * @return The position a savepoint marks, or -1 if there is no such savepoint.
+     */
+    public int getSavepoint(String name) {
+        return savepoints.getOrDefault(name, -1);
+    }
+
+    /**
+     * Drops the savepoints set after a savepoint, and the savepoint itself
+     * unless it is kept.
+     */
+    public void releaseSavepoint(String name, boolean keepSavepoint) {
+        boolean found = false;
+        Iterator<String> names = savepoints.keySet().iterator();
+        while (names.hasNext()) {
+            String savepointName = names.next();
+            if (savepointName.equals(name)) {
+                found = true;
+                if (keepSavepoint) {
+                    continue;
+                }
+            }
+            if (found) {
+                names.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package RheaDB.TransactionManagement;
+
+import RheaDB.RowRecord;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out transaction ids and snapshots, and keeps track of the running
+ * and aborted transactions.
+ * <p>
+ * Ids increase with the order in which transactions begin. The next id and
+ * the aborted transactions are kept in a small state file written at every
+ * checkpoint, together with the transactions running at that moment. After a
+ * crash, those transactions and the ones found in the log that have no
+ * commit record are marked as aborted, so their row versions stay invisible
+ * until vacuum removes them. Transactions rolled back while the database is
+ * running revert their changes instead.
+ */
+public class TransactionManager {
+    public static final String VACUUM_INTERVAL_PROPERTY = "rheadb.vacuum.interval";
+    public static final String VACUUM_THRESHOLD_PROPERTY = "rheadb.vacuum.minDeadRows";
+
+    private static final long defaultVacuumIntervalMillis = 60_000;
+    private static final long defaultVacuumThreshold = 1000;
+
+    private static final int STATE_FILE_VERSION = 1;
+
+    private final File stateFile;
+    private long nextTransactionId = 1;
+    private final TreeMap<Long, Transaction> runningTransactions = new TreeMap<>();
+    /* The read-only snapshots not yet released, with the tables read under each. */
+    private final WeakHashMap<Snapshot, Set<String>> openSnapshots = new WeakHashMap<>();
+    private final Set<Long> abortedTransactions = ConcurrentHashMap.newKeySet();
+
+    /* Transactions that were running at the last checkpoint, read back at startup. */
+    private final Set<Long> inDoubtTransactions = new HashSet<>();
+
+    public TransactionManager(String rootDirectory) throws IOException {
+        stateFile = new File(rootDirectory + File.separator + "transactions.db");
+        if (!stateFile.exists()) {
+            return;
+        }
+
+        try (DataInputStream inputStream = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(stateFile)))) {
+            int version = inputStream.readInt();
+            if (version != STATE_FILE_VERSION) {
+                throw new IOException("Unsupported transaction state version " + version);
+            }
+
+            nextTransactionId = inputStream.readLong();
+            int numberOfAborted = inputStream.readInt();
+            for (int i = 0; i < numberOfAborted; i++) {
+                abortedTransactions.add(inputStream.readLong());
+            }
+            int numberOfRunning = inputStream.readInt();
+            for (int i = 0; i < numberOfRunning; i++) {
+                inDoubtTransactions.add(inputStream.readLong());
+            }
+        }
+    }
+
+    /**
+     * Decides the outcome of the transactions that may have been running
+     * when the database stopped.
+     *
+     * @param loggedTransactions    The ids of every transaction mentioned by the log.
+     * @param committedTransactions The ids of the transactions with a commit record.
+     */
+    public synchronized void recover(Set<Long> loggedTransactions, Set<Long> committedTransactions) {
+        Set<Long> candidates = new HashSet<>(inDoubtTransactions);
+        for (long id : loggedTransactions) {
+            if (id >= nextTransactionId) {
+                candidates.add(id);
+            }
+            nextTransactionId = Math.max(nextTransactionId, id + 1);
+        }
+
+        for (long id : candidates) {
+            if (!committedTransactions.contains(id)) {
+                abortedTransactions.add(id);
+            }
+        }
+        inDoubtTransactions.clear();
+    }
+
+    /**
+     * Writes the next id, the aborted and the running transactions to the state file.
+     */
+    public synchronized void save() throws IOException {
+        try (DataOutputStream outputStream = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(stateFile, false)))) {
+            outputStream.writeInt(STATE_FILE_VERSION);
+            outputStream.writeLong(nextTransactionId);
+            outputStream.writeInt(abortedTransactions.size());
+            for (long id : abortedTransactions) {
+                outputStream.writeLong(id);
+            }
+            outputStream.writeInt(runningTransactions.size());
+            for (long id : runningTransactions.keySet()) {
+                outputStream.writeLong(id);
+            }
+        }
+    }
+
+    /**
+     * Begins a transaction, whose snapshot is taken right away.
+     */
+    public synchronized Transaction begin() {
+        long id = nextTransactionId++;
+        Snapshot snapshot = new Snapshot(this, id, id, new HashSet<>(runningTransactions.keySet()));
+        Transaction transaction = new Transaction(id, snapshot);
+        runningTransactions.put(id, transaction);
+        return transaction;
+    }
+
+    /**
+     * Takes a snapshot for reading only. It is kept open, holding back
+     * vacuum, until released.
+     *
+     * @param tableNames The tables read under the snapshot.
+     */
+    public synchronized Snapshot openSnapshot(String... tableNames) {
+        Snapshot snapshot = new Snapshot(this, 0, nextTransactionId,
+                new HashSet<>(runningTransactions.keySet()));
+        openSnapshots.put(snapshot, new HashSet<>(Arrays.asList(tableNames)));
+        return snapshot;
+    }
+
+    /**
+     * @return Whether some open snapshot may still read rows of a table
+     * where they are now, so its pages must not be moved or dropped.
+     */
+    public synchronized boolean isBeingRead(String tableName) {
+        for (Set<String> tableNames : openSnapshots.values()) {
+            if (tableNames.contains(tableName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized void release(Snapshot snapshot) {
+        openSnapshots.remove(snapshot);
+    }
+
+    /**
+     * Makes the changes of a transaction visible to the snapshots taken from now on.
+     */
+    public synchronized void commit(Transaction transaction) {
+        runningTransactions.remove(transaction.getId());
+    }
+
+    /**
+     * Ends a transaction whose changes were all reverted through its undo log.
+     */
+    public synchronized void rollback(Transaction transaction) {
+        runningTransactions.remove(transaction.getId());
+    }
+
+    public boolean isAborted(long id) {
+        return !abortedTransactions.isEmpty() && abortedTransactions.contains(id);
+    }
+
+    /**
+     * @return The oldest transaction id whose changes some running
+     * transaction or open snapshot may not see. Versions deleted by a
+     * committed transaction older than this are seen by no one.
+     */
+    public synchronized long getVacuumHorizon() {
+        long horizon = nextTransactionId;
+        for (Transaction transaction : runningTransactions.values()) {
+            horizon = Math.min(horizon, transaction.getSnapshot().getOldestUnseen());
+        }
+        for (Snapshot snapshot : openSnapshots.keySet()) {
+            horizon = Math.min(horizon, snapshot.getOldestUnseen());
+        }
+        return horizon;
+    }
+
+    /**
+     * @param rowRecord      A version of a row.
+     * @param vacuumHorizon  The horizon given by {@link #getVacuumHorizon()}.
+     * @return Whether the version can no longer be seen by any snapshot: it
+     * was created by an aborted transaction or deleted by a committed one
+     * older than the horizon.
+     */
+    public boolean isDead(RowRecord rowRecord, long vacuumHorizon) {
+        if (isAborted(rowRecord.getCreatedBy())) {
+            return true;
+        }
+
+        long deletedBy = rowRecord.getDeletedBy();
+        return deletedBy != 0 && deletedBy < vacuumHorizon && !isAborted(deletedBy);
+    }
+
+    public static long getVacuumIntervalMillis() {
+        return Long.getLong(VACUUM_INTERVAL_PROPERTY, defaultVacuumIntervalMillis);
+    }
+
+    public static long getVacuumThreshold() {
+        return Long.getLong(VACUUM_THRESHOLD_PROPERTY, defaultVacuumThreshold);
+    }
+}
@@ -0,0 +1,160 @@
+package RheaDB;
+
+import Predicate.Condition;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Vector;
+
+/**
+ * Summaries of the values stored in each page of a table, kept in the table
+ * metadata: per attribute, the smallest and largest non-null value and the
+ * number of nulls. A scan skips the pages whose summary shows that none of
+ * their rows can satisfy its condition, without fetching them.
+ * <p>
+ * A summary covers every version stored in its page, deleted or not. Rows
+ * only widen it as they are added, so it may be wider than the page after
+ * deletes, but never narrower; it is recomputed when the page is rewritten.
+ * Pages written before the table had a zone map have no summary and are
+ * always read.
+ */
+public class ZoneMap implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /* The summary of page i + 1 at index i, or null when it is unknown. */
+    private final Vector<PageZone> zones = new Vector<>();
+
+    public static class PageZone implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private int rowCount;
+        private final Object[] min;
+        private final Object[] max;
+        private final int[] nullCount;
+
+        PageZone(int numberOfAttributes) {
+            min = new Object[numberOfAttributes];
+            max = new Object[numberOfAttributes];
+            nullCount = new int[numberOfAttributes];
+        }
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        void include(RowRecord rowRecord) {
+            rowCount++;
+            for (int i = 0; i < min.length; i++) {
+                Object value = rowRecord.getValue(i);
+                if (value == null) {
+                    nullCount[i]++;
+                    continue;
+                }
+
+                if (min[i] == null || ((Comparable) value).compareTo(min[i]) < 0) {
+                    min[i] = value;
+                }
+                if (max[i] == null || ((Comparable) value).compareTo(max[i]) > 0) {
+                    max[i] = value;
+                }
+            }
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * @return The smallest non-null value of an attribute in the page, or
+         * null if the page holds none.
+         */
+        public Object getMin(int ordinal) {
+            return min[ordinal];
+        }
+
+        public Object getMax(int ordinal) {
+            return max[ordinal];
+        }
+
+        public int getNullCount(int ordinal) {
+            return nullCount[ordinal];
+        }
+    }
+
+    /**
+     * @param numberOfPages The number of pages the table already has, whose
+     *                      summaries are unknown.
+     */
+    public ZoneMap(int numberOfPages) {
+        zones.setSize(numberOfPages);
+    }
+
+    /**
+     * Widens the summary of the page a row was added to. A page beyond the
+     * known ones was just created, and starts a new summary.
+     */
+    public synchronized void include(Table table, RowRecord rowRecord) {
+        int index = rowRecord.getPageId() - 1;
+        if (index >= zones.size()) {
+            zones.setSize(index);
+            zones.add(new PageZone(table.getAttributeList().size()));
+        }
+
+        PageZone zone = zones.get(index);
+        if (zone != null) {
+            zone.include(rowRecord);
+        }
+    }
+
+    /**
+     * Replaces the summary of a page with one of the rows it holds now.
+     */
+    public synchronized void summarize(Table table, Page page) {
+        PageZone zone = new PageZone(table.getAttributeList().size());
+        for (RowRecord rowRecord : page.getRecords()) {
+            zone.include(rowRecord);
+        }
+
+        int index = page.getPageIdx() - 1;
+        if (index >= zones.size()) {
+            zones.setSize(index + 1);
+        }
+        zones.set(index, zone);
+    }
+
+    /**
+     * Forgets the summaries of the pages after the first numberOfPages.
+     */
+    public synchronized void truncate(int numberOfPages) {
+        if (numberOfPages < zones.size()) {
+            zones.setSize(numberOfPages);
+        }
+    }
+
+    /**
+     * @return Whether a page may hold a row satisfying a condition, which is
+     * the case when its summary is unknown.
+     */
+    public synchronized boolean mayMatch(int pageIdx, Condition condition) {
+        if (condition == null || pageIdx > zones.size()) {
+            return true;
+        }
+
+        PageZone zone = zones.get(pageIdx - 1);
+        return zone == null || condition.mayBeSatisfiedIn(zone);
+    }
+
+    /**
+     * @return The summary of a page, or null if it is unknown.
+     */
+    public synchronized PageZone getZone(int pageIdx) {
+        return pageIdx > zones.size() ? null : zones.get(pageIdx - 1);
+    }
+
+    /* Saved with the metadata while writers may be widening summaries. */
+    @Serial
+    private synchronized void writeObject(ObjectOutputStream outputStream) throws IOException {
+        outputStream.defaultWriteObject();
+    }
+}
@@ -0,0 +1,125 @@
+import BPlusTree.BPlusTree;
+import QueryParser.DMLStatements.Aggregate;
+import RheaDB.*;
+import RheaDB.QueryExecution.*;
+import RheaDB.StorageManagement.BufferPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.Vector;
+
+public class AggregationTests {
+
+    /* Records the pages operators ask for. */
+    private static class CountingBufferPool extends BufferPool {
+        final Set<Integer> fetchedPages = new TreeSet<>();
+
+        CountingBufferPool() {
+            super("lru", 1024);
+        }
+
+        @Override
+        public synchronized Page getPage(Table table, int pageIdx) {
+            fetchedPages.add(pageIdx);
+            return super.getPage(table, pageIdx);
+        }
+
+        @Override
+        public synchronized Page getPage(Table table, int pageIdx, boolean[] columns) {
+            fetchedPages.add(pageIdx);
+            return super.getPage(table, pageIdx, columns);
+        }
+    }
+
+    /* A table of 50 cached pages of 20 rows, whose id column holds 0..999
+     * shuffled and whose mass column is null on every fourth row. */
+    private static Table cachedTable(BufferPool bufferPool, BPlusTree<Integer, Long> index) {
+        Vector<Attribute> attributes = new Vector<>();
+        attributes.add(new Attribute(AttributeType.INT, "id"));
+        attributes.add(new Attribute(AttributeType.FLOAT, "mass"));
+        Table table = new Table("AggregationTable", attributes, "", 20);
+        int seq = 0;
+        for (int i = 0; i < 50; i++) {
+            Page page = table.getNewPage();
+            for (int j = 0; j < 20; j++) {
+                RowRecord rowRecord = new RowRecord(attributes);
+                rowRecord.setInt(0, seq * 7 % 1000);
+                rowRecord.setAttributeValue(1, seq % 4 == 0 ? null : 0.5f);
+                rowRecord.setPageId(page.getPageIdx());
+                rowRecord.setRowId(j);
+                page.addRecord(rowRecord);
+                index.insert(rowRecord.getInt(0), rowRecord.getLocator());
+                seq++;
+            }
+            bufferPool.insertPage(table, page);
+        }
+        return table;
+    }
+
+    private static Vector<Object> aggregate(Operator child, Vector<Accumulator> accumulators,
+                                            Vector<Operator> sources) {
+        Vector<Attribute> attributes = new Vector<>();
+        for (Accumulator accumulator : accumulators) {
+            attributes.add(new Attribute(accumulator.getResultType(), accumulator.getFunction().toString()));
+        }
+
+        Operator aggregation = new Aggregation(child, accumulators, sources, attributes);
+        aggregation.open();
+        RowRecord result = aggregation.next();
+        Assertions.assertNull(aggregation.next());
+        aggregation.close();
+        return result.getAttributeValues();
+    }
+
+    @Test
+    void accumulatesRows() {
+        BufferPool bufferPool = new BufferPool("lru", 1024);
+        Table table = cachedTable(bufferPool, new BPlusTree<>());
+
+        Vector<Accumulator> accumulators = new Vector<>(List.of(
+                new Accumulator(Aggregate.Function.COUNT, -1, null),
+                new Accumulator(Aggregate.Function.COUNT, 1, AttributeType.FLOAT),
+                new Accumulator(Aggregate.Function.SUM, 0, AttributeType.INT),
+                new Accumulator(Aggregate.Function.AVG, 1, AttributeType.FLOAT),
+                new Accumulator(Aggregate.Function.MAX, 0, AttributeType.INT)));
+        Vector<Operator> sources = new Vector<>(Arrays.asList(null, null, null, null, null));
+        Operator scan = new SeqScan(bufferPool, table, null);
+
+        Assertions.assertEquals(aggregate(scan, accumulators, sources),
+                new Vector<>(List.of(1000, 750, 499500, 0.5f, 999)));
+        Assertions.assertEquals(aggregate(scan, accumulators, sources),
+                new Vector<>(List.of(1000, 750, 499500, 0.5f, 999)));
+    }
+
+    @Test
+    void emptyInputs() {
+        Vector<Accumulator> accumulators = new Vector<>(List.of(
+                new Accumulator(Aggregate.Function.COUNT, -1, null),
+                new Accumulator(Aggregate.Function.SUM, 0, AttributeType.INT),
+                new Accumulator(Aggregate.Function.MIN, 0, AttributeType.INT)));
+        Assertions.assertEquals(aggregate(null, accumulators, new Vector<>(Arrays.asList(null, null, null))),
+                new Vector<>(Arrays.asList(0, null, null)));
+    }
+
+    @Test
+    void extremaReadOnlyIndexEnds() {
+        CountingBufferPool bufferPool = new CountingBufferPool();
+        BPlusTree<Integer, Long> index = new BPlusTree<>();
+        Table table = cachedTable(bufferPool, index);
+
+        Vector<Accumulator> accumulators = new Vector<>(List.of(
+                new Accumulator(Aggregate.Function.MIN, 0, AttributeType.INT),
+                new Accumulator(Aggregate.Function.MAX, 0, AttributeType.INT)));
+        Vector<Operator> sources = new Vector<>(List.of(
+                new Limit(new IndexOrderScan(bufferPool, table, index, 0, false, null, 1), 1, 0),
+                new Limit(new IndexOrderScan(bufferPool, table, index, 0, true, null, 1), 1, 0)));
+
+        Assertions.assertEquals(aggregate(null, accumulators, sources), new Vector<>(List.of(0, 999)));
+        /* Id 0 is in row 0, on page 1, and id 999 in row 857, on page 43. */
+        Assertions.assertEquals(bufferPool.fetchedPages, Set.of(1, 43));
+    }
+}
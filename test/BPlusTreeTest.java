@@ -176,6 +176,76 @@ public class BPlusTreeTest {
         }
     }
 
+    @Test
+    void predicateLookupInBatches() {
+        BPlusTree<Integer, Integer> tree = new BPlusTree<Integer, Integer>();
+        for (int i = 0; i < 1000; i++) {
+            tree.insert(i / 2, i);
+        }
+
+        Predicate.Predicate predicate = new Predicate.Predicate("key", 100, Predicate.Predicate.Operation.GREATER_THAN_EQUAL);
+        Vector<Integer> values = new Vector<>();
+        Integer lastKey = null;
+        int numberOfBatches = 0;
+        while (true) {
+            Vector<ValueList<Integer, Integer>> batch = tree.findWithPredicate(predicate, lastKey, 7);
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (ValueList<Integer, Integer> valueList : batch) {
+                values.addAll(valueList);
+            }
+            lastKey = batch.lastElement().getKey();
+            numberOfBatches++;
+        }
+
+        Assertions.assertEquals(values, tree.findWithPredicate(predicate));
+        Assertions.assertEquals(values.size(), 800);
+        Assertions.assertEquals(numberOfBatches, 100);
+
+        predicate = new Predicate.Predicate("key", 10, Predicate.Predicate.Operation.NOT_EQUALS);
+        Vector<ValueList<Integer, Integer>> batch = tree.findWithPredicate(predicate, 8, 4);
+        Assertions.assertEquals(batch.size(), 2);
+        Assertions.assertEquals(batch.get(0).getKey(), 9);
+        Assertions.assertEquals(batch.get(1).getKey(), 11);
+
+        predicate = new Predicate.Predicate("key", 10, Predicate.Predicate.Operation.EQUALS);
+        Assertions.assertEquals(tree.findWithPredicate(predicate, null, 1).size(), 1);
+        Assertions.assertTrue(tree.findWithPredicate(predicate, 10, 1).isEmpty());
+    }
+
+    @Test
+    void walkInBothOrders() {
+        BPlusTree<Integer, Integer> tree = new BPlusTree<Integer, Integer>();
+        for (int i = 0; i < 500; i++) {
+            tree.insert(i * 37 % 500, i);
+        }
+        for (int i = 0; i < 500; i += 3) {
+            tree.delete(i * 37 % 500, i);
+        }
+
+        for (boolean isDescending : new boolean[]{false, true}) {
+            Vector<Integer> keys = new Vector<>();
+            Integer lastKey = null;
+            while (true) {
+                Vector<ValueList<Integer, Integer>> batch = tree.findInOrder(lastKey, isDescending, 10);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                batch.forEach(valueList -> keys.add(valueList.getKey()));
+                lastKey = batch.lastElement().getKey();
+            }
+
+            Assertions.assertEquals(keys.size(), 333);
+            for (int i = 1; i < keys.size(); i++) {
+                Assertions.assertEquals(keys.get(i - 1) > keys.get(i), isDescending);
+            }
+        }
+
+        Assertions.assertEquals(tree.findInOrder(250, true, 1).get(0).getKey(), 249);
+        Assertions.assertTrue(new BPlusTree<Integer, Integer>().findInOrder(null, true, 1).isEmpty());
+    }
+
     @Test
     void deletionFromEmptyTree() {
         BPlusTree<Integer, Integer> tree = new BPlusTree<Integer, Integer>();
@@ -0,0 +1,156 @@
+import BPlusTree.BPlusTree;
+import QueryParser.DMLStatements.Aggregate;
+import RheaDB.*;
+import RheaDB.QueryExecution.*;
+import RheaDB.StorageManagement.BufferPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+public class GroupByTests {
+
+    /* A table of 100 cached pages of 30 rows: id holds 0..2999 shuffled, grp
+     * holds id % 100, and name is null on every tenth row. */
+    private static Table cachedTable(BufferPool bufferPool, BPlusTree<Integer, Long> grpIndex) {
+        Vector<Attribute> attributes = new Vector<>();
+        attributes.add(new Attribute(AttributeType.INT, "id"));
+        attributes.add(new Attribute(AttributeType.INT, "grp"));
+        attributes.add(new Attribute(AttributeType.STRING, "name"));
+        Table table = new Table("GroupByTable", attributes, "", 30);
+        int seq = 0;
+        for (int i = 0; i < 100; i++) {
+            Page page = table.getNewPage();
+            for (int j = 0; j < 30; j++) {
+                RowRecord rowRecord = new RowRecord(attributes);
+                rowRecord.setInt(0, seq * 1009 % 3000);
+                rowRecord.setInt(1, rowRecord.getInt(0) % 100);
+                rowRecord.setString(2, seq % 10 == 0 ? null : "Name" + seq % 7);
+                rowRecord.setPageId(page.getPageIdx());
+                rowRecord.setRowId(j);
+                page.addRecord(rowRecord);
+                grpIndex.insert(rowRecord.getInt(1), rowRecord.getLocator());
+                seq++;
+            }
+            bufferPool.insertPage(table, page);
+        }
+        return table;
+    }
+
+    /* Groups by grp into rows of grp, COUNT(*), SUM(id) and MIN(id). */
+    private static GroupLayout grpLayout(Table table) {
+        Vector<Accumulator> accumulators = new Vector<>(List.of(
+                new Accumulator(Aggregate.Function.COUNT, -1, null),
+                new Accumulator(Aggregate.Function.SUM, 0, AttributeType.INT),
+                new Accumulator(Aggregate.Function.MIN, 0, AttributeType.INT)));
+        Vector<Attribute> attributes = new Vector<>(List.of(
+                table.getAttributeList().get(1),
+                new Attribute(AttributeType.INT, "COUNT(*)"),
+                new Attribute(AttributeType.INT, "SUM(id)"),
+                new Attribute(AttributeType.INT, "MIN(id)")));
+        return new GroupLayout(table.getAttributeList(), new int[]{1}, accumulators, new int[]{1, -1, -1, -1},
+                attributes);
+    }
+
+    private static Vector<RowRecord> drain(Operator operator) {
+        Vector<RowRecord> rows = new Vector<>();
+        operator.open();
+        for (RowRecord rowRecord = operator.next(); rowRecord != null; rowRecord = operator.next()) {
+            rows.add(rowRecord);
+        }
+        operator.close();
+        return rows;
+    }
+
+    /* Group g holds the 30 ids g, g + 100, ..., g + 2900. */
+    private static void assertGrpGroup(RowRecord group) {
+        int grp = group.getInt(0);
+        Assertions.assertEquals(group.getAttributeValues(), new Vector<>(List.of(grp, 30, 30 * grp + 43500, grp)));
+    }
+
+    @Test
+    void hashesGroupsInMemory() {
+        BufferPool bufferPool = new BufferPool("lru", 1024);
+        Table table = cachedTable(bufferPool, new BPlusTree<>());
+
+        Vector<RowRecord> groups = drain(new HashAggregation(new SeqScan(bufferPool, table, null),
+                grpLayout(table), ""));
+        Assertions.assertEquals(groups.size(), 100);
+        groups.forEach(GroupByTests::assertGrpGroup);
+
+        /* Nulls are grouped together. */
+        Vector<Attribute> attributes = new Vector<>(List.of(table.getAttributeList().get(2),
+                new Attribute(AttributeType.INT, "COUNT(*)")));
+        GroupLayout nameLayout = new GroupLayout(table.getAttributeList(), new int[]{2},
+                new Vector<>(List.of(new Accumulator(Aggregate.Function.COUNT, -1, null))), new int[]{2, -1},
+                attributes);
+        Map<Object, Integer> counts = new HashMap<>();
+        for (RowRecord group : drain(new HashAggregation(new SeqScan(bufferPool, table, null), nameLayout, ""))) {
+            Assertions.assertNull(counts.put(group.getValue(0), group.getInt(1)));
+        }
+        Assertions.assertEquals(counts.size(), 8);
+        Assertions.assertEquals(counts.get(null), 300);
+        Assertions.assertEquals(counts.values().stream().mapToInt(Integer::intValue).sum(), 3000);
+    }
+
+    @Test
+    void spillsPartitionsPastMemoryBudget() throws IOException {
+        BufferPool bufferPool = new BufferPool("lru", 1024);
+        Table table = cachedTable(bufferPool, new BPlusTree<>());
+        File spillDirectory = Files.createTempDirectory("GroupByTests").toFile();
+
+        System.setProperty(HashAggregation.MEMORY_PROPERTY, "1024");
+        try {
+            HashAggregation aggregation = new HashAggregation(new SeqScan(bufferPool, table, null),
+                    grpLayout(table), spillDirectory.getPath());
+            aggregation.open();
+            int spillFiles = spillDirectory.list().length;
+            Assertions.assertTrue(spillFiles > 0 && spillFiles <= 16);
+
+            Vector<Integer> grps = new Vector<>();
+            for (RowRecord group = aggregation.next(); group != null; group = aggregation.next()) {
+                assertGrpGroup(group);
+                grps.add(group.getInt(0));
+            }
+            Assertions.assertEquals(spillDirectory.list().length, 0);
+            aggregation.close();
+            Assertions.assertEquals(grps.stream().distinct().count(), 100L);
+            Assertions.assertEquals(grps.size(), 100);
+
+            /* Closing before every group is produced deletes the pending partitions. */
+            aggregation.open();
+            aggregation.next();
+            aggregation.close();
+            Assertions.assertEquals(spillDirectory.list().length, 0);
+        } finally {
+            System.clearProperty(HashAggregation.MEMORY_PROPERTY);
+            spillDirectory.delete();
+        }
+    }
+
+    @Test
+    void streamsIndexOrderedGroups() {
+        BufferPool bufferPool = new BufferPool("lru", 1024);
+        BPlusTree<Integer, Long> grpIndex = new BPlusTree<>();
+        Table table = cachedTable(bufferPool, grpIndex);
+
+        Operator scan = new IndexOrderScan(bufferPool, table, grpIndex, 1, false, null, Integer.MAX_VALUE);
+        Vector<RowRecord> groups = drain(new StreamAggregation(scan, grpLayout(table)));
+        Assertions.assertEquals(groups.size(), 100);
+        for (int i = 0; i < groups.size(); i++) {
+            Assertions.assertEquals(groups.get(i).getInt(0), i);
+            assertGrpGroup(groups.get(i));
+        }
+
+        scan = new IndexOrderScan(bufferPool, table, grpIndex, 1, true, null, Integer.MAX_VALUE);
+        groups = drain(new StreamAggregation(scan, grpLayout(table)));
+        Assertions.assertEquals(groups.get(0).getInt(0), 99);
+        Assertions.assertEquals(groups.get(99).getInt(0), 0);
+    }
+}
@@ -1,5 +1,9 @@
+import RheaDB.AttributeType;
 import RheaDB.JDBCDriver.JCResultSet;
+import RheaDB.QueryResult;
 import RheaDB.RheaDB;
+import RheaDB.RowRecord;
+import RheaDB.StorageManagement.DiskManager;
 import org.junit.jupiter.api.*;
 
 import java.io.File;
@@ -8,10 +12,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.*;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class JDBCTest {
     private Connection conn;
@@ -397,4 +407,986 @@ public class JDBCTest {
             Assertions.fail();
         }
     }
+
+    @Test
+    void indexMaintainedAcrossWrites() {
+        try {
+            createTestingTable("IndexMaintenanceTable");
+            Statement statement = conn.createStatement();
+            statement.executeQuery("CREATE INDEX IndexMaintenanceTable id;");
+            for (int i = 0; i < 100; i++) {
+                statement.executeQuery("INSERT INTO IndexMaintenanceTable VALUES (" + i + ", \"Random String\", 42.69" + ");");
+            }
+
+            statement.executeQuery("DELETE FROM IndexMaintenanceTable WHERE id < 10;");
+            statement.executeQuery("UPDATE IndexMaintenanceTable SET id = 1000 WHERE id = 50;");
+
+            ResultSet resultSet = statement.executeQuery("SELECT * FROM IndexMaintenanceTable WHERE id < 10;");
+            Assertions.assertFalse(resultSet.next());
+
+            resultSet = statement.executeQuery("SELECT * FROM IndexMaintenanceTable WHERE id = 50;");
+            Assertions.assertFalse(resultSet.next());
+
+            resultSet = statement.executeQuery("SELECT * FROM IndexMaintenanceTable WHERE id = 1000;");
+            Assertions.assertTrue(resultSet.next());
+            Assertions.assertEquals(resultSet.getString("name"), "Random String");
+            Assertions.assertFalse(resultSet.next());
+
+            resultSet = statement.executeQuery("SELECT * FROM IndexMaintenanceTable WHERE id >= 10;");
+            int count = 0;
+            while (resultSet.next()) count++;
+            Assertions.assertEquals(count, 90);
+
+            dropTestTable("IndexMaintenanceTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void indexFilesHoldRowLocators() {
+        try {
+            createTestingTable("CompactIndexTable");
+            Statement statement = conn.createStatement();
+            String wideString = "x".repeat(1000);
+            for (int i = 0; i < 100; i++) {
+                statement.executeQuery("INSERT INTO CompactIndexTable VALUES (" + i + ", \"" + wideString + "\", 42.69);");
+            }
+            statement.executeQuery("CREATE INDEX CompactIndexTable id;");
+            statement.executeQuery("UPDATE CompactIndexTable SET name = \"Updated\" WHERE id = 50;");
+            conn.close();
+
+            /* The 101 entries of 16 bytes each fit in a single leaf page after the 8 KB header page. */
+            File indexFile = new File(dataDirPath + File.separator + "CompactIndexTable" + File.separator +
+                    "index" + File.separator + "id.idx");
+            Assertions.assertEquals(2 * 8192L, indexFile.length());
+
+            conn = connect("jdbc:rhea:" + homeDir + File.separator + "dbdata");
+            statement = conn.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT * FROM CompactIndexTable WHERE id = 50;");
+            Assertions.assertTrue(resultSet.next());
+            Assertions.assertEquals(resultSet.getString("name"), "Updated");
+            Assertions.assertFalse(resultSet.next());
+
+            resultSet = statement.executeQuery("SELECT * FROM CompactIndexTable WHERE id >= 90;");
+            int count = 0;
+            while (resultSet.next()) {
+                Assertions.assertEquals(resultSet.getString("name"), wideString);
+                count++;
+            }
+            Assertions.assertEquals(count, 10);
+
+            dropTestTable("CompactIndexTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void wideRowsPersistAcrossConnections() {
+        try {
+            createTestingTable("WideRowsTable");
+            Statement statement = conn.createStatement();
+            String wideString = "x".repeat(1500);
+            for (int i = 0; i < 50; i++) {
+                statement.executeQuery("INSERT INTO WideRowsTable VALUES (" + i + ", \"" + wideString + "\", 42.69);");
+            }
+
+            String widerString = "y".repeat(3000);
+            statement.executeQuery("UPDATE WideRowsTable SET name = \"" + widerString + "\" WHERE id < 5;");
+            conn.close();
+
+            conn = connect("jdbc:rhea:" + homeDir + File.separator + "dbdata");
+            statement = conn.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT * FROM WideRowsTable;");
+            Set<Integer> idSet = new TreeSet<>();
+            while (resultSet.next()) {
+                int id = resultSet.getInt("id");
+                idSet.add(id);
+                Assertions.assertEquals(resultSet.getString("name"), id < 5 ? widerString : wideString);
+            }
+            Assertions.assertEquals(idSet.size(), 50);
+
+            dropTestTable("WideRowsTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void indexesCreatedOnEmptyTablesKeepTheirKeyType() {
+        try {
+            createTestingTable("EmptyIndexTable");
+            Statement statement = conn.createStatement();
+            statement.executeQuery("CREATE INDEX EmptyIndexTable name;");
+            statement.executeQuery("CREATE INDEX EmptyIndexTable mass;");
+            statement.executeQuery("INSERT INTO EmptyIndexTable VALUES (1, \"Random String\", 42.5);");
+            conn.close();
+
+            conn = connect("jdbc:rhea:" + homeDir + File.separator + "dbdata");
+            statement = conn.createStatement();
+            statement.executeQuery("INSERT INTO EmptyIndexTable VALUES (2, \"Other String\", 69.5);");
+            ResultSet resultSet = statement.executeQuery(
+                    "SELECT * FROM EmptyIndexTable WHERE name = \"Random String\";");
+            Assertions.assertTrue(resultSet.next());
+            Assertions.assertEquals(resultSet.getInt("id"), 1);
+            Assertions.assertFalse(resultSet.next());
+
+            resultSet = statement.executeQuery("SELECT * FROM EmptyIndexTable WHERE mass = 69.5;");
+            Assertions.assertTrue(resultSet.next());
+            Assertions.assertEquals(resultSet.getInt("id"), 2);
+            Assertions.assertFalse(resultSet.next());
+
+            dropTestTable("EmptyIndexTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void committedRowsRecoveredFromLog() {
+        try {
+            createTestingTable("RecoveredRowsTable");
+            Statement statement = conn.createStatement();
+            statement.executeQuery("CREATE INDEX RecoveredRowsTable id;");
+            for (int i = 0; i < 100; i++) {
+                statement.executeQuery("INSERT INTO RecoveredRowsTable VALUES (" + i + ", \"Random String\", 42.69);");
+            }
+            statement.executeQuery("DELETE FROM RecoveredRowsTable WHERE id < 10;");
+            statement.executeQuery("UPDATE RecoveredRowsTable SET name = \"Updated\" WHERE id = 50;");
+
+            /* The first connection is never closed, so its pages only reached the log. */
+            conn = connect("jdbc:rhea:" + homeDir + File.separator + "dbdata");
+            statement = conn.createStatement();
+
+            ResultSet resultSet = statement.executeQuery("SELECT * FROM RecoveredRowsTable;");
+            int count = 0;
+            while (resultSet.next()) {
+                Assertions.assertTrue(resultSet.getInt("id") >= 10);
+                count++;
+            }
+            Assertions.assertEquals(count, 90);
+
+            resultSet = statement.executeQuery("SELECT * FROM RecoveredRowsTable WHERE id = 50;");
+            Assertions.assertTrue(resultSet.next());
+            Assertions.assertEquals(resultSet.getString("name"), "Updated");
+            Assertions.assertFalse(resultSet.next());
+
+            dropTestTable("RecoveredRowsTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void selectProjectedColumnsFromIndexScans() {
+        try {
+            createTestingTable("ProjectedColumnsTable");
+            Statement statement = conn.createStatement();
+            statement.executeQuery("CREATE INDEX ProjectedColumnsTable id;");
+            for (int i = 0; i < 100; i++) {
+                statement.executeQuery("INSERT INTO ProjectedColumnsTable VALUES (" + i + ", \"Name " + i + "\", 42.69);");
+            }
+
+            /* Both predicates match ids below 10; each row must be produced once. */
+            ResultSet resultSet = statement.executeQuery("SELECT name, id FROM ProjectedColumnsTable WHERE id < 10, id < 20;");
+            Set<Integer> idSet = new TreeSet<>();
+            int count = 0;
+            while (resultSet.next()) {
+                int id = resultSet.getInt(1);
+                Assertions.assertEquals(resultSet.getString(0), "Name " + id);
+                idSet.add(id);
+                count++;
+            }
+            Assertions.assertEquals(count, 20);
+            Assertions.assertEquals(idSet.size(), 20);
+
+            dropTestTable("ProjectedColumnsTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void preparedStatementsRebindParameters() {
+        try {
+            createTestingTable("PreparedStatementTable");
+            PreparedStatement insert = conn.prepareStatement("INSERT INTO PreparedStatementTable VALUES (?, ?, ?);");
+            for (int i = 0; i < 50; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "Name " + i);
+                insert.setFloat(3, i * 0.5f);
+                insert.executeQuery();
+            }
+
+            PreparedStatement select = conn.prepareStatement(
+                    "SELECT name, mass FROM PreparedStatementTable WHERE id = ?;");
+            for (int i = 0; i < 50; i += 7) {
+                select.setInt(1, i);
+                ResultSet resultSet = select.executeQuery();
+                Assertions.assertTrue(resultSet.next());
+                Assertions.assertEquals(resultSet.getString(0), "Name " + i);
+                Assertions.assertEquals(resultSet.getFloat(1), i * 0.5f, 0.001);
+                Assertions.assertFalse(resultSet.next());
+            }
+
+            PreparedStatement update = conn.prepareStatement(
+                    "UPDATE PreparedStatementTable SET name = ? WHERE id >= ?;");
+            update.setString(1, "Updated");
+            update.setInt(2, 40);
+            Assertions.assertEquals(update.executeUpdate(), 10);
+
+            select.clearParameters();
+            Assertions.assertThrows(SQLException.class, select::executeQuery);
+
+            dropTestTable("PreparedStatementTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void batchedInsertsAndUpdates() {
+        try {
+            createTestingTable("BatchTable");
+            Statement statement = conn.createStatement();
+            statement.executeQuery("CREATE INDEX BatchTable id;");
+            statement.executeQuery("INSERT INTO BatchTable VALUES (0, \"Row 0\", 0.5), (1, \"Row 1\", 1.5);");
+
+            PreparedStatement insert = conn.prepareStatement("INSERT INTO BatchTable VALUES (?, ?, ?);");
+            for (int i = 2; i < 500; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "Row " + i);
+                insert.setFloat(3, i + 0.5f);
+                insert.addBatch();
+            }
+            int[] updateCounts = insert.executeBatch();
+            Assertions.assertEquals(updateCounts.length, 498);
+            for (int updateCount : updateCounts) {
+                Assertions.assertEquals(updateCount, 1);
+            }
+
+            statement.addBatch("UPDATE BatchTable SET name = \"Low\" WHERE id < 100;");
+            statement.addBatch("DELETE FROM BatchTable WHERE id >= 400;");
+            statement.addBatch("INSERT INTO BatchTable VALUES (1000, \"Last\", 0.0);");
+            updateCounts = statement.executeBatch();
+            Assertions.assertEquals(updateCounts[0], 100);
+            Assertions.assertEquals(updateCounts[2], 1);
+
+            ResultSet resultSet = statement.executeQuery("SELECT id, name FROM BatchTable WHERE id >= 0;");
+            int count = 0;
+            while (resultSet.next()) {
+                int id = resultSet.getInt(0);
+                Assertions.assertTrue(id < 400 || id == 1000);
+                Assertions.assertEquals(resultSet.getString(1),
+                        id < 100 ? "Low" : id == 1000 ? "Last" : "Row " + id);
+                count++;
+            }
+            Assertions.assertEquals(count, 401);
+
+            statement.addBatch("SELECT * FROM BatchTable;");
+            Assertions.assertThrows(BatchUpdateException.class, statement::executeBatch);
+
+            /* The counts of the statements run before the failing one are kept. */
+            statement.addBatch("UPDATE BatchTable SET mass = 2.5 WHERE id < 10;");
+            statement.addBatch("INSERT INTO BatchTable VALUES (1001, \"Next\", 0.0);");
+            statement.addBatch("INSERT INTO BatchTable VALUES (1002, \"Next\", 0.0);");
+            statement.addBatch("DELETE FROM MissingBatchTable WHERE id = 0;");
+            statement.addBatch("INSERT INTO BatchTable VALUES (1003, \"Next\", 0.0);");
+            BatchUpdateException batchUpdateException =
+                    Assertions.assertThrows(BatchUpdateException.class, statement::executeBatch);
+            Assertions.assertArrayEquals(batchUpdateException.getUpdateCounts(), new int[]{10, 1, 1});
+
+            dropTestTable("BatchTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void concurrentReadersAndWriters() {
+        try {
+            createTestingTable("ConcurrentReadTable");
+            Statement statement = conn.createStatement();
+            statement.executeQuery("CREATE TABLE ConcurrentWriteTable (id INT, name STRING, mass FLOAT);");
+            for (int i = 0; i < 200; i++) {
+                statement.executeQuery("INSERT INTO ConcurrentReadTable VALUES (" + i + ", \"Name\", 1.5);");
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(6);
+            Vector<Future<?>> futures = new Vector<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    Statement reader = conn.createStatement();
+                    for (int i = 0; i < 25; i++) {
+                        ResultSet resultSet = reader.executeQuery("SELECT id FROM ConcurrentReadTable;");
+                        int count = 0;
+                        while (resultSet.next()) {
+                            count++;
+                        }
+                        Assertions.assertEquals(count, 200);
+                    }
+                    return null;
+                }));
+            }
+            for (int t = 0; t < 2; t++) {
+                final int writerId = t;
+                futures.add(executor.submit(() -> {
+                    Statement writer = conn.createStatement();
+                    for (int i = 0; i < 100; i++) {
+                        writer.executeQuery("INSERT INTO ConcurrentWriteTable VALUES (" +
+                                (writerId * 100 + i) + ", \"Writer\", 2.5);");
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+
+            ResultSet resultSet = statement.executeQuery("SELECT id FROM ConcurrentWriteTable;");
+            Set<Integer> idSet = new TreeSet<>();
+            while (resultSet.next()) {
+                idSet.add(resultSet.getInt(0));
+            }
+            Assertions.assertEquals(idSet.size(), 200);
+
+            statement.executeQuery("DROP TABLE ConcurrentWriteTable;");
+            dropTestTable("ConcurrentReadTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void selectAndDeleteWithBooleanWhereClauses() {
+        try {
+            createTestingTable("BooleanWhereTable");
+            Statement statement = conn.createStatement();
+            statement.executeQuery("CREATE INDEX BooleanWhereTable id;");
+            for (int i = 0; i < 100; i++) {
+                statement.executeQuery("INSERT INTO BooleanWhereTable VALUES (" + i + ", \"Name " + i % 2 + "\", 42.69);");
+            }
+
+            ResultSet resultSet = statement.executeQuery("SELECT id FROM BooleanWhereTable " +
+                    "WHERE (id < 10 OR id >= 90) AND name = \"Name 0\";");
+            int count = 0;
+            while (resultSet.next()) {
+                int id = resultSet.getInt(0);
+                Assertions.assertTrue((id < 10 || id >= 90) && id % 2 == 0);
+                count++;
+            }
+            Assertions.assertEquals(count, 10);
+
+            statement.executeQuery("DELETE FROM BooleanWhereTable WHERE id >= 50 && name = \"Name 1\";");
+            resultSet = statement.executeQuery("SELECT id FROM BooleanWhereTable WHERE id >= 50;");
+            count = 0;
+            while (resultSet.next()) {
+                Assertions.assertEquals(resultSet.getInt(0) % 2, 0);
+                count++;
+            }
+            Assertions.assertEquals(count, 25);
+
+            dropTestTable("BooleanWhereTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void selectReadsConsistentSnapshot() {
+        try {
+            createTestingTable("SnapshotTable");
+            Statement statement = conn.createStatement();
+            statement.executeQuery("CREATE INDEX SnapshotTable id;");
+            for (int i = 0; i < 100; i++) {
+                statement.executeQuery("INSERT INTO SnapshotTable VALUES (" + i + ", \"Random String\", 42.69);");
+            }
+
+            /* The rows of a result are pulled lazily, long after the writes below. */
+            ResultSet snapshotRows = conn.createStatement().executeQuery("SELECT * FROM SnapshotTable;");
+            ResultSet indexedSnapshotRows = conn.createStatement()
+                    .executeQuery("SELECT * FROM SnapshotTable WHERE id >= 90;");
+            Assertions.assertTrue(snapshotRows.next());
+
+            statement.executeQuery("UPDATE SnapshotTable SET name = \"Updated\";");
+            statement.executeQuery("DELETE FROM SnapshotTable WHERE id >= 50;");
+            statement.executeQuery("INSERT INTO SnapshotTable VALUES (1000, \"New\", 1.0);");
+
+            int count = 1;
+            while (snapshotRows.next()) {
+                Assertions.assertEquals(snapshotRows.getString("name"), "Random String");
+                count++;
+            }
+            Assertions.assertEquals(count, 100);
+
+            count = 0;
+            while (indexedSnapshotRows.next()) {
+                Assertions.assertEquals(indexedSnapshotRows.getString("name"), "Random String");
+                count++;
+            }
+            Assertions.assertEquals(count, 10);
+
+            ResultSet resultSet = statement.executeQuery("SELECT * FROM SnapshotTable;");
+            count = 0;
+            while (resultSet.next()) {
+                Assertions.assertTrue(resultSet.getInt("id") < 50 || resultSet.getInt("id") == 1000);
+                Assertions.assertNotEquals(resultSet.getString("name"), "Random String");
+                count++;
+            }
+            Assertions.assertEquals(count, 51);
+
+            dropTestTable("SnapshotTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void openResultsSurviveCompactAndDeleteAll() {
+        try {
+            createTestingTable("OpenResultTable");
+            Statement statement = conn.createStatement();
+            for (int first = 0; first < 2000; first += 100) {
+                StringBuilder insert = new StringBuilder("INSERT INTO OpenResultTable VALUES ");
+                for (int id = first; id < first + 100; id++) {
+                    insert.append(id == first ? "" : ", ").append("(").append(id).append(", \"Row\", 1.5)");
+                }
+                statement.executeQuery(insert.append(";").toString());
+            }
+            statement.executeQuery("DELETE FROM OpenResultTable WHERE id < 1000;");
+
+            /* Rows are pulled from both results before and after the statement that would move them. */
+            for (String sql : new String[]{"COMPACT OpenResultTable;", "DELETE FROM OpenResultTable;"}) {
+                ResultSet openRows = conn.createStatement().executeQuery("SELECT * FROM OpenResultTable;");
+                TreeSet<Integer> ids = new TreeSet<>();
+                for (int i = 0; i < 100; i++) {
+                    Assertions.assertTrue(openRows.next());
+                    ids.add(openRows.getInt("id"));
+                }
+
+                statement.executeQuery(sql);
+                while (openRows.next()) {
+                    ids.add(openRows.getInt("id"));
+                }
+                Assertions.assertEquals(ids.size(), 1000);
+                Assertions.assertEquals(ids.first(), 1000);
+            }
+
+            ResultSet resultSet = statement.executeQuery("SELECT * FROM OpenResultTable;");
+            Assertions.assertFalse(resultSet.next());
+
+            dropTestTable("OpenResultTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void vacuumRemovesVersionsNoSnapshotSees() {
+        RheaDB rheaDB = new RheaDB(dataDirPath + File.separator + "VacuumDatabase");
+        rheaDB.setLazyCommit(false);
+        rheaDB.executeStatement("CREATE TABLE VacuumTable (id INT, name STRING, mass FLOAT);");
+        rheaDB.executeStatement("CREATE INDEX VacuumTable id;");
+        for (int i = 0; i < 100; i++) {
+            rheaDB.executeStatement("INSERT INTO VacuumTable VALUES (" + i + ", \"Random String\", 42.69);");
+        }
+
+        for (int round = 0; round < 3; round++) {
+            rheaDB.executeStatement("UPDATE VacuumTable SET mass = " + round + ".5;");
+        }
+        rheaDB.executeStatement("DELETE FROM VacuumTable WHERE id < 10;");
+        Assertions.assertEquals(rheaDB.vacuum("VacuumTable"), 310);
+        Assertions.assertEquals(rheaDB.vacuum("VacuumTable"), 0);
+
+        /* An unconsumed result still sees the versions replaced after it started. */
+        QueryResult openResult = rheaDB.executeStatement("SELECT * FROM VacuumTable;");
+        rheaDB.executeStatement("UPDATE VacuumTable SET name = \"Updated\";");
+        Assertions.assertEquals(rheaDB.vacuum("VacuumTable"), 0);
+        Assertions.assertEquals(openResult.getRows().size(), 90);
+        Assertions.assertTrue(openResult.getRows().stream()
+                .allMatch(row -> row.getAttributeValues().get(1).equals("Random String")));
+        Assertions.assertEquals(rheaDB.vacuum("VacuumTable"), 90);
+
+        QueryResult queryResult = rheaDB.executeStatement("SELECT * FROM VacuumTable WHERE id = 50;");
+        Assertions.assertEquals(queryResult.getRows().size(), 1);
+        Assertions.assertEquals(queryResult.getRows().get(0).getAttributeValues().get(1), "Updated");
+        Assertions.assertEquals((float) queryResult.getRows().get(0).getAttributeValues().get(2), 2.5f, 0.001);
+        rheaDB.close();
+    }
+
+    @Test
+    void transactionsCommitAndRollBack() {
+        try {
+            createTestingTable("TransactionTable");
+            Statement statement = conn.createStatement();
+            statement.executeQuery("CREATE INDEX TransactionTable id;");
+            statement.executeQuery("INSERT INTO TransactionTable VALUES (1, \"Committed\", 1.0);");
+
+            conn.setAutoCommit(false);
+            statement.executeQuery("INSERT INTO TransactionTable VALUES (2, \"Rolled back\", 2.0);");
+            statement.executeQuery("UPDATE TransactionTable SET name = \"Rolled back\" WHERE id = 1;");
+            statement.executeQuery("DELETE FROM TransactionTable;");
+            Assertions.assertFalse(statement.executeQuery("SELECT * FROM TransactionTable;").next());
+            conn.rollback();
+
+            ResultSet resultSet = statement.executeQuery("SELECT * FROM TransactionTable WHERE id >= 0;");
+            Assertions.assertTrue(resultSet.next());
+            Assertions.assertEquals(resultSet.getInt("id"), 1);
+            Assertions.assertEquals(resultSet.getString("name"), "Committed");
+            Assertions.assertFalse(resultSet.next());
+
+            statement.executeQuery("INSERT INTO TransactionTable VALUES (3, \"Kept\", 3.0);");
+            Savepoint savepoint = conn.setSavepoint();
+            statement.executeQuery("INSERT INTO TransactionTable VALUES (4, \"Undone\", 4.0);");
+            statement.executeQuery("UPDATE TransactionTable SET mass = 9.0;");
+            conn.rollback(savepoint);
+            conn.commit();
+
+            /* Another connection reads only what was committed. */
+            statement.executeQuery("INSERT INTO TransactionTable VALUES (5, \"Uncommitted\", 5.0);");
+            Connection otherConnection = connect("jdbc:rhea:" + dataDirPath);
+            resultSet = otherConnection.createStatement().executeQuery("SELECT * FROM TransactionTable;");
+            Set<Integer> ids = new TreeSet<>();
+            while (resultSet.next()) {
+                ids.add(resultSet.getInt("id"));
+                Assertions.assertNotEquals(resultSet.getFloat("mass"), 9.0f, 0.001);
+            }
+            Assertions.assertEquals(ids, Set.of(1, 3));
+            otherConnection.close();
+
+            conn.rollback();
+            conn.setAutoCommit(true);
+            Assertions.assertTrue(conn.getAutoCommit());
+
+            statement.executeQuery("BEGIN;");
+            statement.executeQuery("DELETE FROM TransactionTable WHERE id = 3;");
+            statement.executeQuery("SAVEPOINT afterDelete;");
+            statement.executeQuery("INSERT INTO TransactionTable VALUES (6, \"Undone\", 6.0);");
+            statement.executeQuery("ROLLBACK TO SAVEPOINT afterDelete;");
+            PreparedStatement createIndex = conn.prepareStatement("CREATE INDEX TransactionTable mass;");
+            Assertions.assertThrows(SQLException.class, createIndex::execute);
+            statement.executeQuery("COMMIT;");
+
+            resultSet = statement.executeQuery("SELECT * FROM TransactionTable WHERE id > 0;");
+            Assertions.assertTrue(resultSet.next());
+            Assertions.assertEquals(resultSet.getInt("id"), 1);
+            Assertions.assertFalse(resultSet.next());
+
+            dropTestTable("TransactionTable");
+        } catch (Exception exception) {
+            System.out.println(exception.getMessage());
+            Assertions.fail();
+        }
+    }
+
+    @Test
+    void mappedReadsSurviveTruncation() {
+        String databasePath = dataDirPath + File.separator + "MappedDatabase";
+        System.setProperty(DiskManager.READ_MODE_PROPERTY, "mmap");
+        try {
+            RheaDB rheaDB = new RheaDB(databasePath);
+            rheaDB.setLazyCommit(false);
+            rheaDB.executeStatement("CREATE TABLE MappedTable (id INT, name STRING, mass FLOAT);");
+            insertRows(rheaDB, "MappedTable", 0, 6000);
+            rheaDB.close();
+
+            /* A cold cache reads every page back from the segment, several mapped regions of it. */
+            rheaDB = new RheaDB(databasePath);
+            rheaDB.setLazyCommit(false);
+            QueryResult queryResult = rheaDB.executeStatement("SELECT * FROM MappedTable;");
+            Assertions.assertEquals(queryResult.getRows().size(), 6000);
+            for (int i = 0; i < 6000; i++) {
+                Assertions.assertEquals(queryResult.getRows().get(i).getAttributeValues().get(0), i);
+            }
+
+            rheaDB.executeStatement("DELETE FROM MappedTable;");
+            insertRows(rheaDB, "MappedTable", 10000, 4500);
+            rheaDB.close();
+
+            rheaDB = new RheaDB(databasePath);
+            queryResult = rheaDB.executeStatement("SELECT * FROM MappedTable WHERE id < 10000;");
+            Assertions.assertNull(queryResult);
+            queryResult = rheaDB.executeStatement("SELECT * FROM MappedTable;");
+            Assertions.assertEquals(queryResult.getRows().size(), 4500);
+            Assertions.assertEquals(queryResult.getRows().get(4499).getAttributeValues().get(0), 14499);
+            rheaDB.close();
+        } finally {
+            System.clearProperty(DiskManager.READ_MODE_PROPERTY);
+        }
+    }
+
+    @Test
+    void columnarTablesRoundTrip() throws Exception {
+        String url = "jdbc:rhea:" + dataDirPath + File.separator + "ColumnarDatabase";
+        Connection connection = connect(url);
+        connection.createStatement().execute(
+                "CREATE TABLE ColumnarTable (id INT, name STRING, mass FLOAT) USING COLUMNAR;");
+        PreparedStatement insert = connection.prepareStatement("INSERT INTO ColumnarTable VALUES (?, ?, ?);");
+        for (int id = -1000; id < 2000; id++) {
+            insert.setInt(1, id);
+            if (id % 7 == 0) {
+                insert.setNull(2, Types.VARCHAR);
+            } else {
+                insert.setString(2, "Name" + id % 5);
+            }
+            insert.setFloat(3, id * 0.5f);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.close();
+
+        connection = connect(url);
+        ResultSet resultSet = connection.createStatement().executeQuery("SELECT * FROM ColumnarTable;");
+        for (int id = -1000; id < 2000; id++) {
+            Assertions.assertTrue(resultSet.next());
+            Assertions.assertEquals(resultSet.getInt("id"), id);
+            Assertions.assertEquals(resultSet.getString("name"), id % 7 == 0 ? null : "Name" + id % 5);
+            Assertions.assertEquals(resultSet.getFloat("mass"), id * 0.5f);
+        }
+        Assertions.assertFalse(resultSet.next());
+
+        Statement statement = connection.createStatement();
+        statement.execute("UPDATE ColumnarTable SET name = \"Updated\" WHERE id >= 1990;");
+        statement.execute("DELETE FROM ColumnarTable WHERE id < 0;");
+        statement.execute("COMPACT ColumnarTable;");
+        connection.close();
+
+        connection = connect(url);
+        resultSet = connection.createStatement().executeQuery("SELECT * FROM ColumnarTable WHERE id >= 1985;");
+        for (int id = 1985; id < 2000; id++) {
+            Assertions.assertTrue(resultSet.next());
+            Assertions.assertEquals(resultSet.getInt("id"), id);
+            Assertions.assertEquals(resultSet.getString("name"),
+                    id >= 1990 ? "Updated" : id % 7 == 0 ? null : "Name" + id % 5);
+        }
+        Assertions.assertFalse(resultSet.next());
+
+        resultSet = connection.createStatement().executeQuery("SELECT id FROM ColumnarTable WHERE id < 1;");
+        Assertions.assertTrue(resultSet.next());
+        Assertions.assertEquals(resultSet.getInt("id"), 0);
+        Assertions.assertFalse(resultSet.next());
+        connection.close();
+    }
+
+    @Test
+    void selectDecodesOnlyNeededColumns() throws Exception {
+        String databasePath = dataDirPath + File.separator + "ProjectionDatabase";
+        RheaDB rheaDB = new RheaDB(databasePath);
+        rheaDB.executeStatement("CREATE TABLE RowTable (id INT, name STRING, mass FLOAT);");
+        rheaDB.executeStatement("CREATE TABLE PaxTable (id INT, name STRING, mass FLOAT) USING COLUMNAR;");
+        insertRows(rheaDB, "RowTable", 0, 500);
+        insertRows(rheaDB, "PaxTable", 0, 500);
+        rheaDB.close();
+
+        for (String tableName : new String[]{"RowTable", "PaxTable"}) {
+            /* Pages are not cached after reopening, so they are decoded for the query. */
+            rheaDB = new RheaDB(databasePath);
+            QueryResult queryResult = rheaDB.executeStatement("SELECT mass, id FROM " + tableName +
+                    " WHERE id >= 490;");
+            Assertions.assertEquals(queryResult.getAttributes().size(), 2);
+            Assertions.assertEquals(queryResult.getAttributes().get(0).getName(), "mass");
+            Vector<RowRecord> rows = queryResult.getRows();
+            Assertions.assertEquals(rows.size(), 10);
+            for (int i = 0; i < rows.size(); i++) {
+                Assertions.assertEquals(rows.get(i).getNumberOfValues(), 2);
+                Assertions.assertEquals(rows.get(i).getFloat(0), 1.5f);
+                Assertions.assertEquals(rows.get(i).getInt(1), 490 + i);
+            }
+
+            queryResult = rheaDB.executeStatement("SELECT id FROM " + tableName + " WHERE name = \"Row\";");
+            Assertions.assertEquals(queryResult.getRows().size(), 500);
+
+            /* Whole pages are cached by writers, and the next scan reads them as they are. */
+            rheaDB.executeStatement("UPDATE " + tableName + " SET name = \"Renamed\" WHERE id = 3;");
+            queryResult = rheaDB.executeStatement("SELECT name FROM " + tableName + " WHERE id = 3;");
+            Assertions.assertEquals(queryResult.getRows().size(), 1);
+            Assertions.assertEquals(queryResult.getRows().get(0).getString(0), "Renamed");
+            rheaDB.close();
+        }
+
+        Connection connection = connect("jdbc:rhea:" + databasePath);
+        ResultSet resultSet = connection.createStatement().executeQuery("SELECT id FROM PaxTable WHERE id = 7;");
+        Assertions.assertTrue(resultSet.next());
+        Assertions.assertEquals(resultSet.findColumn("ID"), 0);
+        Assertions.assertEquals(resultSet.getInt("id"), 7);
+        Assertions.assertThrows(SQLException.class, () -> resultSet.getString("name"));
+        connection.close();
+    }
+
+    @Test
+    void selectWithLimitAndOffset() {
+        String databasePath = dataDirPath + File.separator + "LimitDatabase";
+        RheaDB rheaDB = new RheaDB(databasePath);
+        rheaDB.executeStatement("CREATE TABLE LimitTable (id INT, name STRING, mass FLOAT);");
+        insertRows(rheaDB, "LimitTable", 0, 1000);
+
+        for (int pass = 0; pass < 2; pass++) {
+            Vector<RowRecord> rows = rheaDB.executeStatement("SELECT id FROM LimitTable LIMIT 5;").getRows();
+            Assertions.assertEquals(rows.size(), 5);
+            Assertions.assertEquals(rows.get(4).getInt(0), 4);
+
+            rows = rheaDB.executeStatement("SELECT id FROM LimitTable WHERE id >= 300 LIMIT 3 OFFSET 10;").getRows();
+            Assertions.assertEquals(rows.size(), 3);
+            Assertions.assertEquals(rows.get(0).getInt(0), 310);
+            Assertions.assertEquals(rows.get(2).getInt(0), 312);
+
+            rows = rheaDB.executeStatement("SELECT * FROM LimitTable WHERE id != 0 LIMIT 100 OFFSET 950;").getRows();
+            Assertions.assertEquals(rows.size(), 49);
+            Assertions.assertEquals(rows.get(48).getInt(0), 999);
+
+            rows = rheaDB.executeStatement("SELECT id FROM LimitTable WHERE id < 50 LIMIT 20 OFFSET 20;").getRows();
+            Assertions.assertEquals(rows.size(), 20);
+            Assertions.assertEquals(rows.get(19).getInt(0), 39);
+
+            Assertions.assertNull(rheaDB.executeStatement("SELECT * FROM LimitTable LIMIT 0;"));
+            Assertions.assertNull(rheaDB.executeStatement("SELECT * FROM LimitTable LIMIT 10 OFFSET 1000;"));
+
+            /* The second pass answers the predicates through an index. */
+            rheaDB.executeStatement("CREATE INDEX LimitTable id;");
+            rheaDB.executeStatement("ANALYZE LimitTable;");
+        }
+        rheaDB.close();
+    }
+
+    @Test
+    void selectWithOrderBy() throws Exception {
+        String databasePath = dataDirPath + File.separator + "OrderDatabase";
+        RheaDB rheaDB = new RheaDB(databasePath);
+        rheaDB.executeStatement("CREATE TABLE OrderTable (id INT, name STRING, mass FLOAT);");
+        for (int first = 0; first < 1000; first += 100) {
+            StringBuilder insert = new StringBuilder("INSERT INTO OrderTable VALUES ");
+            for (int i = first; i < first + 100; i++) {
+                insert.append(i == first ? "" : ", ").append("(").append(i * 7 % 1000)
+                        .append(", \"Row").append(i % 10).append("\", ").append(i).append(".0)");
+            }
+            rheaDB.executeStatement(insert.append(";").toString());
+        }
+
+        for (int pass = 0; pass < 2; pass++) {
+            Vector<RowRecord> rows = rheaDB.executeStatement("SELECT id FROM OrderTable ORDER BY id;").getRows();
+            Assertions.assertEquals(rows.size(), 1000);
+            for (int i = 0; i < rows.size(); i++) {
+                Assertions.assertEquals(rows.get(i).getInt(0), i);
+            }
+
+            rows = rheaDB.executeStatement("SELECT name, id FROM OrderTable WHERE id < 500 " +
+                    "ORDER BY id DESC LIMIT 3 OFFSET 1;").getRows();
+            Assertions.assertEquals(rows.size(), 3);
+            Assertions.assertEquals(rows.get(0).getInt(1), 498);
+            Assertions.assertEquals(rows.get(2).getInt(1), 496);
+            Assertions.assertEquals(rows.get(2).getString(0), "Row8");
+
+            rows = rheaDB.executeStatement("SELECT mass FROM OrderTable WHERE name = \"Row3\" " +
+                    "ORDER BY id ASC LIMIT 2;").getRows();
+            Assertions.assertEquals(rows.get(0).getFloat(0), 143.0f);
+            Assertions.assertEquals(rows.get(1).getFloat(0), 573.0f);
+
+            /* The second pass walks the index instead of sorting. */
+            rheaDB.executeStatement("CREATE INDEX OrderTable id;");
+        }
+
+        /* Rows with equal names keep their insertion order. */
+        Vector<RowRecord> rows = rheaDB.executeStatement("SELECT id FROM OrderTable ORDER BY name DESC LIMIT 2;")
+                .getRows();
+        Assertions.assertEquals(rows.get(0).getInt(0), 9 * 7);
+        Assertions.assertEquals(rows.get(1).getInt(0), 19 * 7);
+        rheaDB.close();
+
+        Connection connection = connect("jdbc:rhea:" + databasePath);
+        Assertions.assertThrows(SQLException.class, () ->
+                connection.prepareStatement("SELECT id FROM OrderTable ORDER BY weight;").executeQuery());
+        connection.close();
+    }
+
+    @Test
+    void selectAggregates() throws Exception {
+        String databasePath = dataDirPath + File.separator + "AggregateDatabase";
+        RheaDB rheaDB = new RheaDB(databasePath);
+        rheaDB.executeStatement("CREATE TABLE AggTable (id INT, name STRING, mass FLOAT);");
+        insertRows(rheaDB, "AggTable", 0, 1000);
+
+        for (int pass = 0; pass < 2; pass++) {
+            QueryResult queryResult = rheaDB.executeStatement("SELECT COUNT(*), SUM(id), AVG(id), MIN(id), " +
+                    "MAX(id), MIN(name), SUM(mass), COUNT(name) FROM AggTable;");
+            Assertions.assertEquals(queryResult.getAttributes().get(0).getName(), "COUNT(*)");
+            Assertions.assertEquals(queryResult.getAttributes().get(2).getType(), AttributeType.FLOAT);
+            Vector<RowRecord> rows = queryResult.getRows();
+            Assertions.assertEquals(rows.size(), 1);
+            Assertions.assertEquals(rows.get(0).getAttributeValues(),
+                    new Vector<>(List.of(1000, 499500, 499.5f, 0, 999, "Row", 1500.0f, 1000)));
+
+            rows = rheaDB.executeStatement("SELECT MIN(id), MAX(id), COUNT(*) FROM AggTable WHERE id >= 900;")
+                    .getRows();
+            Assertions.assertEquals(rows.get(0).getAttributeValues(), new Vector<>(List.of(900, 999, 100)));
+
+            rows = rheaDB.executeStatement("SELECT COUNT(*), SUM(id), MAX(id) FROM AggTable WHERE id > 5000;")
+                    .getRows();
+            Assertions.assertEquals(rows.get(0).getAttributeValues(), new Vector<>(Arrays.asList(0, null, null)));
+            Assertions.assertNull(rheaDB.executeStatement("SELECT COUNT(*) FROM AggTable LIMIT 0;"));
+
+            /* The second pass answers MIN and MAX of id from the ends of its index. */
+            rheaDB.executeStatement("CREATE INDEX AggTable id;");
+        }
+
+        rheaDB.executeStatement("DELETE FROM AggTable WHERE id < 100;");
+        rheaDB.executeStatement("DELETE FROM AggTable WHERE id >= 950;");
+        Vector<RowRecord> rows = rheaDB.executeStatement("SELECT MIN(id), MAX(id), COUNT(*) FROM AggTable;").getRows();
+        Assertions.assertEquals(rows.get(0).getAttributeValues(), new Vector<>(List.of(100, 949, 850)));
+
+        rheaDB.executeStatement("CREATE TABLE OverflowTable (id INT);");
+        rheaDB.executeStatement("INSERT INTO OverflowTable VALUES (2000000000), (2000000000);");
+        rheaDB.close();
+
+        Connection connection = connect("jdbc:rhea:" + databasePath);
+        ResultSet resultSet = connection.createStatement().executeQuery("SELECT COUNT(*), AVG(mass) FROM AggTable;");
+        Assertions.assertTrue(resultSet.next());
+        Assertions.assertEquals(resultSet.getInt("COUNT(*)"), 850);
+        Assertions.assertEquals(resultSet.getFloat(1), 1.5f);
+        Assertions.assertFalse(resultSet.next());
+
+        for (String sql : new String[]{"SELECT id, COUNT(*) FROM AggTable;", "SELECT SUM(name) FROM AggTable;",
+                "SELECT MAX(weight) FROM AggTable;", "SELECT SUM(id) FROM OverflowTable;"}) {
+            Assertions.assertThrows(SQLException.class, () -> connection.prepareStatement(sql).executeQuery());
+        }
+        connection.close();
+    }
+
+    @Test
+    void selectGroupBy() throws Exception {
+        String databasePath = dataDirPath + File.separator + "GroupByDatabase";
+        RheaDB rheaDB = new RheaDB(databasePath);
+        rheaDB.executeStatement("CREATE TABLE GroupTable (id INT, grp INT, name STRING);");
+        for (int first = 0; first < 1000; first += 100) {
+            StringBuilder insert = new StringBuilder("INSERT INTO GroupTable VALUES ");
+            for (int id = first; id < first + 100; id++) {
+                insert.append(id == first ? "" : ", ").append("(").append(id).append(", ").append(id % 10)
+                        .append(", \"Name").append(id % 2).append("\")");
+            }
+            rheaDB.executeStatement(insert.append(";").toString());
+        }
+
+        for (int pass = 0; pass < 2; pass++) {
+            QueryResult queryResult = rheaDB.executeStatement(
+                    "SELECT grp, COUNT(*), SUM(id) FROM GroupTable GROUP BY grp ORDER BY grp;");
+            Assertions.assertEquals(queryResult.getAttributes().get(0).getName(), "grp");
+            Vector<RowRecord> rows = queryResult.getRows();
+            Assertions.assertEquals(rows.size(), 10);
+            for (int grp = 0; grp < 10; grp++) {
+                Assertions.assertEquals(rows.get(grp).getAttributeValues(),
+                        new Vector<>(List.of(grp, 100, 49500 + 100 * grp)));
+            }
+
+            rows = rheaDB.executeStatement("SELECT MAX(id), grp FROM GroupTable WHERE id < 500 " +
+                    "GROUP BY grp ORDER BY grp DESC LIMIT 2 OFFSET 1;").getRows();
+            Assertions.assertEquals(rows.size(), 2);
+            Assertions.assertEquals(rows.get(0).getAttributeValues(), new Vector<>(List.of(498, 8)));
+            Assertions.assertEquals(rows.get(1).getAttributeValues(), new Vector<>(List.of(497, 7)));
+
+            rows = rheaDB.executeStatement("SELECT name, grp, COUNT(*) FROM GroupTable " +
+                    "GROUP BY name, grp ORDER BY grp;").getRows();
+            Assertions.assertEquals(rows.size(), 10);
+            Assertions.assertEquals(rows.get(3).getAttributeValues(), new Vector<>(List.of("Name1", 3, 100)));
+
+            rows = rheaDB.executeStatement("SELECT name FROM GroupTable GROUP BY name;").getRows();
+            Assertions.assertEquals(rows.size(), 2);
+            Assertions.assertNull(rheaDB.executeStatement("SELECT grp FROM GroupTable WHERE id > 5000 GROUP BY grp;"));
+
+            /* The second pass streams the groups of grp out of its index. */
+            rheaDB.executeStatement("CREATE INDEX GroupTable grp;");
+        }
+        rheaDB.close();
+
+        Connection connection = connect("jdbc:rhea:" + databasePath);
+        for (String sql : new String[]{"SELECT id, COUNT(*) FROM GroupTable GROUP BY grp;",
+                "SELECT grp FROM GroupTable GROUP BY weight;",
+                "SELECT grp, COUNT(*) FROM GroupTable GROUP BY grp ORDER BY id;"}) {
+            Assertions.assertThrows(SQLException.class, () -> connection.prepareStatement(sql).executeQuery());
+        }
+        connection.close();
+    }
+
+    @Test
+    void selectJoin() throws Exception {
+        String databasePath = dataDirPath + File.separator + "JoinDatabase";
+        RheaDB rheaDB = new RheaDB(databasePath);
+        rheaDB.executeStatement("CREATE TABLE Customers (id INT, name STRING);");
+        rheaDB.executeStatement("CREATE TABLE Orders (id INT, customer INT, amount INT);");
+        StringBuilder insert = new StringBuilder("INSERT INTO Customers VALUES ");
+        for (int id = 0; id < 50; id++) {
+            insert.append(id == 0 ? "" : ", ").append("(").append(id).append(", \"Customer").append(id).append("\")");
+        }
+        rheaDB.executeStatement(insert.append(";").toString());
+        for (int first = 0; first < 600; first += 100) {
+            insert = new StringBuilder("INSERT INTO Orders VALUES ");
+            for (int id = first; id < first + 100; id++) {
+                insert.append(id == first ? "" : ", ").append("(").append(id).append(", ").append(id % 60)
+                        .append(", ").append(id % 7).append(")");
+            }
+            rheaDB.executeStatement(insert.append(";").toString());
+        }
+
+        /* The passes join by hashing, then through the index of either table. */
+        String[] indexes = {null, "CREATE INDEX Customers id;", "CREATE INDEX Orders customer;"};
+        for (String index : indexes) {
+            if (index != null) {
+                rheaDB.executeStatement(index);
+            }
+
+            QueryResult queryResult = rheaDB.executeStatement(
+                    "SELECT * FROM Orders JOIN Customers ON Orders.customer = Customers.id;");
+            Assertions.assertEquals(queryResult.getAttributes().get(3).getName(), "Customers.id");
+            Vector<RowRecord> rows = queryResult.getRows();
+            Assertions.assertEquals(rows.size(), 500);
+            for (RowRecord rowRecord : rows) {
+                Assertions.assertEquals(rowRecord.getValue(1), rowRecord.getValue(3));
+                Assertions.assertEquals(rowRecord.getValue(4), "Customer" + rowRecord.getValue(3));
+            }
+
+            rows = rheaDB.executeStatement("SELECT Orders.id, name FROM Customers JOIN Orders " +
+                    "ON Customers.id = customer WHERE Customers.id < 10 AND amount = 3 AND " +
+                    "(Orders.id > 500 OR name = \"Customer1\") ORDER BY Orders.id DESC LIMIT 2 OFFSET 1;").getRows();
+            Assertions.assertEquals(rows.size(), 2);
+            Assertions.assertEquals(rows.get(0).getAttributeValues(), new Vector<>(List.of(542, "Customer2")));
+            Assertions.assertEquals(rows.get(1).getAttributeValues(), new Vector<>(List.of(241, "Customer1")));
+
+            Assertions.assertNull(rheaDB.executeStatement("SELECT name FROM Orders JOIN Customers " +
+                    "ON customer = Customers.id WHERE customer >= 50;"));
+        }
+        rheaDB.close();
+
+        Connection connection = connect("jdbc:rhea:" + databasePath);
+        for (String sql : new String[]{"SELECT id FROM Orders JOIN Customers ON customer = Customers.id;",
+                "SELECT * FROM Orders JOIN Orders ON Orders.id = Orders.customer;",
+                "SELECT * FROM Orders JOIN Customers ON Orders.id = customer;",
+                "SELECT * FROM Orders JOIN Customers ON customer = name;",
+                "SELECT COUNT(*) FROM Orders JOIN Customers ON customer = Customers.id;",
+                "SELECT weight FROM Orders JOIN Customers ON customer = Customers.id;"}) {
+            Assertions.assertThrows(SQLException.class, () -> connection.prepareStatement(sql).executeQuery());
+        }
+        connection.close();
+    }
+
+    private static void insertRows(RheaDB rheaDB, String tableName, int firstId, int numberOfRows) {
+        for (int first = firstId; first < firstId + numberOfRows; first += 100) {
+            StringBuilder insert = new StringBuilder("INSERT INTO " + tableName + " VALUES ");
+            for (int id = first; id < Math.min(first + 100, firstId + numberOfRows); id++) {
+                insert.append(id == first ? "" : ", ").append("(").append(id).append(", \"Row\", 1.5)");
+            }
+            rheaDB.executeStatement(insert.append(";").toString());
+        }
+    }
 }
@@ -0,0 +1,159 @@
+import BPlusTree.BPlusTree;
+import Predicate.Predicate;
+import RheaDB.*;
+import RheaDB.QueryExecution.*;
+import RheaDB.StorageManagement.BufferPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Vector;
+
+public class JoinTests {
+
+    /* 2000 orders on 40 cached pages, whose customer is id % 300, or null on every 50th order. */
+    private static Table ordersTable(BufferPool bufferPool) {
+        Vector<Attribute> attributes = new Vector<>();
+        attributes.add(new Attribute(AttributeType.INT, "id"));
+        attributes.add(new Attribute(AttributeType.INT, "customer"));
+        Table table = new Table("Orders", attributes, "", 50);
+        for (int i = 0; i < 40; i++) {
+            Page page = table.getNewPage();
+            for (int j = 0; j < 50; j++) {
+                int id = i * 50 + j;
+                RowRecord rowRecord = new RowRecord(attributes);
+                rowRecord.setInt(0, id);
+                rowRecord.setAttributeValue(1, id % 50 == 0 ? null : id % 300);
+                rowRecord.setPageId(page.getPageIdx());
+                rowRecord.setRowId(j);
+                page.addRecord(rowRecord);
+            }
+            bufferPool.insertPage(table, page);
+        }
+        return table;
+    }
+
+    /* 250 customers on 5 cached pages, with ids 0..249 and indexed by id. */
+    private static Table customersTable(BufferPool bufferPool, BPlusTree<Integer, Long> idIndex) {
+        Vector<Attribute> attributes = new Vector<>();
+        attributes.add(new Attribute(AttributeType.INT, "id"));
+        attributes.add(new Attribute(AttributeType.STRING, "name"));
+        Table table = new Table("Customers", attributes, "", 50);
+        for (int i = 0; i < 5; i++) {
+            Page page = table.getNewPage();
+            for (int j = 0; j < 50; j++) {
+                RowRecord rowRecord = new RowRecord(attributes);
+                rowRecord.setInt(0, i * 50 + j);
+                rowRecord.setString(1, "Customer" + (i * 50 + j));
+                rowRecord.setPageId(page.getPageIdx());
+                rowRecord.setRowId(j);
+                page.addRecord(rowRecord);
+                idIndex.insert(rowRecord.getInt(0), rowRecord.getLocator());
+            }
+            bufferPool.insertPage(table, page);
+        }
+        return table;
+    }
+
+    private static Vector<Attribute> joinedAttributes(Table orders, Table customers) {
+        Vector<Attribute> attributes = new Vector<>(orders.getAttributeList());
+        for (Attribute attribute : customers.getAttributeList()) {
+            attributes.add(new Attribute(attribute.getType(), "Customers." + attribute.getName()));
+        }
+        return attributes;
+    }
+
+    private static Vector<RowRecord> drain(Operator operator) {
+        Vector<RowRecord> rows = new Vector<>();
+        operator.open();
+        for (RowRecord rowRecord = operator.next(); rowRecord != null; rowRecord = operator.next()) {
+            rows.add(rowRecord);
+        }
+        operator.close();
+        return rows;
+    }
+
+    /* Checks every order with a customer under a bound is joined once with its customer. */
+    private static void assertJoined(Vector<RowRecord> rows, int customerBound) {
+        boolean[] isJoined = new boolean[2000];
+        for (RowRecord rowRecord : rows) {
+            Assertions.assertEquals(rowRecord.getInt(1), rowRecord.getInt(2));
+            Assertions.assertEquals(rowRecord.getString(3), "Customer" + rowRecord.getInt(2));
+            Assertions.assertFalse(isJoined[rowRecord.getInt(0)]);
+            isJoined[rowRecord.getInt(0)] = true;
+        }
+        for (int id = 0; id < 2000; id++) {
+            Assertions.assertEquals(isJoined[id], id % 50 != 0 && id % 300 < customerBound);
+        }
+    }
+
+    private static HashJoin hashJoin(BufferPool bufferPool, Table orders, Table customers, String spillDirectory) {
+        return new HashJoin(new SeqScan(bufferPool, customers, null), customers.getAttributeList(), 0,
+                new SeqScan(bufferPool, orders, null), orders.getAttributeList(), 1,
+                false, joinedAttributes(orders, customers), spillDirectory);
+    }
+
+    @Test
+    void hashJoinsInMemory() {
+        BufferPool bufferPool = new BufferPool("lru", 1024);
+        Table orders = ordersTable(bufferPool);
+        Table customers = customersTable(bufferPool, new BPlusTree<>());
+
+        Vector<RowRecord> rows = drain(hashJoin(bufferPool, orders, customers, ""));
+        Assertions.assertEquals(rows.size(), 1666);
+        assertJoined(rows, 250);
+    }
+
+    @Test
+    void spillsPartitionsPastMemoryBudget() throws IOException {
+        BufferPool bufferPool = new BufferPool("lru", 1024);
+        Table orders = ordersTable(bufferPool);
+        Table customers = customersTable(bufferPool, new BPlusTree<>());
+        File spillDirectory = Files.createTempDirectory("JoinTests").toFile();
+
+        System.setProperty(HashJoin.MEMORY_PROPERTY, "2048");
+        try {
+            HashJoin join = hashJoin(bufferPool, orders, customers, spillDirectory.getPath());
+            join.open();
+            int spillFiles = spillDirectory.list().length;
+            Assertions.assertTrue(spillFiles > 0 && spillFiles <= 16);
+
+            Vector<RowRecord> rows = new Vector<>();
+            for (RowRecord rowRecord = join.next(); rowRecord != null; rowRecord = join.next()) {
+                rows.add(rowRecord);
+            }
+            Assertions.assertEquals(spillDirectory.list().length, 0);
+            join.close();
+            assertJoined(rows, 250);
+
+            /* Closing before every row is produced deletes the pending partitions. */
+            join.open();
+            join.next();
+            join.close();
+            Assertions.assertEquals(spillDirectory.list().length, 0);
+        } finally {
+            System.clearProperty(HashJoin.MEMORY_PROPERTY);
+            spillDirectory.delete();
+        }
+    }
+
+    @Test
+    void looksUpInnerIndex() {
+        BufferPool bufferPool = new BufferPool("lru", 1024);
+        BPlusTree<Integer, Long> idIndex = new BPlusTree<>();
+        Table orders = ordersTable(bufferPool);
+        Table customers = customersTable(bufferPool, idIndex);
+
+        Operator join = new IndexNestedLoopJoin(new SeqScan(bufferPool, orders, null), orders.getAttributeList(), 1,
+                bufferPool, customers, idIndex, 0, null, null, true, joinedAttributes(orders, customers));
+        assertJoined(drain(join), 250);
+
+        Predicate predicate = new Predicate("id", 100, Predicate.Operation.LESS_THAN);
+        predicate.setAttribute(customers.getAttributeList().get(0), 0);
+        join = new IndexNestedLoopJoin(new SeqScan(bufferPool, orders, null), orders.getAttributeList(), 1,
+                bufferPool, customers, idIndex, 0, predicate, null, true, joinedAttributes(orders, customers));
+        assertJoined(drain(join), 100);
+    }
+}
@@ -0,0 +1,120 @@
+import BPlusTree.BPlusTree;
+import BPlusTree.ValueList;
+import RheaDB.AttributeType;
+import RheaDB.StorageManagement.DiskManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Vector;
+
+public class PagedIndexTests {
+
+    @SuppressWarnings("unchecked")
+    private static BPlusTree<Integer, Long> open(String path, int cachedNodes) {
+        return (BPlusTree<Integer, Long>) DiskManager.openIndex(path, AttributeType.INT, "lru", cachedNodes);
+    }
+
+    /* Keys 0..n-1 shuffled, each with the locators key and key + n. */
+    private static BPlusTree<Integer, Long> memoryTree(int n) {
+        BPlusTree<Integer, Long> tree = new BPlusTree<>();
+        for (int i = 0; i < n; i++) {
+            int key = (int) ((i * 7919L) % n);
+            tree.insert(key, (long) key);
+            tree.insert(key, (long) key + n);
+        }
+        return tree;
+    }
+
+    @Test
+    void changesSurviveEvictionAndReopening() throws IOException {
+        File directory = Files.createTempDirectory("PagedIndexTests").toFile();
+        String path = directory.getPath() + File.separator + "id.idx";
+        try {
+            DiskManager.saveIndex(path, AttributeType.INT, memoryTree(20000));
+            Assertions.assertEquals(new File(path).length() % 8192, 0);
+
+            /* A cache of four nodes evicts on nearly every lookup and update. */
+            BPlusTree<Integer, Long> tree = open(path, 4);
+            for (int key = 0; key < 20000; key += 2) {
+                Assertions.assertTrue(tree.delete(key, (long) key));
+                Assertions.assertTrue(tree.delete(key, (long) key + 20000));
+            }
+            for (int key = 20000; key < 25000; key++) {
+                tree.insert(key, (long) key);
+            }
+            tree.flush();
+            tree.close();
+
+            tree = open(path, 4);
+            Assertions.assertNull(tree.find(0));
+            Assertions.assertEquals(tree.find(1), new Vector<>(List.of(1L, 20001L)));
+            Vector<ValueList<Integer, Long>> valueLists = tree.getAllValueLists();
+            Assertions.assertEquals(valueLists.size(), 15000);
+            for (int i = 0; i < valueLists.size(); i++) {
+                int key = i < 10000 ? 2 * i + 1 : 20000 + i - 10000;
+                Assertions.assertEquals(valueLists.get(i).getKey(), key);
+            }
+
+            Vector<ValueList<Integer, Long>> descending = tree.findInOrder(null, true, 3);
+            Assertions.assertEquals(descending.get(0).getKey(), 24999);
+
+            /* Emptying the index frees its pages for the nodes of fewer keys. */
+            long length = new File(path).length();
+            for (ValueList<Integer, Long> valueList : valueLists) {
+                Assertions.assertTrue(tree.delete(valueList.getKey()));
+            }
+            Assertions.assertTrue(tree.isEmpty());
+            for (int key = 0; key < 10000; key++) {
+                tree.insert(key, (long) key);
+            }
+            tree.flush();
+            tree.close();
+            Assertions.assertEquals(new File(path).length(), length);
+
+            tree = open(path, 4);
+            Assertions.assertEquals(tree.getAllValueLists().size(), 10000);
+            tree.close();
+        } finally {
+            new File(path).delete();
+            directory.delete();
+        }
+    }
+
+    @Test
+    void convertsUnpagedIndexFiles() throws IOException {
+        File directory = Files.createTempDirectory("PagedIndexTests").toFile();
+        String path = directory.getPath() + File.separator + "name.idx";
+        try {
+            /* Magic, version, STRING key type and two keys with their locators. */
+            try (DataOutputStream outputStream = new DataOutputStream(new FileOutputStream(path))) {
+                outputStream.writeInt(0x52484549);
+                outputStream.writeInt(1);
+                outputStream.writeByte(1);
+                outputStream.writeInt(2);
+                for (String key : new String[]{"a", "b"}) {
+                    outputStream.writeInt(1);
+                    outputStream.write(key.getBytes());
+                    outputStream.writeInt(2);
+                    outputStream.writeLong(key.charAt(0));
+                    outputStream.writeLong(-key.charAt(0));
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            BPlusTree<String, Long> tree = (BPlusTree<String, Long>) DiskManager.openIndex(path, AttributeType.STRING, "lru", 4);
+            Assertions.assertEquals(tree.find("b"), new Vector<>(List.of(98L, -98L)));
+            Assertions.assertEquals(tree.getAllValueLists().size(), 2);
+            tree.close();
+            Assertions.assertEquals(new File(path).length(), 2 * 8192L);
+        } finally {
+            new File(path).delete();
+            directory.delete();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+import Predicate.Predicate;
+import RheaDB.*;
+import RheaDB.QueryExecution.Filter;
+import RheaDB.QueryExecution.Operator;
+import RheaDB.QueryExecution.ParallelScan;
+import RheaDB.QueryExecution.SeqScan;
+import RheaDB.StorageManagement.BufferPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Vector;
+
+public class ParallelScanTests {
+
+    /* A table of 300 cached pages of 32 rows, whose id column holds 0..9599. */
+    private static Table cachedTable(BufferPool bufferPool) {
+        Vector<Attribute> attributes = new Vector<>();
+        attributes.add(new Attribute(AttributeType.INT, "id"));
+        Table table = new Table("ParallelTable", attributes, "", 32);
+        int id = 0;
+        for (int i = 0; i < 300; i++) {
+            Page page = table.getNewPage();
+            for (int j = 0; j < 32; j++) {
+                Vector<Object> values = new Vector<>();
+                values.add(id++);
+                RowRecord rowRecord = new RowRecord(attributes, values);
+                rowRecord.setPageId(page.getPageIdx());
+                rowRecord.setRowId(j);
+                page.addRecord(rowRecord);
+            }
+            bufferPool.insertPage(table, page);
+        }
+        return table;
+    }
+
+    private static Vector<RowRecord> drain(Operator operator) {
+        Vector<RowRecord> rows = new Vector<>();
+        operator.open();
+        for (RowRecord rowRecord = operator.next(); rowRecord != null; rowRecord = operator.next()) {
+            rows.add(rowRecord);
+        }
+        operator.close();
+        return rows;
+    }
+
+    @Test
+    void producesRowsInPageOrder() {
+        BufferPool bufferPool = new BufferPool("lru", 1024);
+        Table table = cachedTable(bufferPool);
+
+        Vector<RowRecord> rows = drain(new ParallelScan(bufferPool, table, null, null));
+        Assertions.assertEquals(rows.size(), 9600);
+        for (int i = 0; i < rows.size(); i++) {
+            Assertions.assertEquals(rows.get(i).getValueOf(table.getAttributeWithName("id")), i);
+        }
+    }
+
+    @Test
+    void filtersLikeSerialScan() {
+        BufferPool bufferPool = new BufferPool("lru", 1024);
+        Table table = cachedTable(bufferPool);
+        Predicate predicate = new Predicate("id", 7000, Predicate.Operation.GREATER_THAN_EQUAL);
+        predicate.setAttribute(table.getAttributeWithName("id"));
+
+        Vector<RowRecord> parallelRows = drain(new ParallelScan(bufferPool, table, null, predicate));
+        Vector<RowRecord> serialRows = drain(new Filter(new SeqScan(bufferPool, table), predicate));
+        Assertions.assertEquals(parallelRows.size(), 2600);
+        Assertions.assertEquals(parallelRows, serialRows);
+    }
+}
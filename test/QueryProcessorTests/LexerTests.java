@@ -113,4 +113,30 @@ public class LexerTests {
             Assertions.assertEquals(token.getKind(), kinds[i]);
         }
     }
+
+    @Test
+    public void lexParameters() {
+        Lexer lexer = new Lexer("? ?");
+        Vector<Token> tokenVector = removeWhiteSpaces(lexer.lex());
+
+        Assertions.assertEquals(tokenVector.size(), 2);
+        for (int i = 0; i < tokenVector.size(); i++) {
+            Token token = tokenVector.get(i);
+            Assertions.assertEquals(token.getKind(), TokenKind.ParameterToken);
+            Assertions.assertTrue(token.isLiteral());
+            Assertions.assertSame(token.getValue(), lexer.getParameters().get(i));
+            Assertions.assertEquals(lexer.getParameters().get(i).getIndex(), i + 1);
+        }
+    }
+
+    @Test
+    public void lexQualifiedIdentifiers() {
+        Vector<Token> tokenVector = removeWhiteSpaces(new Lexer("tableA.attr_b attrC on JOIN").lex());
+
+        Assertions.assertEquals(tokenVector.size(), 4);
+        Assertions.assertTrue(matchToken(tokenVector.get(0), TokenKind.IdentifierToken, "tableA.attr_b"));
+        Assertions.assertTrue(matchToken(tokenVector.get(1), TokenKind.IdentifierToken, "attrC"));
+        Assertions.assertTrue(matchToken(tokenVector.get(2), TokenKind.OnToken, "on"));
+        Assertions.assertTrue(matchToken(tokenVector.get(3), TokenKind.JoinToken, "join"));
+    }
 }
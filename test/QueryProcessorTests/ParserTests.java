@@ -7,15 +7,20 @@ import QueryParser.DDLStatements.CreateTableStatement;
 import QueryParser.DDLStatements.DDLStatement.*;
 import QueryParser.DMLStatements.*;
 import QueryParser.DMLStatements.DMLStatement.*;
+import QueryParser.InternalStatements.AnalyzeStatement;
 import QueryParser.InternalStatements.CompactStatement;
 import QueryParser.InternalStatements.DescribeStatement;
 import QueryParser.InternalStatements.InternalStatement.*;
+import QueryParser.TransactionStatements.*;
+import QueryParser.TransactionStatements.TransactionStatement.*;
 import RheaDB.Attribute;
 import RheaDB.AttributeType;
 import RheaDB.DBError;
+import RheaDB.StorageMode;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Vector;
 
 import static RheaDB.AttributeType.*;
@@ -78,6 +83,21 @@ public class ParserTests {
             Assertions.assertEquals(attributeVector.get(i).getName(), attributeNames[i]);
             Assertions.assertEquals(attributeVector.get(i).getType(), attributeTypes[i]);
         }
+        Assertions.assertEquals(createTableStatement.getStorageMode(), StorageMode.SEGMENT);
+    }
+
+    @Test
+    public void parseCreateTableUsingStorage() throws DBError {
+        var sqlStatement = new Parser("CREATE TABLE FancyTable (id INT, mass FLOAT) USING COLUMNAR;").parse();
+        Assertions.assertEquals(((CreateTableStatement) sqlStatement).getStorageMode(), StorageMode.COLUMNAR);
+
+        sqlStatement = new Parser("CREATE TABLE FancyTable (id INT, mass FLOAT) USING row;").parse();
+        Assertions.assertEquals(((CreateTableStatement) sqlStatement).getStorageMode(), StorageMode.SEGMENT);
+
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("CREATE TABLE FancyTable (id INT) USING HEAP;").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("CREATE TABLE FancyTable (id INT) USING;").parse());
     }
 
     @Test
@@ -135,6 +155,156 @@ public class ParserTests {
         Assertions.assertEquals(predicates.get(2).getValue(), "Hello World");
     }
 
+    @Test
+    public void parseSelectStatementWithLimit() throws DBError {
+        var sqlStatement = new Parser("SELECT * FROM tableName WHERE attrA > 1 LIMIT 10 OFFSET 5;").parse();
+        SelectStatement selectStatement = (SelectStatement) sqlStatement;
+        Assertions.assertEquals(selectStatement.getPredicates().size(), 1);
+        Assertions.assertTrue(selectStatement.hasLimit());
+        Assertions.assertEquals(selectStatement.getLimit(), 10);
+        Assertions.assertEquals(selectStatement.getOffset(), 5);
+
+        selectStatement = (SelectStatement) new Parser("SELECT * FROM tableName limit 0;").parse();
+        Assertions.assertEquals(selectStatement.getLimit(), 0);
+        Assertions.assertEquals(selectStatement.getOffset(), 0);
+
+        selectStatement = (SelectStatement) new Parser("SELECT * FROM tableName;").parse();
+        Assertions.assertFalse(selectStatement.hasLimit());
+
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT * FROM tableName LIMIT;").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT * FROM tableName LIMIT 10 OFFSET \"five\";").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT * FROM tableName OFFSET 5;").parse());
+    }
+
+    @Test
+    public void parseSelectStatementWithOrderBy() throws DBError {
+        var sqlStatement = new Parser("SELECT attrA FROM tableName WHERE attrA > 1 ORDER BY attrB DESC LIMIT 3;").parse();
+        SelectStatement selectStatement = (SelectStatement) sqlStatement;
+        Assertions.assertEquals(selectStatement.getOrderAttribute(), "attrB");
+        Assertions.assertTrue(selectStatement.isDescending());
+        Assertions.assertEquals(selectStatement.getLimit(), 3);
+
+        selectStatement = (SelectStatement) new Parser("SELECT * FROM tableName order by attrA asc;").parse();
+        Assertions.assertEquals(selectStatement.getOrderAttribute(), "attrA");
+        Assertions.assertFalse(selectStatement.isDescending());
+
+        selectStatement = (SelectStatement) new Parser("SELECT * FROM tableName ORDER BY attrA;").parse();
+        Assertions.assertFalse(selectStatement.isDescending());
+
+        selectStatement = (SelectStatement) new Parser("SELECT * FROM tableName;").parse();
+        Assertions.assertNull(selectStatement.getOrderAttribute());
+
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT * FROM tableName ORDER attrA;").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT * FROM tableName ORDER BY;").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT * FROM tableName LIMIT 3 ORDER BY attrA;").parse());
+    }
+
+    @Test
+    public void parseSelectStatementWithAggregates() throws DBError {
+        var sqlStatement = new Parser("SELECT COUNT(*), sum(attrA), MAX(attrB) FROM tableName WHERE attrA > 1;").parse();
+        SelectStatement selectStatement = (SelectStatement) sqlStatement;
+        Assertions.assertTrue(selectStatement.hasAggregates());
+        Assertions.assertEquals(selectStatement.getSelectedAttributes(),
+                new Vector<>(List.of("COUNT(*)", "SUM(attrA)", "MAX(attrB)")));
+        Assertions.assertNull(selectStatement.getAggregate(0).getAttributeName());
+        Assertions.assertEquals(selectStatement.getAggregate(1).getFunction(), Aggregate.Function.SUM);
+        Assertions.assertEquals(selectStatement.getAggregate(2).getAttributeName(), "attrB");
+
+        selectStatement = (SelectStatement) new Parser("SELECT attrA, AVG(attrB) FROM tableName;").parse();
+        Assertions.assertNull(selectStatement.getAggregate(0));
+        Assertions.assertEquals(selectStatement.getAggregate(1).getFunction(), Aggregate.Function.AVG);
+
+        selectStatement = (SelectStatement) new Parser("SELECT attrA FROM tableName;").parse();
+        Assertions.assertFalse(selectStatement.hasAggregates());
+
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT MEDIAN(attrA) FROM tableName;").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT SUM(*) FROM tableName;").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT COUNT(attrA FROM tableName;").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT COUNT() FROM tableName;").parse());
+    }
+
+    @Test
+    public void parseSelectStatementWithGroupBy() throws DBError {
+        var sqlStatement = new Parser("SELECT attrA, attrB, COUNT(*) FROM tableName WHERE attrC > 1 " +
+                "GROUP BY attrA, attrB ORDER BY attrA DESC LIMIT 3;").parse();
+        SelectStatement selectStatement = (SelectStatement) sqlStatement;
+        Assertions.assertEquals(selectStatement.getGroupAttributes(), new Vector<>(List.of("attrA", "attrB")));
+        Assertions.assertEquals(selectStatement.getPredicates().size(), 1);
+        Assertions.assertEquals(selectStatement.getOrderAttribute(), "attrA");
+        Assertions.assertEquals(selectStatement.getLimit(), 3);
+
+        selectStatement = (SelectStatement) new Parser("SELECT attrA FROM tableName;").parse();
+        Assertions.assertTrue(selectStatement.getGroupAttributes().isEmpty());
+
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT COUNT(*) FROM tableName GROUP attrA;").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT COUNT(*) FROM tableName GROUP BY;").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT COUNT(*) FROM tableName GROUP BY attrA,;").parse());
+    }
+
+    @Test
+    public void parseSelectStatementWithJoin() throws DBError {
+        var sqlStatement = new Parser("SELECT tableA.attrA, attrB FROM tableA JOIN tableB " +
+                "ON tableA.attrA = tableB.attrC WHERE tableB.attrB > 1 ORDER BY attrB;").parse();
+        SelectStatement selectStatement = (SelectStatement) sqlStatement;
+        Assertions.assertEquals(selectStatement.getTableName(), "tableA");
+        Assertions.assertEquals(selectStatement.getJoin().getTableName(), "tableB");
+        Assertions.assertEquals(selectStatement.getJoin().getLhsAttributeName(), "tableA.attrA");
+        Assertions.assertEquals(selectStatement.getJoin().getRhsAttributeName(), "tableB.attrC");
+        Assertions.assertEquals(selectStatement.getSelectedAttributes(), new Vector<>(List.of("tableA.attrA", "attrB")));
+        Assertions.assertEquals(selectStatement.getPredicates().get(0).getAttributeName(), "tableB.attrB");
+
+        selectStatement = (SelectStatement) new Parser("SELECT * FROM tableA;").parse();
+        Assertions.assertNull(selectStatement.getJoin());
+
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT * FROM tableA JOIN tableB;").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT * FROM tableA JOIN tableB ON attrA > attrB;").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT * FROM tableA JOIN ON attrA = attrB;").parse());
+    }
+
+    @Test
+    public void parseSelectWithBooleanWhereClause() throws DBError {
+        String sqlString = "SELECT * FROM tableName WHERE attrA > 1 AND (attrB = 2 || 3 > attrC);";
+        var sqlStatement = new Parser(sqlString).parse();
+
+        Assertions.assertTrue(sqlStatement instanceof SelectStatement);
+        SelectStatement selectStatement = (SelectStatement) sqlStatement;
+
+        Assertions.assertTrue(selectStatement.getCondition() instanceof LogicalCondition);
+        LogicalCondition condition = (LogicalCondition) selectStatement.getCondition();
+        Assertions.assertEquals(condition.getOperator(), LogicalCondition.Operator.AND);
+        Assertions.assertEquals(((LogicalCondition) condition.getRhs()).getOperator(),
+                LogicalCondition.Operator.OR);
+
+        Vector<Predicate> predicates = selectStatement.getPredicates();
+        Assertions.assertEquals(predicates.size(), 3);
+        Assertions.assertEquals(predicates.get(2).getAttributeName(), "attrC");
+        Assertions.assertEquals(predicates.get(2).getOperation(), Predicate.Operation.LESS_THAN);
+    }
+
+    @Test
+    public void parseInvalidBooleanWhereClause() {
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT * FROM tableName WHERE (attrA > 1 AND attrB = 2;").parse());
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("SELECT * FROM tableName WHERE attrA > 1 OR 2;").parse());
+    }
+
     @Test
     public void parseSelectWithStarAttribute() throws DBError {
         String sqlString = "SELECT * FROM tableName;";
@@ -212,6 +382,18 @@ public class ParserTests {
         Assertions.assertEquals(compactStatement.getInternalStatementKind(), InternalStatementKind.COMPACT);
     }
 
+    @Test
+    public void parseAnalyze() throws DBError {
+        String sqlString = "ANALYZE TableName;";
+        var sqlStatement = new Parser(sqlString).parse();
+
+        Assertions.assertTrue(sqlStatement instanceof AnalyzeStatement);
+        AnalyzeStatement analyzeStatement = (AnalyzeStatement) sqlStatement;
+
+        Assertions.assertEquals(analyzeStatement.getTableName(), "TableName");
+        Assertions.assertEquals(analyzeStatement.getInternalStatementKind(), InternalStatementKind.ANALYZE);
+    }
+
     @Test
     void parseDropIndex() throws DBError {
         String sqlString = "DROP INDEX FancyTable attributeName;";
@@ -293,6 +475,24 @@ public class ParserTests {
         Assertions.assertEquals(insertStatement.getValues().get(2), "Hello");
     }
 
+    @Test
+    void parseMultiRowInsert() throws DBError {
+        String sqlString = "INSERT INTO TableName VALUES (1, \"a\"), (2, \"b\"), (3, \"c\");";
+        var sqlStatement = new Parser(sqlString).parse();
+
+        Assertions.assertTrue(sqlStatement instanceof InsertStatement);
+        InsertStatement insertStatement = (InsertStatement) sqlStatement;
+
+        Assertions.assertEquals(insertStatement.getRows().size(), 3);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(insertStatement.getRows().get(i).get(0), i + 1);
+        }
+        Assertions.assertEquals(insertStatement.getRows().get(2).get(1), "c");
+
+        Assertions.assertThrows(DBError.class, () ->
+                new Parser("INSERT INTO TableName VALUES (1, \"a\"),;").parse());
+    }
+
     @Test
     void parseUpdateAllRows() throws DBError {
         String sqlString = "UPDATE FancyTable SET intAttribute = 1, stringAttribute = "
@@ -301,4 +501,30 @@ public class ParserTests {
         var updateStatement = testInitialPartOfUpdate(sqlString);
         Assertions.assertTrue(updateStatement.getWherePredicates().isEmpty());
     }
+
+    @Test
+    void parseTransactionStatements() throws DBError {
+        Assertions.assertTrue(new Parser("BEGIN;").parse() instanceof BeginStatement);
+        Assertions.assertTrue(new Parser("BEGIN TRANSACTION;").parse() instanceof BeginStatement);
+        Assertions.assertTrue(new Parser("COMMIT;").parse() instanceof CommitStatement);
+
+        var rollbackStatement = (RollbackStatement) new Parser("ROLLBACK;").parse();
+        Assertions.assertNull(rollbackStatement.getSavepointName());
+
+        var savepointStatement = (SavepointStatement) new Parser("SAVEPOINT beforeUpdate;").parse();
+        Assertions.assertEquals(savepointStatement.getTransactionStatementKind(),
+                TransactionStatementKind.SAVEPOINT);
+        Assertions.assertEquals(savepointStatement.getSavepointName(), "beforeUpdate");
+
+        rollbackStatement = (RollbackStatement) new Parser("ROLLBACK TO SAVEPOINT beforeUpdate;").parse();
+        Assertions.assertEquals(rollbackStatement.getSavepointName(), "beforeUpdate");
+        rollbackStatement = (RollbackStatement) new Parser("ROLLBACK TRANSACTION TO beforeUpdate;").parse();
+        Assertions.assertEquals(rollbackStatement.getSavepointName(), "beforeUpdate");
+
+        var releaseStatement = (ReleaseSavepointStatement) new Parser("RELEASE SAVEPOINT beforeUpdate;").parse();
+        Assertions.assertEquals(releaseStatement.getSavepointName(), "beforeUpdate");
+
+        Assertions.assertThrows(DBError.class, () -> new Parser("SAVEPOINT;").parse());
+        Assertions.assertThrows(DBError.class, () -> new Parser("ROLLBACK TO;").parse());
+    }
 }
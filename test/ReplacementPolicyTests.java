@@ -0,0 +1,91 @@
+import RheaDB.StorageManagement.ClockReplacementPolicy;
+import RheaDB.StorageManagement.LRUReplacementPolicy;
+import RheaDB.StorageManagement.ReplacementPolicy;
+import RheaDB.StorageManagement.TwoQueueReplacementPolicy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class ReplacementPolicyTests {
+
+    /* Simulates a pool of the given capacity and returns the keys left cached. */
+    private static Set<Integer> simulate(ReplacementPolicy<Integer> policy, int capacity, int[] accesses) {
+        Set<Integer> cached = new HashSet<>();
+        for (int key : accesses) {
+            if (cached.contains(key)) {
+                policy.recordAccess(key);
+                continue;
+            }
+
+            if (cached.size() == capacity) {
+                cached.remove(policy.evict());
+            }
+            cached.add(key);
+            policy.recordInsertion(key);
+        }
+        return cached;
+    }
+
+    @Test
+    void lruEvictsLeastRecentlyUsed() {
+        ReplacementPolicy<Integer> policy = new LRUReplacementPolicy<>();
+        Set<Integer> cached = simulate(policy, 3, new int[]{1, 2, 3, 1, 4});
+        Assertions.assertEquals(Set.of(1, 3, 4), cached);
+    }
+
+    @Test
+    void clockGivesReferencedKeysSecondChance() {
+        ReplacementPolicy<Integer> policy = new ClockReplacementPolicy<>();
+        for (int i = 1; i <= 3; i++) {
+            policy.recordInsertion(i);
+        }
+
+        /* Every bit is set, so the first sweep clears them all and evicts 1. */
+        Assertions.assertEquals(1, policy.evict());
+        policy.recordAccess(2);
+        Assertions.assertEquals(3, policy.evict());
+        Assertions.assertEquals(2, policy.evict());
+        Assertions.assertNull(policy.evict());
+    }
+
+    @Test
+    void removedKeysAreNeverEvicted() {
+        for (String name : new String[]{"lru", "clock", "2q"}) {
+            ReplacementPolicy<Integer> policy = ReplacementPolicy.create(name, 4);
+            policy.recordInsertion(1);
+            policy.recordInsertion(2);
+            policy.remove(1);
+            Assertions.assertEquals(2, policy.evict());
+            Assertions.assertNull(policy.evict());
+        }
+    }
+
+    @Test
+    void twoQueueSurvivesSequentialScan() {
+        int capacity = 8;
+        ReplacementPolicy<Integer> policy = new TwoQueueReplacementPolicy<>(capacity);
+
+        /* Pages 1 and 2 are re-referenced after leaving the FIFO queue, which promotes them. */
+        int[] warmUp = {1, 2, 100, 101, 102, 103, 104, 105, 106, 107, 1, 2};
+        Set<Integer> cached = simulate(policy, capacity, warmUp);
+
+        int[] scan = new int[1000];
+        for (int i = 0; i < scan.length; i++) {
+            scan[i] = 1000 + i;
+        }
+        for (int key : scan) {
+            if (!cached.contains(key)) {
+                if (cached.size() == capacity) {
+                    cached.remove(policy.evict());
+                }
+                cached.add(key);
+                policy.recordInsertion(key);
+            }
+        }
+
+        Assertions.assertTrue(cached.contains(1));
+        Assertions.assertTrue(cached.contains(2));
+    }
+}
@@ -0,0 +1,74 @@
+import RheaDB.Attribute;
+import RheaDB.AttributeType;
+import RheaDB.RowRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.Vector;
+
+public class RowRecordTests {
+
+    private static Vector<Attribute> attributes() {
+        Vector<Attribute> attributes = new Vector<>();
+        attributes.add(new Attribute(AttributeType.INT, "id"));
+        attributes.add(new Attribute(AttributeType.STRING, "name"));
+        attributes.add(new Attribute(AttributeType.FLOAT, "mass"));
+        return attributes;
+    }
+
+    private static RowRecord row(Object... values) {
+        Vector<Object> attributeValues = new Vector<>();
+        for (Object value : values) {
+            attributeValues.add(value);
+        }
+        return new RowRecord(attributes(), attributeValues);
+    }
+
+    @Test
+    void readsValuesByOrdinal() {
+        RowRecord rowRecord = row(7, "Seven", 7.5f);
+        Assertions.assertEquals(rowRecord.getInt(0), 7);
+        Assertions.assertEquals(rowRecord.getString(1), "Seven");
+        Assertions.assertEquals(rowRecord.getFloat(2), 7.5f);
+        Assertions.assertEquals(rowRecord.getValue(2), 7.5f);
+        Assertions.assertEquals(rowRecord.getAttributeValues(), row(7, "Seven", 7.5f).getAttributeValues());
+
+        rowRecord.setAttributeValue(0, 8);
+        Assertions.assertEquals(rowRecord.getValueOf(rowRecord.getAttributes().get(0)), 8);
+    }
+
+    @Test
+    void keepsNullsApartFromZeroes() {
+        RowRecord rowRecord = row(null, null, 0.0f);
+        Assertions.assertTrue(rowRecord.isNull(0));
+        Assertions.assertTrue(rowRecord.isNull(1));
+        Assertions.assertFalse(rowRecord.isNull(2));
+        Assertions.assertNull(rowRecord.getValue(0));
+        Assertions.assertNotEquals(rowRecord, row(0, null, 0.0f));
+
+        RowRecord copy = rowRecord.copyValues();
+        copy.setInt(0, 1);
+        Assertions.assertFalse(copy.isNull(0));
+        Assertions.assertTrue(rowRecord.isNull(0));
+    }
+
+    @Test
+    void serializesWithBoxedValues() throws IOException, ClassNotFoundException {
+        RowRecord rowRecord = row(3, null, 1.25f);
+        rowRecord.setPageId(2);
+        rowRecord.setRowId(5);
+        rowRecord.setCreatedBy(11);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(rowRecord);
+        }
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            RowRecord readRecord = (RowRecord) inputStream.readObject();
+            Assertions.assertEquals(readRecord, rowRecord);
+            Assertions.assertEquals(readRecord.getCreatedBy(), 11);
+            Assertions.assertTrue(readRecord.isNull(1));
+        }
+    }
+}
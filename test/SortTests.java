@@ -0,0 +1,148 @@
+import RheaDB.*;
+import RheaDB.QueryExecution.Operator;
+import RheaDB.QueryExecution.SeqScan;
+import RheaDB.QueryExecution.Sort;
+import RheaDB.StorageManagement.BufferPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Vector;
+
+public class SortTests {
+
+    /* A table of 100 cached pages of 30 rows: id holds 0..2999 shuffled, seq
+     * the position of each row, and name is null on every tenth row. */
+    private static Table cachedTable(BufferPool bufferPool) {
+        Vector<Attribute> attributes = new Vector<>();
+        attributes.add(new Attribute(AttributeType.INT, "id"));
+        attributes.add(new Attribute(AttributeType.INT, "seq"));
+        attributes.add(new Attribute(AttributeType.STRING, "name"));
+        Table table = new Table("SortTable", attributes, "", 30);
+        int seq = 0;
+        for (int i = 0; i < 100; i++) {
+            Page page = table.getNewPage();
+            for (int j = 0; j < 30; j++) {
+                RowRecord rowRecord = new RowRecord(attributes);
+                rowRecord.setInt(0, seq * 1009 % 3000);
+                rowRecord.setInt(1, seq);
+                rowRecord.setString(2, seq % 10 == 0 ? null : "Name" + seq % 7);
+                rowRecord.setPageId(page.getPageIdx());
+                rowRecord.setRowId(j);
+                page.addRecord(rowRecord);
+                seq++;
+            }
+            bufferPool.insertPage(table, page);
+        }
+        return table;
+    }
+
+    private static Vector<RowRecord> drain(Operator operator) {
+        Vector<RowRecord> rows = new Vector<>();
+        operator.open();
+        for (RowRecord rowRecord = operator.next(); rowRecord != null; rowRecord = operator.next()) {
+            rows.add(rowRecord);
+        }
+        operator.close();
+        return rows;
+    }
+
+    private static Sort sort(BufferPool bufferPool, Table table, String attributeName, boolean isDescending,
+                             long rowsWanted, String spillDirectory) {
+        Attribute attribute = table.getAttributeWithName(attributeName);
+        return new Sort(new SeqScan(bufferPool, table, null), table.getAttributeList(),
+                table.getAttributeList().indexOf(attribute), isDescending, rowsWanted, spillDirectory);
+    }
+
+    /* Checks the rows are ordered by name, nulls last, and by seq among equal names. */
+    private static void assertOrderedByName(Vector<RowRecord> rows) {
+        for (int i = 1; i < rows.size(); i++) {
+            RowRecord previous = rows.get(i - 1);
+            RowRecord current = rows.get(i);
+            if (previous.isNull(2)) {
+                Assertions.assertTrue(current.isNull(2));
+            } else if (!current.isNull(2)) {
+                Assertions.assertTrue(previous.getString(2).compareTo(current.getString(2)) <= 0);
+            }
+            if (previous.isNull(2) == current.isNull(2) &&
+                    (previous.isNull(2) || previous.getString(2).equals(current.getString(2)))) {
+                Assertions.assertTrue(previous.getInt(1) < current.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    void sortsInMemory() {
+        BufferPool bufferPool = new BufferPool("lru", 1024);
+        Table table = cachedTable(bufferPool);
+
+        Vector<RowRecord> rows = drain(sort(bufferPool, table, "id", false, Long.MAX_VALUE, ""));
+        Assertions.assertEquals(rows.size(), 3000);
+        for (int i = 0; i < rows.size(); i++) {
+            Assertions.assertEquals(rows.get(i).getInt(0), i);
+        }
+
+        rows = drain(sort(bufferPool, table, "id", true, Long.MAX_VALUE, ""));
+        Assertions.assertEquals(rows.get(0).getInt(0), 2999);
+        Assertions.assertEquals(rows.get(2999).getInt(0), 0);
+
+        rows = drain(sort(bufferPool, table, "name", false, Long.MAX_VALUE, ""));
+        Assertions.assertEquals(rows.size(), 3000);
+        assertOrderedByName(rows);
+        Assertions.assertTrue(rows.get(2999).isNull(2));
+
+        rows = drain(sort(bufferPool, table, "name", true, Long.MAX_VALUE, ""));
+        Assertions.assertTrue(rows.get(0).isNull(2));
+        Assertions.assertFalse(rows.get(300).isNull(2));
+    }
+
+    @Test
+    void keepsTopRowsInHeap() {
+        BufferPool bufferPool = new BufferPool("lru", 1024);
+        Table table = cachedTable(bufferPool);
+
+        Vector<RowRecord> rows = drain(sort(bufferPool, table, "id", true, 5, ""));
+        Assertions.assertEquals(rows.size(), 5);
+        for (int i = 0; i < rows.size(); i++) {
+            Assertions.assertEquals(rows.get(i).getInt(0), 2999 - i);
+        }
+
+        Vector<RowRecord> allRows = drain(sort(bufferPool, table, "name", false, Long.MAX_VALUE, ""));
+        rows = drain(sort(bufferPool, table, "name", false, 1000, ""));
+        Assertions.assertEquals(rows, new Vector<>(allRows.subList(0, 1000)));
+    }
+
+    @Test
+    void mergesSpilledRuns() throws IOException {
+        BufferPool bufferPool = new BufferPool("lru", 1024);
+        Table table = cachedTable(bufferPool);
+        File spillDirectory = Files.createTempDirectory("SortTests").toFile();
+
+        System.setProperty(Sort.RUN_ROWS_PROPERTY, "128");
+        try {
+            Sort sort = sort(bufferPool, table, "name", false, Long.MAX_VALUE, spillDirectory.getPath());
+            sort.open();
+            Assertions.assertEquals(spillDirectory.list().length, 24);
+
+            Vector<RowRecord> rows = new Vector<>();
+            for (RowRecord rowRecord = sort.next(); rowRecord != null; rowRecord = sort.next()) {
+                rows.add(rowRecord);
+            }
+            sort.close();
+            Assertions.assertEquals(spillDirectory.list().length, 0);
+            Assertions.assertEquals(rows.size(), 3000);
+            assertOrderedByName(rows);
+
+            rows = drain(sort(bufferPool, table, "id", true, 4000, spillDirectory.getPath()));
+            Assertions.assertEquals(rows.size(), 3000);
+            for (int i = 0; i < rows.size(); i++) {
+                Assertions.assertEquals(rows.get(i).getInt(0), 2999 - i);
+            }
+        } finally {
+            System.clearProperty(Sort.RUN_ROWS_PROPERTY);
+            spillDirectory.delete();
+        }
+    }
+}
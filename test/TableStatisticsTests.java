@@ -0,0 +1,92 @@
+import Predicate.Predicate;
+import RheaDB.*;
+import RheaDB.QueryExecution.CostModel;
+import RheaDB.QueryExecution.Operator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Vector;
+
+public class TableStatisticsTests {
+
+    /* A table of 3200 rows whose id column holds 0..3199 and whose group column holds id % 10. */
+    private static Table analyzedTable() {
+        Vector<Attribute> attributes = new Vector<>();
+        attributes.add(new Attribute(AttributeType.INT, "id"));
+        attributes.add(new Attribute(AttributeType.INT, "grp"));
+        Table table = new Table("StatisticsTable", attributes, "", 32);
+        for (int i = 0; i < 100; i++) {
+            table.getNewPage();
+        }
+
+        Operator rows = new Operator() {
+            private int next;
+
+            @Override
+            public void open() {
+                next = 0;
+            }
+
+            @Override
+            public RowRecord next() {
+                if (next == 3200) {
+                    return null;
+                }
+                Vector<Object> values = new Vector<>();
+                values.add(next);
+                values.add(next % 10);
+                next++;
+                return new RowRecord(attributes, values);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        table.setStatistics(TableStatistics.collect(table, rows));
+        return table;
+    }
+
+    private static Predicate predicate(Table table, String attributeName, Object value, Predicate.Operation operation) {
+        Predicate predicate = new Predicate(attributeName, value, operation);
+        predicate.setAttribute(table.getAttributeWithName(attributeName));
+        return predicate;
+    }
+
+    @Test
+    void collectsCountsAndBounds() {
+        Table table = analyzedTable();
+        TableStatistics statistics = table.getStatistics();
+        Assertions.assertEquals(3200, statistics.getRowCount());
+
+        TableStatistics.ColumnStatistics id = statistics.getColumnStatistics(table.getAttributeWithName("id"));
+        Assertions.assertEquals(3200, id.getDistinctCount());
+        Assertions.assertEquals(0, id.getMin());
+        Assertions.assertEquals(3199, id.getMax());
+
+        TableStatistics.ColumnStatistics grp = statistics.getColumnStatistics(table.getAttributeWithName("grp"));
+        Assertions.assertEquals(10, grp.getDistinctCount());
+    }
+
+    @Test
+    void estimatesSelectivityFromHistogram() {
+        Table table = analyzedTable();
+        Assertions.assertEquals(0.25, TableStatistics.estimateSelectivity(table,
+                predicate(table, "id", 800, Predicate.Operation.LESS_THAN)), 0.02);
+        Assertions.assertEquals(0.1, TableStatistics.estimateSelectivity(table,
+                predicate(table, "grp", 3, Predicate.Operation.EQUALS)), 0.001);
+        Assertions.assertEquals(0, TableStatistics.estimateSelectivity(table,
+                predicate(table, "id", 5000, Predicate.Operation.EQUALS)));
+    }
+
+    @Test
+    void prefersIndexOnlyForSelectivePredicates() {
+        Table table = analyzedTable();
+        double sequentialScanCost = CostModel.sequentialScanCost(table, 1);
+        Assertions.assertTrue(CostModel.indexScanCost(table,
+                predicate(table, "id", 42, Predicate.Operation.EQUALS)) < sequentialScanCost);
+        Assertions.assertFalse(CostModel.indexScanCost(table,
+                predicate(table, "id", 42, Predicate.Operation.NOT_EQUALS)) < sequentialScanCost);
+    }
+}
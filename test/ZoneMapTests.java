@@ -0,0 +1,142 @@
+import Predicate.LogicalCondition;
+import Predicate.Predicate;
+import RheaDB.*;
+import RheaDB.QueryExecution.Filter;
+import RheaDB.QueryExecution.Operator;
+import RheaDB.QueryExecution.ParallelScan;
+import RheaDB.QueryExecution.SeqScan;
+import RheaDB.StorageManagement.BufferPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.Vector;
+
+public class ZoneMapTests {
+
+    /* Records the pages scans ask for. */
+    private static class CountingBufferPool extends BufferPool {
+        final Set<Integer> fetchedPages = new TreeSet<>();
+
+        CountingBufferPool() {
+            super("lru", 1024);
+        }
+
+        @Override
+        public synchronized Page getPage(Table table, int pageIdx, boolean[] columns) {
+            fetchedPages.add(pageIdx);
+            return super.getPage(table, pageIdx, columns);
+        }
+    }
+
+    /* A table of 300 cached pages of 32 rows, whose id column holds 0..9599
+     * and whose name column is null on the first 10 pages. */
+    private static Table cachedTable(BufferPool bufferPool) {
+        Vector<Attribute> attributes = new Vector<>();
+        attributes.add(new Attribute(AttributeType.INT, "id"));
+        attributes.add(new Attribute(AttributeType.STRING, "name"));
+        Table table = new Table("ZoneTable", attributes, "", 32);
+        int id = 0;
+        for (int i = 0; i < 300; i++) {
+            Page page = table.getNewPage();
+            for (int j = 0; j < 32; j++) {
+                RowRecord rowRecord = new RowRecord(attributes);
+                rowRecord.setInt(0, id++);
+                rowRecord.setString(1, i < 10 ? null : "Page" + i % 3);
+                rowRecord.setPageId(page.getPageIdx());
+                rowRecord.setRowId(j);
+                page.addRecord(rowRecord);
+                table.getZoneMap().include(table, rowRecord);
+            }
+            bufferPool.insertPage(table, page);
+        }
+        return table;
+    }
+
+    private static Predicate predicate(Table table, String attributeName, Object value,
+                                       Predicate.Operation operation) {
+        Predicate predicate = new Predicate(attributeName, value, operation);
+        Attribute attribute = table.getAttributeWithName(attributeName);
+        predicate.setAttribute(attribute, table.getAttributeList().indexOf(attribute));
+        return predicate;
+    }
+
+    private static int count(Operator operator) {
+        int rows = 0;
+        operator.open();
+        while (operator.next() != null) {
+            rows++;
+        }
+        operator.close();
+        return rows;
+    }
+
+    @Test
+    void summarizesPages() {
+        Table table = cachedTable(new BufferPool("lru", 1024));
+        ZoneMap.PageZone zone = table.getZoneMap().getZone(2);
+        Assertions.assertEquals(zone.getRowCount(), 32);
+        Assertions.assertEquals(zone.getMin(0), 32);
+        Assertions.assertEquals(zone.getMax(0), 63);
+        Assertions.assertNull(zone.getMin(1));
+        Assertions.assertEquals(zone.getNullCount(1), 32);
+        Assertions.assertEquals(table.getZoneMap().getZone(12).getMax(1), "Page2");
+        Assertions.assertNull(table.getZoneMap().getZone(301));
+    }
+
+    @Test
+    void scansSkipPagesRuledOut() {
+        CountingBufferPool bufferPool = new CountingBufferPool();
+        Table table = cachedTable(bufferPool);
+        Predicate predicate = predicate(table, "id", 9000, Predicate.Operation.GREATER_THAN_EQUAL);
+
+        Operator plannedScan = ParallelScan.create(bufferPool, table, null, predicate);
+        Assertions.assertEquals(count(new Filter(new SeqScan(bufferPool, table, null, null, predicate), predicate)),
+                600);
+        Assertions.assertEquals(bufferPool.fetchedPages.size(), 19);
+        Assertions.assertEquals(((TreeSet<Integer>) bufferPool.fetchedPages).first(), 282);
+
+        bufferPool.fetchedPages.clear();
+        Assertions.assertEquals(count(new ParallelScan(bufferPool, table, null, predicate)), 600);
+        Assertions.assertEquals(bufferPool.fetchedPages.size(), 19);
+
+        bufferPool.fetchedPages.clear();
+        Assertions.assertEquals(count(plannedScan), 600);
+        Assertions.assertEquals(bufferPool.fetchedPages.size(), 19);
+    }
+
+    @Test
+    void combinesConditions() {
+        CountingBufferPool bufferPool = new CountingBufferPool();
+        Table table = cachedTable(bufferPool);
+        LogicalCondition either = new LogicalCondition(LogicalCondition.Operator.OR,
+                predicate(table, "id", 40, Predicate.Operation.LESS_THAN),
+                predicate(table, "id", 9599, Predicate.Operation.EQUALS));
+        Assertions.assertEquals(count(new ParallelScan(bufferPool, table, null, either)), 41);
+        Assertions.assertEquals(bufferPool.fetchedPages, Set.of(1, 2, 300));
+
+        bufferPool.fetchedPages.clear();
+        LogicalCondition both = new LogicalCondition(LogicalCondition.Operator.AND,
+                predicate(table, "id", 640, Predicate.Operation.LESS_THAN_EQUAL),
+                predicate(table, "name", "Page1", Predicate.Operation.NOT_EQUALS));
+        Assertions.assertEquals(count(new ParallelScan(bufferPool, table, null, both)), 193);
+        Assertions.assertEquals(bufferPool.fetchedPages, Set.of(12, 13, 15, 16, 18, 19, 21));
+    }
+
+    @Test
+    void unknownPagesAreAlwaysRead() {
+        Table table = cachedTable(new BufferPool("lru", 1024));
+        Predicate predicate = predicate(table, "id", -1, Predicate.Operation.EQUALS);
+        Assertions.assertFalse(table.getZoneMap().mayMatch(5, predicate));
+
+        ZoneMap zoneMap = new ZoneMap(300);
+        Assertions.assertTrue(zoneMap.mayMatch(5, predicate));
+        Assertions.assertTrue(zoneMap.mayMatch(301, predicate));
+
+        RowRecord rowRecord = new RowRecord(table.getAttributeList());
+        rowRecord.setPageId(5);
+        zoneMap.include(table, rowRecord);
+        Assertions.assertNull(zoneMap.getZone(5));
+    }
+}